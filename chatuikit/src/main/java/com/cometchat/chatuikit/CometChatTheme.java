@@ -36,10 +36,14 @@ public class CometChatTheme {
     public static @ColorInt int getExtendedPrimaryColor(Context context, @AttrRes int attr, double dayPercentage, double nightPercentage) {
         @ColorInt int color = getColorFromAttr(context, attr);
         if (color == 0) {
+            ThemeAttributeCache.Table table = context != null ? ThemeAttributeCache.get(context) : null;
+            Integer cachedColor = table != null ? table.getBlendedColor(attr, dayPercentage, nightPercentage) : null;
+            if (cachedColor != null) return cachedColor;
             int currentNightMode = context.getResources().getConfiguration().uiMode & Configuration.UI_MODE_NIGHT_MASK;
             int blendingColor = (currentNightMode == Configuration.UI_MODE_NIGHT_NO) ? Color.WHITE : Color.BLACK;
             double percentage = (currentNightMode == Configuration.UI_MODE_NIGHT_NO) ? dayPercentage : nightPercentage;
-            return getBlendedColor(getPrimaryColor(context), blendingColor, percentage);
+            color = getBlendedColor(getPrimaryColor(context), blendingColor, percentage);
+            if (table != null) table.putBlendedColor(attr, dayPercentage, nightPercentage, color);
         }
         return color;
     }
@@ -143,10 +147,17 @@ public class CometChatTheme {
      * @return The tenth extended primary color, or a blended color if not defined.
      */
     public static @ColorInt int getExtendedPrimaryColor900(Context context) {
+        // the complement keeps this blend apart from the attribute's own entry
+        int key = ~R.attr.cometchatExtendedPrimaryColor900;
+        ThemeAttributeCache.Table table = ThemeAttributeCache.get(context);
+        Integer cachedColor = table != null ? table.getBlendedColor(key, 0.11, 0.08) : null;
+        if (cachedColor != null) return cachedColor;
         int currentNightMode = context.getResources().getConfiguration().uiMode & Configuration.UI_MODE_NIGHT_MASK;
         int blendingColor = (currentNightMode == Configuration.UI_MODE_NIGHT_NO) ? Color.BLACK : Color.WHITE;
         double percentage = (currentNightMode == Configuration.UI_MODE_NIGHT_NO) ? 0.11 : 0.08;
-        return getBlendedColor(getPrimaryColor(context), blendingColor, percentage);
+        int color = getBlendedColor(getPrimaryColor(context), blendingColor, percentage);
+        if (table != null) table.putBlendedColor(key, 0.11, 0.08, color);
+        return color;
     }
 
     /**
@@ -949,11 +960,15 @@ public class CometChatTheme {
      */
     private static @ColorInt int getColorFromAttr(Context context, @AttrRes int attr) {
         if (context == null) return 0;
+        ThemeAttributeCache.Table table = ThemeAttributeCache.get(context);
+        if (table != null && table.hasColor(attr)) return table.getColor(attr);
+        int color = 0;
         try (TypedArray typedArray = context.obtainStyledAttributes(new int[]{attr})) {
-            return typedArray.getColor(0, 0);
+            color = typedArray.getColor(0, 0);
         } catch (Exception ignored) {
         }
-        return 0;
+        if (table != null) table.putColor(attr, color);
+        return color;
     }
 
     /**
@@ -967,11 +982,25 @@ public class CometChatTheme {
      */
     private static @StyleRes int getTextAppearanceFromAttr(Context context, @AttrRes int attr) {
         if (context == null) return 0;
+        ThemeAttributeCache.Table table = ThemeAttributeCache.get(context);
+        if (table != null && table.hasResourceId(attr)) return table.getResourceId(attr);
+        int resourceId = 0;
         try (TypedArray typedArray = context.obtainStyledAttributes(new int[]{attr})) {
-            return typedArray.getResourceId(0, 0);
+            resourceId = typedArray.getResourceId(0, 0);
         } catch (Exception ignored) {
         }
-        return 0;
+        if (table != null) table.putResourceId(attr, resourceId);
+        return resourceId;
+    }
+
+    /**
+     * Clears the resolved theme attributes. Attributes are cached per theme and
+     * refreshed when the night mode changes, so this is only needed after a theme
+     * was modified in place, for example with
+     * {@link android.content.res.Resources.Theme#applyStyle(int, boolean)}.
+     */
+    public static void clearCache() {
+        ThemeAttributeCache.invalidate();
     }
 
     /**
@@ -0,0 +1,144 @@
+package com.cometchat.chatuikit;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+
+/**
+ * ThemeAttributeCache holds the attributes {@link CometChatTheme} resolved for
+ * each {@link Resources.Theme}, so resolving the same attribute again does not
+ * call {@code obtainStyledAttributes}.
+ *
+ * <p>
+ * A table is filled lazily and keyed by attribute id. It also keeps the colors
+ * CometChatTheme blends when an extended color is not defined. Tables are found
+ * by theme identity: the table of the theme used last is read without locking,
+ * and only a switch to another theme looks through the tables of the others.
+ * A table is dropped when its theme is garbage collected or the night mode of
+ * its context changes, and all the tables are dropped by {@link #invalidate()}.
+ */
+final class ThemeAttributeCache {
+    // the tables of the live themes, guarded by itself
+    private static final ArrayList<Table> tables = new ArrayList<>();
+    private static volatile Table lastTable;
+
+    private ThemeAttributeCache() {
+    }
+
+    /**
+     * Returns the table of the theme of the given context, or null if the context
+     * has no theme.
+     */
+    @Nullable
+    static Table get(@NonNull Context context) {
+        Resources.Theme theme = context.getTheme();
+        if (theme == null) return null;
+        int uiMode = context.getResources().getConfiguration().uiMode;
+        Table table = lastTable;
+        if (table != null && table.theme.get() == theme && table.uiMode == uiMode) return table;
+        synchronized (tables) {
+            table = null;
+            for (Iterator<Table> iterator = tables.iterator(); iterator.hasNext(); ) {
+                Table candidate = iterator.next();
+                Resources.Theme candidateTheme = candidate.theme.get();
+                if (candidateTheme == null) {
+                    iterator.remove();
+                } else if (candidateTheme == theme) {
+                    if (candidate.uiMode == uiMode) table = candidate;
+                    else iterator.remove();
+                }
+            }
+            if (table == null) {
+                table = new Table(theme, uiMode);
+                tables.add(table);
+            }
+            lastTable = table;
+            return table;
+        }
+    }
+
+    /**
+     * Drops all the resolved attributes, for example after a theme was changed
+     * in place with {@link Resources.Theme#applyStyle(int, boolean)}.
+     */
+    static void invalidate() {
+        synchronized (tables) {
+            tables.clear();
+            lastTable = null;
+        }
+    }
+
+    static final class Table {
+        private final WeakReference<Resources.Theme> theme;
+        private final int uiMode;
+        private final SparseIntArray colors = new SparseIntArray();
+        private final SparseIntArray resourceIds = new SparseIntArray();
+        private final SparseArray<BlendedColor> blendedColors = new SparseArray<>();
+
+        private Table(Resources.Theme theme, int uiMode) {
+            this.theme = new WeakReference<>(theme);
+            this.uiMode = uiMode;
+        }
+
+        synchronized boolean hasColor(int attr) {
+            return colors.indexOfKey(attr) >= 0;
+        }
+
+        synchronized int getColor(int attr) {
+            return colors.get(attr);
+        }
+
+        synchronized void putColor(int attr, int color) {
+            colors.put(attr, color);
+        }
+
+        synchronized boolean hasResourceId(int attr) {
+            return resourceIds.indexOfKey(attr) >= 0;
+        }
+
+        synchronized int getResourceId(int attr) {
+            return resourceIds.get(attr);
+        }
+
+        synchronized void putResourceId(int attr, int resourceId) {
+            resourceIds.put(attr, resourceId);
+        }
+
+        /**
+         * Returns the blended color stored for the given key and percentages, or
+         * null if there is none.
+         */
+        @Nullable
+        synchronized Integer getBlendedColor(int key, double dayPercentage, double nightPercentage) {
+            BlendedColor blendedColor = blendedColors.get(key);
+            if (blendedColor == null || blendedColor.dayPercentage != dayPercentage || blendedColor.nightPercentage != nightPercentage) {
+                return null;
+            }
+            return blendedColor.color;
+        }
+
+        synchronized void putBlendedColor(int key, double dayPercentage, double nightPercentage, int color) {
+            blendedColors.put(key, new BlendedColor(dayPercentage, nightPercentage, color));
+        }
+    }
+
+    private static final class BlendedColor {
+        private final double dayPercentage;
+        private final double nightPercentage;
+        private final int color;
+
+        private BlendedColor(double dayPercentage, double nightPercentage, int color) {
+            this.dayPercentage = dayPercentage;
+            this.nightPercentage = nightPercentage;
+            this.color = color;
+        }
+    }
+}
@@ -30,6 +30,7 @@ import com.cometchat.chatuikit.calls.outgoingcall.OutgoingCallConfiguration;
 import com.cometchat.chatuikit.logger.CometChatLogger;
 import com.cometchat.chatuikit.shared.cometchatuikit.CometChatUIKitHelper;
 import com.cometchat.chatuikit.shared.constants.UIKitConstants;
+import com.cometchat.chatuikit.shared.executors.CometChatExecutors;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -66,23 +67,16 @@ public class CometChatCallActivity extends AppCompatActivity {
     }
 
     private static void rejectCall(String sessionId) {
-        new Thread(() -> {
-            try {
-                Thread.sleep(2000);
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
+        CometChatExecutors.scheduleOnMain(() -> CometChat.rejectCall(sessionId, CometChatConstants.CALL_STATUS_BUSY, new CometChat.CallbackListener<Call>() {
+            @Override
+            public void onSuccess(Call call) {
+                CometChatUIKitHelper.onCallRejected(call);
             }
-            CometChat.rejectCall(sessionId, CometChatConstants.CALL_STATUS_BUSY, new CometChat.CallbackListener<Call>() {
-                @Override
-                public void onSuccess(Call call) {
-                    CometChatUIKitHelper.onCallRejected(call);
-                }
 
-                @Override
-                public void onError(CometChatException e) {
-                }
-            });
-        }).start();
+            @Override
+            public void onError(CometChatException e) {
+            }
+        }), 2000);
     }
 
     public static void launchConferenceCallScreen(
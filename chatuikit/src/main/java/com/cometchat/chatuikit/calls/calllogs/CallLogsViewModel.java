@@ -12,8 +12,8 @@ import com.cometchat.calls.model.CallLog;
 import com.cometchat.chat.constants.CometChatConstants;
 import com.cometchat.chat.core.Call;
 import com.cometchat.chat.core.CometChat;
+import com.cometchat.chatuikit.shared.cometchatuikit.CometChatUIKitHelper;
 import com.cometchat.chatuikit.shared.constants.UIKitConstants;
-import com.cometchat.chatuikit.shared.events.CometChatCallEvents;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -214,9 +214,7 @@ public class CallLogsViewModel extends ViewModel {
             @Override
             public void onSuccess(Call call) {
                 initiatedCall.setValue(call);
-                for (CometChatCallEvents events : CometChatCallEvents.callingEvents.values()) {
-                    events.ccOutgoingCall(call);
-                }
+                CometChatUIKitHelper.onOutgoingCall(call);
             }
 
             @Override
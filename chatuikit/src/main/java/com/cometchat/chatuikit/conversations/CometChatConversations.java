@@ -134,6 +134,18 @@ public class CometChatConversations extends MaterialCardView {
             if (onLoad != null) onLoad.onLoad(conversations);
         }
     };
+    /**
+     * Observer for reconciling the conversation list with the server result.
+     * Notifies the adapter of the changed rows only.
+     */
+    Observer<ConversationListDiff> listDiffObserver = new Observer<ConversationListDiff>() {
+        @Override
+        public void onChanged(ConversationListDiff conversationListDiff) {
+            conversationListDiff.dispatchTo(conversationsAdapter);
+            isConversationListEmpty = conversationsAdapter.getItemCount() == 0;
+            if (onLoad != null) onLoad.onLoad(conversationsViewModel.getMutableConversationList().getValue());
+        }
+    };
     private OnEmpty onEmpty;
     private CometChatSoundManager soundManager;
     private ConversationsViewModel conversationsViewModel;
@@ -151,12 +163,14 @@ public class CometChatConversations extends MaterialCardView {
     };
     /**
      * Observer for moving a conversation to the top of the list. Notifies the
-     * adapter of data changes and scrolls to the top.
+     * adapter of the move from the given position and of the change of the moved
+     * item, and scrolls to the top.
      */
     Observer<Integer> moveToTop = new Observer<Integer>() {
         @Override
         public void onChanged(Integer integer) {
-            conversationsAdapter.notifyDataSetChanged();
+            conversationsAdapter.notifyItemMoved(integer, 0);
+            conversationsAdapter.notifyItemChanged(0);
             scrollToTop();
         }
     };
@@ -394,6 +408,7 @@ public class CometChatConversations extends MaterialCardView {
     private void initViewModels() {
         conversationsViewModel = new ViewModelProvider.NewInstanceFactory().create(ConversationsViewModel.class);
         conversationsViewModel.getMutableConversationList().observe((AppCompatActivity) getContext(), listObserver);
+        conversationsViewModel.getConversationListDiff().observe((AppCompatActivity) getContext(), listDiffObserver);
         conversationsViewModel.getStates().observe((AppCompatActivity) getContext(), stateChangeObserver);
         conversationsViewModel.insertAtTop().observe((AppCompatActivity) getContext(), insertAtTop);
         conversationsViewModel.moveToTop().observe((AppCompatActivity) getContext(), moveToTop);
@@ -0,0 +1,167 @@
+package com.cometchat.chatuikit.conversations;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.cometchat.chat.models.AppEntity;
+import com.cometchat.chat.models.BaseMessage;
+import com.cometchat.chat.models.Conversation;
+import com.cometchat.chat.models.Group;
+import com.cometchat.chat.models.User;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * ConversationListDiff is the keyed difference between two conversation lists,
+ * matched by conversation id, as the adapter notifications that turn the first
+ * list into the second.
+ *
+ * <p>
+ * Rows of conversations present in both lists are moved rather than rebound,
+ * and only rebound when their content changed, so reconciling the list shown
+ * from the snapshot or before a reconnect with the server result leaves the
+ * unchanged rows alone. When most of the list changed, the difference is a
+ * single data set change instead.
+ */
+public class ConversationListDiff {
+    private static final int REMOVE = 0;
+    private static final int INSERT = 1;
+    private static final int MOVE = 2;
+    private static final int CHANGE = 3;
+
+    // the notifications in the order they are dispatched: type, from and to
+    private final ArrayList<int[]> operations = new ArrayList<>();
+    private boolean dataSetChanged;
+
+    private ConversationListDiff() {
+    }
+
+    /**
+     * Calculates the difference between the given lists.
+     *
+     * @param oldList the list the adapter currently shows.
+     * @param newList the list that replaces it.
+     */
+    @NonNull
+    public static ConversationListDiff calculate(@NonNull List<Conversation> oldList, @NonNull List<Conversation> newList) {
+        ConversationListDiff diff = new ConversationListDiff();
+        HashMap<String, Conversation> oldConversations = new HashMap<>();
+        for (Conversation conversation : oldList) oldConversations.put(conversation.getConversationId(), conversation);
+        HashSet<String> newIds = new HashSet<>();
+        for (Conversation conversation : newList) newIds.add(conversation.getConversationId());
+
+        ArrayList<String> current = new ArrayList<>(oldList.size());
+        for (Conversation conversation : oldList) current.add(conversation.getConversationId());
+        // removals from the bottom, so the positions above stay valid
+        for (int i = current.size() - 1; i >= 0; i--) {
+            if (!newIds.contains(current.get(i))) {
+                current.remove(i);
+                diff.add(REMOVE, i, i);
+            }
+        }
+        ArrayList<Integer> changed = new ArrayList<>();
+        for (int j = 0; j < newList.size(); j++) {
+            Conversation conversation = newList.get(j);
+            String id = conversation.getConversationId();
+            Conversation oldConversation = oldConversations.get(id);
+            if (oldConversation == null) {
+                current.add(j, id);
+                diff.add(INSERT, j, j);
+                continue;
+            }
+            if (!id.equals(current.get(j))) {
+                int from = current.indexOf(id);
+                current.remove(from);
+                current.add(j, id);
+                diff.add(MOVE, from, j);
+            }
+            if (isContentChanged(oldConversation, conversation)) changed.add(j);
+        }
+        // changes last, at the final positions
+        for (int position : changed) diff.add(CHANGE, position, position);
+        if (diff.operations.size() > Math.max(oldList.size(), newList.size()) / 2) {
+            diff.operations.clear();
+            diff.dataSetChanged = true;
+        }
+        return diff;
+    }
+
+    /**
+     * Notifies the given adapter of the difference. The adapter must already be
+     * backed by the new list.
+     */
+    public void dispatchTo(@NonNull RecyclerView.Adapter<?> adapter) {
+        if (dataSetChanged) {
+            adapter.notifyDataSetChanged();
+            return;
+        }
+        for (int[] operation : operations) {
+            switch (operation[0]) {
+                case REMOVE:
+                    adapter.notifyItemRemoved(operation[1]);
+                    break;
+                case INSERT:
+                    adapter.notifyItemInserted(operation[1]);
+                    break;
+                case MOVE:
+                    adapter.notifyItemMoved(operation[1], operation[2]);
+                    break;
+                default:
+                    adapter.notifyItemChanged(operation[1]);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Returns whether the lists show the same rows with the same content.
+     */
+    public boolean isEmpty() {
+        return !dataSetChanged && operations.isEmpty();
+    }
+
+    private void add(int type, int from, int to) {
+        operations.add(new int[]{type, from, to});
+    }
+
+    private static boolean isContentChanged(@NonNull Conversation oldConversation, @NonNull Conversation newConversation) {
+        if (oldConversation == newConversation) return false;
+        return oldConversation.getUnreadMessageCount() != newConversation.getUnreadMessageCount()
+            || oldConversation.getUpdatedAt() != newConversation.getUpdatedAt()
+            || isMessageChanged(oldConversation.getLastMessage(), newConversation.getLastMessage())
+            || isEntityChanged(oldConversation.getConversationWith(), newConversation.getConversationWith());
+    }
+
+    private static boolean isMessageChanged(@Nullable BaseMessage oldMessage, @Nullable BaseMessage newMessage) {
+        if (oldMessage == null || newMessage == null) return oldMessage != newMessage;
+        return oldMessage.getId() != newMessage.getId()
+            || oldMessage.getUpdatedAt() != newMessage.getUpdatedAt()
+            || oldMessage.getEditedAt() != newMessage.getEditedAt()
+            || oldMessage.getDeletedAt() != newMessage.getDeletedAt()
+            || oldMessage.getDeliveredAt() != newMessage.getDeliveredAt()
+            || oldMessage.getReadAt() != newMessage.getReadAt();
+    }
+
+    private static boolean isEntityChanged(@Nullable AppEntity oldEntity, @Nullable AppEntity newEntity) {
+        if (oldEntity instanceof User && newEntity instanceof User) {
+            User oldUser = (User) oldEntity;
+            User newUser = (User) newEntity;
+            return !Objects.equals(oldUser.getName(), newUser.getName())
+                || !Objects.equals(oldUser.getAvatar(), newUser.getAvatar())
+                || !Objects.equals(oldUser.getStatus(), newUser.getStatus())
+                || oldUser.isBlockedByMe() != newUser.isBlockedByMe();
+        } else if (oldEntity instanceof Group && newEntity instanceof Group) {
+            Group oldGroup = (Group) oldEntity;
+            Group newGroup = (Group) newEntity;
+            return !Objects.equals(oldGroup.getName(), newGroup.getName())
+                || !Objects.equals(oldGroup.getIcon(), newGroup.getIcon())
+                || !Objects.equals(oldGroup.getGroupType(), newGroup.getGroupType());
+        }
+        return true;
+    }
+}
@@ -0,0 +1,293 @@
+package com.cometchat.chatuikit.conversations;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.cometchat.chat.models.Conversation;
+import com.cometchat.chat.models.Group;
+import com.cometchat.chat.models.User;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+
+/**
+ * ConversationStore is the backing list of {@link ConversationsViewModel}. It
+ * behaves like a regular {@link java.util.List} of {@link Conversation} so it
+ * can be handed to the {@link ConversationsAdapter} as-is, while indexing every
+ * conversation by conversation id, by the uid of the user and by the guid of
+ * the group it is with.
+ *
+ * <p>
+ * Conversations are kept in slots ordered by their last activity: a
+ * conversation moved or inserted to the top takes the next free slot before
+ * the first one, and an appended page takes the slots after the last one. A
+ * Fenwick tree counts the occupied slots, so the position of a conversation
+ * and the conversation at a position are found in O(log n), and moving a
+ * conversation to the top never re-indexes the others. The slots are compacted
+ * once the free ones run out.
+ */
+public class ConversationStore extends AbstractList<Conversation> {
+    private static final int MIN_FREE_SLOTS = 16;
+    private final HashMap<String, Integer> idIndex;
+    private final HashMap<String, Integer> userIndex;
+    private final HashMap<String, Integer> groupIndex;
+    private Conversation[] slots;
+    // Fenwick tree over the occupied slots, 1-based
+    private int[] tree;
+    // the next free slot before the first conversation and after the last one
+    private int head;
+    private int tail;
+    private int size;
+
+    public ConversationStore() {
+        idIndex = new HashMap<>();
+        userIndex = new HashMap<>();
+        groupIndex = new HashMap<>();
+        compact(null, -1, 0);
+    }
+
+    @Override
+    public Conversation get(int index) {
+        return slots[slotAt(index)];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Conversation set(int index, Conversation conversation) {
+        int slot = slotAt(index);
+        Conversation oldConversation = slots[slot];
+        unindex(oldConversation, slot);
+        slots[slot] = conversation;
+        index(conversation, slot);
+        return oldConversation;
+    }
+
+    @Override
+    public void add(int index, Conversation conversation) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        if (index == 0 && size > 0) {
+            if (head < 0) compact(null, -1, 0);
+            occupy(head--, conversation);
+        } else if (index == size) {
+            if (tail >= slots.length) compact(null, -1, 1);
+            occupy(tail++, conversation);
+        } else {
+            compact(conversation, index, 0);
+        }
+        modCount++;
+    }
+
+    @Override
+    public Conversation remove(int index) {
+        int slot = slotAt(index);
+        Conversation conversation = slots[slot];
+        unindex(conversation, slot);
+        slots[slot] = null;
+        update(slot, -1);
+        size--;
+        modCount++;
+        return conversation;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        int index = indexOf(o);
+        if (index < 0) return false;
+        remove(index);
+        return true;
+    }
+
+    @Override
+    public boolean addAll(@NonNull Collection<? extends Conversation> collection) {
+        if (collection.isEmpty()) return false;
+        for (Conversation conversation : collection) add(size, conversation);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        idIndex.clear();
+        userIndex.clear();
+        groupIndex.clear();
+        size = 0;
+        compact(null, -1, 0);
+        modCount++;
+    }
+
+    /**
+     * Returns the position of the conversation with the same conversation id as
+     * the given conversation.
+     */
+    @Override
+    public int indexOf(Object o) {
+        if (!(o instanceof Conversation)) return -1;
+        return indexOfId(((Conversation) o).getConversationId());
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    /**
+     * Replaces the conversation at the given position with the given one and
+     * moves it to the top of the list.
+     *
+     * @param index        the current position of the conversation.
+     * @param conversation the updated conversation.
+     */
+    public void moveToTop(int index, @NonNull Conversation conversation) {
+        remove(index);
+        add(0, conversation);
+    }
+
+    /**
+     * Returns the position of the conversation with the given id, or -1 if it is
+     * not loaded.
+     */
+    public int indexOfId(@Nullable String conversationId) {
+        return positionOf(idIndex, conversationId);
+    }
+
+    /**
+     * Returns the position of the one-on-one conversation with the given user,
+     * or -1 if it is not loaded.
+     */
+    public int indexOfUser(@Nullable String uid) {
+        return positionOf(userIndex, uid);
+    }
+
+    /**
+     * Returns the position of the conversation of the given group, or -1 if it is
+     * not loaded.
+     */
+    public int indexOfGroup(@Nullable String guid) {
+        return positionOf(groupIndex, guid);
+    }
+
+    private int positionOf(HashMap<String, Integer> index, @Nullable String key) {
+        if (key == null) return -1;
+        Integer slot = index.get(key);
+        return slot == null ? -1 : countBefore(slot);
+    }
+
+    private void occupy(int slot, Conversation conversation) {
+        slots[slot] = conversation;
+        update(slot, 1);
+        index(conversation, slot);
+        size++;
+    }
+
+    /**
+     * Returns the slot of the conversation at the given position.
+     */
+    private int slotAt(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        int node = 0;
+        int remaining = index + 1;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            int next = node + step;
+            if (next < tree.length && tree[next] < remaining) {
+                node = next;
+                remaining -= tree[next];
+            }
+        }
+        // node is the 1-based index before the slot
+        return node;
+    }
+
+    /**
+     * Returns the number of conversations in the slots before the given one.
+     */
+    private int countBefore(int slot) {
+        int count = 0;
+        for (int i = slot; i > 0; i -= i & -i) count += tree[i];
+        return count;
+    }
+
+    private void update(int slot, int delta) {
+        for (int i = slot + 1; i < tree.length; i += i & -i) tree[i] += delta;
+    }
+
+    /**
+     * Lays the conversations out again with free slots on both sides, optionally
+     * inserting a conversation at the given position.
+     *
+     * @param inserted      the conversation to insert, or null.
+     * @param insertAt      the position to insert it at.
+     * @param tailRoomScale leaves more room after the last conversation when
+     *                      pages are being appended.
+     */
+    private void compact(@Nullable Conversation inserted, int insertAt, int tailRoomScale) {
+        ArrayList<Conversation> ordered = new ArrayList<>(size + 1);
+        for (int i = 0; i < size; i++) ordered.add(slots[slotAt(i)]);
+        if (inserted != null) ordered.add(insertAt, inserted);
+        int count = ordered.size();
+        int free = Math.max(MIN_FREE_SLOTS, count);
+        int capacity = free + count + free * (1 + tailRoomScale);
+        slots = new Conversation[capacity];
+        tree = new int[capacity + 1];
+        idIndex.clear();
+        userIndex.clear();
+        groupIndex.clear();
+        head = free - 1;
+        for (int i = 0; i < count; i++) {
+            int slot = free + i;
+            slots[slot] = ordered.get(i);
+            index(ordered.get(i), slot);
+            tree[slot + 1] = 1;
+        }
+        // builds the Fenwick tree from the occupied slots in linear time
+        for (int i = 1; i < tree.length; i++) {
+            int parent = i + (i & -i);
+            if (parent < tree.length) tree[parent] += tree[i];
+        }
+        tail = free + count;
+        size = count;
+    }
+
+    @Nullable
+    private static String userOf(Conversation conversation) {
+        return conversation.getConversationWith() instanceof User ? ((User) conversation.getConversationWith()).getUid() : null;
+    }
+
+    @Nullable
+    private static String groupOf(Conversation conversation) {
+        return conversation.getConversationWith() instanceof Group ? ((Group) conversation.getConversationWith()).getGuid() : null;
+    }
+
+    private void index(Conversation conversation, int slot) {
+        if (conversation == null) return;
+        put(idIndex, conversation.getConversationId(), slot);
+        put(userIndex, userOf(conversation), slot);
+        put(groupIndex, groupOf(conversation), slot);
+    }
+
+    private void unindex(Conversation conversation, int slot) {
+        if (conversation == null) return;
+        removeIfAt(idIndex, conversation.getConversationId(), slot);
+        removeIfAt(userIndex, userOf(conversation), slot);
+        removeIfAt(groupIndex, groupOf(conversation), slot);
+    }
+
+    private static void put(HashMap<String, Integer> index, @Nullable String key, int slot) {
+        if (key != null) index.put(key, slot);
+    }
+
+    private static void removeIfAt(HashMap<String, Integer> index, @Nullable String key, int slot) {
+        if (key == null) return;
+        Integer indexed = index.get(key);
+        if (indexed != null && indexed == slot) index.remove(key);
+    }
+}
@@ -275,9 +275,12 @@ public class ConversationsAdapter extends RecyclerView.Adapter<RecyclerView.View
      * @param hashMap the map of conversations and typing indicators.
      */
     public void typing(HashMap<Conversation, TypingIndicator> hashMap) {
+        HashMap<Conversation, TypingIndicator> previousHashMap = typingIndicatorHashMap;
         typingIndicatorHashMap = new HashMap<>(hashMap);
         for (Map.Entry<Conversation, TypingIndicator> entry : hashMap.entrySet()) {
             Conversation conversation = entry.getKey();
+            // rebinds only the conversations whose typer changed
+            if (previousHashMap.containsKey(conversation) && isSameTyper(previousHashMap.get(conversation), entry.getValue())) continue;
             int index = conversationsList.indexOf(conversation);
             if (index != -1) {
                 notifyItemChanged(index);
@@ -285,6 +288,14 @@ public class ConversationsAdapter extends RecyclerView.Adapter<RecyclerView.View
         }
     }
 
+    private static boolean isSameTyper(@Nullable TypingIndicator typingIndicator, @Nullable TypingIndicator otherTypingIndicator) {
+        if (typingIndicator == null || otherTypingIndicator == null) return typingIndicator == otherTypingIndicator;
+        return typingIndicator.getSender() != null && otherTypingIndicator.getSender() != null && typingIndicator
+            .getSender()
+            .getUid()
+            .equals(otherTypingIndicator.getSender().getUid());
+    }
+
     /**
      * Sets the item view for the conversation list and refreshes the adapter.
      *
@@ -1,7 +1,5 @@
 package com.cometchat.chatuikit.conversations;
 
-import android.os.Handler;
-
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.lifecycle.MutableLiveData;
@@ -24,21 +22,23 @@ import com.cometchat.chat.models.MessageReceipt;
 import com.cometchat.chat.models.TextMessage;
 import com.cometchat.chat.models.TypingIndicator;
 import com.cometchat.chat.models.User;
+import com.cometchat.chatuikit.shared.cache.CometChatConversationSnapshot;
 import com.cometchat.chatuikit.shared.cometchatuikit.CometChatUIKit;
 import com.cometchat.chatuikit.shared.cometchatuikit.CometChatUIKitHelper;
 import com.cometchat.chatuikit.shared.constants.MessageStatus;
 import com.cometchat.chatuikit.shared.constants.UIKitConstants;
-import com.cometchat.chatuikit.shared.constants.UIKitUtilityConstants;
 import com.cometchat.chatuikit.shared.events.CometChatCallEvents;
 import com.cometchat.chatuikit.shared.events.CometChatConversationEvents;
 import com.cometchat.chatuikit.shared.events.CometChatGroupEvents;
 import com.cometchat.chatuikit.shared.events.CometChatMessageEvents;
 import com.cometchat.chatuikit.shared.events.CometChatUserEvents;
+import com.cometchat.chatuikit.shared.executors.CometChatExecutors;
 import com.cometchat.chatuikit.shared.models.interactivemessage.CardMessage;
 import com.cometchat.chatuikit.shared.models.interactivemessage.CustomInteractiveMessage;
 import com.cometchat.chatuikit.shared.models.interactivemessage.FormMessage;
 import com.cometchat.chatuikit.shared.models.interactivemessage.SchedulerMessage;
 import com.cometchat.chatuikit.shared.resources.utils.Utils;
+import com.cometchat.chatuikit.shared.typing.TypingTracker;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -47,11 +47,13 @@ import java.util.List;
 @SuppressWarnings("unused")
 public class ConversationsViewModel extends ViewModel {
     private static final String TAG = ConversationsViewModel.class.getSimpleName();
-    private final List<Conversation> conversationList = new ArrayList<>();
+    private static final long SNAPSHOT_SAVE_DELAY = 2000;
+    private final ConversationStore conversationList = new ConversationStore();
     private final HashMap<Conversation, TypingIndicator> typingIndicatorHashMap = new HashMap<>();
     private final MutableLiveData<Integer> moveToTop;
     private final MutableLiveData<Integer> insertAtTop;
     private final MutableLiveData<List<Conversation>> mutableConversationList;
+    private final MutableLiveData<ConversationListDiff> conversationListDiff;
     private final MutableLiveData<Integer> updateConversation;
     private final MutableLiveData<Integer> removeConversation;
     private final MutableLiveData<UIKitConstants.DeleteState> conversationDeleteState;
@@ -60,19 +62,21 @@ public class ConversationsViewModel extends ViewModel {
     @NonNull
     private final MutableLiveData<HashMap<Conversation, TypingIndicator>> typing;
     private final MutableLiveData<Boolean> playSound;
-    private final Runnable updateTypingRunnable = new Runnable() {
+    private final Runnable saveSnapshotRunnable = new Runnable() {
         @Override
         public void run() {
-            typing.setValue(typingIndicatorHashMap);
+            CometChatConversationSnapshot.save(conversationList);
         }
     };
     private String LISTENERS_TAG;
     private boolean hasMore = true;
     private boolean disableReceipt;
     private boolean connectionListerAttached;
+    // the snapshot only mirrors the list of the default request
+    private boolean snapshotEnabled = true;
+    private boolean fetchedFirstPage;
     private ConversationsRequest conversationsRequest;
     private ConversationsRequest.ConversationsRequestBuilder conversationsRequestBuilder;
-    private Handler handler = new Handler();
 
     public ConversationsViewModel() {
         typing = new MutableLiveData<>();
@@ -84,6 +88,7 @@ public class ConversationsViewModel extends ViewModel {
         updateConversation = new MutableLiveData<>();
         cometchatException = new MutableLiveData<>();
         mutableConversationList = new MutableLiveData<>();
+        conversationListDiff = new MutableLiveData<>();
         conversationDeleteState = new MutableLiveData<>();
 
         mutableConversationList.setValue(conversationList);
@@ -92,17 +97,34 @@ public class ConversationsViewModel extends ViewModel {
     }
 
     public Conversation typing(TypingIndicator typingIndicator) {
-        for (Conversation conversation : conversationList) {
-            if (typingIndicator.getReceiverType().equalsIgnoreCase(CometChatConstants.RECEIVER_TYPE_USER)) {
-                if (conversation
-                    .getConversationId()
-                    .contains(typingIndicator.getSender().getUid()) && !Utils.isBlocked((User) conversation.getConversationWith()))
-                    return conversation;
-            } else {
-                if (conversation.getConversationId().contains(typingIndicator.getReceiverId())) return conversation;
-            }
+        if (typingIndicator.getReceiverType().equalsIgnoreCase(CometChatConstants.RECEIVER_TYPE_USER)) {
+            int index = conversationList.indexOfUser(typingIndicator.getSender().getUid());
+            if (index < 0) return null;
+            Conversation conversation = conversationList.get(index);
+            return Utils.isBlocked((User) conversation.getConversationWith()) ? null : conversation;
+        } else {
+            int index = conversationList.indexOfGroup(typingIndicator.getReceiverId());
+            return index < 0 ? null : conversationList.get(index);
         }
-        return null;
+    }
+
+    /**
+     * Sets the conversation of the given typer to show who is typing in it now,
+     * or null if no one is.
+     *
+     * @return whether the typer is in a loaded conversation.
+     */
+    private boolean updateTyping(TypingIndicator typingIndicator) {
+        Conversation conversation = typing(typingIndicator);
+        if (conversation == null) return false;
+        TypingTracker typingTracker = TypingTracker.getInstance();
+        if (typingIndicator.getReceiverType().equalsIgnoreCase(CometChatConstants.RECEIVER_TYPE_USER)) {
+            typingIndicatorHashMap.put(conversation,
+                                       typingTracker.getTypingIndicator(typingIndicator.getReceiverId(), typingIndicator.getSender().getUid()));
+        } else {
+            typingIndicatorHashMap.put(conversation, typingTracker.getLatestTypingIndicator(typingIndicator.getReceiverId()));
+        }
+        return true;
     }
 
     public MutableLiveData<Integer> remove() {
@@ -113,6 +135,14 @@ public class ConversationsViewModel extends ViewModel {
         return mutableConversationList;
     }
 
+    /**
+     * Emits the difference to notify the adapter of when the list was reconciled
+     * with the server result.
+     */
+    public MutableLiveData<ConversationListDiff> getConversationListDiff() {
+        return conversationListDiff;
+    }
+
     @NonNull
     public MutableLiveData<HashMap<Conversation, TypingIndicator>> getTyping() {
         return typing;
@@ -157,17 +187,9 @@ public class ConversationsViewModel extends ViewModel {
 
     public void update(Conversation conversation, boolean isActionMessage) {
         if (conversation != null && conversation.getLastMessage() != null) {
-            int oldIndex = -1;
-            Conversation oldConversation = null;
-            for (int i = 0; i < conversationList.size(); i++) {
-                Conversation tempConversation = conversationList.get(i);
-                if (tempConversation.getConversationId().equals(conversation.getConversationId())) {
-                    oldIndex = i;
-                    oldConversation = tempConversation;
-                    break;
-                }
-            }
+            int oldIndex = conversationList.indexOfId(conversation.getConversationId());
             if (oldIndex > -1) {
+                Conversation oldConversation = conversationList.get(oldIndex);
                 boolean incrementUnreadCount = false;
                 if (conversation.getLastMessage() instanceof CustomMessage) {
                     incrementUnreadCount = shouldUpdateConversationForCustomMessage((CustomMessage) conversation.getLastMessage());
@@ -201,6 +223,7 @@ public class ConversationsViewModel extends ViewModel {
                         conversation.setUnreadMessageCount(0);
                         conversationList.set(oldIndex, conversation);
                         updateConversation.setValue(oldIndex);
+                        scheduleSnapshot();
                     }
                 } else {
                     handleUnreadCount(oldIndex, oldConversation, conversation, true);
@@ -226,6 +249,7 @@ public class ConversationsViewModel extends ViewModel {
         conversationList.add(0, conversation);
         states.setValue(checkIsEmpty(conversationList));
         insertAtTop.setValue(0);
+        scheduleSnapshot();
     }
 
     private void handleUnreadCount(int oldConversationIndex, Conversation oldConversation, @NonNull Conversation conversation, boolean isSent) {
@@ -244,13 +268,19 @@ public class ConversationsViewModel extends ViewModel {
     }
 
     private void updateConversationObject(int oldConversationIndex, Conversation conversation) {
-        conversationList.remove(oldConversationIndex);
-        conversationList.add(0, conversation);
+        conversationList.moveToTop(oldConversationIndex, conversation);
         moveToTop.setValue(oldConversationIndex);
+        scheduleSnapshot();
     }
 
     public void addListener() {
         LISTENERS_TAG = System.currentTimeMillis() + "";
+        TypingTracker.getInstance().addListener(LISTENERS_TAG, (started, ended) -> {
+            boolean changed = false;
+            for (TypingIndicator typingIndicator : started) changed |= updateTyping(typingIndicator);
+            for (TypingIndicator typingIndicator : ended) changed |= updateTyping(typingIndicator);
+            if (changed) typing.setValue(typingIndicatorHashMap);
+        });
         CometChat.addGroupListener(LISTENERS_TAG, new CometChat.GroupListener() {
             @Override
             public void onGroupMemberJoined(@NonNull Action action, User joinedUser, Group joinedGroup) {
@@ -448,21 +478,6 @@ public class ConversationsViewModel extends ViewModel {
                 checkAndUpdateConversation(message, true);
             }
 
-            @Override
-            public void onTypingStarted(TypingIndicator typingIndicator) {
-                typingIndicatorHashMap.put(typing(typingIndicator), typingIndicator);
-                typing.setValue(typingIndicatorHashMap);
-            }
-
-            @Override
-            public void onTypingEnded(TypingIndicator typingIndicator) {
-                Conversation conversation = typing(typingIndicator);
-                typingIndicatorHashMap.put(conversation, null);
-                handler.removeCallbacks(updateTypingRunnable);
-                handler = new Handler();
-                handler.postDelayed(updateTypingRunnable, UIKitUtilityConstants.TYPING_INDICATOR_DEBOUNCER);
-            }
-
             @Override
             public void onMessagesDelivered(MessageReceipt messageReceipt) {
                 updateDeliveredReceipts(messageReceipt);
@@ -583,13 +598,11 @@ public class ConversationsViewModel extends ViewModel {
     }
 
     public void clearConversationUnreadCount(Conversation conversation) {
-        for (int i = 0; i < conversationList.size(); i++) {
-            Conversation tempConversation = conversationList.get(i);
-            if (tempConversation.getConversationId().equals(conversation.getConversationId())) {
-                tempConversation.setUnreadMessageCount(0);
-                updateConversation.setValue(i);
-                break;
-            }
+        int index = conversationList.indexOfId(conversation.getConversationId());
+        if (index > -1) {
+            conversationList.get(index).setUnreadMessageCount(0);
+            updateConversation.setValue(index);
+            scheduleSnapshot();
         }
     }
 
@@ -658,6 +671,7 @@ public class ConversationsViewModel extends ViewModel {
         CometChatUserEvents.removeListener(LISTENERS_TAG);
         CometChatCallEvents.removeListener(LISTENERS_TAG);
         CometChat.removeConnectionListener(LISTENERS_TAG);
+        TypingTracker.getInstance().removeListener(LISTENERS_TAG);
     }
 
     private void updateConversationForGroup(BaseMessage baseMessage, boolean isRemove) {
@@ -683,91 +697,50 @@ public class ConversationsViewModel extends ViewModel {
 
     public void remove(Conversation conversation) {
         int oldIndex = conversationList.indexOf(conversation);
-        conversationList.remove(conversation);
-        removeConversation.setValue(oldIndex);
-        states.setValue(checkIsEmpty(conversationList));
+        if (oldIndex > -1) remove(oldIndex);
     }
 
     public void updateDeliveredReceipts(MessageReceipt receipt) {
-        for (int i = 0; i < conversationList.size() - 1; i++) {
-            Conversation conversation = conversationList.get(i);
-            if (receipt.getReceivertype().equals(UIKitConstants.ReceiverType.USER)) {
-                if (conversation.getConversationType().equals(CometChatConstants.RECEIVER_TYPE_USER) && receipt
-                    .getSender()
-                    .getUid()
-                    .equals(((User) conversation.getConversationWith()).getUid())) {
-                    BaseMessage baseMessage = conversation.getLastMessage();
-                    if (baseMessage != null && baseMessage.getDeliveredAt() == 0 && baseMessage.getId() == receipt.getMessageId()) {
-                        baseMessage.setDeliveredAt(receipt.getDeliveredAt());
-                        conversation.setLastMessage(baseMessage);
-                        conversationList.set(i, conversation);
-                        updateConversation.setValue(i);
-                        break;
-                    }
-                }
-            } else if (receipt.getReceivertype().equals(UIKitConstants.ReceiverType.GROUP)) {
-                if (conversation.getConversationType().equals(CometChatConstants.RECEIVER_TYPE_GROUP) && receipt
-                    .getReceiptType()
-                    .equals(MessageReceipt.RECEIPT_TYPE_DELIVERED_TO_ALL) && receipt
-                    .getReceiverId()
-                    .equals(((Group) conversation.getConversationWith()).getGuid())) {
-                    BaseMessage baseMessage = conversation.getLastMessage();
-                    if (baseMessage != null && baseMessage.getDeliveredAt() == 0 && baseMessage.getId() == receipt.getMessageId()) {
-                        baseMessage.setDeliveredAt(receipt.getDeliveredAt());
-                        conversation.setLastMessage(baseMessage);
-                        conversationList.set(i, conversation);
-                        updateConversation.setValue(i);
-                        break;
-                    }
-                }
-            }
+        int index = -1;
+        if (receipt.getReceivertype().equals(UIKitConstants.ReceiverType.USER)) {
+            index = conversationList.indexOfUser(receipt.getSender().getUid());
+        } else if (receipt.getReceivertype().equals(UIKitConstants.ReceiverType.GROUP) && receipt
+            .getReceiptType()
+            .equals(MessageReceipt.RECEIPT_TYPE_DELIVERED_TO_ALL)) {
+            index = conversationList.indexOfGroup(receipt.getReceiverId());
+        }
+        if (index < 0) return;
+        Conversation conversation = conversationList.get(index);
+        BaseMessage baseMessage = conversation.getLastMessage();
+        if (baseMessage != null && baseMessage.getDeliveredAt() == 0 && baseMessage.getId() == receipt.getMessageId()) {
+            baseMessage.setDeliveredAt(receipt.getDeliveredAt());
+            conversation.setLastMessage(baseMessage);
+            conversationList.set(index, conversation);
+            updateConversation.setValue(index);
         }
     }
 
     public void updateReadReceipts(MessageReceipt receipt) {
-        for (int i = 0; i < conversationList.size() - 1; i++) {
-            Conversation conversation = conversationList.get(i);
-
-            if (receipt.getReceivertype().equals(UIKitConstants.ReceiverType.USER)) {
-                if (conversation.getConversationType().equals(CometChatConstants.RECEIVER_TYPE_USER) && receipt
-                    .getSender()
-                    .getUid()
-                    .equals(((User) conversation.getConversationWith()).getUid())) {
-                    BaseMessage baseMessage = conversation.getLastMessage();
-                    if (baseMessage != null && baseMessage.getReadAt() == 0 && baseMessage.getId() == receipt.getMessageId()) {
-                        baseMessage.setReadAt(receipt.getReadAt());
-                        conversation.setLastMessage(baseMessage);
-                        conversationList.set(i, conversation);
-                        updateConversation.setValue(i);
-                        break;
-                    } else if (receipt.getSender().getUid().equals(CometChatUIKit.getLoggedInUser().getUid())) {
-                        conversation.setUnreadMessageCount(0);
-                        conversationList.set(i, conversation);
-                        updateConversation.setValue(i);
-                        break;
-                    }
-                }
-            } else if (receipt.getReceivertype().equals(UIKitConstants.ReceiverType.GROUP)) {
-                if (conversation.getConversationType().equals(CometChatConstants.RECEIVER_TYPE_GROUP) && receipt
-                    .getReceiptType()
-                    .equals(MessageReceipt.RECEIPT_TYPE_READ_BY_ALL) && receipt
-                    .getReceiverId()
-                    .equals(((Group) conversation.getConversationWith()).getGuid())) {
-                    BaseMessage baseMessage = conversation.getLastMessage();
-                    if (baseMessage != null && baseMessage.getReadAt() == 0 && baseMessage.getId() == receipt.getMessageId()) {
-                        baseMessage.setReadAt(receipt.getReadAt());
-                        conversation.setLastMessage(baseMessage);
-                        conversationList.set(i, conversation);
-                        updateConversation.setValue(i);
-                        break;
-                    }
-                } else if (receipt.getSender().getUid().equals(CometChatUIKit.getLoggedInUser().getUid())) {
-                    conversation.setUnreadMessageCount(0);
-                    conversationList.set(i, conversation);
-                    updateConversation.setValue(i);
-                    break;
-                }
-            }
+        int index = -1;
+        boolean readByAll = true;
+        if (receipt.getReceivertype().equals(UIKitConstants.ReceiverType.USER)) {
+            index = conversationList.indexOfUser(receipt.getSender().getUid());
+        } else if (receipt.getReceivertype().equals(UIKitConstants.ReceiverType.GROUP)) {
+            index = conversationList.indexOfGroup(receipt.getReceiverId());
+            readByAll = receipt.getReceiptType().equals(MessageReceipt.RECEIPT_TYPE_READ_BY_ALL);
+        }
+        if (index < 0) return;
+        Conversation conversation = conversationList.get(index);
+        BaseMessage baseMessage = conversation.getLastMessage();
+        if (readByAll && baseMessage != null && baseMessage.getReadAt() == 0 && baseMessage.getId() == receipt.getMessageId()) {
+            baseMessage.setReadAt(receipt.getReadAt());
+            conversation.setLastMessage(baseMessage);
+            conversationList.set(index, conversation);
+            updateConversation.setValue(index);
+        } else if (receipt.getSender().getUid().equals(CometChatUIKit.getLoggedInUser().getUid())) {
+            // read on another device of the logged-in user
+            conversation.setUnreadMessageCount(0);
+            updateConversation.setValue(index);
         }
     }
 
@@ -802,19 +775,75 @@ public class ConversationsViewModel extends ViewModel {
     }
 
     public void fetchConversation() {
-        if (conversationList.isEmpty()) states.setValue(UIKitConstants.States.LOADING);
+        if (conversationList.isEmpty()) {
+            states.setValue(UIKitConstants.States.LOADING);
+            if (!fetchedFirstPage) showSnapshot();
+        }
         if (hasMore) {
             fetchConversationsList(false);
         }
     }
 
+    /**
+     * Shows the conversations kept on the device until the first page arrives.
+     */
+    private void showSnapshot() {
+        if (!snapshotEnabled || !CometChatConversationSnapshot.isEnabled()) return;
+        CometChatConversationSnapshot.read(new CometChat.CallbackListener<List<Conversation>>() {
+            @Override
+            public void onSuccess(List<Conversation> conversations) {
+                CometChatExecutors.postToMain(() -> {
+                    if (fetchedFirstPage || !conversationList.isEmpty() || conversations.isEmpty()) return;
+                    addList(conversations);
+                    states.setValue(checkIsEmpty(conversationList));
+                });
+            }
+
+            @Override
+            public void onError(CometChatException e) {
+            }
+        });
+    }
+
+    /**
+     * Replaces the shown list with the first page from the server and emits the
+     * difference, so only the changed rows are rebound. Rows the page does not
+     * confirm are dropped, as they may have been deleted on the server; the
+     * next pages load the older conversations again.
+     */
+    private void reconcile(List<Conversation> conversations) {
+        if (conversationList.isEmpty()) {
+            addList(conversations);
+            return;
+        }
+        ConversationListDiff diff = ConversationListDiff.calculate(conversationList, conversations);
+        conversationList.clear();
+        conversationList.addAll(conversations);
+        if (!diff.isEmpty()) conversationListDiff.setValue(diff);
+    }
+
+    private void scheduleSnapshot() {
+        if (!isSnapshotSaved()) return;
+        CometChatExecutors.removeFromMain(saveSnapshotRunnable);
+        CometChatExecutors.postToMain(saveSnapshotRunnable, SNAPSHOT_SAVE_DELAY);
+    }
+
+    private boolean isSnapshotSaved() {
+        return snapshotEnabled && fetchedFirstPage && CometChatConversationSnapshot.isEnabled();
+    }
+
     private void fetchConversationsList(boolean cleanAndLoad) {
         conversationsRequest.fetchNext(new CometChat.CallbackListener<List<Conversation>>() {
             @Override
             public void onSuccess(List<Conversation> conversations) {
-                if (cleanAndLoad) clear();
                 hasMore = !conversations.isEmpty();
-                if (hasMore) addList(conversations);
+                if (cleanAndLoad || !fetchedFirstPage) {
+                    fetchedFirstPage = true;
+                    reconcile(conversations);
+                    scheduleSnapshot();
+                } else if (hasMore) {
+                    addList(conversations);
+                }
                 states.setValue(checkIsEmpty(conversationList));
                 if (!connectionListerAttached) {
                     addConnectionListener();
@@ -844,99 +873,74 @@ public class ConversationsViewModel extends ViewModel {
     }
 
     public void addList(List<Conversation> conversations) {
-        for (int i = 0; i < conversations.size(); i++) {
-            if (conversationList.contains(conversations.get(i))) {
-                int index = conversationList.indexOf(conversations.get(i));
-                conversationList.remove(conversations.get(i));
-                conversationList.add(index, conversations.get(i));
-            } else {
-                conversationList.add(conversations.get(i));
-            }
+        for (Conversation conversation : conversations) {
+            int index = conversationList.indexOf(conversation);
+            if (index > -1) conversationList.set(index, conversation);
+            else conversationList.add(conversation);
         }
         mutableConversationList.setValue(conversationList);
     }
 
     public void updateGroupConversation(Group group) {
-        for (int i = 0; i < conversationList.size(); i++) {
-            Conversation conversation = conversationList.get(i);
-            if (conversation.getConversationType().equalsIgnoreCase(UIKitConstants.ConversationType.GROUPS)) {
-                Group conversationGroup = ((Group) conversation.getConversationWith());
-                if (conversationGroup != null && group != null && conversationGroup.getGuid().equals(group.getGuid())) {
-                    conversation.setConversationWith(group);
-                    updateConversation.setValue(i);
-                    break;
-                }
-            }
+        if (group == null) return;
+        int index = conversationList.indexOfGroup(group.getGuid());
+        if (index > -1) {
+            conversationList.get(index).setConversationWith(group);
+            updateConversation.setValue(index);
         }
     }
 
     public Group getGroupFromConversation(String guid) {
-        for (int i = 0; i < conversationList.size(); i++) {
-            Conversation conversation = conversationList.get(i);
-            if (conversation.getConversationType().equalsIgnoreCase(UIKitConstants.ConversationType.GROUPS)) {
-                Group conversationGroup = ((Group) conversation.getConversationWith());
-                if (conversationGroup != null && conversationGroup.getGuid().equals(guid)) {
-                    return conversationGroup;
-                }
-            }
-        }
-        return null;
+        int index = conversationList.indexOfGroup(guid);
+        return index < 0 ? null : (Group) conversationList.get(index).getConversationWith();
     }
 
     public void updateUserConversation(User user) {
-        for (int i = 0; i < conversationList.size(); i++) {
-            Conversation conversation = conversationList.get(i);
-            if (conversation.getConversationType().equalsIgnoreCase(UIKitConstants.ConversationType.USERS)) {
-                User userConversation = ((User) conversation.getConversationWith());
-                if (userConversation != null && user != null && userConversation.getUid().equals(user.getUid())) {
-                    userConversation.setStatus(user.getStatus());
-                    conversation.setConversationWith(userConversation);
-                    updateConversation.setValue(i);
-                    break;
-                }
-            }
+        if (user == null) return;
+        int index = conversationList.indexOfUser(user.getUid());
+        if (index > -1) {
+            Conversation conversation = conversationList.get(index);
+            User userConversation = ((User) conversation.getConversationWith());
+            userConversation.setStatus(user.getStatus());
+            conversation.setConversationWith(userConversation);
+            updateConversation.setValue(index);
         }
     }
 
     public void removeGroup(Group group) {
-        for (int i = 0; i < conversationList.size(); i++) {
-            Conversation conversation = conversationList.get(i);
-            if (conversation.getConversationType().equalsIgnoreCase(UIKitConstants.ConversationType.GROUPS)) {
-                Group conversationGroup = ((Group) conversation.getConversationWith());
-                if (conversationGroup != null && group != null && conversationGroup.getGuid().equals(group.getGuid())) {
-                    remove(conversation);
-                    break;
-                }
-            }
-        }
+        if (group == null) return;
+        int index = conversationList.indexOfGroup(group.getGuid());
+        if (index > -1) remove(index);
     }
 
     public void removeUser(User user) {
-        for (int i = 0; i < conversationList.size(); i++) {
-            Conversation conversation = conversationList.get(i);
-            if (conversation.getConversationType().equalsIgnoreCase(UIKitConstants.ConversationType.USERS)) {
-                User conversationUser = ((User) conversation.getConversationWith());
-                if (conversationUser != null && user != null && conversationUser.getUid().equals(conversationUser.getUid())) {
-                    remove(i);
-                    break;
-                }
-            }
-        }
+        if (user == null) return;
+        int index = conversationList.indexOfUser(user.getUid());
+        if (index > -1) remove(index);
     }
 
     public void remove(int index) {
         conversationList.remove(index);
         removeConversation.setValue(index);
         states.setValue(checkIsEmpty(conversationList));
+        scheduleSnapshot();
     }
 
     public void setConversationsRequestBuilder(ConversationsRequest.ConversationsRequestBuilder conversationsRequestBuilder) {
         if (conversationsRequestBuilder != null) {
             this.conversationsRequestBuilder = conversationsRequestBuilder;
             this.conversationsRequest = conversationsRequestBuilder.build();
+            this.snapshotEnabled = false;
         }
     }
 
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        CometChatExecutors.removeFromMain(saveSnapshotRunnable);
+        if (isSnapshotSaved()) saveSnapshotRunnable.run();
+    }
+
     private UIKitConstants.States checkIsEmpty(List<Conversation> conversations) {
         if (conversations.isEmpty()) return UIKitConstants.States.EMPTY;
         return UIKitConstants.States.NON_EMPTY;
@@ -19,9 +19,10 @@ import org.json.JSONObject;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 public class Extensions {
     public static final String linkPreview = "link-preview";
@@ -45,79 +46,63 @@ public class Extensions {
     public static final String mentions = "mentions";
     private static final String TAG = Extensions.class.getSimpleName();
 
+    private static final int MAX_CACHED_MESSAGES = 500;
+    private static final LinkedHashMap<Integer, CachedExtensions> parsedExtensionsCache = new LinkedHashMap<Integer, CachedExtensions>(
+        64,
+        0.75f,
+        true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, CachedExtensions> eldest) {
+            return size() > MAX_CACHED_MESSAGES;
+        }
+    };
+
     public static boolean isImageModerated(Context context, BaseMessage baseMessage) {
-        boolean result = false;
-        try {
-            HashMap<String, JSONObject> extensionList = extensionCheck(baseMessage);
-            if (extensionList != null && extensionList.containsKey("imageModeration")) {
-                JSONObject imageModeration = extensionList.get("imageModeration");
-                if (imageModeration != null && imageModeration.has("unsafe")) {
-                    String unsafe = imageModeration.getString("unsafe");
-                    result = unsafe.equals("yes");
-                }
+        return getParsedExtensions(baseMessage).isImageUnsafe();
+    }
+
+    /**
+     * Returns the parsed extension metadata of the given message.
+     *
+     * <p>
+     * The metadata of a sent message is parsed once per edit and kept in a
+     * bounded cache keyed by the message id, so binding the same message again
+     * does not parse its JSON again.
+     *
+     * @param baseMessage the message to read.
+     * @return the parsed extensions, never null.
+     */
+    @NonNull
+    public static ParsedExtensions getParsedExtensions(@NonNull BaseMessage baseMessage) {
+        JSONObject metadata = baseMessage.getMetadata();
+        if (metadata == null) return ParsedExtensions.EMPTY;
+        int id = baseMessage.getId();
+        if (id <= 0) return new ParsedExtensions(metadata);
+        synchronized (parsedExtensionsCache) {
+            CachedExtensions cached = parsedExtensionsCache.get(id);
+            if (cached != null && cached.metadata == metadata && cached.updatedAt == baseMessage.getUpdatedAt()) {
+                return cached.parsedExtensions;
             }
-        } catch (Exception e) {
-            CometChatLogger.e(TAG, e.toString());
         }
-        return result;
+        ParsedExtensions parsedExtensions = new ParsedExtensions(metadata);
+        synchronized (parsedExtensionsCache) {
+            parsedExtensionsCache.put(id, new CachedExtensions(metadata, baseMessage.getUpdatedAt(), parsedExtensions));
+        }
+        return parsedExtensions;
     }
 
-    public static HashMap<String, JSONObject> extensionCheck(BaseMessage baseMessage) {
-        JSONObject metadata = baseMessage.getMetadata();
-        HashMap<String, JSONObject> extensionMap = new HashMap<>();
-        try {
-            if (metadata != null) {
-                JSONObject injectedObject = metadata.getJSONObject("@injected");
-                if (injectedObject.has("extensions")) {
-                    JSONObject extensionsObject = injectedObject.getJSONObject("extensions");
-                    if (extensionsObject.has(linkPreview)) {
-                        JSONObject linkPreviewObject = extensionsObject.getJSONObject(linkPreview);
-                        JSONArray linkPreview = linkPreviewObject.getJSONArray("links");
-                        if (linkPreview.length() > 0) {
-                            extensionMap.put("linkPreview", linkPreview.getJSONObject(0));
-                        }
-                    }
-                    if (extensionsObject.has(smartReply)) {
-                        extensionMap.put("smartReply", extensionsObject.getJSONObject(smartReply));
-                    }
-                    if (extensionsObject.has(messageTranslation)) {
-                        extensionMap.put("messageTranslation", extensionsObject.getJSONObject(messageTranslation));
-                    }
-                    if (extensionsObject.has(profanityFilter)) {
-                        extensionMap.put("profanityFilter", extensionsObject.getJSONObject(profanityFilter));
-                    }
-                    if (extensionsObject.has(imageModeration)) {
-                        extensionMap.put("imageModeration", extensionsObject.getJSONObject(imageModeration));
-                    }
-                    if (extensionsObject.has(thumbnailGeneration)) {
-                        extensionMap.put("thumbnailGeneration", extensionsObject.getJSONObject(thumbnailGeneration));
-                    }
-                    if (extensionsObject.has(sentimentalAnalysis)) {
-                        extensionMap.put("sentimentAnalysis", extensionsObject.getJSONObject(sentimentalAnalysis));
-                    }
-                    if (extensionsObject.has(polls)) {
-                        extensionMap.put("polls", extensionsObject.getJSONObject(polls));
-                    }
-                    if (extensionsObject.has(reactions)) {
-                        if (extensionsObject.get(reactions) instanceof JSONObject)
-                            extensionMap.put("reactions", extensionsObject.getJSONObject(reactions));
-                    }
-                    if (extensionsObject.has(whiteboard)) {
-                        extensionMap.put("whiteboard", extensionsObject.getJSONObject(whiteboard));
-                    }
-                    if (extensionsObject.has(document)) {
-                        extensionMap.put("document", extensionsObject.getJSONObject(document));
-                    }
-                    if (extensionsObject.has(dataMasking)) {
-                        extensionMap.put("dataMasking", extensionsObject.getJSONObject(dataMasking));
-                    }
-                }
-                return extensionMap;
-            } else return null;
-        } catch (Exception e) {
-            CometChatLogger.e(TAG, e.toString());
+    /**
+     * Drops all the parsed extension metadata, for example on logout.
+     */
+    public static void clearParsedExtensions() {
+        synchronized (parsedExtensionsCache) {
+            parsedExtensionsCache.clear();
         }
-        return null;
+    }
+
+    public static HashMap<String, JSONObject> extensionCheck(BaseMessage baseMessage) {
+        ParsedExtensions parsedExtensions = getParsedExtensions(baseMessage);
+        return parsedExtensions.isValid() ? new HashMap<>(parsedExtensions.getExtensions()) : null;
     }
 
     /**
@@ -130,54 +115,15 @@ public class Extensions {
      * @return is a String which contains url_small
      */
     public static String getThumbnailUrl(BaseMessage baseMessage) {
-        String resultUrl = null;
-        try {
-            HashMap<String, JSONObject> extensionList = extensionCheck(baseMessage);
-            if (extensionList != null && extensionList.containsKey("thumbnailGeneration")) {
-                JSONObject thumbnailGeneration = extensionList.get("thumbnailGeneration");
-                if (thumbnailGeneration != null) {
-                    resultUrl = thumbnailGeneration.getString("url_medium");
-                }
-            }
-        } catch (Exception e) {
-            CometChatLogger.e(TAG, e.toString());
-        }
-        return resultUrl;
+        return getParsedExtensions(baseMessage).getThumbnailUrl();
     }
 
     public static List<String> getSmartReplyList(@NonNull BaseMessage baseMessage) {
-        HashMap<String, JSONObject> extensionList = extensionCheck(baseMessage);
-        List<String> replyList = new ArrayList<>();
-        if (extensionList != null && extensionList.containsKey("smartReply")) {
-            JSONObject replyObject = extensionList.get("smartReply");
-            if (replyObject != null) {
-                try {
-                    replyList.add(replyObject.getString("reply_positive"));
-                    replyList.add(replyObject.getString("reply_neutral"));
-                    replyList.add(replyObject.getString("reply_negative"));
-                } catch (Exception e) {
-                    CometChatLogger.e(TAG, e.toString());
-                }
-            }
-        }
-        return replyList;
+        return new ArrayList<>(getParsedExtensions(baseMessage).getSmartReplies());
     }
 
     public static boolean checkSentiment(BaseMessage baseMessage) {
-        boolean result = false;
-        HashMap<String, JSONObject> extensionList = extensionCheck(baseMessage);
-        try {
-            if (extensionList != null && extensionList.containsKey("sentimentAnalysis")) {
-                JSONObject sentimentAnalysis = extensionList.get("sentimentAnalysis");
-                if (sentimentAnalysis != null) {
-                    String str = sentimentAnalysis.getString("sentiment");
-                    result = str.equals("negative");
-                }
-            }
-        } catch (Exception e) {
-            CometChatLogger.e(TAG, e.toString());
-        }
-        return result;
+        return getParsedExtensions(baseMessage).isNegativeSentiment();
     }
 
     /**
@@ -190,56 +136,20 @@ public class Extensions {
      */
     public static String checkProfanityMessage(Context context, BaseMessage baseMessage) {
         String result = ((TextMessage) baseMessage).getText();
-        HashMap<String, JSONObject> extensionList = Extensions.extensionCheck(baseMessage);
-        if (extensionList != null) {
-            try {
-                if (extensionList.containsKey("profanityFilter")) {
-                    JSONObject profanityFilter = extensionList.get("profanityFilter");
-                    if (profanityFilter != null) {
-                        String profanity = profanityFilter.getString("profanity");
-                        String cleanMessage = profanityFilter.getString("message_clean");
-                        if (profanity.equals("no")) result = ((TextMessage) baseMessage).getText();
-                        else result = cleanMessage;
-                    }
-                } else {
-                    result = ((TextMessage) baseMessage).getText().trim();
-                }
-            } catch (Exception e) {
-                CometChatLogger.e(TAG, e.toString());
+        ParsedExtensions parsedExtensions = getParsedExtensions(baseMessage);
+        if (parsedExtensions.isValid()) {
+            if (!parsedExtensions.has("profanityFilter")) {
+                if (result != null) result = result.trim();
+            } else if (parsedExtensions.isProfane()) {
+                result = parsedExtensions.getProfanityCleanMessage();
             }
         }
         return result;
     }
 
     public static String checkDataMasking(Context context, BaseMessage baseMessage) {
-        String result = ((TextMessage) baseMessage).getText();
-        String sensitiveData;
-        String messageMasked;
-        HashMap<String, JSONObject> extensionList = Extensions.extensionCheck(baseMessage);
-        if (extensionList != null) {
-            try {
-                if (extensionList.containsKey("dataMasking")) {
-                    JSONObject dataMasking = extensionList.get("dataMasking");
-                    if (dataMasking != null) {
-                        JSONObject dataObject = dataMasking.getJSONObject("data");
-                        if (dataObject.has("sensitive_data") && dataObject.has("message_masked")) {
-                            sensitiveData = dataObject.getString("sensitive_data");
-                            messageMasked = dataObject.getString("message_masked");
-                            if (sensitiveData.equals("no"))
-                                result = ((TextMessage) baseMessage).getText();
-                            else result = messageMasked;
-                        } else if (dataObject.has("action") && dataObject.has("message")) {
-                            result = dataObject.getString("message");
-                        }
-                    }
-                } else {
-                    result = ((TextMessage) baseMessage).getText();
-                }
-            } catch (Exception e) {
-                CometChatLogger.e(TAG, e.toString());
-            }
-        }
-        return result;
+        String maskedMessage = getParsedExtensions(baseMessage).getMaskedMessage();
+        return maskedMessage != null ? maskedMessage : ((TextMessage) baseMessage).getText();
     }
 
     public static int userVotedOn(BaseMessage baseMessage, int totalOptions, String loggedInUserId) {
@@ -265,21 +175,7 @@ public class Extensions {
     }
 
     public static JSONObject getPollsResult(BaseMessage baseMessage) {
-        JSONObject result = new JSONObject();
-        HashMap<String, JSONObject> extensionList = Extensions.extensionCheck(baseMessage);
-        if (extensionList != null) {
-            try {
-                if (extensionList.containsKey("polls")) {
-                    JSONObject polls = extensionList.get("polls");
-                    if (polls != null && polls.has("results")) {
-                        result = polls.getJSONObject("results");
-                    }
-                }
-            } catch (Exception e) {
-                CometChatLogger.e(TAG, e.toString());
-            }
-        }
-        return result;
+        return getParsedExtensions(baseMessage).getPollResults();
     }
 
     public static int getVoteCount(BaseMessage baseMessage) {
@@ -381,27 +277,7 @@ public class Extensions {
     }
 
     public static HashMap<String, String> getReactionsOnMessage(BaseMessage baseMessage) {
-        HashMap<String, String> result = new HashMap<>();
-        HashMap<String, JSONObject> extensionList = Extensions.extensionCheck(baseMessage);
-        if (extensionList != null) {
-            try {
-                if (extensionList.containsKey("reactions")) {
-                    JSONObject data = extensionList.get("reactions");
-                    if (data != null) {
-                        Iterator<String> keys = data.keys();
-                        while (keys.hasNext()) {
-                            String keyValue = keys.next();
-                            JSONObject react = data.getJSONObject(keyValue);
-                            String reactCount = react.length() + "";
-                            result.put(keyValue, reactCount);
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                CometChatLogger.e(TAG, e.toString());
-            }
-        }
-        return result;
+        return new HashMap<>(getParsedExtensions(baseMessage).getReactionCounts());
     }
 
     public static void callWriteBoardExtension(String receiverId, String receiverType, ExtensionResponseListener extensionResponseListener) {
@@ -447,37 +323,20 @@ public class Extensions {
     }
 
     public static String getWhiteBoardUrl(BaseMessage baseMessage) {
-        String boardUrl = "";
-        HashMap<String, JSONObject> extensionCheck = extensionCheck(baseMessage);
-        if (extensionCheck != null && extensionCheck.containsKey("whiteboard")) {
-            JSONObject whiteBoardData = extensionCheck.get("whiteboard");
-            if (whiteBoardData != null && whiteBoardData.has("board_url")) {
-                try {
-                    boardUrl = whiteBoardData.getString("board_url");
-                    String userName = CometChatUIKit.getLoggedInUser().getName().replace("//s+", "_");
-                    boardUrl = boardUrl + "&username=" + userName;
-                } catch (Exception e) {
-                    CometChatLogger.e(TAG, e.toString());
-                }
-            }
+        String boardUrl = getParsedExtensions(baseMessage).getWhiteboardUrl();
+        if (boardUrl == null) return "";
+        try {
+            String userName = CometChatUIKit.getLoggedInUser().getName().replace("//s+", "_");
+            boardUrl = boardUrl + "&username=" + userName;
+        } catch (Exception e) {
+            CometChatLogger.e(TAG, e.toString());
         }
         return boardUrl;
     }
 
     public static String getWriteBoardUrl(BaseMessage baseMessage) {
-        String boardUrl = "";
-        HashMap<String, JSONObject> extensionCheck = extensionCheck(baseMessage);
-        if (extensionCheck != null && extensionCheck.containsKey("document")) {
-            JSONObject whiteBoardData = extensionCheck.get("document");
-            if (whiteBoardData != null && whiteBoardData.has("document_url")) {
-                try {
-                    boardUrl = whiteBoardData.getString("document_url");
-                } catch (Exception e) {
-                    CometChatLogger.e(TAG, e.toString());
-                }
-            }
-        }
-        return boardUrl;
+        String documentUrl = getParsedExtensions(baseMessage).getDocumentUrl();
+        return documentUrl != null ? documentUrl : "";
     }
 
     public static String getTranslatedMessage(BaseMessage baseMessage) {
@@ -596,4 +455,15 @@ public class Extensions {
         return result;
     }
 
+    private static final class CachedExtensions {
+        private final JSONObject metadata;
+        private final long updatedAt;
+        private final ParsedExtensions parsedExtensions;
+
+        private CachedExtensions(JSONObject metadata, long updatedAt, ParsedExtensions parsedExtensions) {
+            this.metadata = metadata;
+            this.updatedAt = updatedAt;
+            this.parsedExtensions = parsedExtensions;
+        }
+    }
 }
@@ -0,0 +1,301 @@
+package com.cometchat.chatuikit.extensions;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.cometchat.chatuikit.logger.CometChatLogger;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ParsedExtensions is the typed form of the {@code @injected.extensions}
+ * metadata of a message. It is built once per message version by
+ * {@link Extensions#getParsedExtensions(com.cometchat.chat.models.BaseMessage)}
+ * and read by all the {@link Extensions} accessors.
+ */
+public final class ParsedExtensions {
+    private static final String TAG = ParsedExtensions.class.getSimpleName();
+    static final ParsedExtensions EMPTY = new ParsedExtensions(null);
+
+    private final boolean valid;
+    private final Map<String, JSONObject> extensions;
+    private final LinkPreview linkPreview;
+    private final List<String> smartReplies;
+    private final String thumbnailUrl;
+    private final boolean imageUnsafe;
+    private final boolean negativeSentiment;
+    private final boolean profane;
+    private final String profanityCleanMessage;
+    private final String maskedMessage;
+    private final JSONObject pollResults;
+    private final Map<String, String> reactionCounts;
+    private final String whiteboardUrl;
+    private final String documentUrl;
+
+    ParsedExtensions(@Nullable JSONObject metadata) {
+        HashMap<String, JSONObject> extensionMap = new HashMap<>();
+        boolean parsed = false;
+        if (metadata != null) {
+            try {
+                JSONObject injectedObject = metadata.getJSONObject("@injected");
+                if (injectedObject.has("extensions")) {
+                    readExtensions(injectedObject.getJSONObject("extensions"), extensionMap);
+                }
+                parsed = true;
+            } catch (Exception e) {
+                extensionMap.clear();
+                CometChatLogger.e(TAG, e.toString());
+            }
+        }
+        valid = parsed;
+        extensions = Collections.unmodifiableMap(extensionMap);
+
+        JSONObject linkPreviewObject = extensionMap.get("linkPreview");
+        linkPreview = linkPreviewObject == null ? null : new LinkPreview(linkPreviewObject);
+
+        List<String> replies = new ArrayList<>();
+        JSONObject replyObject = extensionMap.get("smartReply");
+        if (replyObject != null) {
+            try {
+                replies.add(replyObject.getString("reply_positive"));
+                replies.add(replyObject.getString("reply_neutral"));
+                replies.add(replyObject.getString("reply_negative"));
+            } catch (Exception e) {
+                CometChatLogger.e(TAG, e.toString());
+            }
+        }
+        smartReplies = Collections.unmodifiableList(replies);
+
+        thumbnailUrl = getString(extensionMap.get("thumbnailGeneration"), "url_medium");
+        imageUnsafe = "yes".equals(getString(extensionMap.get("imageModeration"), "unsafe"));
+        negativeSentiment = "negative".equals(getString(extensionMap.get("sentimentAnalysis"), "sentiment"));
+
+        JSONObject profanityFilter = extensionMap.get("profanityFilter");
+        String cleanMessage = null;
+        boolean isProfane = false;
+        if (profanityFilter != null) {
+            try {
+                isProfane = !profanityFilter.getString("profanity").equals("no");
+                cleanMessage = profanityFilter.getString("message_clean");
+            } catch (Exception e) {
+                isProfane = false;
+                CometChatLogger.e(TAG, e.toString());
+            }
+        }
+        profane = isProfane;
+        profanityCleanMessage = cleanMessage;
+
+        String masked = null;
+        JSONObject dataMasking = extensionMap.get("dataMasking");
+        if (dataMasking != null) {
+            try {
+                JSONObject dataObject = dataMasking.getJSONObject("data");
+                if (dataObject.has("sensitive_data") && dataObject.has("message_masked")) {
+                    if (!dataObject.getString("sensitive_data").equals("no"))
+                        masked = dataObject.getString("message_masked");
+                } else if (dataObject.has("action") && dataObject.has("message")) {
+                    masked = dataObject.getString("message");
+                }
+            } catch (Exception e) {
+                CometChatLogger.e(TAG, e.toString());
+            }
+        }
+        maskedMessage = masked;
+
+        JSONObject polls = extensionMap.get("polls");
+        pollResults = polls != null && polls.optJSONObject("results") != null ? polls.optJSONObject("results") : new JSONObject();
+
+        HashMap<String, String> counts = new HashMap<>();
+        JSONObject reactionsObject = extensionMap.get("reactions");
+        if (reactionsObject != null) {
+            try {
+                Iterator<String> keys = reactionsObject.keys();
+                while (keys.hasNext()) {
+                    String key = keys.next();
+                    counts.put(key, String.valueOf(reactionsObject.getJSONObject(key).length()));
+                }
+            } catch (Exception e) {
+                CometChatLogger.e(TAG, e.toString());
+            }
+        }
+        reactionCounts = Collections.unmodifiableMap(counts);
+
+        whiteboardUrl = getString(extensionMap.get("whiteboard"), "board_url");
+        documentUrl = getString(extensionMap.get("document"), "document_url");
+    }
+
+    private static void readExtensions(JSONObject extensionsObject, Map<String, JSONObject> extensionMap) throws Exception {
+        if (extensionsObject.has(Extensions.linkPreview)) {
+            JSONArray links = extensionsObject.getJSONObject(Extensions.linkPreview).getJSONArray("links");
+            if (links.length() > 0) extensionMap.put("linkPreview", links.getJSONObject(0));
+        }
+        putObject(extensionsObject, Extensions.smartReply, "smartReply", extensionMap);
+        putObject(extensionsObject, Extensions.messageTranslation, "messageTranslation", extensionMap);
+        putObject(extensionsObject, Extensions.profanityFilter, "profanityFilter", extensionMap);
+        putObject(extensionsObject, Extensions.imageModeration, "imageModeration", extensionMap);
+        putObject(extensionsObject, Extensions.thumbnailGeneration, "thumbnailGeneration", extensionMap);
+        putObject(extensionsObject, Extensions.sentimentalAnalysis, "sentimentAnalysis", extensionMap);
+        putObject(extensionsObject, Extensions.polls, "polls", extensionMap);
+        if (extensionsObject.opt(Extensions.reactions) instanceof JSONObject)
+            extensionMap.put("reactions", extensionsObject.getJSONObject(Extensions.reactions));
+        putObject(extensionsObject, Extensions.whiteboard, "whiteboard", extensionMap);
+        putObject(extensionsObject, Extensions.document, "document", extensionMap);
+        putObject(extensionsObject, Extensions.dataMasking, "dataMasking", extensionMap);
+    }
+
+    private static void putObject(JSONObject extensionsObject, String name, String key, Map<String, JSONObject> extensionMap) throws Exception {
+        if (extensionsObject.has(name)) extensionMap.put(key, extensionsObject.getJSONObject(name));
+    }
+
+    @Nullable
+    private static String getString(@Nullable JSONObject jsonObject, String name) {
+        if (jsonObject == null || !jsonObject.has(name)) return null;
+        try {
+            return jsonObject.getString(name);
+        } catch (Exception e) {
+            CometChatLogger.e(TAG, e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Returns false if the message has no metadata or its extensions could not
+     * be read, in which case every value is empty.
+     */
+    public boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Returns the raw extension objects, keyed like
+     * {@link Extensions#extensionCheck(com.cometchat.chat.models.BaseMessage)}.
+     */
+    @NonNull
+    public Map<String, JSONObject> getExtensions() {
+        return extensions;
+    }
+
+    public boolean has(String key) {
+        return extensions.containsKey(key);
+    }
+
+    @Nullable
+    public LinkPreview getLinkPreview() {
+        return linkPreview;
+    }
+
+    @NonNull
+    public List<String> getSmartReplies() {
+        return smartReplies;
+    }
+
+    @Nullable
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public boolean isImageUnsafe() {
+        return imageUnsafe;
+    }
+
+    public boolean isNegativeSentiment() {
+        return negativeSentiment;
+    }
+
+    public boolean isProfane() {
+        return profane;
+    }
+
+    @Nullable
+    public String getProfanityCleanMessage() {
+        return profanityCleanMessage;
+    }
+
+    /**
+     * Returns the masked text of the message, or null if the data masking
+     * extension did not change it.
+     */
+    @Nullable
+    public String getMaskedMessage() {
+        return maskedMessage;
+    }
+
+    /**
+     * Returns the poll results. The object is shared and must not be modified.
+     */
+    @NonNull
+    public JSONObject getPollResults() {
+        return pollResults;
+    }
+
+    @NonNull
+    public Map<String, String> getReactionCounts() {
+        return reactionCounts;
+    }
+
+    @Nullable
+    public String getWhiteboardUrl() {
+        return whiteboardUrl;
+    }
+
+    @Nullable
+    public String getDocumentUrl() {
+        return documentUrl;
+    }
+
+    /**
+     * The first link preview of a message.
+     */
+    public static final class LinkPreview {
+        private final String title;
+        private final String description;
+        private final String url;
+        private final String image;
+        private final String favIcon;
+        private final boolean complete;
+
+        LinkPreview(JSONObject jsonObject) {
+            title = jsonObject.optString(ExtensionConstants.ExtensionJSONField.TITLE, null);
+            description = jsonObject.optString(ExtensionConstants.ExtensionJSONField.DESCRIPTION, null);
+            url = jsonObject.optString(ExtensionConstants.ExtensionJSONField.URL, null);
+            image = jsonObject.optString(ExtensionConstants.ExtensionJSONField.IMAGE, null);
+            favIcon = jsonObject.optString(ExtensionConstants.ExtensionJSONField.FAV_ICON, null);
+            complete = title != null && description != null && url != null && image != null && favIcon != null;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public String getImage() {
+            return image;
+        }
+
+        public String getFavIcon() {
+            return favIcon;
+        }
+
+        /**
+         * Returns true if the preview has every field the link preview bubble needs.
+         */
+        public boolean isComplete() {
+            return complete;
+        }
+    }
+}
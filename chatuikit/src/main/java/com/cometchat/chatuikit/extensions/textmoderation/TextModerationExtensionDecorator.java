@@ -70,7 +70,7 @@ public class TextModerationExtensionDecorator extends DataSourceDecorator {
         } else {
             lastMessageText = SpannableString.valueOf(context.getResources().getString(R.string.cometchat_start_conv_hint));
         }
-        return SpannableString.valueOf(FormatterUtils.getFormattedText(context, conversation.getLastMessage(), UIKitConstants.FormattingType.CONVERSATIONS, null, String.valueOf(lastMessageText), additionParameter != null && additionParameter.getTextFormatters() != null ? additionParameter.getTextFormatters() : new ArrayList<>()));
+        return SpannableString.valueOf(FormatterUtils.getCachedFormattedText(context, conversation.getLastMessage(), UIKitConstants.FormattingType.CONVERSATIONS, null, String.valueOf(lastMessageText), additionParameter != null && additionParameter.getTextFormatters() != null ? additionParameter.getTextFormatters() : new ArrayList<>()));
     }
 
     public SpannableString getLastMessage(Context context, BaseMessage lastMessage) {
@@ -1,5 +1,7 @@
 package com.cometchat.chatuikit.groupmembers;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
@@ -16,6 +18,7 @@ import com.cometchat.chatuikit.shared.cometchatuikit.CometChatUIKitHelper;
 import com.cometchat.chatuikit.shared.constants.UIKitConstants;
 import com.cometchat.chatuikit.shared.events.CometChatGroupEvents;
 import com.cometchat.chatuikit.shared.resources.utils.Utils;
+import com.cometchat.chatuikit.shared.search.SearchPipeline;
 import com.cometchat.chatuikit.shared.utils.MembersUtils;
 
 import java.util.ArrayList;
@@ -64,6 +67,33 @@ public class GroupMembersViewModel extends ViewModel {
 
     private boolean connectionListerAttached;
 
+    private final SearchPipeline.Listener<GroupMember, GroupMembersRequest> searchListener = new SearchPipeline.Listener<GroupMember, GroupMembersRequest>() {
+        @Override
+        public void onLocalResults(@NonNull String query, @NonNull List<GroupMember> groupMembers) {
+            groupMemberArrayList.clear();
+            addList(groupMembers);
+            states.setValue(groupMembers.isEmpty() ? UIKitConstants.States.LOADING : UIKitConstants.States.NON_EMPTY);
+        }
+
+        @Override
+        public void onResults(@NonNull String query, @NonNull List<GroupMember> groupMembers, @Nullable GroupMembersRequest request, boolean cached) {
+            // the request that fetched the page, even a cached one, loads the next pages
+            groupMembersRequest = request != null ? request : searchGroupMembersRequestBuilder.setSearchKeyword(query).build();
+            hasMore = !groupMembers.isEmpty();
+            groupMemberArrayList.clear();
+            addList(groupMembers);
+            states.setValue(checkIsEmpty(groupMemberArrayList));
+        }
+
+        @Override
+        public void onError(@NonNull String query, @NonNull CometChatException e) {
+            onErrorTrigger(e);
+            states.setValue(UIKitConstants.States.ERROR);
+        }
+    };
+
+    private final SearchPipeline<GroupMember, GroupMembersRequest> searchPipeline = new SearchPipeline<>(this::fetchSearchResults, this::matchesSearch, searchListener);
+
     public GroupMembersViewModel() {
         init();
     }
@@ -127,6 +157,8 @@ public class GroupMembersViewModel extends ViewModel {
         if (searchGroupMembersRequestBuilder == null)
             searchGroupMembersRequestBuilder = new GroupMembersRequest.GroupMembersRequestBuilder(null).setGuid(id);
         groupMembersRequest = groupMembersRequestBuilder.build();
+        searchPipeline.cancel();
+        searchPipeline.clearCache();
     }
 
     public void setExcludeOwner(boolean excludeOwner) {
@@ -294,9 +326,7 @@ public class GroupMembersViewModel extends ViewModel {
                 Action action = Utils.getGroupActionMessage(updateMember, group, group, group.getGuid());
                 action.setNewScope(scopeChangedTo);
                 action.setAction(CometChatConstants.ActionKeys.ACTION_SCOPE_CHANGED);
-                for (CometChatGroupEvents e : CometChatGroupEvents.groupEvents.values()) {
-                    e.ccGroupMemberScopeChanged(action, updateMember, scopeChangedTo, updateMember.getScope(), group);
-                }
+                CometChatUIKitHelper.onGroupMemberScopeChanged(action, updateMember, scopeChangedTo, updateMember.getScope(), group);
             }
 
             @Override
@@ -370,17 +400,22 @@ public class GroupMembersViewModel extends ViewModel {
 
     public void fetchGroupMember() {
         if (groupMemberArrayList.isEmpty()) states.setValue(UIKitConstants.States.LOADING);
-        if (hasMore) {
+        // the next page of the previous query would mix with the results of the new one
+        if (hasMore && !searchPipeline.isAwaitingResults()) {
             fetchGroupMemberList(false);
         }
     }
 
     private void fetchGroupMemberList(boolean cleanAndLoad) {
-        groupMembersRequest.fetchNext(new CometChat.CallbackListener<List<GroupMember>>() {
+        GroupMembersRequest request = groupMembersRequest;
+        request.fetchNext(new CometChat.CallbackListener<List<GroupMember>>() {
             @Override
             public void onSuccess(List<GroupMember> GroupMembers) {
+                // drops the page of a request replaced by a search or a refresh
+                if (request != groupMembersRequest) return;
                 if (excludeOwner)
                     GroupMembers.removeIf(groupMember -> groupMember.getUid().equals(group.getOwner()));
+                searchPipeline.addPage(request, GroupMembers);
                 if (cleanAndLoad) clear();
                 hasMore = !GroupMembers.isEmpty();
                 if (hasMore) addList(GroupMembers);
@@ -394,6 +429,7 @@ public class GroupMembersViewModel extends ViewModel {
 
             @Override
             public void onError(CometChatException e) {
+                if (request != groupMembersRequest) return;
                 onErrorTrigger(e);
                 states.setValue(UIKitConstants.States.ERROR);
             }
@@ -402,6 +438,8 @@ public class GroupMembersViewModel extends ViewModel {
 
     public void refreshList() {
         if (groupMembersRequestBuilder != null) {
+            searchPipeline.cancel();
+            searchPipeline.clearCache();
             clear();
             groupMembersRequest = groupMembersRequestBuilder.build();
             hasMore = true;
@@ -409,15 +447,48 @@ public class GroupMembersViewModel extends ViewModel {
         }
     }
 
+    /**
+     * Searches the members of the group. The search is debounced and only the
+     * results of the latest keyword are shown.
+     *
+     * @param search the search keyword, or null to show all members again.
+     */
     public void searchGroupMembers(String search) {
+        if (search != null) {
+            searchPipeline.search(search, groupMemberArrayList);
+            return;
+        }
+        searchPipeline.cancel();
         groupMemberArrayList.clear();
         hasMore = true;
-        if (search != null)
-            groupMembersRequest = searchGroupMembersRequestBuilder.setSearchKeyword(search).build();
-        else groupMembersRequest = groupMembersRequestBuilder.build();
+        groupMembersRequest = groupMembersRequestBuilder.build();
         fetchGroupMember();
     }
 
+    public void setSearchDebounceInterval(long debounceMillis) {
+        searchPipeline.setDebounceMillis(debounceMillis);
+    }
+
+    private boolean matchesSearch(GroupMember groupMember, String query) {
+        return SearchPipeline.contains(groupMember.getName(), query) || SearchPipeline.contains(groupMember.getUid(), query);
+    }
+
+    private void fetchSearchResults(String search, SearchPipeline.Callback<GroupMember, GroupMembersRequest> callback) {
+        GroupMembersRequest request = searchGroupMembersRequestBuilder.setSearchKeyword(search).build();
+        request.fetchNext(new CometChat.CallbackListener<List<GroupMember>>() {
+            @Override
+            public void onSuccess(List<GroupMember> groupMembers) {
+                if (excludeOwner) groupMembers.removeIf(groupMember -> groupMember.getUid().equals(group.getOwner()));
+                callback.onSuccess(groupMembers, request);
+            }
+
+            @Override
+            public void onError(CometChatException e) {
+                callback.onError(e);
+            }
+        });
+    }
+
     public void addList(List<GroupMember> GroupMemberList) {
         for (GroupMember GroupMember : GroupMemberList) {
             if (groupMemberArrayList.contains(GroupMember)) {
@@ -440,12 +511,15 @@ public class GroupMembersViewModel extends ViewModel {
         if (groupMembersRequestBuilder != null) {
             this.groupMembersRequestBuilder = groupMembersRequestBuilder;
             this.groupMembersRequest = this.groupMembersRequestBuilder.setGuid(id).build();
+            searchPipeline.clearCache();
         }
     }
 
     public void setSearchRequestBuilder(GroupMembersRequest.GroupMembersRequestBuilder GroupMembersRequestBuilder) {
-        if (GroupMembersRequestBuilder != null)
+        if (GroupMembersRequestBuilder != null) {
             this.searchGroupMembersRequestBuilder = GroupMembersRequestBuilder;
+            searchPipeline.clearCache();
+        }
     }
 
     public void clear() {
@@ -481,9 +555,7 @@ public class GroupMembersViewModel extends ViewModel {
                 group.setMembersCount(group.getMembersCount() - 1);
                 Action action = Utils.getGroupActionMessage(groupMember, group, group, group.getGuid());
                 action.setAction(CometChatConstants.ActionKeys.ACTION_KICKED);
-                for (CometChatGroupEvents events : CometChatGroupEvents.groupEvents.values()) {
-                    events.ccGroupMemberKicked(action, groupMember, loggedInUser, group);
-                }
+                CometChatUIKitHelper.onGroupMemberKicked(action, groupMember, loggedInUser, group);
             }
 
             @Override
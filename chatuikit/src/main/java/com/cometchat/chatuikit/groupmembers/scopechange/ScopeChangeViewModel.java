@@ -9,8 +9,8 @@ import com.cometchat.chat.exceptions.CometChatException;
 import com.cometchat.chat.models.Action;
 import com.cometchat.chat.models.Group;
 import com.cometchat.chat.models.GroupMember;
+import com.cometchat.chatuikit.shared.cometchatuikit.CometChatUIKitHelper;
 import com.cometchat.chatuikit.shared.constants.UIKitConstants;
-import com.cometchat.chatuikit.shared.events.CometChatGroupEvents;
 import com.cometchat.chatuikit.shared.resources.utils.Utils;
 
 public class ScopeChangeViewModel extends ViewModel {
@@ -54,9 +54,7 @@ public class ScopeChangeViewModel extends ViewModel {
                     Action action = Utils.getGroupActionMessage(groupMember, group, group, group.getGuid());
                     action.setNewScope(scopeChangedTo);
                     action.setAction(CometChatConstants.ActionKeys.ACTION_SCOPE_CHANGED);
-                    for (CometChatGroupEvents e : CometChatGroupEvents.groupEvents.values()) {
-                        e.ccGroupMemberScopeChanged(action, groupMember, newScope, groupMember.getScope(), group);
-                    }
+                    CometChatUIKitHelper.onGroupMemberScopeChanged(action, groupMember, newScope, groupMember.getScope(), group);
                     groupMember.setScope(scopeChangedTo);
                     if (scopeChangeCallback != null) scopeChangeCallback.onSuccess(groupMember);
                 }
@@ -1,5 +1,6 @@
 package com.cometchat.chatuikit.groups;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
@@ -15,6 +16,7 @@ import com.cometchat.chat.models.User;
 import com.cometchat.chatuikit.shared.cometchatuikit.CometChatUIKit;
 import com.cometchat.chatuikit.shared.constants.UIKitConstants;
 import com.cometchat.chatuikit.shared.events.CometChatGroupEvents;
+import com.cometchat.chatuikit.shared.search.SearchPipeline;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -112,6 +114,39 @@ public class GroupsViewModel extends ViewModel {
      */
     public boolean hasMore = true;
 
+    /**
+     * Shows the results of the latest search keyword.
+     */
+    private final SearchPipeline.Listener<Group, GroupsRequest> searchListener = new SearchPipeline.Listener<Group, GroupsRequest>() {
+        @Override
+        public void onLocalResults(@NonNull String query, @NonNull List<Group> groups) {
+            groupArrayList.clear();
+            addList(groups);
+            states.setValue(groups.isEmpty() ? UIKitConstants.States.LOADING : UIKitConstants.States.NON_EMPTY);
+        }
+
+        @Override
+        public void onResults(@NonNull String query, @NonNull List<Group> groups, @Nullable GroupsRequest request, boolean cached) {
+            // the request that fetched the page, even a cached one, loads the next pages
+            groupsRequest = request != null ? request : getSearchRequestBuilder().setSearchKeyWord(query).build();
+            hasMore = !groups.isEmpty();
+            groupArrayList.clear();
+            addList(groups);
+            states.setValue(checkIsEmpty(groupArrayList));
+        }
+
+        @Override
+        public void onError(@NonNull String query, @NonNull CometChatException e) {
+            cometchatException.setValue(e);
+            if (groupArrayList.isEmpty()) states.setValue(UIKitConstants.States.ERROR);
+        }
+    };
+
+    /**
+     * Debounces the search keywords and drops stale search responses.
+     */
+    private final SearchPipeline<Group, GroupsRequest> searchPipeline;
+
     /**
      * Initializes the GroupsViewModel and sets up the necessary LiveData objects.
      */
@@ -129,6 +164,7 @@ public class GroupsViewModel extends ViewModel {
         groupsRequestBuilder = new GroupsRequest.GroupsRequestBuilder().setLimit(limit);
         groupsRequest = groupsRequestBuilder.build();
         LISTENERS_TAG = System.currentTimeMillis() + "";
+        searchPipeline = new SearchPipeline<>(this::fetchSearchResults, this::matchesSearch, searchListener);
     }
 
     /**
@@ -438,7 +474,8 @@ public class GroupsViewModel extends ViewModel {
         if (groupArrayList.isEmpty()) {
             states.setValue(UIKitConstants.States.LOADING);
         }
-        if (hasMore) {
+        // the next page of the previous query would mix with the results of the new one
+        if (hasMore && !searchPipeline.isAwaitingResults()) {
             fetchGroupList(false);
         }
     }
@@ -450,9 +487,13 @@ public class GroupsViewModel extends ViewModel {
      * @param cleanAndLoad Boolean indicating whether to clear the existing list.
      */
     public void fetchGroupList(boolean cleanAndLoad) {
-        groupsRequest.fetchNext(new CometChat.CallbackListener<List<Group>>() {
+        GroupsRequest request = groupsRequest;
+        request.fetchNext(new CometChat.CallbackListener<List<Group>>() {
             @Override
             public void onSuccess(List<Group> groups) {
+                // drops the page of a request replaced by a search or a refresh
+                if (request != groupsRequest) return;
+                searchPipeline.addPage(request, groups);
                 if (cleanAndLoad) clear();
 
                 hasMore = !groups.isEmpty();
@@ -470,6 +511,7 @@ public class GroupsViewModel extends ViewModel {
 
             @Override
             public void onError(CometChatException exception) {
+                if (request != groupsRequest) return;
                 cometchatException.setValue(exception);
                 if (groupArrayList.isEmpty()) {
                     states.setValue(UIKitConstants.States.ERROR);
@@ -484,6 +526,8 @@ public class GroupsViewModel extends ViewModel {
      */
     public void refreshList() {
         if (groupsRequestBuilder != null) {
+            searchPipeline.cancel();
+            searchPipeline.clearCache();
             groupsRequest = groupsRequestBuilder.build();
             hasMore = true;
             fetchGroupList(true);
@@ -512,20 +556,56 @@ public class GroupsViewModel extends ViewModel {
     }
 
     /**
-     * Searches for groups based on the provided search keyword. Clears existing
-     * data and initiates a new fetch.
+     * Searches for groups based on the provided search keyword. The search is
+     * debounced and only the results of the latest keyword are shown.
      *
-     * @param search The search keyword for finding groups.
+     * @param search The search keyword for finding groups, or null to show all
+     *               groups again.
      */
     public void searchGroups(String search) {
+        if (search != null) {
+            searchPipeline.search(search, groupArrayList);
+            return;
+        }
+        searchPipeline.cancel();
         clear();
         hasMore = true;
-        if (searchGroupsRequestBuilder == null)
-            groupsRequest = groupsRequestBuilder.setSearchKeyWord(search).build();
-        else groupsRequest = searchGroupsRequestBuilder.setSearchKeyWord(search).build();
+        groupsRequest = getSearchRequestBuilder().setSearchKeyWord(null).build();
         fetchGroup();
     }
 
+    /**
+     * Sets how long the search waits for the next keystroke before it is sent.
+     *
+     * @param debounceMillis The debounce interval in milliseconds.
+     */
+    public void setSearchDebounceInterval(long debounceMillis) {
+        searchPipeline.setDebounceMillis(debounceMillis);
+    }
+
+    private GroupsRequest.GroupsRequestBuilder getSearchRequestBuilder() {
+        return searchGroupsRequestBuilder == null ? groupsRequestBuilder : searchGroupsRequestBuilder;
+    }
+
+    private boolean matchesSearch(Group group, String query) {
+        return SearchPipeline.contains(group.getName(), query) || SearchPipeline.contains(group.getGuid(), query);
+    }
+
+    private void fetchSearchResults(String search, SearchPipeline.Callback<Group, GroupsRequest> callback) {
+        GroupsRequest request = getSearchRequestBuilder().setSearchKeyWord(search).build();
+        request.fetchNext(new CometChat.CallbackListener<List<Group>>() {
+            @Override
+            public void onSuccess(List<Group> groups) {
+                callback.onSuccess(groups, request);
+            }
+
+            @Override
+            public void onError(CometChatException e) {
+                callback.onError(e);
+            }
+        });
+    }
+
     /**
      * Adds a list of groups to the group array list, updating their positions if
      * they already exist in the list.
@@ -566,6 +646,7 @@ public class GroupsViewModel extends ViewModel {
         if (groupsRequestBuilder != null) {
             this.groupsRequestBuilder = groupsRequestBuilder;
             this.groupsRequest = this.groupsRequestBuilder.build();
+            searchPipeline.clearCache();
         }
     }
 
@@ -575,7 +656,10 @@ public class GroupsViewModel extends ViewModel {
      * @param groupsRequestBuilder The builder to set for searching.
      */
     public void setSearchRequestBuilder(GroupsRequest.GroupsRequestBuilder groupsRequestBuilder) {
-        if (groupsRequestBuilder != null) this.searchGroupsRequestBuilder = groupsRequestBuilder;
+        if (groupsRequestBuilder != null) {
+            this.searchGroupsRequestBuilder = groupsRequestBuilder;
+            searchPipeline.clearCache();
+        }
     }
 
     /**
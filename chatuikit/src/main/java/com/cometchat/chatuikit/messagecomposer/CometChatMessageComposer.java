@@ -56,6 +56,7 @@ import com.cometchat.chatuikit.logger.CometChatLogger;
 import com.cometchat.chatuikit.shared.cometchatuikit.CometChatUIKit;
 import com.cometchat.chatuikit.shared.constants.UIKitConstants;
 import com.cometchat.chatuikit.shared.constants.UIKitUtilityConstants;
+import com.cometchat.chatuikit.shared.executors.CometChatExecutors;
 import com.cometchat.chatuikit.shared.formatters.CometChatMentionsFormatter;
 import com.cometchat.chatuikit.shared.formatters.CometChatTextFormatter;
 import com.cometchat.chatuikit.shared.framework.ChatConfigurator;
@@ -91,8 +92,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.ScheduledFuture;
 
 import kotlin.jvm.functions.Function4;
 
@@ -156,9 +156,9 @@ public class CometChatMessageComposer extends MaterialCardView {
      * Controls typing events and configurations.
      */
     private boolean disableTypingEvents;
-    private Timer typingTimer;
-    private Timer queryTimer;
-    private Timer operationTimer;
+    private ScheduledFuture<?> typingEndTask;
+    private ScheduledFuture<?> queryTask;
+    private ScheduledFuture<?> operationTask;
     private List<CometChatMessageComposerAction> messageComposerActions;
     private Function4<Context, User, Group, HashMap<String, String>, List<CometChatMessageComposerAction>> aiOptions;
     private SendButtonClick sendButtonClick;
@@ -315,7 +315,6 @@ public class CometChatMessageComposer extends MaterialCardView {
         Utils.initMaterialCard(binding.composeBoxCard);
 
         initializeComponents();
-        initializeTimers();
         initializeCollections();
         configureUIBindings();
         setupViewModel();
@@ -383,15 +382,6 @@ public class CometChatMessageComposer extends MaterialCardView {
         showBottomSheet(bottomSheetDialog, true, cometchatAIOptionSheet);
     }
 
-    /**
-     * Initializes the timers used for various operations.
-     */
-    private void initializeTimers() {
-        typingTimer = new Timer();
-        queryTimer = new Timer();
-        operationTimer = new Timer();
-    }
-
     /**
      * Sets up the ViewModel and observers for handling UI updates and actions.
      */
@@ -703,9 +693,6 @@ public class CometChatMessageComposer extends MaterialCardView {
                 } else {
                     sendButtonLayoutBinding.ivSendBtn.setBackground(inactiveSendButtonDrawable);
                 }
-                if (typingTimer == null) {
-                    typingTimer = new Timer();
-                }
                 if (!disableTypingEvents) endTypingTimer();
             }
 
@@ -837,14 +824,8 @@ public class CometChatMessageComposer extends MaterialCardView {
      * sets the list of suggestion items
      */
     private void sendSelectedSuggestionList() {
-        operationTimer.cancel();
-        operationTimer = new Timer();
-        operationTimer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                processTextToSetUniqueSuggestions();
-            }
-        }, UIKitUtilityConstants.COMPOSER_OPERATION_INTERVAL);
+        CometChatExecutors.cancel(operationTask);
+        operationTask = CometChatExecutors.scheduleOnMain(this::processTextToSetUniqueSuggestions, UIKitUtilityConstants.COMPOSER_OPERATION_INTERVAL);
     }
 
     /**
@@ -910,14 +891,10 @@ public class CometChatMessageComposer extends MaterialCardView {
      * sends search query with interval to formatter
      */
     private void sendSearchQueryWithInterval(String text, int cursorPosition, int interval) {
-        queryTimer.cancel();
-        queryTimer = new Timer();
-        queryTimer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                if (tempTextFormatter != null)
-                    tempTextFormatter.search(getContext(), getQueryString(text, cursorPosition, tempTextFormatter.getTrackingCharacter()));
-            }
+        CometChatExecutors.cancel(queryTask);
+        queryTask = CometChatExecutors.scheduleOnMain(() -> {
+            if (tempTextFormatter != null)
+                tempTextFormatter.search(getContext(), getQueryString(text, cursorPosition, tempTextFormatter.getTrackingCharacter()));
         }, interval);
     }    /**
      * @param color The new color to set for the card background
@@ -1188,7 +1165,7 @@ public class CometChatMessageComposer extends MaterialCardView {
      *                    of content being sent (e.g., image, audio, video).
      */
     public void sendMediaMessage(File file, String contentType) {
-        composerViewModel.sendMediaMessage(file, contentType);
+        composerViewModel.sendMediaMessage(getContext(), file, contentType);
     }
 
     /**
@@ -1289,14 +1266,8 @@ public class CometChatMessageComposer extends MaterialCardView {
      * indicator will be sent as an end notification.
      */
     private void endTypingTimer() {
-        if (typingTimer != null) {
-            typingTimer.schedule(new TimerTask() {
-                @Override
-                public void run() {
-                    sendTypingIndicator(true);
-                }
-            }, UIKitUtilityConstants.TYPING_INDICATOR_DEBOUNCER);
-        }
+        CometChatExecutors.cancel(typingEndTask);
+        typingEndTask = CometChatExecutors.scheduleOnMain(() -> sendTypingIndicator(true), UIKitUtilityConstants.TYPING_INDICATOR_DEBOUNCER);
     }
 
     /**
@@ -1434,6 +1405,10 @@ public class CometChatMessageComposer extends MaterialCardView {
             bottomSheetDialog.dismiss();
         }
         super.onDetachedFromWindow();
+        CometChatExecutors.cancel(queryTask);
+        CometChatExecutors.cancel(operationTask);
+        // end the typing indicator now rather than from a detached composer
+        if (typingEndTask != null && typingEndTask.cancel(false)) sendTypingIndicator(true);
         composerViewModel.removeListeners();
     }
 
@@ -7,6 +7,7 @@ import androidx.annotation.Nullable;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
+import com.cometchat.chat.constants.CometChatConstants;
 import com.cometchat.chat.core.CometChat;
 import com.cometchat.chat.exceptions.CometChatException;
 import com.cometchat.chat.models.BaseMessage;
@@ -19,11 +20,14 @@ import com.cometchat.chatuikit.extensions.ExtensionConstants;
 import com.cometchat.chatuikit.logger.CometChatLogger;
 import com.cometchat.chatuikit.shared.cometchatuikit.CometChatUIKit;
 import com.cometchat.chatuikit.shared.cometchatuikit.CometChatUIKitHelper;
+import com.cometchat.chatuikit.shared.cometchatuikit.UIKitSettings;
 import com.cometchat.chatuikit.shared.constants.MessageStatus;
 import com.cometchat.chatuikit.shared.constants.UIKitConstants;
 import com.cometchat.chatuikit.shared.events.CometChatMessageEvents;
 import com.cometchat.chatuikit.shared.events.CometChatUIEvents;
+import com.cometchat.chatuikit.shared.executors.CometChatExecutors;
 import com.cometchat.chatuikit.shared.interfaces.Function1;
+import com.cometchat.chatuikit.shared.media.ImageCompressor;
 import com.cometchat.chatuikit.shared.resources.utils.Utils;
 
 import org.json.JSONObject;
@@ -220,6 +224,28 @@ public class MessageComposerViewModel extends ViewModel {
         });
     }
 
+    /**
+     * Sends a media message. Images are first downscaled and recompressed on the
+     * UI Kit compute pool, following the image compression settings of
+     * {@link CometChatUIKit#getAuthSettings()}.
+     */
+    public void sendMediaMessage(Context context, File file, String contentType) {
+        UIKitSettings settings = CometChatUIKit.getAuthSettings();
+        if (file == null || !CometChatConstants.MESSAGE_TYPE_IMAGE.equals(contentType) || settings == null || !settings
+            .getImageCompressionSettings()
+            .isEnabled()) {
+            sendMediaMessage(file, contentType);
+            return;
+        }
+        File cacheDirectory = context.getCacheDir();
+        CometChatExecutors.compute().execute(() -> {
+            ImageCompressor.Result result = ImageCompressor.compress(file, cacheDirectory, settings.getImageCompressionSettings());
+            CometChatLogger.i(TAG,
+                              "Image " + result.getWidth() + "x" + result.getHeight() + ", " + result.getOriginalBytes() + " -> " + result.getFinalBytes() + " bytes");
+            CometChatExecutors.postToMain(() -> sendMediaMessage(result.getFile(), contentType));
+        });
+    }
+
     public void sendMediaMessage(File file, String contentType) {
         MediaMessage mediaMessage = getMediaMessage(file, contentType);
         CometChatUIKit.sendMediaMessage(mediaMessage, new CometChat.CallbackListener<MediaMessage>() {
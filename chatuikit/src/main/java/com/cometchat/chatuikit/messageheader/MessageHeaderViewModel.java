@@ -1,7 +1,5 @@
 package com.cometchat.chatuikit.messageheader;
 
-import android.os.Handler;
-
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
@@ -14,11 +12,10 @@ import com.cometchat.chat.models.GroupMember;
 import com.cometchat.chat.models.TypingIndicator;
 import com.cometchat.chat.models.User;
 import com.cometchat.chatuikit.logger.CometChatLogger;
-import com.cometchat.chatuikit.shared.constants.UIKitUtilityConstants;
 import com.cometchat.chatuikit.shared.events.CometChatGroupEvents;
-import com.cometchat.chatuikit.shared.events.CometChatMessageEvents;
 import com.cometchat.chatuikit.shared.events.CometChatUserEvents;
 import com.cometchat.chatuikit.shared.resources.utils.Utils;
+import com.cometchat.chatuikit.shared.typing.TypingTracker;
 
 import java.util.HashMap;
 import java.util.List;
@@ -41,16 +38,10 @@ public class MessageHeaderViewModel extends ViewModel {
     public MutableLiveData<CometChatException> exception;
     public MutableLiveData<User> userPresenceStatus;
     public HashMap<TypingIndicator, Boolean> typingIndicatorHashMap;
-    private final Runnable updateTypingRunnable = new Runnable() {
-        @Override
-        public void run() {
-            typing.setValue(typingIndicatorHashMap);
-        }
-    };
     public MutableLiveData<Group> updateGroup;
     public MutableLiveData<User> updateUser;
     private String LISTENERS_TAG;
-    private Handler handler = new Handler();
+    private TypingIndicator shownTypingIndicator;
 
     public MessageHeaderViewModel() {
         memberCount = new MutableLiveData<>();
@@ -220,19 +211,9 @@ public class MessageHeaderViewModel extends ViewModel {
                 }
             }
         });
-        CometChatMessageEvents.addListener(LISTENERS_TAG, new CometChatMessageEvents() {
-            @Override
-            public void onTypingStarted(TypingIndicator typingIndicator) {
-                if (!Utils.isBlocked(user)) {
-                    setTypingIndicator(typingIndicator, true);
-                }
-            }
-
-            @Override
-            public void onTypingEnded(TypingIndicator typingIndicator) {
-                if (!Utils.isBlocked(user)) {
-                    setTypingIndicator(typingIndicator, false);
-                }
+        TypingTracker.getInstance().addListener(LISTENERS_TAG, (started, ended) -> {
+            if (!Utils.isBlocked(user) && (isForThisChat(started) || isForThisChat(ended))) {
+                updateTypingIndicator();
             }
         });
 
@@ -328,6 +309,37 @@ public class MessageHeaderViewModel extends ViewModel {
         }
     }
 
+    private boolean isForThisChat(List<TypingIndicator> typingIndicators) {
+        for (TypingIndicator typingIndicator : typingIndicators) {
+            if (typingIndicator.getReceiverType().equalsIgnoreCase(CometChatConstants.RECEIVER_TYPE_USER)) {
+                if (id != null && id.equalsIgnoreCase(typingIndicator.getSender().getUid())) return true;
+            } else if (id != null && id.equalsIgnoreCase(typingIndicator.getReceiverId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Shows the member of this chat who started typing last, or hides the typing
+     * indicator once no one is typing.
+     */
+    private void updateTypingIndicator() {
+        TypingTracker typingTracker = TypingTracker.getInstance();
+        TypingIndicator typingIndicator;
+        if (user != null) {
+            User loggedInUser = CometChat.getLoggedInUser();
+            typingIndicator = loggedInUser == null ? null : typingTracker.getTypingIndicator(loggedInUser.getUid(), user.getUid());
+        } else {
+            typingIndicator = typingTracker.getLatestTypingIndicator(id);
+        }
+        if (typingIndicator != null) {
+            sendTypingEvent(typingIndicator, true);
+        } else if (shownTypingIndicator != null) {
+            sendTypingEvent(shownTypingIndicator, false);
+        }
+    }
+
     /**
      * Refreshes the message header by checking if a user or group is present. If a
      * user is available, it refreshes the user's details; otherwise, it refreshes
@@ -349,15 +361,9 @@ public class MessageHeaderViewModel extends ViewModel {
      */
     private void sendTypingEvent(TypingIndicator typingIndicator, boolean show) {
         typingIndicatorHashMap.clear();
-        if (show) {
-            typingIndicatorHashMap.put(typingIndicator, true);
-            typing.setValue(typingIndicatorHashMap);
-        } else {
-            typingIndicatorHashMap.put(typingIndicator, false);
-            handler.removeCallbacks(updateTypingRunnable);
-            handler = new Handler();
-            handler.postDelayed(updateTypingRunnable, UIKitUtilityConstants.TYPING_INDICATOR_DEBOUNCER);
-        }
+        typingIndicatorHashMap.put(typingIndicator, show);
+        shownTypingIndicator = show ? typingIndicator : null;
+        typing.setValue(typingIndicatorHashMap);
     }
 
     /**
@@ -413,7 +419,7 @@ public class MessageHeaderViewModel extends ViewModel {
     public void removeListeners() {
         CometChat.removeUserListener(LISTENERS_TAG);
         CometChat.removeGroupListener(LISTENERS_TAG);
-        CometChatMessageEvents.removeListener(LISTENERS_TAG);
+        TypingTracker.getInstance().removeListener(LISTENERS_TAG);
         CometChatGroupEvents.removeListener(LISTENERS_TAG);
         CometChat.removeConnectionListener(LISTENERS_TAG);
         CometChatUserEvents.removeListener(LISTENERS_TAG);
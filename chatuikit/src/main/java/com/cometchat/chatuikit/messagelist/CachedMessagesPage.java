@@ -0,0 +1,61 @@
+package com.cometchat.chatuikit.messagelist;
+
+import androidx.annotation.NonNull;
+
+import com.cometchat.chat.models.BaseMessage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * CachedMessagesPage is the page of cached messages a message list shows while
+ * its first page is fetched from the server.
+ *
+ * <p>
+ * The ids of the cached messages are kept, so the server page replaces them
+ * wherever they are by the time it arrives: messages received, edited or
+ * deleted in real time insert, update and remove rows while the cached page
+ * is shown.
+ */
+public class CachedMessagesPage {
+    private final HashSet<Integer> cachedIds = new HashSet<>();
+
+    public CachedMessagesPage(@NonNull List<BaseMessage> cachedMessages) {
+        for (BaseMessage message : cachedMessages) cachedIds.add(message.getId());
+    }
+
+    /**
+     * Swaps the cached messages in the given list for the server page, and
+     * keeps the messages received in real time after it. A message updated in
+     * real time keeps its update if the server page has an older copy of it,
+     * and a cached message removed in real time stays removed.
+     *
+     * @param messages   the messages shown, the cached ones among them.
+     * @param serverPage the latest page fetched from the server, in ascending
+     *                   order.
+     */
+    public void replace(@NonNull MessageStore messages, @NonNull List<BaseMessage> serverPage) {
+        int latestServerId = serverPage.isEmpty() ? 0 : serverPage.get(serverPage.size() - 1).getId();
+        HashMap<Integer, BaseMessage> shownMessages = new HashMap<>();
+        List<BaseMessage> liveMessages = new ArrayList<>();
+        for (BaseMessage message : messages) {
+            if (message.getId() != 0) shownMessages.put(message.getId(), message);
+            boolean cached = cachedIds.contains(message.getId());
+            if (!cached && (message.getId() == 0 || message.getId() > latestServerId)) liveMessages.add(message);
+        }
+        List<BaseMessage> page = new ArrayList<>(serverPage.size());
+        for (BaseMessage serverMessage : serverPage) {
+            BaseMessage shownMessage = shownMessages.get(serverMessage.getId());
+            if (shownMessage == null) {
+                if (!cachedIds.contains(serverMessage.getId())) page.add(serverMessage);
+            } else {
+                page.add(shownMessage.getUpdatedAt() > serverMessage.getUpdatedAt() ? shownMessage : serverMessage);
+            }
+        }
+        messages.clear();
+        messages.prepend(page);
+        messages.addAll(liveMessages);
+    }
+}
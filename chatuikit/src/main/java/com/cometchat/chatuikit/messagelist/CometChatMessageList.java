@@ -1,9 +1,11 @@
 package com.cometchat.chatuikit.messagelist;
 
+import android.content.BroadcastReceiver;
 import android.content.ClipData;
 import android.content.ClipboardManager;
 import android.content.Context;
 import android.content.Intent;
+import android.content.IntentFilter;
 import android.content.res.ColorStateList;
 import android.content.res.TypedArray;
 import android.graphics.Bitmap;
@@ -29,7 +31,9 @@ import androidx.annotation.Nullable;
 import androidx.annotation.RawRes;
 import androidx.annotation.StyleRes;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.content.ContextCompat;
 import androidx.core.content.res.ResourcesCompat;
+import androidx.core.util.Pair;
 import androidx.lifecycle.Observer;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
@@ -90,6 +94,7 @@ import com.cometchat.chatuikit.shared.views.reaction.emojikeyboard.EmojiKeyBoard
 import com.cometchat.chatuikit.shared.views.reaction.interfaces.OnAddMoreReactionsClick;
 import com.cometchat.chatuikit.shared.views.reaction.interfaces.OnReactionClick;
 import com.cometchat.chatuikit.shared.views.reaction.interfaces.OnReactionLongClick;
+import com.cometchat.chatuikit.shared.views.textbubble.PrecomputedTextCache;
 import com.cometchat.chatuikit.shimmer.CometChatShimmerAdapter;
 import com.cometchat.chatuikit.shimmer.CometChatShimmerFrameLayout;
 import com.cometchat.chatuikit.shimmer.CometChatShimmerUtils;
@@ -165,6 +170,7 @@ public class CometChatMessageList extends MaterialCardView implements MessageAda
     private RecyclerView rvChatListView;
     private LinearLayoutManager linearLayoutManager;
     private MessageAdapter messageAdapter;
+    private MessageUpdateBatcher updateBatcher;
     private StickyHeaderDecoration stickyHeaderDecoration;
     private boolean autoFetch = true;
     private boolean hasMore;
@@ -177,6 +183,13 @@ public class CometChatMessageList extends MaterialCardView implements MessageAda
     private CometChatBadge badge;
     private ImageView newMessageIndicatorIcon;
     private int newMessageCount = 0;
+    private final BroadcastReceiver timeZoneReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            // the date headers are bucketed by local day
+            messageListViewModel.onTimeZoneChanged();
+        }
+    };
     // Custom Views (Empty, Error, Loading)
     private View customEmptyView;
     private View customErrorView;
@@ -446,7 +459,7 @@ public class CometChatMessageList extends MaterialCardView implements MessageAda
      */
     public void initViewComponent(View view) {
         // Initialize message templates
-        messageTemplates = ChatConfigurator.getDataSource().getMessageTemplates(additionParameter);
+        messageTemplates = ChatConfigurator.getMessageTemplates(additionParameter);
 
         // Initialize text formatters and set default mentions
         this.textFormatters = new ArrayList<>();
@@ -458,6 +471,8 @@ public class CometChatMessageList extends MaterialCardView implements MessageAda
         // Set up RecyclerView for the chat list
         rvChatListView = view.findViewById(R.id.rv_message_list);
         messageAdapter = new MessageAdapter(getContext(), messageTemplateHashMap, messageLongClick);
+        messageAdapter.setReceiptWatermark(messageListViewModel.getReceiptWatermark());
+        updateBatcher = new MessageUpdateBatcher(messageAdapter);
 
         // Configure message adapter with reactions Action Events
         messageAdapter.setOnReactionClick(onReactionClick);
@@ -551,12 +566,15 @@ public class CometChatMessageList extends MaterialCardView implements MessageAda
         messageListViewModel.getMutableMessageList().observe((AppCompatActivity) getContext(), this::setList);
         messageListViewModel.messagesRangeChanged().observe((AppCompatActivity) getContext(), this::notifyRangeChanged);
         messageListViewModel.updateMessage().observe((AppCompatActivity) getContext(), this::updateMessage);
+        messageListViewModel.messagePayloadChanged().observe((AppCompatActivity) getContext(), this::updateMessagePayload);
         messageListViewModel.addMessage().observe((AppCompatActivity) getContext(), this::addMessage);
+        messageListViewModel.messagesAppended().observe((AppCompatActivity) getContext(), this::addMessages);
         messageListViewModel.getCometChatException().observe((AppCompatActivity) getContext(), this::throwError);
         messageListViewModel.removeMessage().observe((AppCompatActivity) getContext(), this::removeMessage);
         messageListViewModel.getMutableIsInProgress().observe((AppCompatActivity) getContext(), this::isInProgress);
         messageListViewModel.getMutableHasMore().observe((AppCompatActivity) getContext(), this::hasMore);
         messageListViewModel.notifyUpdate().observe((AppCompatActivity) getContext(), this::notifyDataChanged);
+        messageListViewModel.receiptRangeChanged().observe((AppCompatActivity) getContext(), this::notifyReceiptRangeChanged);
         messageListViewModel.getStates().observe((AppCompatActivity) getContext(), stateChangeObserver);
         messageListViewModel.getMessageDeleteState().observe((AppCompatActivity) getContext(), messageDeleteObserver);
         messageListViewModel.closeTopPanel().observe((AppCompatActivity) getContext(), this::closeInternalTopPanel);
@@ -950,6 +968,10 @@ public class CometChatMessageList extends MaterialCardView implements MessageAda
     @Override
     protected void onAttachedToWindow() {
         super.onAttachedToWindow();
+        ContextCompat.registerReceiver(getContext(),
+                                       timeZoneReceiver,
+                                       new IntentFilter(Intent.ACTION_TIMEZONE_CHANGED),
+                                       ContextCompat.RECEIVER_NOT_EXPORTED);
         messageListViewModel.addListener();
         processFormatters();
     }
@@ -1132,9 +1154,21 @@ public class CometChatMessageList extends MaterialCardView implements MessageAda
      * @param unused not used in this method, included for method signature consistency
      */
     public void notifyDataChanged(Void unused) {
+        updateBatcher.cancel();
+        if (stickyHeaderDecoration != null) stickyHeaderDecoration.clearHeaderCache();
         messageAdapter.notifyDataSetChanged();
     }
 
+    /**
+     * Rebinds only the receipt of the messages in the given range.
+     *
+     * @param range the start position and the number of messages whose receipt changed
+     */
+    public void notifyReceiptRangeChanged(Pair<Integer, Integer> range) {
+        if (range != null && range.first != null && range.second != null)
+            updateBatcher.changeRange(range.first, range.second, UIKitConstants.MessageListPayload.RECEIPT);
+    }
+
     /**
      * Notifies the adapter of a range of new items that have been inserted into the
      * data set.
@@ -1142,8 +1176,15 @@ public class CometChatMessageList extends MaterialCardView implements MessageAda
      * @param finalRange the number of new items added to the adapter
      */
     public void notifyRangeChanged(int finalRange) {
+        updateBatcher.flush();
         messageAdapter.notifyItemRangeInserted(0, finalRange);
         paginationLoadingIcon.setVisibility(GONE);
+        List<BaseMessage> messages = messageAdapter.getBaseMessageList();
+        // measure the text of the older page while it is still above the viewport
+        PrecomputedTextCache.prefetch(getContext(),
+                                      messages.subList(0, Math.min(finalRange, messages.size())),
+                                      additionParameter.getTextFormatters(),
+                                      messageAdapter::getBubbleAlignment);
     }
 
     /**
@@ -1152,6 +1193,7 @@ public class CometChatMessageList extends MaterialCardView implements MessageAda
      * @param integer the position of the item to be removed
      */
     public void removeMessage(Integer integer) {
+        updateBatcher.flush();
         messageAdapter.notifyItemRemoved(integer);
     }
 
@@ -1191,6 +1233,7 @@ public class CometChatMessageList extends MaterialCardView implements MessageAda
      * @param baseMessage The BaseMessage object representing the new message.
      */
     public void addMessage(BaseMessage baseMessage) {
+        updateBatcher.flush();
         if (!disableSoundForMessages) soundManager.play(Sound.incomingMessage, customSoundForMessages);
 
         if (!scrollToBottomOnNewMessage) {
@@ -1215,6 +1258,33 @@ public class CometChatMessageList extends MaterialCardView implements MessageAda
     }
 
 
+    /**
+     * Adds a batch of messages appended to the end of the message list, such as
+     * the messages caught up after a reconnect. The adapter is notified once for
+     * the whole range and the new message indicator is updated once.
+     *
+     * @param baseMessages The messages appended to the list.
+     */
+    public void addMessages(List<BaseMessage> baseMessages) {
+        if (baseMessages == null || baseMessages.isEmpty()) return;
+        updateBatcher.flush();
+        messageAdapter.notifyItemRangeInserted(messageAdapter.getItemCount() - baseMessages.size(), baseMessages.size());
+        if (!disableSoundForMessages) soundManager.play(Sound.incomingMessage, customSoundForMessages);
+
+        boolean nearBottom = rvChatListView.getLayoutManager() != null && (messageAdapter.getItemCount() - 1 - baseMessages.size()) - ((LinearLayoutManager) rvChatListView.getLayoutManager()).findLastVisibleItemPosition() < 5;
+        if (scrollToBottomOnNewMessage || nearBottom) {
+            scrollToBottom();
+        } else {
+            int incomingCount = 0;
+            User loggedInUser = CometChatUIKit.getLoggedInUser();
+            for (BaseMessage baseMessage : baseMessages) {
+                if (baseMessage.getSender() != null && loggedInUser != null && !loggedInUser.getUid().equalsIgnoreCase(baseMessage.getSender().getUid()))
+                    incomingCount++;
+            }
+            if (incomingCount > 0) showNewMessage(newMessageCount += incomingCount);
+        }
+    }
+
     /**
      * Sets a custom header view for the message list.
      *
@@ -1434,6 +1504,7 @@ public class CometChatMessageList extends MaterialCardView implements MessageAda
             bottomSheetDialog.dismiss();
         }
         super.onDetachedFromWindow();
+        getContext().unregisterReceiver(timeZoneReceiver);
         messageListViewModel.removeListener();
         AudioPlayer.getInstance().stop();
     }
@@ -1615,6 +1686,7 @@ public class CometChatMessageList extends MaterialCardView implements MessageAda
      *                    adapter.
      */
     public void setList(List<BaseMessage> messageList) {
+        updateBatcher.cancel();
         rvChatListView.setAdapter(messageAdapter);
         messageAdapter.setBaseMessageList(messageList);
         if (onLoad != null) onLoad.onLoad(messageList);
@@ -1634,7 +1706,7 @@ public class CometChatMessageList extends MaterialCardView implements MessageAda
      *              should be a valid index within the current list of messages.
      */
     public void updateMessage(int index) {
-        messageAdapter.notifyItemChanged(index, messageListViewModel.getMessageList().get(index));
+        updateBatcher.change(index, null);
         if (index == messageListViewModel.getMessageList().size() - 1) {
             if (atBottom()) {
                 scrollToBottom();
@@ -1642,6 +1714,22 @@ public class CometChatMessageList extends MaterialCardView implements MessageAda
         }
     }
 
+    /**
+     * Queues a partial rebind of the message at the given index. Changes raised
+     * within the same frame are dispatched to the adapter together.
+     *
+     * @param change The index of the message and the part of its bubble that changed.
+     */
+    public void updateMessagePayload(Pair<Integer, UIKitConstants.MessageListPayload> change) {
+        if (change == null || change.first == null) return;
+        updateBatcher.change(change.first, change.second);
+        if (change.first == messageListViewModel.getMessageList().size() - 1) {
+            if (atBottom()) {
+                scrollToBottom();
+            }
+        }
+    }
+
     /**
      * Scrolls the message list to the bottom. This method is useful to
      * automatically scroll to the latest message in the list. It also marks the
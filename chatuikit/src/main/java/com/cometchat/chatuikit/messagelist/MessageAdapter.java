@@ -23,11 +23,11 @@ import com.cometchat.chat.models.Group;
 import com.cometchat.chat.models.User;
 import com.cometchat.chatuikit.R;
 import com.cometchat.chatuikit.extensions.ExtensionConstants;
-import com.cometchat.chatuikit.logger.CometChatLogger;
 import com.cometchat.chatuikit.shared.cometchatuikit.CometChatUIKit;
 import com.cometchat.chatuikit.shared.constants.UIKitConstants;
 import com.cometchat.chatuikit.shared.models.CometChatMessageOption;
 import com.cometchat.chatuikit.shared.models.CometChatMessageTemplate;
+import com.cometchat.chatuikit.shared.resources.utils.DateTimeUtils;
 import com.cometchat.chatuikit.shared.resources.utils.Utils;
 import com.cometchat.chatuikit.shared.resources.utils.sticker_header.StickyHeaderAdapter;
 import com.cometchat.chatuikit.shared.utils.MessageBubbleUtils;
@@ -36,6 +36,7 @@ import com.cometchat.chatuikit.shared.viewholders.MessagesViewHolderListener;
 import com.cometchat.chatuikit.shared.views.date.CometChatDate;
 import com.cometchat.chatuikit.shared.views.date.Pattern;
 import com.cometchat.chatuikit.shared.views.messagebubble.CometChatMessageBubble;
+import com.cometchat.chatuikit.shared.views.messagereceipt.CometChatMessageReceipt;
 import com.cometchat.chatuikit.shared.views.messagereceipt.Receipt;
 import com.cometchat.chatuikit.shared.views.reaction.CometChatReaction;
 import com.cometchat.chatuikit.shared.views.reaction.interfaces.OnAddMoreReactionsClick;
@@ -47,6 +48,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.TimeZone;
 
 public class MessageAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> implements StickyHeaderAdapter<MessageAdapter.DateItemHolder> {
     private static final String TAG = MessageAdapter.class.getSimpleName();
@@ -54,18 +56,19 @@ public class MessageAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder
     private static final String LEFT_MESSAGE = "1";
     private static final String RIGHT_MESSAGE = "2";
     private static final String CENTER_MESSAGE = "3";
-    private static final String IGNORE_MESSAGE = "10000";
+    private static final String DEFAULT_TIME_PATTERN = "h:mm a";
     // Context and Message List
     private final Context context;
     private final OnMessageLongClick onMessageLongClick;
     // Layout and Margins
     private final int layoutDirection;
     // Reaction Handling
-    private final HashMap<Integer, CometChatMessageTemplate> viewTypeTemplateHashMap;
+    private final MessageViewTypeRegistry viewTypeRegistry;
     private OnAddMoreReactionsClick onAddMoreReactionsClick;
     private OnReactionClick onReactionClick;
     private OnReactionLongClick onReactionLongClick;
     private List<BaseMessage> baseMessageList;
+    private ReceiptWatermark receiptWatermark;
     // Interaction and Configuration
     private CometChatMessageList.ThreadReplyClick threadReplyClick;
     private boolean disableReadReceipt;
@@ -73,12 +76,15 @@ public class MessageAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder
     private boolean showAvatar = false;
     private boolean showLeftBubbleUserAvatar = false;
     private boolean showLeftBubbleGroupAvatar = true;
+    // set through setTimeFormat; when null, DEFAULT_TIME_PATTERN is formatted by DateTimeUtils
     private SimpleDateFormat timeFormat;
+    // returned by getTimeFormat when no format is set, created again on a locale or time zone change
+    private SimpleDateFormat defaultTimeFormat;
+    private Locale defaultTimeFormatLocale;
     private SimpleDateFormat dateSeparatorFormat;
     private UIKitConstants.TimeStampAlignment timeStampAlignment = UIKitConstants.TimeStampAlignment.BOTTOM;
     // Message Template and Style Configuration
     private HashMap<String, CometChatMessageTemplate> messageTemplateHashMap;
-    private HashMap<String, Integer> messageViewTypeHashMap;
     // User and Group Information
     private String type;
     private User user;
@@ -481,9 +487,8 @@ public class MessageAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder
         layoutDirection = context.getResources().getConfiguration().getLayoutDirection();
         this.messageTemplateHashMap = messageTemplateHashMap;
         this.onMessageLongClick = onMessageLongClick;
-        this.viewTypeTemplateHashMap = new HashMap<>();
-        this.messageViewTypeHashMap = new HashMap<>();
-        this.timeFormat = new SimpleDateFormat("h:mm a", Locale.getDefault());
+        this.viewTypeRegistry = new MessageViewTypeRegistry();
+        this.viewTypeRegistry.setTemplates(messageTemplateHashMap);
 
         // Get the size of the reaction chips
         reactionChipSize = getTheSizeOfReactionChip("😂", 1);
@@ -518,22 +523,20 @@ public class MessageAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder
     @NonNull
     @Override
     public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        // Convert viewType to String for easier matching
-        String viewTypeString = String.valueOf(viewType);
-
-        // Check the type of message based on the view type
-        if (viewTypeString.endsWith(RIGHT_MESSAGE)) {
-            // Create a ViewHolder for right-aligned messages
-            return new RightViewHolder(getRightView(parent), viewTypeTemplateHashMap.get(viewType));
-        } else if (viewTypeString.endsWith(CENTER_MESSAGE)) {
-            // Create a ViewHolder for center-aligned messages
-            return new CenterViewHolder(getCenterView(parent), viewTypeTemplateHashMap.get(viewType));
-        } else if (viewTypeString.endsWith(IGNORE_MESSAGE)) {
-            // Create a ViewHolder for an empty row
-            return new EmptyRowHolder(LinearLayout.inflate(context, R.layout.cometchat_empty_view_holder_row, null));
-        } else {
-            // Default case: Create a ViewHolder for left-aligned messages
-            return new LeftViewHolder(getLeftView(parent), viewTypeTemplateHashMap.get(viewType));
+        // Check the type of message based on the alignment encoded in the view type
+        switch (MessageViewTypeRegistry.getAlignment(viewType)) {
+            case MessageViewTypeRegistry.ALIGNMENT_RIGHT:
+                // Create a ViewHolder for right-aligned messages
+                return new RightViewHolder(getRightView(parent), viewTypeRegistry.getTemplate(viewType));
+            case MessageViewTypeRegistry.ALIGNMENT_CENTER:
+                // Create a ViewHolder for center-aligned messages
+                return new CenterViewHolder(getCenterView(parent), viewTypeRegistry.getTemplate(viewType));
+            case MessageViewTypeRegistry.ALIGNMENT_IGNORE:
+                // Create a ViewHolder for an empty row
+                return new EmptyRowHolder(LinearLayout.inflate(context, R.layout.cometchat_empty_view_holder_row, null));
+            default:
+                // Default case: Create a ViewHolder for left-aligned messages
+                return new LeftViewHolder(getLeftView(parent), viewTypeRegistry.getTemplate(viewType));
         }
     }
 
@@ -584,6 +587,7 @@ public class MessageAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder
     public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
         // Retrieve the BaseMessage object for the current position
         BaseMessage baseMessage = baseMessageList.get(position);
+        if (receiptWatermark != null) receiptWatermark.apply(baseMessage);
 
         // Check the type of ViewHolder and bind the message data accordingly
         if (holder instanceof LeftViewHolder) {
@@ -598,6 +602,83 @@ public class MessageAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder
         }
     }
 
+    /**
+     * Binds only the parts of the bubble named by the payloads. Falls back to a
+     * full bind when a payload can not be applied partially.
+     *
+     * @param holder   The ViewHolder to which data should be bound.
+     * @param position The position of the item within the RecyclerView's data set.
+     * @param payloads The partial change payloads, or an empty list for a full bind.
+     */
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty() || !bindPayloads(holder, baseMessageList.get(position), payloads)) onBindViewHolder(holder, position);
+    }
+
+    private boolean bindPayloads(RecyclerView.ViewHolder holder, BaseMessage baseMessage, List<Object> payloads) {
+        if (!(holder instanceof LeftViewHolder || holder instanceof RightViewHolder)) {
+            // center rows show no receipt, anything else rebinds them fully
+            for (Object payload : payloads) {
+                if (payload != UIKitConstants.MessageListPayload.RECEIPT) return holder instanceof EmptyRowHolder;
+            }
+            return true;
+        }
+        for (Object payload : payloads) {
+            if (payload == UIKitConstants.MessageListPayload.RECEIPT) {
+                if (!bindReceiptPayload(holder, baseMessage)) return false;
+            } else if (payload == UIKitConstants.MessageListPayload.REACTION) {
+                if (!bindReactionPayload(holder, baseMessage)) return false;
+            } else {
+                // reply count and edits change the size of the bubble, rebind it fully
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean bindReceiptPayload(RecyclerView.ViewHolder holder, BaseMessage baseMessage) {
+        if (receiptWatermark != null) receiptWatermark.apply(baseMessage);
+        View statusInfoView = holder instanceof RightViewHolder ? ((RightViewHolder) holder).statusInfoView : ((LeftViewHolder) holder).statusInfoView;
+        if (statusInfoView == null || !UIKitConstants.ViewTag.INTERNAL_STATUS_INFO_VIEW.equals(statusInfoView.getTag())) return false;
+        CometChatMessageReceipt messageReceipt = statusInfoView.findViewById(R.id.receipt);
+        if (messageReceipt == null) return false;
+        messageReceipt.setMessageReceipt(MessageReceiptUtils.MessageReceipt(baseMessage));
+        return true;
+    }
+
+    private boolean bindReactionPayload(RecyclerView.ViewHolder holder, BaseMessage baseMessage) {
+        CometChatMessageTemplate template;
+        View footerView, contentView;
+        CometChatMessageBubble messageBubble;
+        if (holder instanceof RightViewHolder) {
+            RightViewHolder rightViewHolder = (RightViewHolder) holder;
+            template = rightViewHolder.template;
+            footerView = rightViewHolder.footerView;
+            contentView = rightViewHolder.contentView;
+            messageBubble = rightViewHolder.cometchatMessageBubble;
+        } else {
+            LeftViewHolder leftViewHolder = (LeftViewHolder) holder;
+            template = leftViewHolder.template;
+            footerView = leftViewHolder.footerView;
+            contentView = leftViewHolder.contentView;
+            messageBubble = leftViewHolder.cometchatMessageBubble;
+        }
+        if (template == null || template.getBubbleView() != null || template.getFooterView() != null || footerView == null) return false;
+        boolean isIncoming = baseMessage.getSender() == null || CometChatUIKit.getLoggedInUser() == null || !baseMessage
+            .getSender()
+            .getUid()
+            .equals(CometChatUIKit.getLoggedInUser().getUid());
+        adjustFooterAndContentView(footerView,
+                                   contentView,
+                                   messageBubble,
+                                   baseMessage,
+                                   isIncoming ? incomingMessageBubbleReactionStyle : outgoingMessageBubbleReactionStyle,
+                                   onReactionClick,
+                                   onReactionLongClick,
+                                   onAddMoreReactionsClick);
+        return true;
+    }
+
     /**
      * Returns the view type for the item at the specified position in the
      * RecyclerView.
@@ -619,26 +700,19 @@ public class MessageAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder
      */
     public int getItemViewTypes(int position) {
         BaseMessage baseMessage = baseMessageList.get(position);
-        String type;
-
-        // Retrieve the template based on category and type
-        CometChatMessageTemplate template = messageTemplateHashMap.get(baseMessage.getCategory() + "_" + baseMessage.getType());
+        int alignment;
 
-        // Safely retrieve the initial view type, defaulting to 0 if null
-        Integer viewTypeFromMap = messageViewTypeHashMap.get(baseMessage.getCategory() + "_" + baseMessage.getType());
-        int initialViewType = (viewTypeFromMap != null) ? viewTypeFromMap : 0;
-
-        // Determine message alignment/type
+        // Determine message alignment
         if (baseMessage.getCategory().equals(CometChatConstants.CATEGORY_ACTION) ||
             baseMessage.getCategory().equals(CometChatConstants.CATEGORY_CALL)) {
             if (baseMessage.getCategory().equals(CometChatConstants.CATEGORY_ACTION)) {
                 if (hideGroupActionMessage) {
-                    type = IGNORE_MESSAGE;
+                    alignment = MessageViewTypeRegistry.ALIGNMENT_IGNORE;
                 } else {
-                    type = CENTER_MESSAGE;
+                    alignment = MessageViewTypeRegistry.ALIGNMENT_CENTER;
                 }
             } else {
-                type = CENTER_MESSAGE;
+                alignment = MessageViewTypeRegistry.ALIGNMENT_CENTER;
             }
         } else {
             if (!UIKitConstants.MessageListAlignment.LEFT_ALIGNED.equals(listAlignment)) {
@@ -646,30 +720,34 @@ public class MessageAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder
                     .getSender()
                     .getUid()
                     .equals(CometChatUIKit.getLoggedInUser().getUid())) {
-                    type = RIGHT_MESSAGE;
+                    alignment = MessageViewTypeRegistry.ALIGNMENT_RIGHT;
                 } else {
-                    type = LEFT_MESSAGE;
+                    alignment = MessageViewTypeRegistry.ALIGNMENT_LEFT;
                 }
             } else {
-                type = LEFT_MESSAGE;
+                alignment = MessageViewTypeRegistry.ALIGNMENT_LEFT;
             }
         }
 
-        // Safely construct the new type string
-        String newType = initialViewType + type;
-        int viewType;
-
-        try {
-            viewType = Integer.parseInt(newType);
-        } catch (NumberFormatException e) {
-            CometChatLogger.e(TAG, e.toString());
-            viewType = 0; // Default fallback in case of error
-        }
-
-        // Save the template to the map, using a default if none exists
-        viewTypeTemplateHashMap.put(viewType, template != null ? template : new CometChatMessageTemplate());
+        return viewTypeRegistry.getViewType(baseMessage.getCategory(), baseMessage.getType(), alignment);
+    }
 
-        return viewType;
+    /**
+     * Returns the alignment the bubble of the given message is shown with, the
+     * way {@link #getItemViewTypes(int)} and the view holders decide it, for
+     * messages that are neither actions nor calls.
+     *
+     * @param baseMessage The message to get the bubble alignment for.
+     * @return The alignment of the message bubble.
+     */
+    public UIKitConstants.MessageBubbleAlignment getBubbleAlignment(BaseMessage baseMessage) {
+        boolean right = !UIKitConstants.MessageListAlignment.LEFT_ALIGNED.equals(listAlignment) && baseMessage.getSender() != null && CometChatUIKit.getLoggedInUser() != null && baseMessage
+            .getSender()
+            .getUid()
+            .equals(CometChatUIKit.getLoggedInUser().getUid());
+        // the view holders swap the sides for right-to-left layouts
+        if (layoutDirection == View.LAYOUT_DIRECTION_RTL) right = !right;
+        return right ? UIKitConstants.MessageBubbleAlignment.RIGHT : UIKitConstants.MessageBubbleAlignment.LEFT;
     }
 
     @Override
@@ -680,8 +758,9 @@ public class MessageAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder
     @Override
     public long getHeaderId(int var1) {
         if (baseMessageList.size() > var1) {
-            BaseMessage baseMessage = baseMessageList.get(var1);
-            return Long.parseLong(Utils.getDateId(baseMessage.getSentAt() * 1000));
+            // the store keeps the day of each message, computed when it was added
+            if (baseMessageList instanceof MessageStore) return ((MessageStore) baseMessageList).getDayId(var1);
+            return Utils.getEpochDay(baseMessageList.get(var1).getSentAt() * 1000);
         } else return 0;
     }
 
@@ -747,10 +826,25 @@ public class MessageAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder
         return null;
     }
 
+    /**
+     * Sets the receipt watermark consulted while binding outgoing messages.
+     *
+     * @param receiptWatermark the watermark of the conversation shown by this adapter.
+     */
+    public void setReceiptWatermark(ReceiptWatermark receiptWatermark) {
+        this.receiptWatermark = receiptWatermark;
+    }
+
+    /**
+     * Sets the message templates and registers their view types.
+     *
+     * @param messageTemplateHashMap the templates keyed by "category_type".
+     * @param viewTypeHashMap        unused; view types are assigned by the adapter.
+     */
     public void setMessageTemplateHashMap(HashMap<String, CometChatMessageTemplate> messageTemplateHashMap,
                                           HashMap<String, Integer> viewTypeHashMap) {
         this.messageTemplateHashMap = messageTemplateHashMap;
-        this.messageViewTypeHashMap = viewTypeHashMap;
+        viewTypeRegistry.setTemplates(messageTemplateHashMap);
         notifyDataSetChanged();
     }
 
@@ -1801,7 +1895,7 @@ public class MessageAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder
 
     public String getTimePattern(BaseMessage baseMessage) {
         if (timeFormat != null) return timeFormat.format(baseMessage.getSentAt() * 1000);
-        return "";
+        return DateTimeUtils.format(baseMessage.getSentAt() * 1000, DEFAULT_TIME_PATTERN);
     }
 
     /**
@@ -6259,7 +6353,15 @@ public class MessageAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder
      * @return the date pattern function
      */
     public SimpleDateFormat getTimeFormat() {
-        return timeFormat;
+        if (timeFormat != null) return timeFormat;
+        Locale locale = Locale.getDefault();
+        TimeZone timeZone = TimeZone.getDefault();
+        if (defaultTimeFormat == null || !locale.equals(defaultTimeFormatLocale)
+            || !timeZone.getID().equals(defaultTimeFormat.getTimeZone().getID())) {
+            defaultTimeFormat = new SimpleDateFormat(DEFAULT_TIME_PATTERN, locale);
+            defaultTimeFormatLocale = locale;
+        }
+        return defaultTimeFormat;
     }
 
     public void setTimeFormat(SimpleDateFormat timeFormat) {
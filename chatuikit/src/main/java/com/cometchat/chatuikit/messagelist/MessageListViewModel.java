@@ -7,6 +7,7 @@ import android.view.View;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.core.util.Pair;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
@@ -30,6 +31,7 @@ import com.cometchat.chat.models.ReactionEvent;
 import com.cometchat.chat.models.TextMessage;
 import com.cometchat.chat.models.User;
 import com.cometchat.chatuikit.logger.CometChatLogger;
+import com.cometchat.chatuikit.shared.cache.CometChatMessageCache;
 import com.cometchat.chatuikit.shared.cometchatuikit.CometChatUIKit;
 import com.cometchat.chatuikit.shared.cometchatuikit.CometChatUIKitHelper;
 import com.cometchat.chatuikit.shared.constants.MessageStatus;
@@ -38,6 +40,8 @@ import com.cometchat.chatuikit.shared.events.CometChatCallEvents;
 import com.cometchat.chatuikit.shared.events.CometChatGroupEvents;
 import com.cometchat.chatuikit.shared.events.CometChatMessageEvents;
 import com.cometchat.chatuikit.shared.events.CometChatUIEvents;
+import com.cometchat.chatuikit.shared.events.EventRoute;
+import com.cometchat.chatuikit.shared.executors.CometChatExecutors;
 import com.cometchat.chatuikit.shared.interfaces.Function1;
 import com.cometchat.chatuikit.shared.models.CometChatMessageTemplate;
 import com.cometchat.chatuikit.shared.models.interactivemessage.CardMessage;
@@ -45,22 +49,26 @@ import com.cometchat.chatuikit.shared.models.interactivemessage.CustomInteractiv
 import com.cometchat.chatuikit.shared.models.interactivemessage.FormMessage;
 import com.cometchat.chatuikit.shared.models.interactivemessage.SchedulerMessage;
 import com.cometchat.chatuikit.shared.resources.utils.Utils;
+import com.cometchat.chatuikit.shared.search.UserPrefixIndex;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.ScheduledFuture;
 
 public class MessageListViewModel extends ViewModel {
     private static final String TAG = MessageListViewModel.class.getSimpleName();
+    // the largest page the SDK serves
+    private static final int MAX_UPDATES_PAGE_SIZE = 100;
     private final String LISTENERS_TAG;
     private final MutableLiveData<List<BaseMessage>> mutableMessageList;
     private final MutableLiveData<Integer> mutableMessagesRangeChanged;
-    private final List<BaseMessage> messageArrayList;
+    private final MessageStore messageArrayList;
     private final MutableLiveData<Integer> updateMessage;
+    private final MutableLiveData<Pair<Integer, UIKitConstants.MessageListPayload>> messagePayloadChanged;
     private final MutableLiveData<Integer> removeMessage;
     private final MutableLiveData<BaseMessage> addMessage;
+    private final MutableLiveData<List<BaseMessage>> messagesAppended;
     private final MutableLiveData<BaseMessage> readMessage;
     @NonNull
     private final MutableLiveData<CometChatException> cometchatException;
@@ -70,6 +78,8 @@ public class MessageListViewModel extends ViewModel {
     private final MutableLiveData<Boolean> mutableHasMore;
     private final MutableLiveData<Boolean> mutableIsInProgress;
     private final MutableLiveData<Void> notifyUpdate;
+    private final MutableLiveData<Pair<Integer, Integer>> receiptRangeChanged;
+    private final ReceiptWatermark receiptWatermark;
     private final Void unused = null;
     private final MutableLiveData<List<String>> mutableSmartReplies;
     private final MutableLiveData<List<String>> mutableConversationStarterReplies;
@@ -84,9 +94,6 @@ public class MessageListViewModel extends ViewModel {
     public MutableLiveData<Function1<Context, View>> showBottomPanel;
     public MutableLiveData<Void> closeBottomPanel;
     public MutableLiveData<Void> closeTopPanel;
-    public MessagesRequest actionMessagesRequest;
-    public List<String> actionMessageTypes;
-    public List<String> actionCategories;
     public MutableLiveData<BaseMessage> processMessageData;
     public Handler handler = new Handler(Looper.getMainLooper());
     public HashMap<String, CometChatMessageTemplate> messageTemplateHashMap;
@@ -99,6 +106,9 @@ public class MessageListViewModel extends ViewModel {
     private User user;
     private String id;
     private String type;
+    // registered for the current chat only, see registerEventListeners()
+    private CometChatMessageEvents messageEventsListener;
+    private CometChatGroupEvents groupEventsListener;
     private boolean hideDeleteMessage;
     private List<String> messagesTypes;
     private List<String> messagesCategories;
@@ -106,38 +116,48 @@ public class MessageListViewModel extends ViewModel {
     private String conversationId;
     private boolean disableReactions;
     private List<String> smartRepliesKeywords;
-    private Timer smartReplyDelayTimer;
+    private ScheduledFuture<?> smartRepliesTask;
     private boolean enableConversationStarter = false;
     private boolean enableSmartReplies = false;
+    private boolean customRequestBuilder;
+    private String cacheKey;
+    // the cached messages shown until the first page arrives
+    @Nullable
+    private CachedMessagesPage cachedPage;
+    private boolean fetchingFirstPage;
+    private int firstFetchUnreadCount;
+    private final MissedMessagesSync missedMessagesSync;
+    private long lastUpdatesSyncedAt;
 
     public MessageListViewModel() {
         mutableMessageList = new MutableLiveData<>();
         mutableMessagesRangeChanged = new MutableLiveData<>();
         updateMessage = new MutableLiveData<>();
+        messagePayloadChanged = new MutableLiveData<>();
         removeMessage = new MutableLiveData<>();
         readMessage = new MutableLiveData<>();
         addMessage = new MutableLiveData<>();
+        messagesAppended = new MutableLiveData<>();
+        missedMessagesSync = new MissedMessagesSync();
         messageDeleteState = new MutableLiveData<>();
         cometchatException = new MutableLiveData<>();
         mutableIsInProgress = new MutableLiveData<>();
         mutableHasMore = new MutableLiveData<>();
         processMessageData = new MutableLiveData<>();
         states = new MutableLiveData<>();
-        messageArrayList = new ArrayList<>();
+        messageArrayList = new MessageStore();
         messagesTypes = new ArrayList<>();
         messagesCategories = new ArrayList<>();
         notifyUpdate = new MutableLiveData<>();
+        receiptRangeChanged = new MutableLiveData<>();
+        receiptWatermark = new ReceiptWatermark();
         mutableHashMap = new MutableLiveData<>();
         closeBottomPanel = new MutableLiveData<>();
         closeTopPanel = new MutableLiveData<>();
         showTopPanel = new MutableLiveData<>();
         showBottomPanel = new MutableLiveData<>();
         idMap = new HashMap<>();
-        smartReplyDelayTimer = new Timer();
-        actionMessageTypes = new ArrayList<>();
         messageTemplateHashMap = new HashMap<>();
-        actionMessageTypes.add(CometChatConstants.CATEGORY_MESSAGE);
-        actionCategories = new ArrayList<>();
         smartRepliesKeywords = new ArrayList<>();
         mutableSmartReplies = new MutableLiveData<>();
         mutableConversationStarterReplies = new MutableLiveData<>();
@@ -145,7 +165,6 @@ public class MessageListViewModel extends ViewModel {
         smartRepliesDelayDuration = 10000;
         smartReplayUIState = new MutableLiveData<>();
         conversationStarterUIState = new MutableLiveData<>();
-        actionCategories.add(CometChatConstants.CATEGORY_ACTION);
         LISTENERS_TAG = System.currentTimeMillis() + "";
     }
 
@@ -185,6 +204,14 @@ public class MessageListViewModel extends ViewModel {
         return updateMessage;
     }
 
+    /**
+     * Emits the position of a message together with the part of its bubble that
+     * changed, for updates that do not need a full rebind.
+     */
+    public MutableLiveData<Pair<Integer, UIKitConstants.MessageListPayload>> messagePayloadChanged() {
+        return messagePayloadChanged;
+    }
+
     public MutableLiveData<Integer> removeMessage() {
         return removeMessage;
     }
@@ -193,6 +220,14 @@ public class MessageListViewModel extends ViewModel {
         return addMessage;
     }
 
+    /**
+     * Emits the messages appended to the end of the list in one batch, such as
+     * the messages caught up after a reconnect.
+     */
+    public MutableLiveData<List<BaseMessage>> messagesAppended() {
+        return messagesAppended;
+    }
+
     public MutableLiveData<UIKitConstants.DeleteState> getMessageDeleteState() {
         return messageDeleteState;
     }
@@ -221,6 +256,17 @@ public class MessageListViewModel extends ViewModel {
         return notifyUpdate;
     }
 
+    /**
+     * Emits the start position and item count of messages whose receipt changed.
+     */
+    public MutableLiveData<Pair<Integer, Integer>> receiptRangeChanged() {
+        return receiptRangeChanged;
+    }
+
+    public ReceiptWatermark getReceiptWatermark() {
+        return receiptWatermark;
+    }
+
     public MutableLiveData<HashMap<String, String>> getMutableHashMap() {
         return mutableHashMap;
     }
@@ -248,12 +294,15 @@ public class MessageListViewModel extends ViewModel {
     public void setGroup(Group group, List<String> messagesTypes, List<String> messagesCategories, int parentMessageId) {
         if (group != null) {
             this.group = group;
+            // the receipts of the previous conversation do not apply to this one
+            receiptWatermark.reset();
             this.type = UIKitConstants.ReceiverType.GROUP;
             this.id = group.getGuid();
             this.messagesTypes = messagesTypes;
             this.messagesCategories = messagesCategories;
             this.parentMessageId = parentMessageId;
             setIdMap();
+            registerEventListeners();
         }
         initializeGroupRequestBuilder();
     }
@@ -280,17 +329,20 @@ public class MessageListViewModel extends ViewModel {
             if (parentMessageId > -1) messagesRequestBuilder.setParentMessageId(parentMessageId);
         }
         messagesRequest = messagesRequestBuilder.setGUID(id).build();
+        updateCacheKey();
     }
 
     public void setUser(User user, List<String> messagesTypes, List<String> messagesCategories, int parentMessageId) {
         if (user != null) {
             this.user = user;
+            receiptWatermark.reset();
             this.id = user.getUid();
             this.type = UIKitConstants.ReceiverType.USER;
             this.messagesTypes = messagesTypes;
             this.messagesCategories = messagesCategories;
             this.parentMessageId = parentMessageId;
             setIdMap();
+            registerEventListeners();
         }
         initializeUserRequestBuilder();
     }
@@ -305,6 +357,16 @@ public class MessageListViewModel extends ViewModel {
             if (parentMessageId > -1) messagesRequestBuilder.setParentMessageId(parentMessageId);
         }
         messagesRequest = messagesRequestBuilder.setUID(id).build();
+        updateCacheKey();
+    }
+
+    /**
+     * Only the main conversation fetched with the default request builder is
+     * cached, keyed by the receiver and the requested types and categories.
+     */
+    private void updateCacheKey() {
+        if (customRequestBuilder || parentMessageId > -1 || id == null) cacheKey = null;
+        else cacheKey = type + "_" + id + "_" + (String.valueOf(messagesTypes) + messagesCategories).hashCode();
     }
 
     private void fetchConversationStarter() {
@@ -349,6 +411,7 @@ public class MessageListViewModel extends ViewModel {
         this.messagesTypes = messagesTypes;
         this.messagesCategories = messagesCategories;
         messageArrayList.clear();
+        cachedPage = null;
         if (user != null) initializeUserRequestBuilder();
         else if (group != null) initializeGroupRequestBuilder();
     }
@@ -362,21 +425,25 @@ public class MessageListViewModel extends ViewModel {
         CometChat.addGroupListener(LISTENERS_TAG, new CometChat.GroupListener() {
             @Override
             public void onGroupMemberJoined(Action action, User joinedUser, Group joinedGroup) {
+                UserPrefixIndex.addGroupMember(joinedGroup.getGuid(), joinedUser);
                 onMessageReceived(action);
             }
 
             @Override
             public void onGroupMemberLeft(Action action, User leftUser, Group leftGroup) {
+                UserPrefixIndex.removeGroupMember(leftGroup.getGuid(), leftUser);
                 onMessageReceived(action);
             }
 
             @Override
             public void onGroupMemberKicked(Action action, User kickedUser, User kickedBy, Group kickedFrom) {
+                UserPrefixIndex.removeGroupMember(kickedFrom.getGuid(), kickedUser);
                 onMessageReceived(action);
             }
 
             @Override
             public void onGroupMemberBanned(Action action, User bannedUser, User bannedBy, Group bannedFrom) {
+                UserPrefixIndex.removeGroupMember(bannedFrom.getGuid(), bannedUser);
                 onMessageReceived(action);
             }
 
@@ -397,11 +464,12 @@ public class MessageListViewModel extends ViewModel {
 
             @Override
             public void onMemberAddedToGroup(Action action, User addedBy, User userAdded, Group addedTo) {
+                UserPrefixIndex.addGroupMember(addedTo.getGuid(), userAdded);
                 onMessageReceived(action);
             }
         });
 
-        CometChatMessageEvents.addListener(LISTENERS_TAG, new CometChatMessageEvents() {
+        messageEventsListener = new CometChatMessageEvents() {
             @Override
             public void ccMessageSent(BaseMessage message, int status) {
                 if (status == MessageStatus.IN_PROGRESS) {
@@ -411,7 +479,7 @@ public class MessageListViewModel extends ViewModel {
 
             @Override
             public void ccMessageEdited(BaseMessage baseMessage, @MessageStatus int status) {
-                if (status == MessageStatus.SUCCESS) updateMessage(baseMessage);
+                if (status == MessageStatus.SUCCESS) updateMessage(baseMessage, UIKitConstants.MessageListPayload.EDIT);
             }
 
             @Override
@@ -448,7 +516,7 @@ public class MessageListViewModel extends ViewModel {
 
             @Override
             public void onMessageEdited(BaseMessage message) {
-                updateMessage(message);
+                updateMessage(message, UIKitConstants.MessageListPayload.EDIT);
             }
 
             @Override
@@ -501,9 +569,9 @@ public class MessageListViewModel extends ViewModel {
             public void onMessagesReadByAll(MessageReceipt messageReceipt) {
                 setMessageReceipt(messageReceipt);
             }
-        });
+        };
 
-        CometChatGroupEvents.addGroupListener(LISTENERS_TAG, new CometChatGroupEvents() {
+        groupEventsListener = new CometChatGroupEvents() {
             @Override
             public void ccGroupMemberAdded(List<Action> actionMessages, List<User> usersAdded, Group userAddedIn, User addedBy) {
                 for (Action action : actionMessages) {
@@ -513,11 +581,13 @@ public class MessageListViewModel extends ViewModel {
 
             @Override
             public void ccGroupMemberKicked(Action actionMessage, User kickedUser, User kickedBy, Group kickedFrom) {
+                UserPrefixIndex.removeGroupMember(kickedFrom.getGuid(), kickedUser);
                 onMessageReceived(actionMessage);
             }
 
             @Override
             public void ccGroupMemberBanned(Action actionMessage, User bannedUser, User bannedBy, Group bannedFrom) {
+                UserPrefixIndex.removeGroupMember(bannedFrom.getGuid(), bannedUser);
                 onMessageReceived(actionMessage);
             }
 
@@ -538,7 +608,8 @@ public class MessageListViewModel extends ViewModel {
             @Override
             public void ccOwnershipChanged(Group group, GroupMember newOwner) {
             }
-        });
+        };
+        registerEventListeners();
 
         CometChatUIEvents.addListener(LISTENERS_TAG, new CometChatUIEvents() {
             @Override
@@ -614,44 +685,34 @@ public class MessageListViewModel extends ViewModel {
 
     public void setInteractions(InteractionReceipt interactionReceipt) {
         if (interactionReceipt != null && interactionReceipt.getSender().getUid().equalsIgnoreCase(CometChatUIKit.getLoggedInUser().getUid())) {
-            for (int i = messageArrayList.size() - 1; i >= 0; i--) {
-                BaseMessage baseMessage = messageArrayList.get(i);
-                if (baseMessage.getId() == interactionReceipt.getMessageId()) {
-                    InteractiveMessage interactiveMessage = (InteractiveMessage) baseMessage;
-                    interactiveMessage.setInteractions(interactionReceipt.getInteractions());
-                    updateMessage(baseMessage);
-                    break;
-                }
+            BaseMessage baseMessage = messageArrayList.getById(interactionReceipt.getMessageId());
+            if (baseMessage instanceof InteractiveMessage) {
+                ((InteractiveMessage) baseMessage).setInteractions(interactionReceipt.getInteractions());
+                updateMessage(baseMessage);
             }
         }
     }
 
     private void onReactionAdded(ReactionEvent reactionEvent) {
         if (conversationId != null && reactionEvent.getConversationId().equals(conversationId)) {
-            for (int i = messageArrayList.size() - 1; i >= 0; i--) {
-                BaseMessage baseMessage = messageArrayList.get(i);
-                if (baseMessage.getId() == reactionEvent.getReaction().getMessageId()) {
-                    BaseMessage modifiedBaseMessage = CometChatHelper.updateMessageWithReactionInfo(baseMessage,
-                                                                                                    reactionEvent.getReaction(),
-                                                                                                    CometChatConstants.REACTION_ADDED);
-                    updateMessage(modifiedBaseMessage);
-                    break;
-                }
+            BaseMessage baseMessage = messageArrayList.getById(reactionEvent.getReaction().getMessageId());
+            if (baseMessage != null) {
+                BaseMessage modifiedBaseMessage = CometChatHelper.updateMessageWithReactionInfo(baseMessage,
+                                                                                                reactionEvent.getReaction(),
+                                                                                                CometChatConstants.REACTION_ADDED);
+                updateMessage(modifiedBaseMessage, UIKitConstants.MessageListPayload.REACTION);
             }
         }
     }
 
     private void onReactionRemoved(ReactionEvent reactionEvent) {
         if (conversationId != null && reactionEvent.getConversationId().equals(conversationId)) {
-            for (int i = messageArrayList.size() - 1; i >= 0; i--) {
-                BaseMessage baseMessage = messageArrayList.get(i);
-                if (baseMessage.getId() == reactionEvent.getReaction().getMessageId()) {
-                    BaseMessage modifiedBaseMessage = CometChatHelper.updateMessageWithReactionInfo(baseMessage,
-                                                                                                    reactionEvent.getReaction(),
-                                                                                                    CometChatConstants.REACTION_REMOVED);
-                    updateMessage(modifiedBaseMessage);
-                    break;
-                }
+            BaseMessage baseMessage = messageArrayList.getById(reactionEvent.getReaction().getMessageId());
+            if (baseMessage != null) {
+                BaseMessage modifiedBaseMessage = CometChatHelper.updateMessageWithReactionInfo(baseMessage,
+                                                                                                reactionEvent.getReaction(),
+                                                                                                CometChatConstants.REACTION_REMOVED);
+                updateMessage(modifiedBaseMessage, UIKitConstants.MessageListPayload.REACTION);
             }
         }
     }
@@ -660,7 +721,9 @@ public class MessageListViewModel extends ViewModel {
         CometChat.addConnectionListener(LISTENERS_TAG, new CometChat.ConnectionListener() {
             @Override
             public void onConnected() {
-                fetchMissedMessages();
+                // a first page that failed offline is fetched again, the chat is caught up otherwise
+                if (firstFetch) fetchMessages(firstFetchUnreadCount);
+                else fetchMissedMessages();
             }
 
             @Override
@@ -681,68 +744,67 @@ public class MessageListViewModel extends ViewModel {
         });
     }
 
+    /**
+     * Catches the list up after a reconnect. The messages sent and updated while
+     * offline are fetched page by page and merged into the list in one batch.
+     */
     public void fetchMissedMessages() {
-        Thread fetchMissedThread = new Thread(() -> {
-            updateListByActionMessages();
-            fetchNextMessages();
-        });
-        fetchMissedThread.start();
-    }
-
-    public void updateListByActionMessages() {
-        if (!messageArrayList.isEmpty()) {
-            MessagesRequest.MessagesRequestBuilder actionRequestBuilder = new MessagesRequest.MessagesRequestBuilder()
-                .setMessageId(messageArrayList.get(messageArrayList.size() - 1).getId())
-                .setTypes(actionMessageTypes)
-                .setCategories(actionCategories);
-            if (user != null) actionMessagesRequest = actionRequestBuilder.setUID(user.getUid()).build();
-            else if (group != null) actionMessagesRequest = actionRequestBuilder.setGUID(group.getGuid()).build();
-            if (actionMessagesRequest != null) {
-                actionMessagesRequest.fetchNext(new CometChat.CallbackListener<List<BaseMessage>>() {
-                    @Override
-                    public void onSuccess(List<BaseMessage> baseMessages) {
-                        for (BaseMessage baseMessage : baseMessages) {
-                            if (baseMessage.getCategory().equals(CometChatConstants.CATEGORY_ACTION)) {
-                                if (baseMessage instanceof Action && ((Action) baseMessage).getActionOn() != null && ((Action) baseMessage).getActionOn() instanceof BaseMessage) {
-                                    BaseMessage actionOn = (BaseMessage) ((Action) baseMessage).getActionOn();
-                                    updateMessage(Utils.convertToUIKitMessage(actionOn));
-                                }
-                            }
-                        }
-                    }
-
-                    @Override
-                    public void onError(CometChatException e) {
-                        CometChatLogger.e(TAG, e.toString());
-                    }
-                });
+        BaseMessage lastMessage = getLastSentMessage();
+        if (lastMessage == null || messagesRequestBuilder == null) return;
+        MessagesRequest missedMessagesRequest = messagesRequestBuilder.setMessageId(lastMessage.getId()).build();
+        MessagesRequest updatedMessagesRequest = getUpdatedMessagesRequest(Math.max(lastMessage.getSentAt(), lastUpdatesSyncedAt));
+        missedMessagesSync.sync(missedMessagesRequest::fetchNext,
+                                updatedMessagesRequest != null ? updatedMessagesRequest::fetchNext : null,
+                                this::mergeMissedMessages);
+    }
+
+    private void mergeMissedMessages(@NonNull List<BaseMessage> missedMessages, @NonNull List<BaseMessage> updatedMessages) {
+        for (BaseMessage updatedMessage : updatedMessages) {
+            BaseMessage baseMessage = Utils.convertToUIKitMessage(updatedMessage);
+            lastUpdatesSyncedAt = Math.max(lastUpdatesSyncedAt, baseMessage.getUpdatedAt());
+            if (baseMessage.getDeletedAt() > 0 && hideDeleteMessage) removeMessage(baseMessage);
+            else updateMessage(baseMessage);
+        }
+        List<BaseMessage> newMessages = new ArrayList<>();
+        for (BaseMessage missedMessage : missedMessages) {
+            BaseMessage baseMessage = Utils.convertToUIKitMessage(missedMessage);
+            if (isThreadedMessageForTheCurrentChat(baseMessage) && messageArrayList.indexOf(baseMessage) < 0) newMessages.add(baseMessage);
+        }
+        if (!newMessages.isEmpty()) {
+            removeConversationStarter.setValue(Boolean.TRUE);
+            messageArrayList.addAll(newMessages);
+            messagesAppended.setValue(newMessages);
+            for (BaseMessage baseMessage : newMessages) {
+                cacheMessage(baseMessage);
             }
+            markAsDeliverInternally(newMessages.get(newMessages.size() - 1));
+            states.setValue(checkIsEmpty(messageArrayList));
         }
+        if (!messageArrayList.isEmpty()) CometChatUIKitHelper.onActiveChatChanged(getIdMap(), getLastMessage(), user, group);
+    }
+
+    @Nullable
+    private MessagesRequest getUpdatedMessagesRequest(long updatedAfter) {
+        if (updatedAfter <= 0) return null;
+        MessagesRequest.MessagesRequestBuilder builder = new MessagesRequest.MessagesRequestBuilder()
+            .setUpdatedAfter(updatedAfter)
+            .updatesOnly(true)
+            .setLimit(MAX_UPDATES_PAGE_SIZE)
+            .setTypes(messagesTypes)
+            .setCategories(messagesCategories);
+        if (parentMessageId > -1) builder.setParentMessageId(parentMessageId);
+        else builder.hideReplies(true);
+        if (user != null) return builder.setUID(user.getUid()).build();
+        else if (group != null) return builder.setGUID(group.getGuid()).build();
+        return null;
     }
 
-    public void fetchNextMessages() {
-        if (!messageArrayList.isEmpty()) {
-            MessagesRequest fetchNextMessagesRequest = messagesRequestBuilder
-                .setMessageId(messageArrayList.get(messageArrayList.size() - 1).getId())
-                .build();
-            fetchNextMessagesRequest.fetchNext(new CometChat.CallbackListener<List<BaseMessage>>() {
-                @Override
-                public void onSuccess(List<BaseMessage> baseMessages) {
-                    if (!baseMessages.isEmpty()) {
-                        for (BaseMessage baseMessage : baseMessages) {
-                            addMessage(Utils.convertToUIKitMessage(baseMessage));
-                        }
-                        fetchNextMessages();
-                    } else {
-                        CometChatUIKitHelper.onActiveChatChanged(getIdMap(), messageArrayList.get(messageArrayList.size() - 1), user, group);
-                    }
-                }
-
-                @Override
-                public void onError(CometChatException e) {
-                }
-            });
+    @Nullable
+    private BaseMessage getLastSentMessage() {
+        for (int i = messageArrayList.size() - 1; i >= 0; i--) {
+            if (messageArrayList.get(i).getId() > 0) return messageArrayList.get(i);
         }
+        return null;
     }
 
     public void setMessage(BaseMessage message) {
@@ -790,25 +852,19 @@ public class MessageListViewModel extends ViewModel {
     }
 
     public void updateMessageFromMUID(BaseMessage baseMessage) {
-        for (int i = messageArrayList.size() - 1; i >= 0; i--) {
-            String mUid = messageArrayList.get(i).getMuid();
-            if (mUid != null && mUid.equals(baseMessage.getMuid())) {
-                messageArrayList.remove(i);
-                messageArrayList.add(i, baseMessage);
-                updateMessage.setValue(i);
-            }
+        int index = messageArrayList.indexOfMuid(baseMessage.getMuid());
+        if (index > -1) {
+            messageArrayList.set(index, baseMessage);
+            updateMessage.setValue(index);
+            cacheMessage(baseMessage);
         }
     }
 
     public void updateReplyCount(int parentMessageId) {
-        for (int i = 0; i < messageArrayList.size(); i++) {
-            BaseMessage baseMessage = messageArrayList.get(i);
-            int replyCount = baseMessage.getReplyCount();
-            if (baseMessage.getId() == parentMessageId) {
-                baseMessage.setReplyCount(++replyCount);
-                updateMessage(baseMessage);
-                break;
-            }
+        BaseMessage baseMessage = messageArrayList.getById(parentMessageId);
+        if (baseMessage != null) {
+            baseMessage.setReplyCount(baseMessage.getReplyCount() + 1);
+            updateMessage(baseMessage, UIKitConstants.MessageListPayload.REPLY_COUNT);
         }
     }
 
@@ -829,31 +885,21 @@ public class MessageListViewModel extends ViewModel {
     }
 
     public void setDeliveryReceipts(MessageReceipt messageReceipt) {
-        boolean isDelivered = false;
-        for (int i = messageArrayList.size() - 1; i >= 0; i--) {
-            BaseMessage baseMessage = messageArrayList.get(i);
-            if (baseMessage.getDeliveredAt() == 0 || baseMessage.getId() == messageReceipt.getMessageId()) {
-                isDelivered = true;
-                baseMessage.setDeliveredAt(messageReceipt.getDeliveredAt());
-            } else if (isDelivered) {
-                break;
-            }
-        }
-        notifyUpdate.setValue(unused);
+        int previousId = receiptWatermark.getDeliveredId();
+        if (receiptWatermark.markDelivered(messageReceipt.getMessageId(), messageReceipt.getDeliveredAt()))
+            notifyReceiptRange(previousId, messageReceipt.getMessageId());
     }
 
     public void setReadReceipts(MessageReceipt messageReceipt) {
-        boolean isRead = false;
-        for (int i = messageArrayList.size() - 1; i >= 0; i--) {
-            BaseMessage baseMessage = messageArrayList.get(i);
-            if (baseMessage.getReadAt() == 0 || baseMessage.getId() == messageReceipt.getMessageId()) {
-                isRead = true;
-                baseMessage.setReadAt(messageReceipt.getReadAt());
-            } else if (isRead) {
-                break;
-            }
-        }
-        notifyUpdate.setValue(unused);
+        int previousId = receiptWatermark.getReadId();
+        if (receiptWatermark.markRead(messageReceipt.getMessageId(), messageReceipt.getReadAt()))
+            notifyReceiptRange(previousId, messageReceipt.getMessageId());
+    }
+
+    private void notifyReceiptRange(int previousId, int currentId) {
+        int start = messageArrayList.upperBoundById(previousId);
+        int end = messageArrayList.upperBoundById(currentId);
+        if (end > start) receiptRangeChanged.setValue(new Pair<>(start, end - start));
     }
 
     public void fetchMessages() {
@@ -903,24 +949,37 @@ public class MessageListViewModel extends ViewModel {
 
     public void fetchMessages(int unreadCount) {
         if (messagesRequestBuilder != null && messagesRequest != null) {
+            // the first page, which replaces the cached one, is still on its way
+            if (fetchingFirstPage) return;
             if (hasMore) {
-                if (messageArrayList.isEmpty()) states.setValue(UIKitConstants.States.LOADING);
+                if (messageArrayList.isEmpty()) {
+                    states.setValue(UIKitConstants.States.LOADING);
+                    if (firstFetch) showCachedMessages();
+                }
+                if (firstFetch) {
+                    fetchingFirstPage = true;
+                    firstFetchUnreadCount = unreadCount;
+                }
                 messagesRequest.fetchPrevious(new CometChat.CallbackListener<List<BaseMessage>>() {
                     @Override
                     public void onSuccess(List<BaseMessage> messageList) {
-                        new Thread(() -> {
+                        CometChatExecutors.compute().execute(() -> {
                             hasMore = !messageList.isEmpty();
                             if (hasMore) {
                                 processMessageList(messageList);
                             }
-                            if (messageArrayList.isEmpty()) {
-                                messageArrayList.addAll(0, messageList);
-                                mutableMessageList.postValue(messageArrayList);
-                            } else {
-                                messageArrayList.addAll(0, messageList);
-                                mutableMessagesRangeChanged.postValue(messageList.size());
-                            }
                             handler.post(() -> {
+                                fetchingFirstPage = false;
+                                if (cacheKey != null) CometChatMessageCache.reconcile(cacheKey, messageList, firstFetch);
+                                if (cachedPage != null) {
+                                    replaceCachedMessages(messageList);
+                                } else if (messageArrayList.isEmpty()) {
+                                    messageArrayList.prepend(messageList);
+                                    mutableMessageList.setValue(messageArrayList);
+                                } else {
+                                    messageArrayList.prepend(messageList);
+                                    mutableMessagesRangeChanged.setValue(messageList.size());
+                                }
                                 if (firstFetch) {
                                     CometChatUIKitHelper.onActiveChatChanged(getIdMap(),
                                                                              messageList.isEmpty() ? null : messageList.get(messageList.size() - 1),
@@ -943,12 +1002,17 @@ public class MessageListViewModel extends ViewModel {
                                 states.setValue(checkIsEmpty(messageArrayList));
                                 conversationId = !messageArrayList.isEmpty() ? messageArrayList.get(0).getConversationId() : null;
                             });
-                        }).start();
+                        });
                     }
 
                     @Override
                     public void onError(CometChatException exception) {
+                        fetchingFirstPage = false;
                         cometchatException.setValue(exception);
+                        // the first page is fetched again on reconnect
+                        if (firstFetch) addConnectionListener();
+                        // keep showing the cached messages while offline
+                        if (cachedPage != null) return;
                         states.setValue(UIKitConstants.States.LOADED);
                         states.setValue(UIKitConstants.States.ERROR);
                     }
@@ -957,20 +1021,50 @@ public class MessageListViewModel extends ViewModel {
         }
     }
 
+    private void showCachedMessages() {
+        if (cacheKey == null || !CometChatMessageCache.isEnabled()) return;
+        String requestedKey = cacheKey;
+        CometChatMessageCache.getLatestMessages(requestedKey, limit, new CometChat.CallbackListener<List<BaseMessage>>() {
+            @Override
+            public void onSuccess(List<BaseMessage> cachedMessages) {
+                handler.post(() -> {
+                    if (cachedMessages.isEmpty() || !firstFetch || !messageArrayList.isEmpty() || !requestedKey.equals(cacheKey)) return;
+                    cachedPage = new CachedMessagesPage(cachedMessages);
+                    messageArrayList.prepend(cachedMessages);
+                    mutableMessageList.setValue(messageArrayList);
+                    states.setValue(UIKitConstants.States.LOADED);
+                    states.setValue(checkIsEmpty(messageArrayList));
+                });
+            }
+
+            @Override
+            public void onError(CometChatException e) {
+            }
+        });
+    }
+
+    /**
+     * Swaps the cached page for the page fetched from the server, keeping the
+     * messages that arrived in real time after the cached page was shown.
+     */
+    private void replaceCachedMessages(List<BaseMessage> serverPage) {
+        cachedPage.replace(messageArrayList, serverPage);
+        cachedPage = null;
+        mutableMessageList.setValue(messageArrayList);
+    }
+
+    private void cacheMessage(BaseMessage baseMessage) {
+        if (cacheKey != null && baseMessage.getParentMessageId() == 0) CometChatMessageCache.put(cacheKey, baseMessage);
+    }
+
     public void fetchSmartRepliesWithDelay(TextMessage textMessage) {
         if (isMessageForCurrentChat(textMessage) && !textMessage
             .getSender()
             .getUid()
             .equals(CometChatUIKit.getLoggedInUser().getUid()) && parentMessageId == -1) {
             if (enableSmartReplies) {
-                smartReplyDelayTimer.cancel();
-                smartReplyDelayTimer = new Timer();
-                smartReplyDelayTimer.schedule(new TimerTask() {
-                    @Override
-                    public void run() {
-                        fetchSmartRepliesWithKeywordsCheck(textMessage);
-                    }
-                }, smartRepliesDelayDuration);
+                CometChatExecutors.cancel(smartRepliesTask);
+                smartRepliesTask = CometChatExecutors.scheduleOnMain(() -> fetchSmartRepliesWithKeywordsCheck(textMessage), smartRepliesDelayDuration);
             }
         }
     }
@@ -1035,10 +1129,10 @@ public class MessageListViewModel extends ViewModel {
 
     public void addList(List<BaseMessage> messageList) {
         if (messageArrayList.isEmpty()) {
-            this.messageArrayList.addAll(0, messageList);
+            this.messageArrayList.prepend(messageList);
             mutableMessageList.setValue(messageArrayList);
         } else {
-            this.messageArrayList.addAll(0, messageList);
+            this.messageArrayList.prepend(messageList);
             mutableMessagesRangeChanged.setValue(messageList.size());
         }
     }
@@ -1067,7 +1161,7 @@ public class MessageListViewModel extends ViewModel {
             public void onSuccess(Void unused) {
                 lastMessage.setReadAt(System.currentTimeMillis() / 1000);
                 CometChatUIKitHelper.onMessageRead(lastMessage);
-                updateMessage(lastMessage);
+                updateMessage(lastMessage, UIKitConstants.MessageListPayload.RECEIPT);
             }
 
             @Override
@@ -1078,12 +1172,29 @@ public class MessageListViewModel extends ViewModel {
 
     public void updateMessage(BaseMessage message) {
         if (message != null) {
-            if (messageArrayList.contains(message)) {
-                int index = messageArrayList.indexOf(message);
-                BaseMessage oldMessage = messageArrayList.get(index);
-                messageArrayList.remove(oldMessage);
-                messageArrayList.add(index, message);
+            int index = messageArrayList.indexOf(message);
+            if (index > -1) {
+                messageArrayList.set(index, message);
                 updateMessage.setValue(index);
+                cacheMessage(message);
+            }
+        }
+    }
+
+    /**
+     * Replaces the message in the list and reports only the part of its bubble
+     * that changed.
+     *
+     * @param message the updated message.
+     * @param payload the part of the bubble that changed.
+     */
+    public void updateMessage(BaseMessage message, @NonNull UIKitConstants.MessageListPayload payload) {
+        if (message != null) {
+            int index = messageArrayList.indexOf(message);
+            if (index > -1) {
+                messageArrayList.set(index, message);
+                messagePayloadChanged.setValue(new Pair<>(index, payload));
+                if (payload == UIKitConstants.MessageListPayload.EDIT) cacheMessage(message);
             }
         }
     }
@@ -1102,9 +1213,12 @@ public class MessageListViewModel extends ViewModel {
     public void removeMessage(@Nullable BaseMessage message) {
         if (message != null) {
             int index = messageArrayList.indexOf(message);
-            removeMessage.setValue(index);
-            messageArrayList.remove(message);
-            states.setValue(checkIsEmpty(messageArrayList));
+            if (index > -1) {
+                messageArrayList.remove(index);
+                removeMessage.setValue(index);
+                if (cacheKey != null) CometChatMessageCache.remove(cacheKey, message);
+                states.setValue(checkIsEmpty(messageArrayList));
+            }
         }
     }
 
@@ -1114,6 +1228,7 @@ public class MessageListViewModel extends ViewModel {
             if (messageArrayList.isEmpty()) addList(messageArrayList);
             messageArrayList.add(message);
             addMessage.setValue(message);
+            cacheMessage(message);
             states.setValue(checkIsEmpty(messageArrayList));
         }
     }
@@ -1143,6 +1258,7 @@ public class MessageListViewModel extends ViewModel {
     public void setMessagesRequestBuilder(MessagesRequest.MessagesRequestBuilder builder) {
         if (builder != null) {
             this.messagesRequestBuilder = builder;
+            this.customRequestBuilder = true;
             if (user != null) initializeUserRequestBuilder();
             else if (group != null) initializeGroupRequestBuilder();
         }
@@ -1165,10 +1281,26 @@ public class MessageListViewModel extends ViewModel {
         });
     }
 
+    /**
+     * Registers the message and group event listeners for the events of the
+     * current chat only, again whenever the chat changes.
+     */
+    private void registerEventListeners() {
+        if (messageEventsListener == null || groupEventsListener == null) return;
+        String route = null;
+        if (id != null && UIKitConstants.ReceiverType.USER.equals(type)) route = EventRoute.ofUser(id);
+        else if (id != null && UIKitConstants.ReceiverType.GROUP.equals(type)) route = EventRoute.ofGroup(id);
+        CometChatMessageEvents.addListener(LISTENERS_TAG, messageEventsListener, route);
+        CometChatGroupEvents.addGroupListener(LISTENERS_TAG, groupEventsListener, route);
+    }
+
     public void removeListener() {
+        missedMessagesSync.cancel();
         CometChat.removeGroupListener(LISTENERS_TAG);
         CometChatMessageEvents.removeListener(LISTENERS_TAG);
         CometChatGroupEvents.removeListener(LISTENERS_TAG);
+        messageEventsListener = null;
+        groupEventsListener = null;
         CometChatUIEvents.removeListener(LISTENERS_TAG);
         CometChat.removeConnectionListener(LISTENERS_TAG);
         if (isCallingAdded()) {
@@ -1177,6 +1309,23 @@ public class MessageListViewModel extends ViewModel {
         }
     }
 
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        missedMessagesSync.cancel();
+        CometChatExecutors.cancel(smartRepliesTask);
+    }
+
+    /**
+     * Recomputes the day of every loaded message after the device time zone
+     * changed, and refreshes the list so the date headers follow.
+     */
+    public void onTimeZoneChanged() {
+        Utils.invalidateTimeZone();
+        messageArrayList.refreshDayIds();
+        notifyUpdate.setValue(unused);
+    }
+
     public boolean isCallingAdded() {
         return messagesCategories.contains(CometChatConstants.CATEGORY_CALL) && (messagesTypes.contains(CometChatConstants.CALL_TYPE_VIDEO) || messagesTypes.contains(
             CometChatConstants.CALL_TYPE_AUDIO));
@@ -1215,7 +1364,7 @@ public class MessageListViewModel extends ViewModel {
         reaction.setUid(CometChatUIKit.getLoggedInUser().getUid());
         reaction.setReactedBy(CometChatUIKit.getLoggedInUser());
         BaseMessage newBaseMessage = CometChatHelper.updateMessageWithReactionInfo(baseMessage, reaction, CometChatConstants.REACTION_ADDED);
-        updateMessage(newBaseMessage);
+        updateMessage(newBaseMessage, UIKitConstants.MessageListPayload.REACTION);
         CometChat.addReaction(baseMessage.getId(), emoji, new CometChat.CallbackListener<BaseMessage>() {
             @Override
             public void onSuccess(BaseMessage baseMessage) {
@@ -1238,7 +1387,7 @@ public class MessageListViewModel extends ViewModel {
         reaction.setUid(CometChatUIKit.getLoggedInUser().getUid());
         reaction.setReactedBy(CometChatUIKit.getLoggedInUser());
         BaseMessage newBaseMessage = CometChatHelper.updateMessageWithReactionInfo(baseMessage, reaction, CometChatConstants.REACTION_REMOVED);
-        updateMessage(newBaseMessage);
+        updateMessage(newBaseMessage, UIKitConstants.MessageListPayload.REACTION);
         CometChat.removeReaction(baseMessage.getId(), emoji, new CometChat.CallbackListener<BaseMessage>() {
             @Override
             public void onSuccess(BaseMessage baseMessage) {
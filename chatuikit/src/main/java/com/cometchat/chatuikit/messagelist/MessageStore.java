@@ -0,0 +1,326 @@
+package com.cometchat.chatuikit.messagelist;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.cometchat.chat.models.BaseMessage;
+import com.cometchat.chatuikit.shared.resources.utils.Utils;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.RandomAccess;
+
+/**
+ * MessageStore is the backing list of {@link MessageListViewModel}. It behaves
+ * like a regular {@link java.util.List} of {@link BaseMessage} so it can be
+ * handed to the {@link MessageAdapter} as-is, while keeping message id and muid
+ * indexes in sync with the list positions.
+ *
+ * <p>
+ * Positions are stored relative to a moving offset, so prepending a page or
+ * appending a message never re-indexes the rest of the list. Inserting or
+ * removing in the middle only re-indexes the shorter side of the list.
+ *
+ * <p>
+ * The store also keeps the local day of every message, computed once when the
+ * message is added, so the date headers can be bucketed without formatting
+ * dates while scrolling.
+ */
+public class MessageStore extends AbstractList<BaseMessage> implements RandomAccess {
+    private final ArrayList<BaseMessage> messages;
+    private final HashMap<Integer, Integer> idIndex;
+    private final HashMap<String, Integer> muidIndex;
+    // position = slot + offset
+    private int offset;
+    // local epoch day of each message, by position
+    private long[] dayIds;
+
+    public MessageStore() {
+        messages = new ArrayList<>();
+        idIndex = new HashMap<>();
+        muidIndex = new HashMap<>();
+        dayIds = new long[16];
+    }
+
+    @Override
+    public BaseMessage get(int index) {
+        return messages.get(index);
+    }
+
+    @Override
+    public int size() {
+        return messages.size();
+    }
+
+    @Override
+    public BaseMessage set(int index, BaseMessage message) {
+        BaseMessage oldMessage = messages.set(index, message);
+        unindex(oldMessage, index);
+        index(message, index);
+        dayIds[index] = dayOf(message);
+        return oldMessage;
+    }
+
+    @Override
+    public void add(int index, BaseMessage message) {
+        int size = messages.size();
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        if (index < size) {
+            if (index < size - index) {
+                // every position moves up by one, then the head is moved back
+                offset++;
+                for (int i = 0; i < index; i++) {
+                    shift(messages.get(i), i + 1, i);
+                }
+            } else {
+                for (int i = index; i < size; i++) {
+                    shift(messages.get(i), i, i + 1);
+                }
+            }
+        }
+        openDayIds(index, 1);
+        messages.add(index, message);
+        dayIds[index] = dayOf(message);
+        modCount++;
+        index(message, index);
+    }
+
+    @Override
+    public BaseMessage remove(int index) {
+        BaseMessage message = messages.get(index);
+        unindex(message, index);
+        int size = messages.size();
+        if (index < size - 1 - index) {
+            // every position moves down by one, then the head is moved back
+            offset--;
+            for (int i = 0; i < index; i++) {
+                shift(messages.get(i), i - 1, i);
+            }
+        } else {
+            for (int i = index + 1; i < size; i++) {
+                shift(messages.get(i), i, i - 1);
+            }
+        }
+        messages.remove(index);
+        System.arraycopy(dayIds, index + 1, dayIds, index, messages.size() - index);
+        modCount++;
+        return message;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        int index = indexOf(o);
+        if (index < 0) return false;
+        remove(index);
+        return true;
+    }
+
+    @Override
+    public boolean addAll(int index, @NonNull Collection<? extends BaseMessage> collection) {
+        if (collection.isEmpty()) return false;
+        if (index == 0) {
+            prepend(collection);
+            return true;
+        } else if (index == messages.size()) {
+            openDayIds(index, collection.size());
+            for (BaseMessage message : collection) {
+                messages.add(message);
+                index(message, messages.size() - 1);
+                dayIds[messages.size() - 1] = dayOf(message);
+            }
+            modCount++;
+            return true;
+        }
+        return super.addAll(index, collection);
+    }
+
+    @Override
+    public boolean addAll(@NonNull Collection<? extends BaseMessage> collection) {
+        return addAll(messages.size(), collection);
+    }
+
+    @Override
+    public void clear() {
+        messages.clear();
+        idIndex.clear();
+        muidIndex.clear();
+        offset = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns the position of the message with the same id as the given message,
+     * or the same muid when the message has not been assigned an id yet.
+     */
+    @Override
+    public int indexOf(Object o) {
+        if (!(o instanceof BaseMessage)) return -1;
+        BaseMessage message = (BaseMessage) o;
+        if (message.getId() > 0) return indexOfId(message.getId());
+        return indexOfMuid(message.getMuid());
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    /**
+     * Adds a page of older messages to the start of the list.
+     *
+     * @param page the messages to prepend, in ascending order.
+     */
+    public void prepend(@NonNull Collection<? extends BaseMessage> page) {
+        if (page.isEmpty()) return;
+        offset += page.size();
+        openDayIds(0, page.size());
+        messages.addAll(0, page);
+        int position = 0;
+        for (BaseMessage message : page) {
+            dayIds[position] = dayOf(message);
+            index(message, position++);
+        }
+        modCount++;
+    }
+
+    /**
+     * Inserts the message at its position ordered by sentAt and then id. Messages
+     * that are not older than the last message are appended without searching.
+     *
+     * @param message the message to insert.
+     * @return the position the message was inserted at.
+     */
+    public int insertSorted(@NonNull BaseMessage message) {
+        int size = messages.size();
+        if (size == 0 || compare(messages.get(size - 1), message) <= 0) {
+            add(size, message);
+            return size;
+        }
+        int low = 0, high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (compare(messages.get(mid), message) <= 0) low = mid + 1;
+            else high = mid - 1;
+        }
+        add(low, message);
+        return low;
+    }
+
+    /**
+     * Returns the position of the message with the given id, or -1 if it is not
+     * loaded.
+     */
+    public int indexOfId(int id) {
+        Integer slot = idIndex.get(id);
+        return slot == null ? -1 : slot + offset;
+    }
+
+    /**
+     * Returns the position of the message with the given muid, or -1 if it is not
+     * loaded.
+     */
+    public int indexOfMuid(@Nullable String muid) {
+        if (muid == null) return -1;
+        Integer slot = muidIndex.get(muid);
+        return slot == null ? -1 : slot + offset;
+    }
+
+    /**
+     * Returns the first position whose message id is greater than the given id.
+     * Messages that are still pending are treated as the newest.
+     */
+    public int upperBoundById(int id) {
+        int low = 0, high = messages.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = messages.get(mid).getId();
+            if (midId > 0 && midId <= id) low = mid + 1;
+            else high = mid - 1;
+        }
+        return low;
+    }
+
+    /**
+     * Returns the local epoch day of the message at the given position, as
+     * computed by {@link Utils#getEpochDay(long)}.
+     */
+    public long getDayId(int position) {
+        if (position < 0 || position >= messages.size()) throw new IndexOutOfBoundsException("Index: " + position + ", Size: " + messages.size());
+        return dayIds[position];
+    }
+
+    /**
+     * Recomputes the day of every message, for example after the time zone
+     * changed.
+     */
+    public void refreshDayIds() {
+        for (int i = 0; i < messages.size(); i++) {
+            dayIds[i] = dayOf(messages.get(i));
+        }
+    }
+
+    @Nullable
+    public BaseMessage getById(int id) {
+        int index = indexOfId(id);
+        return index < 0 ? null : messages.get(index);
+    }
+
+    @Nullable
+    public BaseMessage getByMuid(@Nullable String muid) {
+        int index = indexOfMuid(muid);
+        return index < 0 ? null : messages.get(index);
+    }
+
+    private static int compare(BaseMessage first, BaseMessage second) {
+        int result = Long.compare(first.getSentAt(), second.getSentAt());
+        if (result != 0) return result;
+        // messages without an id are still pending and belong after sent ones
+        long firstId = first.getId() > 0 ? first.getId() : Long.MAX_VALUE;
+        long secondId = second.getId() > 0 ? second.getId() : Long.MAX_VALUE;
+        return Long.compare(firstId, secondId);
+    }
+
+    private static long dayOf(BaseMessage message) {
+        return message == null ? 0 : Utils.getEpochDay(message.getSentAt() * 1000);
+    }
+
+    /**
+     * Makes room for count day ids at the given position. Must be called while
+     * the messages list still has its old size.
+     */
+    private void openDayIds(int index, int count) {
+        int size = messages.size();
+        if (size + count > dayIds.length) dayIds = Arrays.copyOf(dayIds, Math.max(size + count, dayIds.length * 2));
+        System.arraycopy(dayIds, index, dayIds, index + count, size - index);
+    }
+
+    private void index(BaseMessage message, int position) {
+        if (message == null) return;
+        int slot = position - offset;
+        if (message.getId() > 0) idIndex.put(message.getId(), slot);
+        if (message.getMuid() != null) muidIndex.put(message.getMuid(), slot);
+    }
+
+    private void unindex(BaseMessage message, int position) {
+        if (message == null) return;
+        Integer slot = position - offset;
+        if (message.getId() > 0 && slot.equals(idIndex.get(message.getId()))) idIndex.remove(message.getId());
+        if (message.getMuid() != null && slot.equals(muidIndex.get(message.getMuid()))) muidIndex.remove(message.getMuid());
+    }
+
+    private void shift(BaseMessage message, int from, int to) {
+        if (message == null) return;
+        Integer fromSlot = from - offset;
+        int toSlot = to - offset;
+        if (message.getId() > 0 && fromSlot.equals(idIndex.get(message.getId()))) idIndex.put(message.getId(), toSlot);
+        if (message.getMuid() != null && fromSlot.equals(muidIndex.get(message.getMuid()))) muidIndex.put(message.getMuid(), toSlot);
+    }
+}
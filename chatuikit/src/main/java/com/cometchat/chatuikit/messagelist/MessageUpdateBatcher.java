@@ -0,0 +1,121 @@
+package com.cometchat.chatuikit.messagelist;
+
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.cometchat.chatuikit.shared.constants.UIKitConstants;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * MessageUpdateBatcher gathers the item changes raised for the message list
+ * within one Choreographer frame and dispatches them to the adapter in a single
+ * pass, as ranges of consecutive positions sharing the same payload.
+ *
+ * <p>
+ * Only in-place changes are batched. Structural changes (inserts, removals and
+ * full refreshes) must call {@link #flush()} before notifying the adapter, so
+ * the queued positions still refer to the list they were recorded against.
+ */
+public class MessageUpdateBatcher implements Choreographer.FrameCallback {
+    // marks a position that needs a full rebind
+    private static final Object FULL = new Object();
+
+    private final RecyclerView.Adapter<?> adapter;
+    private final TreeMap<Integer, Object> pendingChanges;
+    private boolean scheduled;
+
+    public MessageUpdateBatcher(@NonNull RecyclerView.Adapter<?> adapter) {
+        this.adapter = adapter;
+        this.pendingChanges = new TreeMap<>();
+    }
+
+    /**
+     * Queues a change for the item at the given position.
+     *
+     * @param position the position of the changed message.
+     * @param payload  the part of the bubble that changed, or null to rebind the
+     *                 whole bubble.
+     */
+    public void change(int position, @Nullable UIKitConstants.MessageListPayload payload) {
+        if (position < 0) return;
+        Object value = payload == null ? FULL : payload;
+        Object existing = pendingChanges.get(position);
+        // two different partial changes on the same bubble are merged into a full rebind
+        pendingChanges.put(position, existing == null || existing == value ? value : FULL);
+        schedule();
+    }
+
+    /**
+     * Queues the same change for a range of items.
+     *
+     * @param start   the first changed position.
+     * @param count   the number of changed items.
+     * @param payload the part of the bubbles that changed, or null to rebind them.
+     */
+    public void changeRange(int start, int count, @Nullable UIKitConstants.MessageListPayload payload) {
+        for (int position = start; position < start + count; position++) {
+            change(position, payload);
+        }
+    }
+
+    /**
+     * Dispatches all queued changes to the adapter immediately.
+     */
+    public void flush() {
+        if (scheduled) {
+            Choreographer.getInstance().removeFrameCallback(this);
+            scheduled = false;
+        }
+        if (pendingChanges.isEmpty()) return;
+        int itemCount = adapter.getItemCount();
+        int runStart = -1, runEnd = -1;
+        Object runPayload = null;
+        for (Map.Entry<Integer, Object> entry : pendingChanges.entrySet()) {
+            int position = entry.getKey();
+            if (position >= itemCount) break;
+            if (runStart != -1 && position == runEnd + 1 && entry.getValue() == runPayload) {
+                runEnd = position;
+            } else {
+                dispatch(runStart, runEnd, runPayload);
+                runStart = runEnd = position;
+                runPayload = entry.getValue();
+            }
+        }
+        dispatch(runStart, runEnd, runPayload);
+        pendingChanges.clear();
+    }
+
+    /**
+     * Drops all queued changes, for example before the whole list is refreshed.
+     */
+    public void cancel() {
+        if (scheduled) {
+            Choreographer.getInstance().removeFrameCallback(this);
+            scheduled = false;
+        }
+        pendingChanges.clear();
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        scheduled = false;
+        flush();
+    }
+
+    private void schedule() {
+        if (!scheduled) {
+            scheduled = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    private void dispatch(int start, int end, Object payload) {
+        if (start < 0) return;
+        adapter.notifyItemRangeChanged(start, end - start + 1, payload == FULL ? null : payload);
+    }
+}
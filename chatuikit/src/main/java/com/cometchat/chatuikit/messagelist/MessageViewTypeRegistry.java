@@ -0,0 +1,94 @@
+package com.cometchat.chatuikit.messagelist;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.cometchat.chatuikit.shared.models.CometChatMessageTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * MessageViewTypeRegistry assigns the {@link MessageAdapter} view types. Every
+ * (category, type) pair with a template gets a dense slot when the templates are
+ * set, and a view type is the slot combined with the bubble alignment.
+ *
+ * <p>
+ * Resolving a view type is two map lookups on the message category and type,
+ * without building strings or parsing numbers, so it is safe to call for every
+ * item on every scroll frame. A pair keeps its slot when the templates are set
+ * again, so view holders already in the pool keep a valid view type.
+ */
+public class MessageViewTypeRegistry {
+    public static final int ALIGNMENT_LEFT = 0;
+    public static final int ALIGNMENT_RIGHT = 1;
+    public static final int ALIGNMENT_CENTER = 2;
+    public static final int ALIGNMENT_IGNORE = 3;
+    private static final int ALIGNMENT_COUNT = 4;
+    // slot 0 serves messages without a template
+    private static final int NO_TEMPLATE_SLOT = 0;
+
+    private final HashMap<String, HashMap<String, Integer>> slots;
+    private final ArrayList<CometChatMessageTemplate> templates;
+
+    public MessageViewTypeRegistry() {
+        slots = new HashMap<>();
+        templates = new ArrayList<>();
+        templates.add(new CometChatMessageTemplate());
+    }
+
+    /**
+     * Registers the given templates, keeping the slots of the pairs registered
+     * before.
+     *
+     * @param messageTemplates the templates keyed by "category_type".
+     */
+    public void setTemplates(@Nullable Map<String, CometChatMessageTemplate> messageTemplates) {
+        for (int slot = 1; slot < templates.size(); slot++) {
+            templates.set(slot, templates.get(NO_TEMPLATE_SLOT));
+        }
+        if (messageTemplates == null) return;
+        for (CometChatMessageTemplate template : messageTemplates.values()) {
+            if (template == null) continue;
+            HashMap<String, Integer> typeSlots = slots.get(template.getCategory());
+            if (typeSlots == null) {
+                typeSlots = new HashMap<>();
+                slots.put(template.getCategory(), typeSlots);
+            }
+            Integer slot = typeSlots.get(template.getType());
+            if (slot == null) {
+                typeSlots.put(template.getType(), templates.size());
+                templates.add(template);
+            } else {
+                templates.set(slot, template);
+            }
+        }
+    }
+
+    /**
+     * Returns the view type of a message with the given category, type and
+     * alignment.
+     */
+    public int getViewType(@Nullable String category, @Nullable String type, int alignment) {
+        HashMap<String, Integer> typeSlots = slots.get(category);
+        Integer slot = typeSlots == null ? null : typeSlots.get(type);
+        return (slot == null ? NO_TEMPLATE_SLOT : slot) * ALIGNMENT_COUNT + alignment;
+    }
+
+    /**
+     * Returns the template the given view type was assigned for.
+     */
+    @NonNull
+    public CometChatMessageTemplate getTemplate(int viewType) {
+        int slot = viewType / ALIGNMENT_COUNT;
+        return slot >= 0 && slot < templates.size() ? templates.get(slot) : templates.get(NO_TEMPLATE_SLOT);
+    }
+
+    /**
+     * Returns the alignment encoded in the given view type.
+     */
+    public static int getAlignment(int viewType) {
+        return viewType % ALIGNMENT_COUNT;
+    }
+}
@@ -0,0 +1,111 @@
+package com.cometchat.chatuikit.messagelist;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.cometchat.chat.core.CometChat;
+import com.cometchat.chat.exceptions.CometChatException;
+import com.cometchat.chat.models.BaseMessage;
+import com.cometchat.chatuikit.logger.CometChatLogger;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * MissedMessagesSync catches a message list up after a reconnect. It pages
+ * through the messages sent while the client was offline and through the
+ * messages updated in that time (edits, deletes and reactions), then hands both
+ * sets over in a single callback so the list can merge them in one batch.
+ *
+ * <p>
+ * Pages are requested one after another through the SDK, so no thread is
+ * created here. Each source is paged until it returns an empty page, however
+ * long the client was offline, so no missed message is dropped. A sync can be
+ * cancelled at any time; callbacks of a cancelled or superseded sync are
+ * ignored.
+ */
+public class MissedMessagesSync {
+    private static final String TAG = MissedMessagesSync.class.getSimpleName();
+
+    private int generation;
+
+    /**
+     * A forward-paging source of messages, such as
+     * {@link com.cometchat.chat.core.MessagesRequest#fetchNext}.
+     */
+    public interface PageSource {
+        void fetchNext(CometChat.CallbackListener<List<BaseMessage>> listener);
+    }
+
+    public interface OnSynced {
+        /**
+         * @param missedMessages  the messages sent while offline, in ascending order.
+         * @param updatedMessages the latest version of every message updated while offline.
+         */
+        void onSynced(@NonNull List<BaseMessage> missedMessages, @NonNull List<BaseMessage> updatedMessages);
+    }
+
+    /**
+     * Starts a new sync, cancelling the one in progress.
+     *
+     * @param missedSource  pages of messages newer than the last loaded one.
+     * @param updatesSource pages of messages updated while offline, or null.
+     * @param onSynced      receives the merged result once both sources are drained.
+     */
+    public void sync(@NonNull PageSource missedSource, @Nullable PageSource updatesSource, @NonNull OnSynced onSynced) {
+        int syncGeneration = ++generation;
+        List<BaseMessage> missedMessages = new ArrayList<>();
+        drain(syncGeneration, missedSource, missedMessages, () -> {
+            List<BaseMessage> updates = new ArrayList<>();
+            if (updatesSource == null) {
+                onSynced.onSynced(missedMessages, updates);
+                return;
+            }
+            drain(syncGeneration, updatesSource, updates, () -> {
+                // keep only the latest version of each message
+                LinkedHashMap<Integer, BaseMessage> latest = new LinkedHashMap<>();
+                for (BaseMessage baseMessage : updates) {
+                    latest.put(baseMessage.getId(), baseMessage);
+                }
+                onSynced.onSynced(missedMessages, new ArrayList<>(latest.values()));
+            });
+        });
+    }
+
+    /**
+     * Cancels the sync in progress. Pages that are still in flight are dropped
+     * when they arrive.
+     */
+    public void cancel() {
+        generation++;
+    }
+
+    public boolean isCancelled(int syncGeneration) {
+        return syncGeneration != generation;
+    }
+
+    private void drain(int syncGeneration, PageSource source, List<BaseMessage> into, Runnable onDrained) {
+        if (isCancelled(syncGeneration)) return;
+        source.fetchNext(new CometChat.CallbackListener<List<BaseMessage>>() {
+            @Override
+            public void onSuccess(List<BaseMessage> baseMessages) {
+                if (isCancelled(syncGeneration)) return;
+                if (baseMessages == null || baseMessages.isEmpty()) {
+                    onDrained.run();
+                } else {
+                    into.addAll(baseMessages);
+                    drain(syncGeneration, source, into, onDrained);
+                }
+            }
+
+            @Override
+            public void onError(CometChatException e) {
+                if (isCancelled(syncGeneration)) return;
+                CometChatLogger.e(TAG, e.toString());
+                // merge what was fetched so far, the next reconnect picks up the rest
+                onDrained.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,100 @@
+package com.cometchat.chatuikit.messagelist;
+
+import androidx.annotation.Nullable;
+
+import com.cometchat.chat.models.BaseMessage;
+import com.cometchat.chat.models.User;
+import com.cometchat.chatuikit.shared.cometchatuikit.CometChatUIKit;
+
+/**
+ * ReceiptWatermark holds the highest delivered and read message of a single
+ * conversation. For a user conversation it tracks the receipts of the other
+ * user, for a group it tracks the aggregated delivered-to-all and read-by-all
+ * receipts.
+ *
+ * <p>
+ * Instead of stamping every loaded message when a receipt arrives, the
+ * watermark is bumped once and the bubbles consult it at bind time through
+ * {@link #apply(BaseMessage)}.
+ */
+public class ReceiptWatermark {
+    private int deliveredId;
+    private long deliveredAt;
+    private int readId;
+    private long readAt;
+
+    /**
+     * Moves the delivered watermark up to the given message.
+     *
+     * @param messageId   the id of the delivered message.
+     * @param deliveredAt the time the message was delivered at.
+     * @return true if the watermark moved.
+     */
+    public boolean markDelivered(int messageId, long deliveredAt) {
+        if (messageId <= deliveredId) return false;
+        this.deliveredId = messageId;
+        this.deliveredAt = deliveredAt;
+        return true;
+    }
+
+    /**
+     * Moves the read watermark up to the given message. A read message is also
+     * considered delivered.
+     *
+     * @param messageId the id of the read message.
+     * @param readAt    the time the message was read at.
+     * @return true if the watermark moved.
+     */
+    public boolean markRead(int messageId, long readAt) {
+        if (messageId <= readId) return false;
+        this.readId = messageId;
+        this.readAt = readAt;
+        markDelivered(messageId, readAt);
+        return true;
+    }
+
+    /**
+     * Stamps the delivered and read time on an outgoing message that is covered
+     * by the watermark but has not received its own receipt yet.
+     *
+     * @param message the message about to be bound.
+     * @return true if the message was changed.
+     */
+    public boolean apply(@Nullable BaseMessage message) {
+        if (message == null || message.getId() <= 0 || message.getId() > deliveredId || !isOutgoing(message)) return false;
+        boolean changed = false;
+        if (message.getDeliveredAt() == 0) {
+            message.setDeliveredAt(deliveredAt);
+            changed = true;
+        }
+        if (message.getId() <= readId && message.getReadAt() == 0) {
+            message.setReadAt(readAt);
+            changed = true;
+        }
+        return changed;
+    }
+
+    public int getDeliveredId() {
+        return deliveredId;
+    }
+
+    public int getReadId() {
+        return readId;
+    }
+
+    /**
+     * Forgets both watermarks, for when the list starts showing another
+     * conversation.
+     */
+    public void reset() {
+        deliveredId = 0;
+        deliveredAt = 0;
+        readId = 0;
+        readAt = 0;
+    }
+
+    private static boolean isOutgoing(BaseMessage message) {
+        User loggedInUser = CometChatUIKit.getLoggedInUser();
+        return loggedInUser != null && message.getSender() != null && loggedInUser.getUid().equals(message.getSender().getUid());
+    }
+}
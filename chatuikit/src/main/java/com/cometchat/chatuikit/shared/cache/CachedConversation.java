@@ -0,0 +1,40 @@
+package com.cometchat.chatuikit.shared.cache;
+
+import androidx.annotation.NonNull;
+
+/**
+ * A conversation as stored by a {@link ConversationSnapshotStorage}. The user
+ * or group of the conversation, with its avatar, is read back from the raw
+ * JSON of its last message.
+ */
+public class CachedConversation {
+    private final String conversationId;
+    private final long updatedAt;
+    private final int unreadMessageCount;
+    private final String lastMessageJson;
+
+    public CachedConversation(@NonNull String conversationId, long updatedAt, int unreadMessageCount, @NonNull String lastMessageJson) {
+        this.conversationId = conversationId;
+        this.updatedAt = updatedAt;
+        this.unreadMessageCount = unreadMessageCount;
+        this.lastMessageJson = lastMessageJson;
+    }
+
+    @NonNull
+    public String getConversationId() {
+        return conversationId;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public int getUnreadMessageCount() {
+        return unreadMessageCount;
+    }
+
+    @NonNull
+    public String getLastMessageJson() {
+        return lastMessageJson;
+    }
+}
@@ -0,0 +1,52 @@
+package com.cometchat.chatuikit.shared.cache;
+
+import androidx.annotation.NonNull;
+
+/**
+ * A message as stored by a {@link MessageCacheStorage}. Besides the raw message
+ * JSON it keeps the fields used to order, trim and reconcile the cache.
+ */
+public class CachedMessage {
+    private final int id;
+    private final long sentAt;
+    private final long updatedAt;
+    private final long deletedAt;
+    private final String json;
+
+    public CachedMessage(int id, long sentAt, long updatedAt, long deletedAt, @NonNull String json) {
+        this.id = id;
+        this.sentAt = sentAt;
+        this.updatedAt = updatedAt;
+        this.deletedAt = deletedAt;
+        this.json = json;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public long getSentAt() {
+        return sentAt;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public long getDeletedAt() {
+        return deletedAt;
+    }
+
+    @NonNull
+    public String getJson() {
+        return json;
+    }
+
+    /**
+     * Returns true if this version of the message is not older than the given
+     * one, comparing the edit and delete timestamps.
+     */
+    public boolean isNewerThanOrSameAs(@NonNull CachedMessage other) {
+        return updatedAt >= other.updatedAt && deletedAt >= other.deletedAt;
+    }
+}
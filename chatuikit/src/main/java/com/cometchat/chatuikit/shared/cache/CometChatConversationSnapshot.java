@@ -0,0 +1,150 @@
+package com.cometchat.chatuikit.shared.cache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.cometchat.chat.core.CometChat;
+import com.cometchat.chat.helpers.CometChatHelper;
+import com.cometchat.chat.models.BaseMessage;
+import com.cometchat.chat.models.Conversation;
+import com.cometchat.chat.models.User;
+import com.cometchat.chatuikit.logger.CometChatLogger;
+import com.cometchat.chatuikit.shared.executors.CometChatExecutors;
+import com.cometchat.chatuikit.shared.executors.SerialExecutor;
+import com.cometchat.chatuikit.shared.resources.utils.Utils;
+
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * CometChatConversationSnapshot keeps the top of the conversation list of the
+ * logged-in user on the device, so the conversation list can render it on
+ * start instead of a loading state, and reconcile it with the server once the
+ * first page arrives.
+ *
+ * <p>
+ * The snapshot is disabled until {@link #init(ConversationSnapshotStorage, int)}
+ * is called, which {@link com.cometchat.chatuikit.shared.cometchatuikit.CometChatUIKit}
+ * does when the conversation snapshot is enabled in its settings. All storage
+ * access runs in order on the UI Kit I/O pool.
+ */
+public final class CometChatConversationSnapshot {
+    private static final String TAG = CometChatConversationSnapshot.class.getSimpleName();
+    public static final int DEFAULT_MAX_CONVERSATIONS = 30;
+
+    private static volatile ConversationSnapshotStorage storage;
+    private static volatile int maxConversations = DEFAULT_MAX_CONVERSATIONS;
+    // keeps snapshot writes in order on the shared I/O pool
+    private static final SerialExecutor executor = new SerialExecutor(CometChatExecutors.io());
+
+    private CometChatConversationSnapshot() {
+    }
+
+    /**
+     * Enables the snapshot with the given storage.
+     *
+     * @param conversationSnapshotStorage the storage to keep the snapshot in, or null to disable it.
+     * @param maxConversations            the number of conversations from the top of the list kept.
+     */
+    public static synchronized void init(@Nullable ConversationSnapshotStorage conversationSnapshotStorage, int maxConversations) {
+        storage = conversationSnapshotStorage;
+        CometChatConversationSnapshot.maxConversations = Math.max(1, maxConversations);
+    }
+
+    public static boolean isEnabled() {
+        return storage != null;
+    }
+
+    /**
+     * Reads the snapshot of the logged-in user.
+     *
+     * @param listener receives the conversations in list order, on the cache thread.
+     */
+    public static void read(@NonNull CometChat.CallbackListener<List<Conversation>> listener) {
+        ConversationSnapshotStorage conversationSnapshotStorage = storage;
+        String ownerUid = getOwnerUid();
+        if (conversationSnapshotStorage == null || ownerUid == null) {
+            listener.onSuccess(Collections.emptyList());
+            return;
+        }
+        execute(() -> {
+            List<Conversation> conversations = new ArrayList<>();
+            for (CachedConversation cachedConversation : conversationSnapshotStorage.read(ownerUid)) {
+                Conversation conversation = fromCachedConversation(cachedConversation);
+                if (conversation != null) conversations.add(conversation);
+            }
+            listener.onSuccess(conversations);
+        });
+    }
+
+    /**
+     * Replaces the snapshot of the logged-in user with the top of the given list.
+     * Conversations without a last message are left out.
+     *
+     * @param conversations the conversation list, in list order.
+     */
+    public static void save(@NonNull List<Conversation> conversations) {
+        ConversationSnapshotStorage conversationSnapshotStorage = storage;
+        String ownerUid = getOwnerUid();
+        if (conversationSnapshotStorage == null || ownerUid == null) return;
+        List<CachedConversation> cachedConversations = new ArrayList<>();
+        for (int i = 0; i < conversations.size() && cachedConversations.size() < maxConversations; i++) {
+            CachedConversation cachedConversation = toCachedConversation(conversations.get(i));
+            if (cachedConversation != null) cachedConversations.add(cachedConversation);
+        }
+        execute(() -> conversationSnapshotStorage.write(ownerUid, cachedConversations));
+    }
+
+    /**
+     * Removes every snapshot, for example when the user logs out.
+     */
+    public static void clear() {
+        ConversationSnapshotStorage conversationSnapshotStorage = storage;
+        if (conversationSnapshotStorage != null) execute(conversationSnapshotStorage::clear);
+    }
+
+    @Nullable
+    private static String getOwnerUid() {
+        User loggedInUser = CometChat.getLoggedInUser();
+        return loggedInUser == null ? null : loggedInUser.getUid();
+    }
+
+    @Nullable
+    private static CachedConversation toCachedConversation(@Nullable Conversation conversation) {
+        if (conversation == null || conversation.getConversationId() == null) return null;
+        BaseMessage lastMessage = conversation.getLastMessage();
+        if (lastMessage == null || lastMessage.getRawMessage() == null) return null;
+        return new CachedConversation(conversation.getConversationId(),
+                                      conversation.getUpdatedAt(),
+                                      conversation.getUnreadMessageCount(),
+                                      lastMessage.getRawMessage().toString());
+    }
+
+    @Nullable
+    private static Conversation fromCachedConversation(@NonNull CachedConversation cachedConversation) {
+        try {
+            BaseMessage lastMessage = Utils.convertToUIKitMessage(CometChatHelper.processMessage(new JSONObject(cachedConversation.getLastMessageJson())));
+            Conversation conversation = CometChatHelper.getConversationFromMessage(lastMessage);
+            if (conversation == null || !cachedConversation.getConversationId().equals(conversation.getConversationId())) return null;
+            conversation.setUnreadMessageCount(cachedConversation.getUnreadMessageCount());
+            conversation.setUpdatedAt(cachedConversation.getUpdatedAt());
+            return conversation;
+        } catch (Exception e) {
+            CometChatLogger.e(TAG, e.toString());
+            return null;
+        }
+    }
+
+    private static void execute(Runnable runnable) {
+        executor.execute(() -> {
+            try {
+                runnable.run();
+            } catch (Exception e) {
+                CometChatLogger.e(TAG, e.toString());
+            }
+        });
+    }
+}
@@ -0,0 +1,177 @@
+package com.cometchat.chatuikit.shared.cache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.cometchat.chat.core.CometChat;
+import com.cometchat.chat.helpers.CometChatHelper;
+import com.cometchat.chat.models.BaseMessage;
+import com.cometchat.chatuikit.logger.CometChatLogger;
+import com.cometchat.chatuikit.shared.executors.CometChatExecutors;
+import com.cometchat.chatuikit.shared.executors.SerialExecutor;
+import com.cometchat.chatuikit.shared.resources.utils.Utils;
+
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * CometChatMessageCache keeps the latest messages of each conversation on the
+ * device, so a message list can render its last page immediately and reconcile
+ * it with the server page once that arrives.
+ *
+ * <p>
+ * The cache is disabled until {@link #init(MessageCacheStorage, int)} is called,
+ * which {@link com.cometchat.chatuikit.shared.cometchatuikit.CometChatUIKit}
+ * does when message caching is enabled in its settings. All storage access runs
+ * in order on the UI Kit I/O pool.
+ */
+public final class CometChatMessageCache {
+    private static final String TAG = CometChatMessageCache.class.getSimpleName();
+    public static final int DEFAULT_MAX_MESSAGES_PER_CONVERSATION = 200;
+
+    private static volatile MessageCacheStorage storage;
+    private static volatile int maxMessagesPerConversation = DEFAULT_MAX_MESSAGES_PER_CONVERSATION;
+    // keeps cache writes in order on the shared I/O pool
+    private static final SerialExecutor executor = new SerialExecutor(CometChatExecutors.io());
+
+    private CometChatMessageCache() {
+    }
+
+    /**
+     * Enables the cache with the given storage.
+     *
+     * @param messageCacheStorage        the storage to keep messages in, or null to disable the cache.
+     * @param maxMessagesPerConversation the number of newest messages kept per conversation.
+     */
+    public static synchronized void init(@Nullable MessageCacheStorage messageCacheStorage, int maxMessagesPerConversation) {
+        storage = messageCacheStorage;
+        CometChatMessageCache.maxMessagesPerConversation = Math.max(1, maxMessagesPerConversation);
+    }
+
+    public static boolean isEnabled() {
+        return storage != null;
+    }
+
+    /**
+     * Reads the newest cached messages of a conversation.
+     *
+     * @param conversationKey the conversation to read.
+     * @param limit           the maximum number of messages to return.
+     * @param listener        receives the messages in ascending order, on the cache thread.
+     */
+    public static void getLatestMessages(@NonNull String conversationKey, int limit, @NonNull CometChat.CallbackListener<List<BaseMessage>> listener) {
+        MessageCacheStorage messageCacheStorage = storage;
+        if (messageCacheStorage == null) {
+            listener.onSuccess(Collections.emptyList());
+            return;
+        }
+        execute(() -> {
+            List<BaseMessage> messages = new ArrayList<>();
+            for (CachedMessage cachedMessage : messageCacheStorage.readLatest(conversationKey, limit)) {
+                BaseMessage baseMessage = fromCachedMessage(cachedMessage);
+                if (baseMessage != null) messages.add(baseMessage);
+            }
+            listener.onSuccess(messages);
+        });
+    }
+
+    /**
+     * Replaces the cached messages covered by a page fetched from the server. Any
+     * cached message inside the id range of the page that the server did not
+     * return has been deleted or filtered out and is dropped.
+     *
+     * @param conversationKey the conversation the page belongs to.
+     * @param serverPage      the messages returned by the server, in ascending order.
+     * @param latestPage      true if the page is the newest page of the conversation.
+     */
+    public static void reconcile(@NonNull String conversationKey, @NonNull List<BaseMessage> serverPage, boolean latestPage) {
+        MessageCacheStorage messageCacheStorage = storage;
+        if (messageCacheStorage == null) return;
+        List<CachedMessage> cachedMessages = new ArrayList<>();
+        List<Integer> ids = new ArrayList<>();
+        int fromId = Integer.MAX_VALUE, toId = 0;
+        for (BaseMessage baseMessage : serverPage) {
+            CachedMessage cachedMessage = toCachedMessage(baseMessage);
+            if (cachedMessage == null) continue;
+            cachedMessages.add(cachedMessage);
+            ids.add(cachedMessage.getId());
+            fromId = Math.min(fromId, cachedMessage.getId());
+            toId = Math.max(toId, cachedMessage.getId());
+        }
+        if (latestPage) {
+            toId = Integer.MAX_VALUE;
+            if (cachedMessages.isEmpty()) fromId = 0;
+        }
+        int finalFromId = fromId, finalToId = toId;
+        execute(() -> {
+            messageCacheStorage.deleteRange(conversationKey, finalFromId, finalToId, ids);
+            messageCacheStorage.write(conversationKey, cachedMessages);
+            messageCacheStorage.trim(conversationKey, maxMessagesPerConversation);
+        });
+    }
+
+    /**
+     * Stores a new or updated message unless the cache already holds a newer
+     * version of it.
+     */
+    public static void put(@NonNull String conversationKey, @Nullable BaseMessage baseMessage) {
+        MessageCacheStorage messageCacheStorage = storage;
+        if (messageCacheStorage == null) return;
+        CachedMessage cachedMessage = toCachedMessage(baseMessage);
+        if (cachedMessage == null) return;
+        execute(() -> {
+            CachedMessage existing = messageCacheStorage.read(conversationKey, cachedMessage.getId());
+            if (existing != null && !cachedMessage.isNewerThanOrSameAs(existing)) return;
+            messageCacheStorage.write(conversationKey, Collections.singletonList(cachedMessage));
+            if (existing == null) messageCacheStorage.trim(conversationKey, maxMessagesPerConversation);
+        });
+    }
+
+    public static void remove(@NonNull String conversationKey, @Nullable BaseMessage baseMessage) {
+        MessageCacheStorage messageCacheStorage = storage;
+        if (messageCacheStorage == null || baseMessage == null || baseMessage.getId() <= 0) return;
+        int id = baseMessage.getId();
+        execute(() -> messageCacheStorage.delete(conversationKey, id));
+    }
+
+    /**
+     * Removes every cached message, for example when the user logs out.
+     */
+    public static void clear() {
+        MessageCacheStorage messageCacheStorage = storage;
+        if (messageCacheStorage != null) execute(messageCacheStorage::clear);
+    }
+
+    @Nullable
+    private static CachedMessage toCachedMessage(@Nullable BaseMessage baseMessage) {
+        if (baseMessage == null || baseMessage.getId() <= 0 || baseMessage.getRawMessage() == null) return null;
+        return new CachedMessage(baseMessage.getId(),
+                                 baseMessage.getSentAt(),
+                                 baseMessage.getUpdatedAt(),
+                                 baseMessage.getDeletedAt(),
+                                 baseMessage.getRawMessage().toString());
+    }
+
+    @Nullable
+    private static BaseMessage fromCachedMessage(@NonNull CachedMessage cachedMessage) {
+        try {
+            return Utils.convertToUIKitMessage(CometChatHelper.processMessage(new JSONObject(cachedMessage.getJson())));
+        } catch (Exception e) {
+            CometChatLogger.e(TAG, e.toString());
+            return null;
+        }
+    }
+
+    private static void execute(Runnable runnable) {
+        executor.execute(() -> {
+            try {
+                runnable.run();
+            } catch (Exception e) {
+                CometChatLogger.e(TAG, e.toString());
+            }
+        });
+    }
+}
@@ -0,0 +1,33 @@
+package com.cometchat.chatuikit.shared.cache;
+
+import androidx.annotation.NonNull;
+
+import java.util.List;
+
+/**
+ * The storage behind {@link CometChatConversationSnapshot}. It keeps one
+ * snapshot, the top of the conversation list, per logged-in user.
+ *
+ * <p>
+ * Implementations are called from a single background thread.
+ */
+public interface ConversationSnapshotStorage {
+    /**
+     * Returns the snapshot of the given user, or an empty list.
+     *
+     * @param ownerUid the uid of the logged-in user the snapshot belongs to.
+     * @return the conversations in list order.
+     */
+    @NonNull
+    List<CachedConversation> read(@NonNull String ownerUid);
+
+    /**
+     * Replaces the snapshot of the given user.
+     */
+    void write(@NonNull String ownerUid, @NonNull List<CachedConversation> conversations);
+
+    /**
+     * Removes every snapshot.
+     */
+    void clear();
+}
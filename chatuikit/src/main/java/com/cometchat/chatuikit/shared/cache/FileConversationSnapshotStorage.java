@@ -0,0 +1,101 @@
+package com.cometchat.chatuikit.shared.cache;
+
+import android.content.Context;
+import android.util.AtomicFile;
+
+import androidx.annotation.NonNull;
+
+import com.cometchat.chatuikit.logger.CometChatLogger;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The default {@link ConversationSnapshotStorage}. Each snapshot is a small
+ * JSON file in the no-backup directory of the app, replaced atomically so a
+ * crash while writing never leaves a torn snapshot behind.
+ */
+public class FileConversationSnapshotStorage implements ConversationSnapshotStorage {
+    private static final String TAG = FileConversationSnapshotStorage.class.getSimpleName();
+    private static final String DIRECTORY = "cometchat_conversation_snapshots";
+    private static final String KEY_OWNER = "owner";
+    private static final String KEY_CONVERSATIONS = "conversations";
+    private static final String KEY_ID = "id";
+    private static final String KEY_UPDATED_AT = "updatedAt";
+    private static final String KEY_UNREAD_COUNT = "unreadCount";
+    private static final String KEY_LAST_MESSAGE = "lastMessage";
+
+    private final File directory;
+
+    public FileConversationSnapshotStorage(@NonNull Context context) {
+        this.directory = new File(context.getApplicationContext().getNoBackupFilesDir(), DIRECTORY);
+    }
+
+    @NonNull
+    @Override
+    public List<CachedConversation> read(@NonNull String ownerUid) {
+        List<CachedConversation> conversations = new ArrayList<>();
+        AtomicFile file = getFile(ownerUid);
+        if (!file.getBaseFile().exists()) return conversations;
+        try {
+            JSONObject snapshot = new JSONObject(new String(file.readFully(), StandardCharsets.UTF_8));
+            // file names are hashed, so make sure the snapshot is the owner's
+            if (!ownerUid.equals(snapshot.optString(KEY_OWNER))) return conversations;
+            JSONArray array = snapshot.getJSONArray(KEY_CONVERSATIONS);
+            for (int i = 0; i < array.length(); i++) {
+                JSONObject conversation = array.getJSONObject(i);
+                conversations.add(new CachedConversation(conversation.getString(KEY_ID),
+                                                         conversation.getLong(KEY_UPDATED_AT),
+                                                         conversation.getInt(KEY_UNREAD_COUNT),
+                                                         conversation.getString(KEY_LAST_MESSAGE)));
+            }
+        } catch (Exception e) {
+            CometChatLogger.e(TAG, e.toString());
+            conversations.clear();
+        }
+        return conversations;
+    }
+
+    @Override
+    public void write(@NonNull String ownerUid, @NonNull List<CachedConversation> conversations) {
+        if (!directory.exists() && !directory.mkdirs()) return;
+        AtomicFile file = getFile(ownerUid);
+        FileOutputStream output = null;
+        try {
+            JSONArray array = new JSONArray();
+            for (CachedConversation conversation : conversations) {
+                array.put(new JSONObject()
+                              .put(KEY_ID, conversation.getConversationId())
+                              .put(KEY_UPDATED_AT, conversation.getUpdatedAt())
+                              .put(KEY_UNREAD_COUNT, conversation.getUnreadMessageCount())
+                              .put(KEY_LAST_MESSAGE, conversation.getLastMessageJson()));
+            }
+            byte[] bytes = new JSONObject().put(KEY_OWNER, ownerUid).put(KEY_CONVERSATIONS, array).toString().getBytes(StandardCharsets.UTF_8);
+            output = file.startWrite();
+            output.write(bytes);
+            file.finishWrite(output);
+        } catch (Exception e) {
+            CometChatLogger.e(TAG, e.toString());
+            if (output != null) file.failWrite(output);
+        }
+    }
+
+    @Override
+    public void clear() {
+        File[] files = directory.listFiles();
+        if (files == null) return;
+        for (File file : files) {
+            if (!file.delete()) CometChatLogger.w(TAG, "Could not delete " + file.getName());
+        }
+    }
+
+    private AtomicFile getFile(String ownerUid) {
+        return new AtomicFile(new File(directory, Integer.toHexString(ownerUid.hashCode()) + ".json"));
+    }
+}
@@ -0,0 +1,33 @@
+package com.cometchat.chatuikit.shared.cache;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * A {@link ConversationSnapshotStorage} that keeps snapshots in memory only. It
+ * is useful for tests, or to render the conversation list instantly when it is
+ * opened again within the same process.
+ */
+public class InMemoryConversationSnapshotStorage implements ConversationSnapshotStorage {
+    private final HashMap<String, List<CachedConversation>> snapshots = new HashMap<>();
+
+    @NonNull
+    @Override
+    public synchronized List<CachedConversation> read(@NonNull String ownerUid) {
+        List<CachedConversation> snapshot = snapshots.get(ownerUid);
+        return snapshot == null ? new ArrayList<>() : new ArrayList<>(snapshot);
+    }
+
+    @Override
+    public synchronized void write(@NonNull String ownerUid, @NonNull List<CachedConversation> conversations) {
+        snapshots.put(ownerUid, new ArrayList<>(conversations));
+    }
+
+    @Override
+    public synchronized void clear() {
+        snapshots.clear();
+    }
+}
@@ -0,0 +1,82 @@
+package com.cometchat.chatuikit.shared.cache;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * A {@link MessageCacheStorage} that keeps messages in memory only. It is
+ * useful for tests, or to keep conversations warm for the lifetime of the
+ * process without touching the disk.
+ */
+public class InMemoryMessageCacheStorage implements MessageCacheStorage {
+    private final HashMap<String, TreeMap<Integer, CachedMessage>> conversations = new HashMap<>();
+
+    @NonNull
+    @Override
+    public synchronized List<CachedMessage> readLatest(@NonNull String conversationKey, int limit) {
+        TreeMap<Integer, CachedMessage> messages = conversations.get(conversationKey);
+        List<CachedMessage> result = new ArrayList<>();
+        if (messages == null) return result;
+        for (CachedMessage message : messages.descendingMap().values()) {
+            if (result.size() >= limit) break;
+            result.add(0, message);
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized CachedMessage read(@NonNull String conversationKey, int messageId) {
+        TreeMap<Integer, CachedMessage> messages = conversations.get(conversationKey);
+        return messages == null ? null : messages.get(messageId);
+    }
+
+    @Override
+    public synchronized void write(@NonNull String conversationKey, @NonNull List<CachedMessage> messages) {
+        TreeMap<Integer, CachedMessage> stored = conversations.get(conversationKey);
+        if (stored == null) {
+            stored = new TreeMap<>();
+            conversations.put(conversationKey, stored);
+        }
+        for (CachedMessage message : messages) {
+            stored.put(message.getId(), message);
+        }
+    }
+
+    @Override
+    public synchronized void deleteRange(@NonNull String conversationKey, int fromId, int toId, @NonNull List<Integer> keptIds) {
+        TreeMap<Integer, CachedMessage> stored = conversations.get(conversationKey);
+        if (stored == null || fromId > toId) return;
+        Set<Integer> kept = new HashSet<>(keptIds);
+        Iterator<Integer> iterator = stored.subMap(fromId, true, toId, true).keySet().iterator();
+        while (iterator.hasNext()) {
+            if (!kept.contains(iterator.next())) iterator.remove();
+        }
+    }
+
+    @Override
+    public synchronized void delete(@NonNull String conversationKey, int messageId) {
+        TreeMap<Integer, CachedMessage> stored = conversations.get(conversationKey);
+        if (stored != null) stored.remove(messageId);
+    }
+
+    @Override
+    public synchronized void trim(@NonNull String conversationKey, int maxMessages) {
+        TreeMap<Integer, CachedMessage> stored = conversations.get(conversationKey);
+        if (stored == null) return;
+        while (stored.size() > maxMessages) {
+            stored.pollFirstEntry();
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        conversations.clear();
+    }
+}
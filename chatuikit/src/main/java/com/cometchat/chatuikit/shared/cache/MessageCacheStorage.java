@@ -0,0 +1,56 @@
+package com.cometchat.chatuikit.shared.cache;
+
+import androidx.annotation.NonNull;
+
+import java.util.List;
+
+/**
+ * The storage behind {@link CometChatMessageCache}. Messages are grouped by a
+ * conversation key and identified by their message id.
+ *
+ * <p>
+ * Implementations are called from a single background thread.
+ */
+public interface MessageCacheStorage {
+    /**
+     * Returns the newest messages of the conversation.
+     *
+     * @param conversationKey the conversation to read.
+     * @param limit           the maximum number of messages to return.
+     * @return the messages in ascending id order.
+     */
+    @NonNull
+    List<CachedMessage> readLatest(@NonNull String conversationKey, int limit);
+
+    /**
+     * Returns the cached message with the given id, or null.
+     */
+    CachedMessage read(@NonNull String conversationKey, int messageId);
+
+    /**
+     * Inserts or replaces the given messages.
+     */
+    void write(@NonNull String conversationKey, @NonNull List<CachedMessage> messages);
+
+    /**
+     * Removes the cached messages whose id lies within the given bounds
+     * (inclusive) and is not part of the kept ids.
+     */
+    void deleteRange(@NonNull String conversationKey, int fromId, int toId, @NonNull List<Integer> keptIds);
+
+    /**
+     * Removes the message with the given id.
+     */
+    void delete(@NonNull String conversationKey, int messageId);
+
+    /**
+     * Drops the oldest messages of the conversation until at most the given number
+     * of messages is left.
+     */
+    void trim(@NonNull String conversationKey, int maxMessages);
+
+    /**
+     * Removes every cached message.
+     */
+    void clear();
+}
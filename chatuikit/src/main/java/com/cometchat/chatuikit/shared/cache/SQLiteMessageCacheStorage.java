@@ -0,0 +1,144 @@
+package com.cometchat.chatuikit.shared.cache;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The default {@link MessageCacheStorage}, backed by a private SQLite database.
+ */
+public class SQLiteMessageCacheStorage extends SQLiteOpenHelper implements MessageCacheStorage {
+    private static final String DATABASE_NAME = "cometchat_uikit_message_cache.db";
+    private static final int DATABASE_VERSION = 1;
+    private static final String TABLE = "messages";
+    private static final String COLUMN_CONVERSATION = "conversation";
+    private static final String COLUMN_ID = "id";
+    private static final String COLUMN_SENT_AT = "sent_at";
+    private static final String COLUMN_UPDATED_AT = "updated_at";
+    private static final String COLUMN_DELETED_AT = "deleted_at";
+    private static final String COLUMN_JSON = "json";
+
+    public SQLiteMessageCacheStorage(@NonNull Context context) {
+        super(context.getApplicationContext(), DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE + " (" +
+                       COLUMN_CONVERSATION + " TEXT NOT NULL, " +
+                       COLUMN_ID + " INTEGER NOT NULL, " +
+                       COLUMN_SENT_AT + " INTEGER NOT NULL, " +
+                       COLUMN_UPDATED_AT + " INTEGER NOT NULL, " +
+                       COLUMN_DELETED_AT + " INTEGER NOT NULL, " +
+                       COLUMN_JSON + " TEXT NOT NULL, " +
+                       "PRIMARY KEY (" + COLUMN_CONVERSATION + ", " + COLUMN_ID + "))");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // the cache can always be rebuilt from the server
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE);
+        onCreate(db);
+    }
+
+    @NonNull
+    @Override
+    public List<CachedMessage> readLatest(@NonNull String conversationKey, int limit) {
+        List<CachedMessage> messages = new ArrayList<>();
+        try (Cursor cursor = getReadableDatabase().query(TABLE,
+                                                         null,
+                                                         COLUMN_CONVERSATION + " = ?",
+                                                         new String[]{conversationKey},
+                                                         null,
+                                                         null,
+                                                         COLUMN_ID + " DESC",
+                                                         String.valueOf(limit))) {
+            while (cursor.moveToNext()) {
+                messages.add(0, fromCursor(cursor));
+            }
+        }
+        return messages;
+    }
+
+    @Override
+    public CachedMessage read(@NonNull String conversationKey, int messageId) {
+        try (Cursor cursor = getReadableDatabase().query(TABLE,
+                                                         null,
+                                                         COLUMN_CONVERSATION + " = ? AND " + COLUMN_ID + " = ?",
+                                                         new String[]{conversationKey, String.valueOf(messageId)},
+                                                         null,
+                                                         null,
+                                                         null)) {
+            return cursor.moveToFirst() ? fromCursor(cursor) : null;
+        }
+    }
+
+    @Override
+    public void write(@NonNull String conversationKey, @NonNull List<CachedMessage> messages) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            ContentValues values = new ContentValues();
+            for (CachedMessage message : messages) {
+                values.clear();
+                values.put(COLUMN_CONVERSATION, conversationKey);
+                values.put(COLUMN_ID, message.getId());
+                values.put(COLUMN_SENT_AT, message.getSentAt());
+                values.put(COLUMN_UPDATED_AT, message.getUpdatedAt());
+                values.put(COLUMN_DELETED_AT, message.getDeletedAt());
+                values.put(COLUMN_JSON, message.getJson());
+                db.insertWithOnConflict(TABLE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    @Override
+    public void deleteRange(@NonNull String conversationKey, int fromId, int toId, @NonNull List<Integer> keptIds) {
+        StringBuilder where = new StringBuilder(COLUMN_CONVERSATION + " = ? AND " + COLUMN_ID + " BETWEEN ? AND ?");
+        if (!keptIds.isEmpty()) {
+            where.append(" AND ").append(COLUMN_ID).append(" NOT IN (");
+            for (int i = 0; i < keptIds.size(); i++) {
+                if (i > 0) where.append(',');
+                where.append(keptIds.get(i).intValue());
+            }
+            where.append(')');
+        }
+        getWritableDatabase().delete(TABLE, where.toString(), new String[]{conversationKey, String.valueOf(fromId), String.valueOf(toId)});
+    }
+
+    @Override
+    public void delete(@NonNull String conversationKey, int messageId) {
+        getWritableDatabase().delete(TABLE,
+                                     COLUMN_CONVERSATION + " = ? AND " + COLUMN_ID + " = ?",
+                                     new String[]{conversationKey, String.valueOf(messageId)});
+    }
+
+    @Override
+    public void trim(@NonNull String conversationKey, int maxMessages) {
+        getWritableDatabase().execSQL("DELETE FROM " + TABLE + " WHERE " + COLUMN_CONVERSATION + " = ? AND " + COLUMN_ID + " NOT IN (SELECT " + COLUMN_ID + " FROM " + TABLE + " WHERE " + COLUMN_CONVERSATION + " = ? ORDER BY " + COLUMN_ID + " DESC LIMIT " + maxMessages + ")",
+                                      new Object[]{conversationKey, conversationKey});
+    }
+
+    @Override
+    public void clear() {
+        getWritableDatabase().delete(TABLE, null, null);
+    }
+
+    private static CachedMessage fromCursor(Cursor cursor) {
+        return new CachedMessage(cursor.getInt(cursor.getColumnIndexOrThrow(COLUMN_ID)),
+                                 cursor.getLong(cursor.getColumnIndexOrThrow(COLUMN_SENT_AT)),
+                                 cursor.getLong(cursor.getColumnIndexOrThrow(COLUMN_UPDATED_AT)),
+                                 cursor.getLong(cursor.getColumnIndexOrThrow(COLUMN_DELETED_AT)),
+                                 cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_JSON)));
+    }
+}
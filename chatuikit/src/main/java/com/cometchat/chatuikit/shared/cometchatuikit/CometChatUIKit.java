@@ -22,7 +22,13 @@ import com.cometchat.chatuikit.ai.AIExtensionDataSource;
 import com.cometchat.chatuikit.ai.DefaultAIFeature;
 import com.cometchat.chatuikit.calls.CallingExtension;
 import com.cometchat.chatuikit.extensions.DefaultExtensions;
+import com.cometchat.chatuikit.extensions.Extensions;
+import com.cometchat.chatuikit.shared.cache.CometChatConversationSnapshot;
+import com.cometchat.chatuikit.shared.cache.CometChatMessageCache;
+import com.cometchat.chatuikit.shared.cache.FileConversationSnapshotStorage;
+import com.cometchat.chatuikit.shared.cache.SQLiteMessageCacheStorage;
 import com.cometchat.chatuikit.shared.constants.MessageStatus;
+import com.cometchat.chatuikit.shared.formatters.FormatterUtils;
 import com.cometchat.chatuikit.shared.framework.ChatConfigurator;
 import com.cometchat.chatuikit.shared.framework.DataSource;
 import com.cometchat.chatuikit.shared.framework.ExtensionsDataSource;
@@ -33,7 +39,9 @@ import com.cometchat.chatuikit.shared.models.interactivemessage.SchedulerMessage
 import com.cometchat.chatuikit.shared.resources.localise.CometChatLocalize;
 import com.cometchat.chatuikit.shared.resources.localise.Language;
 import com.cometchat.chatuikit.shared.resources.utils.Utils;
+import com.cometchat.chatuikit.shared.search.UserPrefixIndex;
 import com.cometchat.chatuikit.shared.views.reaction.emojikeyboard.EmojiKeyboardUtils;
+import com.cometchat.chatuikit.shared.views.textbubble.PrecomputedTextCache;
 
 import java.util.List;
 
@@ -81,6 +89,10 @@ public final class CometChatUIKit {
         appSettingsBuilder.overrideAdminHost(authenticationSettings.getOverrideAdminHost());
         appSettingsBuilder.overrideClientHost(authenticationSettings.getOverrideClientHost());
         AppSettings appSettings = appSettingsBuilder.build();
+        if (authenticationSettings.isMessageCacheEnabled())
+            CometChatMessageCache.init(new SQLiteMessageCacheStorage(context), authenticationSettings.getMessageCacheLimit());
+        if (authenticationSettings.isConversationSnapshotEnabled())
+            CometChatConversationSnapshot.init(new FileConversationSnapshotStorage(context), authenticationSettings.getConversationSnapshotSize());
         CometChat.init(context, authenticationSettings.getAppId(), appSettings, new CometChat.CallbackListener<String>() {
             @Override
             public void onSuccess(String s) {
@@ -232,6 +244,12 @@ public final class CometChatUIKit {
             @Override
             public void onSuccess(String successMessage) {
                 ChatConfigurator.init();
+                CometChatMessageCache.clear();
+                CometChatConversationSnapshot.clear();
+                Extensions.clearParsedExtensions();
+                PrecomputedTextCache.clear();
+                FormatterUtils.clearFormattedTextCache();
+                UserPrefixIndex.clearAll();
                 if (callbackListener != null) callbackListener.onSuccess(successMessage);
             }
 
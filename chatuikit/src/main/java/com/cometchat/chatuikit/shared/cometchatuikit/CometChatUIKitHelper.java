@@ -28,6 +28,7 @@ import com.cometchat.chatuikit.shared.events.CometChatGroupEvents;
 import com.cometchat.chatuikit.shared.events.CometChatMessageEvents;
 import com.cometchat.chatuikit.shared.events.CometChatUIEvents;
 import com.cometchat.chatuikit.shared.events.CometChatUserEvents;
+import com.cometchat.chatuikit.shared.events.EventRoute;
 import com.cometchat.chatuikit.shared.interfaces.Function1;
 import com.cometchat.chatuikit.shared.models.interactivemessage.CardMessage;
 import com.cometchat.chatuikit.shared.models.interactivemessage.CustomInteractiveMessage;
@@ -41,280 +42,192 @@ public class CometChatUIKitHelper {
     private static final String TAG = CometChatUIKitHelper.class.getSimpleName();
 
     public static void onMessageSent(BaseMessage message, @MessageStatus int status) {
-        for (CometChatMessageEvents event : CometChatMessageEvents.messageEvents.values()) {
-            event.ccMessageSent(message, status);
-        }
+        CometChatMessageEvents.messageEvents.dispatch(EventRoute.ofMessage(message), event -> event.ccMessageSent(message, status));
     }
 
     public static void onMessageEdited(BaseMessage message, @MessageStatus int status) {
-        for (CometChatMessageEvents event : CometChatMessageEvents.messageEvents.values()) {
-            event.ccMessageEdited(message, status);
-        }
+        CometChatMessageEvents.messageEvents.dispatch(EventRoute.ofMessage(message), event -> event.ccMessageEdited(message, status));
     }
 
     public static void onMessageDeleted(BaseMessage message) {
-        for (CometChatMessageEvents event : CometChatMessageEvents.messageEvents.values()) {
-            event.ccMessageDeleted(message);
-        }
+        CometChatMessageEvents.messageEvents.dispatch(EventRoute.ofMessage(message), event -> event.ccMessageDeleted(message));
     }
 
     public static void onMessageRead(BaseMessage message) {
-        for (CometChatMessageEvents event : CometChatMessageEvents.messageEvents.values()) {
-            event.ccMessageRead(message);
-        }
+        CometChatMessageEvents.messageEvents.dispatch(EventRoute.ofMessage(message), event -> event.ccMessageRead(message));
     }
 
     public static void onTextMessageReceived(TextMessage textMessage) {
-        for (CometChatMessageEvents event : CometChatMessageEvents.messageEvents.values()) {
-            event.onTextMessageReceived(textMessage);
-        }
+        CometChatMessageEvents.messageEvents.dispatch(EventRoute.ofMessage(textMessage), event -> event.onTextMessageReceived(textMessage));
     }
 
     public static void onMediaMessageReceived(MediaMessage mediaMessage) {
-        for (CometChatMessageEvents event : CometChatMessageEvents.messageEvents.values()) {
-            event.onMediaMessageReceived(mediaMessage);
-        }
+        CometChatMessageEvents.messageEvents.dispatch(EventRoute.ofMessage(mediaMessage), event -> event.onMediaMessageReceived(mediaMessage));
     }
 
     public static void onCustomMessageReceived(CustomMessage customMessage) {
-        for (CometChatMessageEvents event : CometChatMessageEvents.messageEvents.values()) {
-            event.onCustomMessageReceived(customMessage);
-        }
+        CometChatMessageEvents.messageEvents.dispatch(EventRoute.ofMessage(customMessage), event -> event.onCustomMessageReceived(customMessage));
     }
 
     public static void onTypingStarted(TypingIndicator typingIndicator) {
-        for (CometChatMessageEvents event : CometChatMessageEvents.messageEvents.values()) {
-            event.onTypingStarted(typingIndicator);
-        }
+        CometChatMessageEvents.messageEvents.dispatch(EventRoute.ofTypingIndicator(typingIndicator), event -> event.onTypingStarted(typingIndicator));
     }
 
     public static void onTypingEnded(TypingIndicator typingIndicator) {
-        for (CometChatMessageEvents event : CometChatMessageEvents.messageEvents.values()) {
-            event.onTypingEnded(typingIndicator);
-        }
+        CometChatMessageEvents.messageEvents.dispatch(EventRoute.ofTypingIndicator(typingIndicator), event -> event.onTypingEnded(typingIndicator));
     }
 
     public static void onMessagesDelivered(MessageReceipt messageReceipt) {
-        for (CometChatMessageEvents event : CometChatMessageEvents.messageEvents.values()) {
-            event.onMessagesDelivered(messageReceipt);
-        }
+        CometChatMessageEvents.messageEvents.dispatch(EventRoute.ofMessageReceipt(messageReceipt), event -> event.onMessagesDelivered(messageReceipt));
     }
 
     public static void onMessagesRead(MessageReceipt messageReceipt) {
-        for (CometChatMessageEvents event : CometChatMessageEvents.messageEvents.values()) {
-            event.onMessagesRead(messageReceipt);
-        }
+        CometChatMessageEvents.messageEvents.dispatch(EventRoute.ofMessageReceipt(messageReceipt), event -> event.onMessagesRead(messageReceipt));
     }
 
     public static void onInteractionGoalCompleted(InteractionReceipt interactionReceipt) {
-        for (CometChatMessageEvents event : CometChatMessageEvents.messageEvents.values()) {
-            event.onInteractionGoalCompleted(interactionReceipt);
-        }
+        CometChatMessageEvents.messageEvents.dispatch(event -> event.onInteractionGoalCompleted(interactionReceipt));
     }
 
     public static void onMessageEdited(BaseMessage message) {
-        for (CometChatMessageEvents event : CometChatMessageEvents.messageEvents.values()) {
-            event.onMessageEdited(message);
-        }
+        CometChatMessageEvents.messageEvents.dispatch(EventRoute.ofMessage(message), event -> event.onMessageEdited(message));
     }
 
     public static void onTransientMessageReceived(TransientMessage message) {
-        for (CometChatMessageEvents event : CometChatMessageEvents.messageEvents.values()) {
-            event.onTransientMessageReceived(message);
-        }
+        CometChatMessageEvents.messageEvents.dispatch(event -> event.onTransientMessageReceived(message));
     }
 
     public static void onFormMessageReceived(FormMessage formMessage) {
-        for (CometChatMessageEvents event : CometChatMessageEvents.messageEvents.values()) {
-            event.onFormMessageReceived(formMessage);
-        }
+        CometChatMessageEvents.messageEvents.dispatch(EventRoute.ofMessage(formMessage), event -> event.onFormMessageReceived(formMessage));
     }
 
     public static void onSchedulerMessageReceived(SchedulerMessage schedulerMessage) {
-        for (CometChatMessageEvents event : CometChatMessageEvents.messageEvents.values()) {
-            event.onSchedulerMessageReceived(schedulerMessage);
-        }
+        CometChatMessageEvents.messageEvents.dispatch(EventRoute.ofMessage(schedulerMessage), event -> event.onSchedulerMessageReceived(schedulerMessage));
     }
 
     public static void onCardMessageReceived(CardMessage cardMessage) {
-        for (CometChatMessageEvents event : CometChatMessageEvents.messageEvents.values()) {
-            event.onCardMessageReceived(cardMessage);
-        }
+        CometChatMessageEvents.messageEvents.dispatch(EventRoute.ofMessage(cardMessage), event -> event.onCardMessageReceived(cardMessage));
     }
 
     public static void onCustomInteractiveMessageReceived(CustomInteractiveMessage customInteractiveMessage) {
-        for (CometChatMessageEvents event : CometChatMessageEvents.messageEvents.values()) {
-            event.onCustomInteractiveMessageReceived(customInteractiveMessage);
-        }
+        CometChatMessageEvents.messageEvents.dispatch(EventRoute.ofMessage(customInteractiveMessage), event -> event.onCustomInteractiveMessageReceived(customInteractiveMessage));
     }
 
     public static void onMessageReactionAdded(ReactionEvent reactionEvent) {
-        for (CometChatMessageEvents event : CometChatMessageEvents.messageEvents.values()) {
-            event.onMessageReactionAdded(reactionEvent);
-        }
+        CometChatMessageEvents.messageEvents.dispatch(event -> event.onMessageReactionAdded(reactionEvent));
     }
 
     public static void onMessageReactionRemoved(ReactionEvent reactionEvent) {
-        for (CometChatMessageEvents event : CometChatMessageEvents.messageEvents.values()) {
-            event.onMessageReactionRemoved(reactionEvent);
-        }
+        CometChatMessageEvents.messageEvents.dispatch(event -> event.onMessageReactionRemoved(reactionEvent));
     }
 
     public static void onMessagesDeliveredToAll(MessageReceipt messageReceipt) {
-        for (CometChatMessageEvents event : CometChatMessageEvents.messageEvents.values()) {
-            event.onMessagesDeliveredToAll(messageReceipt);
-        }
+        CometChatMessageEvents.messageEvents.dispatch(EventRoute.ofMessageReceipt(messageReceipt), event -> event.onMessagesDeliveredToAll(messageReceipt));
     }
 
     public static void onMessagesReadByAll(MessageReceipt messageReceipt) {
-        for (CometChatMessageEvents event : CometChatMessageEvents.messageEvents.values()) {
-            event.onMessagesReadByAll(messageReceipt);
-        }
+        CometChatMessageEvents.messageEvents.dispatch(EventRoute.ofMessageReceipt(messageReceipt), event -> event.onMessagesReadByAll(messageReceipt));
     }
 
     public static void onLiveReaction(@DrawableRes int icon) {
-        for (CometChatMessageEvents event : CometChatMessageEvents.messageEvents.values()) {
-            event.ccLiveReaction(icon);
-        }
+        CometChatMessageEvents.messageEvents.dispatch(event -> event.ccLiveReaction(icon));
     }
 
     public static void onUserBlocked(User user) {
-        for (CometChatUserEvents events : CometChatUserEvents.userEvents.values()) {
-            events.ccUserBlocked(user);
-        }
+        CometChatUserEvents.userEvents.dispatch(events -> events.ccUserBlocked(user));
     }
 
     public static void onUserUnblocked(User user) {
-        for (CometChatUserEvents events : CometChatUserEvents.userEvents.values()) {
-            events.ccUserUnblocked(user);
-        }
+        CometChatUserEvents.userEvents.dispatch(events -> events.ccUserUnblocked(user));
     }
 
     public static void onGroupCreated(Group group) {
-        for (CometChatGroupEvents events : CometChatGroupEvents.groupEvents.values()) {
-            events.ccGroupCreated(group);
-        }
+        CometChatGroupEvents.groupEvents.dispatch(EventRoute.ofGroupEvent(group), events -> events.ccGroupCreated(group));
     }
 
     public static void onGroupDeleted(Group group) {
-        for (CometChatGroupEvents events : CometChatGroupEvents.groupEvents.values()) {
-            events.ccGroupDeleted(group);
-        }
+        CometChatGroupEvents.groupEvents.dispatch(EventRoute.ofGroupEvent(group), events -> events.ccGroupDeleted(group));
     }
 
     public static void onGroupLeft(Action message, User leftUser, Group leftGroup) {
-        for (CometChatGroupEvents events : CometChatGroupEvents.groupEvents.values()) {
-            events.ccGroupLeft(message, leftUser, leftGroup);
-        }
+        CometChatGroupEvents.groupEvents.dispatch(EventRoute.ofGroupEvent(leftGroup), events -> events.ccGroupLeft(message, leftUser, leftGroup));
     }
 
     public static void onGroupMemberScopeChanged(Action message, User updatedUser, String scopeChangedTo, String scopeChangedFrom, Group group) {
-        for (CometChatGroupEvents events : CometChatGroupEvents.groupEvents.values()) {
-            events.ccGroupMemberScopeChanged(message, updatedUser, scopeChangedTo, scopeChangedFrom, group);
-        }
+        CometChatGroupEvents.groupEvents.dispatch(EventRoute.ofGroupEvent(group), events -> events.ccGroupMemberScopeChanged(message, updatedUser, scopeChangedTo, scopeChangedFrom, group));
     }
 
     public static void onGroupMemberBanned(Action message, User bannedUser, User bannedBy, Group bannedFrom) {
-        for (CometChatGroupEvents events : CometChatGroupEvents.groupEvents.values()) {
-            events.ccGroupMemberBanned(message, bannedUser, bannedBy, bannedFrom);
-        }
+        CometChatGroupEvents.groupEvents.dispatch(EventRoute.ofGroupEvent(bannedFrom), events -> events.ccGroupMemberBanned(message, bannedUser, bannedBy, bannedFrom));
     }
 
     public static void onGroupMemberKicked(Action message, User kickedUser, User kickedBy, Group kickedFrom) {
-        for (CometChatGroupEvents events : CometChatGroupEvents.groupEvents.values()) {
-            events.ccGroupMemberKicked(message, kickedUser, kickedBy, kickedFrom);
-        }
+        CometChatGroupEvents.groupEvents.dispatch(EventRoute.ofGroupEvent(kickedFrom), events -> events.ccGroupMemberKicked(message, kickedUser, kickedBy, kickedFrom));
     }
 
     public static void onGroupMemberUnbanned(Action message, User unbannedUser, User unbannedBy, Group unbannedFrom) {
-        for (CometChatGroupEvents events : CometChatGroupEvents.groupEvents.values()) {
-            events.ccGroupMemberUnBanned(message, unbannedUser, unbannedBy, unbannedFrom);
-        }
+        CometChatGroupEvents.groupEvents.dispatch(EventRoute.ofGroupEvent(unbannedFrom), events -> events.ccGroupMemberUnBanned(message, unbannedUser, unbannedBy, unbannedFrom));
     }
 
     public static void onGroupMemberJoined(User joinedUser, Group joinedGroup) {
-        for (CometChatGroupEvents events : CometChatGroupEvents.groupEvents.values()) {
-            events.ccGroupMemberJoined(joinedUser, joinedGroup);
-        }
+        CometChatGroupEvents.groupEvents.dispatch(EventRoute.ofGroupEvent(joinedGroup), events -> events.ccGroupMemberJoined(joinedUser, joinedGroup));
     }
 
     public static void onGroupMemberAdded(List<Action> messages, List<User> usersAdded, Group groupAddedIn, User addedBy) {
-        for (CometChatGroupEvents events : CometChatGroupEvents.groupEvents.values()) {
-            events.ccGroupMemberAdded(messages, usersAdded, groupAddedIn, addedBy);
-        }
+        CometChatGroupEvents.groupEvents.dispatch(EventRoute.ofGroupEvent(groupAddedIn), events -> events.ccGroupMemberAdded(messages, usersAdded, groupAddedIn, addedBy));
     }
 
     public static void onOwnershipChanged(Group group, GroupMember newOwner) {
-        for (CometChatGroupEvents events : CometChatGroupEvents.groupEvents.values()) {
-            events.ccOwnershipChanged(group, newOwner);
-        }
+        CometChatGroupEvents.groupEvents.dispatch(EventRoute.ofGroupEvent(group), events -> events.ccOwnershipChanged(group, newOwner));
     }
 
     public static void showPanel(HashMap<String, String> id, UIKitConstants.CustomUIPosition alignment, Function1<Context, View> view) {
-        for (CometChatUIEvents events : CometChatUIEvents.uiEvents.values()) {
-            events.showPanel(id, alignment, view);
-        }
+        CometChatUIEvents.uiEvents.dispatch(events -> events.showPanel(id, alignment, view));
     }
 
     public static void hidePanel(HashMap<String, String> id, UIKitConstants.CustomUIPosition alignment) {
-        for (CometChatUIEvents events : CometChatUIEvents.uiEvents.values()) {
-            events.hidePanel(id, alignment);
-        }
+        CometChatUIEvents.uiEvents.dispatch(events -> events.hidePanel(id, alignment));
     }
 
     public static void onActiveChatChanged(HashMap<String, String> id, BaseMessage message, User user, Group group) {
-        for (CometChatUIEvents events : CometChatUIEvents.uiEvents.values()) {
+        CometChatUIEvents.uiEvents.dispatch(events -> {
             events.ccActiveChatChanged(id, message, user, group);
             events.ccActiveChatChanged(id, message, user, group, 0);
-        }
+        });
     }
 
     public static void onActiveChatChanged(HashMap<String, String> id, BaseMessage message, User user, Group group, int unreadCount) {
-        for (CometChatUIEvents events : CometChatUIEvents.uiEvents.values()) {
+        CometChatUIEvents.uiEvents.dispatch(events -> {
             events.ccActiveChatChanged(id, message, user, group, unreadCount);
             events.ccActiveChatChanged(id, message, user, group);
-        }
+        });
     }
 
     public static void onComposeMessage(String id, String text) {
-        for (CometChatUIEvents events : CometChatUIEvents.uiEvents.values()) {
-            events.ccComposeMessage(id, text);
-        }
+        CometChatUIEvents.uiEvents.dispatch(events -> events.ccComposeMessage(id, text));
     }
 
     public static void onOpenChat(User user, Group group) {
-        for (CometChatUIEvents events : CometChatUIEvents.uiEvents.values()) {
-            events.ccOpenChat(user, group);
-        }
+        CometChatUIEvents.uiEvents.dispatch(events -> events.ccOpenChat(user, group));
     }
 
     public static void onOutgoingCall(Call call) {
-        for (CometChatCallEvents events : CometChatCallEvents.callingEvents.values()) {
-            events.ccOutgoingCall(call);
-        }
+        CometChatCallEvents.callingEvents.dispatch(events -> events.ccOutgoingCall(call));
     }
 
     public static void onCallAccepted(Call call) {
-        for (CometChatCallEvents events : CometChatCallEvents.callingEvents.values()) {
-            events.ccCallAccepted(call);
-        }
+        CometChatCallEvents.callingEvents.dispatch(events -> events.ccCallAccepted(call));
     }
 
     public static void onCallRejected(Call call) {
-        for (CometChatCallEvents events : CometChatCallEvents.callingEvents.values()) {
-            events.ccCallRejected(call);
-        }
+        CometChatCallEvents.callingEvents.dispatch(events -> events.ccCallRejected(call));
     }
 
     public static void onCallEnded(Call call) {
-        for (CometChatCallEvents events : CometChatCallEvents.callingEvents.values()) {
-            events.ccCallEnded(call);
-        }
+        CometChatCallEvents.callingEvents.dispatch(events -> events.ccCallEnded(call));
     }
 
     public static void onConversationDeleted(Conversation conversation) {
-        for (CometChatConversationEvents events : CometChatConversationEvents.conversationEvents.values()) {
-            events.ccConversationDeleted(conversation);
-        }
+        CometChatConversationEvents.conversationEvents.dispatch(events -> events.ccConversationDeleted(conversation));
     }
 }
@@ -1,7 +1,10 @@
 package com.cometchat.chatuikit.shared.cometchatuikit;
 
 import com.cometchat.chatuikit.ai.AIExtensionDataSource;
+import com.cometchat.chatuikit.shared.cache.CometChatConversationSnapshot;
+import com.cometchat.chatuikit.shared.cache.CometChatMessageCache;
 import com.cometchat.chatuikit.shared.framework.ExtensionsDataSource;
+import com.cometchat.chatuikit.shared.media.ImageCompressionSettings;
 
 import java.util.List;
 
@@ -20,6 +23,11 @@ public class UIKitSettings {
     private final String overrideClientHost;
     private final List<AIExtensionDataSource> aiFeatures;
     private final List<ExtensionsDataSource> extensions;
+    private final boolean enableMessageCache;
+    private final int messageCacheLimit;
+    private final boolean enableConversationSnapshot;
+    private final int conversationSnapshotSize;
+    private final ImageCompressionSettings imageCompressionSettings;
 
     /**
      * Constructs a new instance of `UIKitSettings` using the builder pattern.
@@ -37,6 +45,11 @@ public class UIKitSettings {
         this.overrideClientHost = builder.overrideClientHost;
         this.aiFeatures = builder.aiFeatures;
         this.extensions = builder.extensions;
+        this.enableMessageCache = builder.enableMessageCache;
+        this.messageCacheLimit = builder.messageCacheLimit;
+        this.enableConversationSnapshot = builder.enableConversationSnapshot;
+        this.conversationSnapshotSize = builder.conversationSnapshotSize;
+        this.imageCompressionSettings = builder.imageCompressionSettings;
     }
 
     /**
@@ -110,6 +123,51 @@ public class UIKitSettings {
         return extensions;
     }
 
+    /**
+     * Returns whether messages are cached on the device.
+     *
+     * @return `true` if the on-device message cache is enabled, `false` otherwise.
+     */
+    public boolean isMessageCacheEnabled() {
+        return enableMessageCache;
+    }
+
+    /**
+     * Returns the number of newest messages cached per conversation.
+     *
+     * @return The number of newest messages cached per conversation.
+     */
+    public int getMessageCacheLimit() {
+        return messageCacheLimit;
+    }
+
+    /**
+     * Returns whether the top of the conversation list is kept on the device.
+     *
+     * @return `true` if the conversation snapshot is enabled, `false` otherwise.
+     */
+    public boolean isConversationSnapshotEnabled() {
+        return enableConversationSnapshot;
+    }
+
+    /**
+     * Returns the number of conversations kept in the conversation snapshot.
+     *
+     * @return The number of conversations kept in the conversation snapshot.
+     */
+    public int getConversationSnapshotSize() {
+        return conversationSnapshotSize;
+    }
+
+    /**
+     * Returns how images are downscaled and recompressed before they are uploaded.
+     *
+     * @return The image compression settings.
+     */
+    public ImageCompressionSettings getImageCompressionSettings() {
+        return imageCompressionSettings;
+    }
+
     /**
      * Builder class for constructing `UIKitSettings` instances.
      */
@@ -124,6 +182,11 @@ public class UIKitSettings {
         private String overrideClientHost;
         private List<AIExtensionDataSource> aiFeatures;
         private List<ExtensionsDataSource> extensions;
+        private boolean enableMessageCache;
+        private int messageCacheLimit = CometChatMessageCache.DEFAULT_MAX_MESSAGES_PER_CONVERSATION;
+        private boolean enableConversationSnapshot;
+        private int conversationSnapshotSize = CometChatConversationSnapshot.DEFAULT_MAX_CONVERSATIONS;
+        private ImageCompressionSettings imageCompressionSettings = ImageCompressionSettings.getDefault();
 
         /**
          * Constructs a new instance of `UIKitSettingsBuilder`.
@@ -248,5 +311,66 @@ public class UIKitSettings {
             this.extensions = extensions;
             return this;
         }
+
+        /**
+         * Sets whether messages are cached on the device, so conversations render
+         * their last page before the server responds.
+         *
+         * @param enableMessageCache Flag indicating whether to cache messages on the device.
+         * @return The builder object.
+         */
+        public UIKitSettingsBuilder setMessageCacheEnabled(boolean enableMessageCache) {
+            this.enableMessageCache = enableMessageCache;
+            return this;
+        }
+
+        /**
+         * Sets the number of newest messages cached per conversation. Older messages
+         * are evicted first.
+         *
+         * @param messageCacheLimit The number of messages cached per conversation.
+         * @return The builder object.
+         */
+        public UIKitSettingsBuilder setMessageCacheLimit(int messageCacheLimit) {
+            this.messageCacheLimit = messageCacheLimit;
+            return this;
+        }
+
+        /**
+         * Sets whether the top of the conversation list is kept on the device, so
+         * the conversation list renders it before the server responds.
+         *
+         * @param enableConversationSnapshot Flag indicating whether to keep a conversation snapshot.
+         * @return The builder object.
+         */
+        public UIKitSettingsBuilder setConversationSnapshotEnabled(boolean enableConversationSnapshot) {
+            this.enableConversationSnapshot = enableConversationSnapshot;
+            return this;
+        }
+
+        /**
+         * Sets the number of conversations from the top of the list kept in the
+         * conversation snapshot.
+         *
+         * @param conversationSnapshotSize The number of conversations kept.
+         * @return The builder object.
+         */
+        public UIKitSettingsBuilder setConversationSnapshotSize(int conversationSnapshotSize) {
+            this.conversationSnapshotSize = conversationSnapshotSize;
+            return this;
+        }
+
+        /**
+         * Sets how images are downscaled and recompressed before they are uploaded.
+         * Compression is off by default, and images are sent as picked unless
+         * the settings are enabled.
+         *
+         * @param imageCompressionSettings The image compression settings.
+         * @return The builder object.
+         */
+        public UIKitSettingsBuilder setImageCompressionSettings(ImageCompressionSettings imageCompressionSettings) {
+            this.imageCompressionSettings = imageCompressionSettings != null ? imageCompressionSettings : ImageCompressionSettings.getDefault();
+            return this;
+        }
     }
 }
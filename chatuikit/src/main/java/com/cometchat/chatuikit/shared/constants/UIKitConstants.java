@@ -72,6 +72,10 @@ public final class UIKitConstants {
         COMPOSER_TOP, COMPOSER_BOTTOM, MESSAGE_LIST_TOP, MESSAGE_LIST_BOTTOM
     }
 
+    public enum MessageListPayload {
+        RECEIPT, REACTION, REPLY_COUNT, EDIT
+    }
+
     public static final class SharedPreferencesKeys {
         public static final String CALL = "initiated_call";
         public static final String CALL_MESSAGE = "call_message";
@@ -4,5 +4,7 @@ public class UIKitUtilityConstants {
     private static final String TAG = UIKitUtilityConstants.class.getSimpleName();
     public static final int COMPOSER_SEARCH_QUERY_INTERVAL = 500;
     public static final int COMPOSER_OPERATION_INTERVAL = 200;
+    public static final int SEARCH_DEBOUNCE_INTERVAL = 300;
     public static final int TYPING_INDICATOR_DEBOUNCER = 1000;
+    public static final int TYPING_INDICATOR_TIMEOUT = 10000;
 }
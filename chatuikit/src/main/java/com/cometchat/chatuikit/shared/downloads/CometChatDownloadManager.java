@@ -0,0 +1,336 @@
+package com.cometchat.chatuikit.shared.downloads;
+
+import android.content.Context;
+import android.os.Environment;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.cometchat.chatuikit.logger.CometChatLogger;
+import com.cometchat.chatuikit.shared.executors.BoundedExecutor;
+import com.cometchat.chatuikit.shared.executors.CometChatExecutors;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * CometChatDownloadManager downloads message attachments into the public
+ * Downloads folder, where a file that was already downloaded is reused.
+ * {@link #setCacheEnabled(boolean)} stores them in a size-capped cache in the
+ * app cache directory instead, which the user cannot see but which never
+ * grows past its cap.
+ *
+ * <p>
+ * At most {@link #MAX_CONCURRENT_DOWNLOADS} files are transferred at a time on
+ * the UI Kit I/O pool. Requests for a URL that is already downloading join the
+ * running download. A transfer that fails midway is retried, and resumes from
+ * the bytes already on disk with an HTTP Range request.
+ */
+public final class CometChatDownloadManager {
+    private static final String TAG = CometChatDownloadManager.class.getSimpleName();
+    public static final int MAX_CONCURRENT_DOWNLOADS = 2;
+    public static final long DEFAULT_MAX_CACHE_SIZE_BYTES = 100L * 1024 * 1024;
+    private static final String CACHE_DIRECTORY = "cometchat_downloads";
+    private static final String PART_SUFFIX = ".part";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final int CONNECT_TIMEOUT_MILLIS = 15000;
+    private static final int READ_TIMEOUT_MILLIS = 30000;
+    private static final long PROGRESS_INTERVAL_MILLIS = 100;
+    private static volatile CometChatDownloadManager instance;
+
+    private final DownloadCache cache;
+    private final File downloadsDirectory;
+    private final Executor ioExecutor;
+    private final Executor executor;
+    // in-flight downloads by URL, guarded by this
+    private final HashMap<String, Download> downloads;
+    private volatile boolean cacheEnabled;
+
+    private CometChatDownloadManager(Context context) {
+        this(new File(context.getCacheDir(), CACHE_DIRECTORY),
+             Environment.getExternalStoragePublicDirectory(Environment.DIRECTORY_DOWNLOADS),
+             CometChatExecutors.io());
+    }
+
+    CometChatDownloadManager(@NonNull File cacheDirectory, @NonNull File downloadsDirectory, @NonNull Executor ioExecutor) {
+        this.cache = new DownloadCache(cacheDirectory, DEFAULT_MAX_CACHE_SIZE_BYTES);
+        this.downloadsDirectory = downloadsDirectory;
+        this.ioExecutor = ioExecutor;
+        this.executor = new BoundedExecutor(ioExecutor, MAX_CONCURRENT_DOWNLOADS);
+        this.downloads = new HashMap<>();
+    }
+
+    @NonNull
+    public static CometChatDownloadManager getInstance(@NonNull Context context) {
+        if (instance == null) {
+            synchronized (CometChatDownloadManager.class) {
+                if (instance == null) instance = new CometChatDownloadManager(context.getApplicationContext());
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Stores the downloaded files in a size-capped cache in the app cache
+     * directory instead of the public Downloads folder. Off by default; files
+     * that were already downloaded stay where they are.
+     */
+    public void setCacheEnabled(boolean cacheEnabled) {
+        this.cacheEnabled = cacheEnabled;
+    }
+
+    public boolean isCacheEnabled() {
+        return cacheEnabled;
+    }
+
+    /**
+     * Downloads the given URL, or returns the already downloaded file through
+     * the listener.
+     *
+     * @param url      the file URL.
+     * @param fileName the name the downloaded file is stored with.
+     * @param listener receives the progress and the result on the main thread.
+     */
+    public void download(@NonNull String url, @NonNull String fileName, @NonNull DownloadListener listener) {
+        String key = getKey(url);
+        boolean cached = cacheEnabled;
+        ioExecutor.execute(() -> {
+            File downloadedFile = cached ? cache.get(key) : getDownloadedFile(fileName);
+            if (downloadedFile != null) {
+                CometChatExecutors.postToMain(() -> listener.onSuccess(downloadedFile));
+                return;
+            }
+            synchronized (this) {
+                Download download = downloads.get(url);
+                if (download != null) {
+                    download.listeners.add(listener);
+                    return;
+                }
+                download = new Download(url, key, fileName, cached);
+                download.listeners.add(listener);
+                downloads.put(url, download);
+                executor.execute(download);
+            }
+        });
+    }
+
+    /**
+     * Stops delivering results to the given listener. The download is stopped,
+     * keeping its partial file for a later resume, once it has no listeners.
+     */
+    public synchronized void cancel(@NonNull String url, @NonNull DownloadListener listener) {
+        Download download = downloads.get(url);
+        if (download != null) download.listeners.remove(listener);
+    }
+
+    /**
+     * Returns the cached file of the given URL, or null if it was not
+     * downloaded into the cache. This reads the disk, so call it off the main
+     * thread.
+     */
+    @Nullable
+    public File getCachedFile(@NonNull String url) {
+        return cache.get(getKey(url));
+    }
+
+    public void setMaxCacheSize(long maxSizeBytes) {
+        ioExecutor.execute(() -> cache.setMaxSizeBytes(maxSizeBytes));
+    }
+
+    public void clearCache() {
+        ioExecutor.execute(cache::clear);
+    }
+
+    @Nullable
+    private File getDownloadedFile(String fileName) {
+        File file = new File(downloadsDirectory, fileName);
+        return file.exists() ? file : null;
+    }
+
+    private File getPartialFile(Download download) {
+        if (download.cached) return cache.getPartialFile(download.key);
+        return new File(downloadsDirectory, download.fileName + PART_SUFFIX);
+    }
+
+    private File commit(Download download, File partialFile) throws IOException {
+        if (download.cached) return cache.commit(download.key, partialFile, download.fileName);
+        File file = new File(downloadsDirectory, download.fileName);
+        if (!partialFile.renameTo(file)) throw new IOException("Could not move " + partialFile + " to " + file);
+        return file;
+    }
+
+    private synchronized boolean isCancelled(Download download) {
+        return download.listeners.isEmpty();
+    }
+
+    private void run(Download download) {
+        File partialFile = getPartialFile(download);
+        File parent = partialFile.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            finish(download, null, new IOException("Could not create " + parent));
+            return;
+        }
+        Exception error = null;
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            try {
+                transfer(download, partialFile);
+                finish(download, commit(download, partialFile), null);
+                return;
+            } catch (DownloadCancelledException e) {
+                synchronized (this) {
+                    if (download.listeners.isEmpty()) {
+                        downloads.remove(download.url);
+                        return;
+                    }
+                }
+                // a listener joined while the download was stopping
+                attempt--;
+            } catch (HttpStatusException e) {
+                error = e;
+                break;
+            } catch (IOException e) {
+                error = e;
+                CometChatLogger.w(TAG, "Download attempt " + (attempt + 1) + " failed: " + e.getMessage());
+            }
+        }
+        finish(download, null, error);
+    }
+
+    private void transfer(Download download, File partialFile) throws IOException {
+        long downloaded = partialFile.exists() ? partialFile.length() : 0;
+        HttpURLConnection connection = (HttpURLConnection) new URL(download.url).openConnection();
+        try {
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+            connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+            if (downloaded > 0) connection.setRequestProperty("Range", "bytes=" + downloaded + "-");
+            int responseCode = connection.getResponseCode();
+            boolean append;
+            if (responseCode == HttpURLConnection.HTTP_PARTIAL) {
+                append = true;
+            } else if (responseCode == HttpURLConnection.HTTP_OK) {
+                append = false;
+                downloaded = 0;
+            } else if (responseCode == 416 && downloaded > 0) {
+                // the partial file does not match the remote file any more
+                partialFile.delete();
+                throw new IOException("Range not satisfiable, restarting");
+            } else if (responseCode >= 500) {
+                throw new IOException("HTTP " + responseCode);
+            } else {
+                throw new HttpStatusException(responseCode);
+            }
+            long contentLength = connection.getContentLengthLong();
+            long total = contentLength < 0 ? -1 : downloaded + contentLength;
+            try (InputStream input = connection.getInputStream(); OutputStream output = new FileOutputStream(partialFile, append)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    if (isCancelled(download)) throw new DownloadCancelledException();
+                    output.write(buffer, 0, read);
+                    downloaded += read;
+                    publishProgress(download, downloaded, total);
+                }
+            }
+            if (total >= 0 && downloaded != total) {
+                throw new IOException("Connection closed after " + downloaded + " of " + total + " bytes");
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private void publishProgress(Download download, long downloaded, long total) {
+        long now = SystemClock.elapsedRealtime();
+        if (downloaded != total && now - download.lastProgressAt < PROGRESS_INTERVAL_MILLIS) return;
+        download.lastProgressAt = now;
+        int progress = total > 0 ? (int) (downloaded * 100 / total) : -1;
+        List<DownloadListener> listeners = getListeners(download);
+        CometChatExecutors.postToMain(() -> {
+            for (DownloadListener listener : listeners) listener.onProgress(progress);
+        });
+    }
+
+    private void finish(Download download, @Nullable File file, @Nullable Exception error) {
+        List<DownloadListener> listeners;
+        synchronized (this) {
+            downloads.remove(download.url);
+            listeners = new ArrayList<>(download.listeners);
+        }
+        CometChatExecutors.postToMain(() -> {
+            for (DownloadListener listener : listeners) {
+                if (file != null) listener.onSuccess(file);
+                else listener.onError(error != null ? error : new IOException("Download failed"));
+            }
+        });
+    }
+
+    private synchronized List<DownloadListener> getListeners(Download download) {
+        return new ArrayList<>(download.listeners);
+    }
+
+    private static String getKey(String url) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder(digest.length * 2);
+            for (byte b : digest) key.append(String.format("%02x", b));
+            return key.toString();
+        } catch (Exception e) {
+            return Integer.toHexString(url.hashCode());
+        }
+    }
+
+    private final class Download implements Runnable {
+        private final String url;
+        private final String key;
+        private final String fileName;
+        private final boolean cached;
+        private final List<DownloadListener> listeners;
+        private long lastProgressAt;
+
+        private Download(String url, String key, String fileName, boolean cached) {
+            this.url = url;
+            this.key = key;
+            this.fileName = fileName;
+            this.cached = cached;
+            this.listeners = new ArrayList<>();
+        }
+
+        @Override
+        public void run() {
+            CometChatDownloadManager.this.run(this);
+        }
+    }
+
+    private static final class DownloadCancelledException extends InterruptedIOException {
+    }
+
+    /**
+     * Thrown for HTTP responses that retrying will not fix.
+     */
+    public static final class HttpStatusException extends IOException {
+        private final int statusCode;
+
+        HttpStatusException(int statusCode) {
+            super("HTTP " + statusCode);
+            this.statusCode = statusCode;
+        }
+
+        public int getStatusCode() {
+            return statusCode;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.cometchat.chatuikit.shared.downloads;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * DownloadCache keeps downloaded files in a directory, bounded by size. The
+ * least recently used files are deleted first. A file's last modified time
+ * holds its last use, so the order survives process restarts.
+ *
+ * <p>
+ * A file is named after the key of its URL and its original name, and is
+ * written to a ".part" file next to it until the download completes.
+ */
+class DownloadCache {
+    private static final String PART_SUFFIX = ".part";
+    private static final char NAME_SEPARATOR = '-';
+    // partial files nobody resumed for this long are deleted
+    private static final long STALE_PART_MILLIS = 24L * 60 * 60 * 1000;
+
+    private final File directory;
+    private final LinkedHashMap<String, Entry> entries;
+    private long maxSizeBytes;
+    private long size;
+    private boolean loaded;
+
+    DownloadCache(@NonNull File directory, long maxSizeBytes) {
+        this.directory = directory;
+        this.maxSizeBytes = maxSizeBytes;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    @Nullable
+    synchronized File get(@NonNull String key) {
+        load();
+        Entry entry = entries.get(key);
+        if (entry == null) return null;
+        if (!entry.file.exists()) {
+            remove(key);
+            return null;
+        }
+        entry.file.setLastModified(System.currentTimeMillis());
+        return entry.file;
+    }
+
+    @NonNull
+    File getPartialFile(@NonNull String key) {
+        return new File(directory, key + PART_SUFFIX);
+    }
+
+    /**
+     * Moves a completed partial file into the cache and trims the cache to its
+     * size.
+     */
+    @NonNull
+    synchronized File commit(@NonNull String key, @NonNull File partialFile, @NonNull String fileName) throws IOException {
+        load();
+        remove(key);
+        File file = new File(directory, key + NAME_SEPARATOR + sanitize(fileName));
+        if (!partialFile.renameTo(file)) throw new IOException("Could not move " + partialFile + " to " + file);
+        file.setLastModified(System.currentTimeMillis());
+        entries.put(key, new Entry(file, file.length()));
+        size += file.length();
+        trim();
+        return file;
+    }
+
+    synchronized void setMaxSizeBytes(long maxSizeBytes) {
+        this.maxSizeBytes = maxSizeBytes;
+        if (loaded) trim();
+    }
+
+    synchronized void clear() {
+        load();
+        for (Entry entry : entries.values()) entry.file.delete();
+        entries.clear();
+        size = 0;
+    }
+
+    private void load() {
+        if (loaded) return;
+        loaded = true;
+        if (!directory.exists() && !directory.mkdirs()) return;
+        File[] files = directory.listFiles();
+        if (files == null) return;
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        long now = System.currentTimeMillis();
+        for (File file : files) {
+            String name = file.getName();
+            if (name.endsWith(PART_SUFFIX)) {
+                if (now - file.lastModified() > STALE_PART_MILLIS) file.delete();
+                continue;
+            }
+            int separator = name.indexOf(NAME_SEPARATOR);
+            if (separator <= 0) continue;
+            entries.put(name.substring(0, separator), new Entry(file, file.length()));
+            size += file.length();
+        }
+        trim();
+    }
+
+    private void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) return;
+        size -= entry.length;
+        entry.file.delete();
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        // the newest file is kept even if it is larger than the cache
+        while (size > maxSizeBytes && entries.size() > 1 && iterator.hasNext()) {
+            Entry entry = iterator.next().getValue();
+            iterator.remove();
+            size -= entry.length;
+            entry.file.delete();
+        }
+    }
+
+    private static String sanitize(String fileName) {
+        String name = fileName.replaceAll("[\\\\/:*?\"<>|]", "_");
+        return name.isEmpty() ? "file" : name;
+    }
+
+    private static final class Entry {
+        private final File file;
+        private final long length;
+
+        private Entry(File file, long length) {
+            this.file = file;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.cometchat.chatuikit.shared.downloads;
+
+import androidx.annotation.NonNull;
+
+import java.io.File;
+
+/**
+ * Receives the progress and the result of a download started through
+ * {@link CometChatDownloadManager}. All the methods are called on the main
+ * thread.
+ */
+public interface DownloadListener {
+    /**
+     * Called at most about ten times per second while the file is transferred.
+     *
+     * @param progress the downloaded percentage, or -1 if the size is unknown.
+     */
+    void onProgress(int progress);
+
+    void onSuccess(@NonNull File file);
+
+    void onError(@NonNull Exception e);
+}
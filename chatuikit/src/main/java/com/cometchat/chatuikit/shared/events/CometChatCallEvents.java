@@ -4,17 +4,15 @@ import com.cometchat.chat.core.Call;
 import com.cometchat.chat.models.BaseMessage;
 import com.cometchat.chatuikit.shared.constants.MessageStatus;
 
-import java.util.HashMap;
-
 /**
  * Abstract class for handling CometChat call events.
  */
 public abstract class CometChatCallEvents {
     private static final String TAG = CometChatCallEvents.class.getSimpleName();
     /**
-     * Map to store the registered call event listeners.
+     * Bus holding the registered call event listeners.
      */
-    public static final HashMap<String, CometChatCallEvents> callingEvents = new HashMap<>();
+    public static final CometChatEventBus<CometChatCallEvents> callingEvents = new CometChatEventBus<>();
 
     /**
      * Called when an outgoing call is initiated.
@@ -64,7 +62,7 @@ public abstract class CometChatCallEvents {
      * @param callEvents The call event listener to be added.
      */
     public static void addListener(String tag, CometChatCallEvents callEvents) {
-        callingEvents.put(tag, callEvents);
+        callingEvents.add(tag, callEvents);
     }
 
     /**
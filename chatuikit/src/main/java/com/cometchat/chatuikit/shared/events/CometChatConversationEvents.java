@@ -2,17 +2,15 @@ package com.cometchat.chatuikit.shared.events;
 
 import com.cometchat.chat.models.Conversation;
 
-import java.util.HashMap;
-
 /**
  * Abstract class for handling CometChat conversation events.
  */
 public abstract class CometChatConversationEvents {
     private static final String TAG = CometChatConversationEvents.class.getSimpleName();
     /**
-     * Map to store the registered conversation event listeners.
+     * Bus holding the registered conversation event listeners.
      */
-    public static final HashMap<String, CometChatConversationEvents> conversationEvents = new HashMap<>();
+    public static final CometChatEventBus<CometChatConversationEvents> conversationEvents = new CometChatEventBus<>();
 
     /**
      * Called when a conversation is deleted.
@@ -29,7 +27,7 @@ public abstract class CometChatConversationEvents {
      * @param cometchatConversationEvents The conversation event listener to be added.
      */
     public static void addListener(String tag, CometChatConversationEvents cometchatConversationEvents) {
-        conversationEvents.put(tag, cometchatConversationEvents);
+        conversationEvents.add(tag, cometchatConversationEvents);
     }
 
     /**
@@ -0,0 +1,253 @@
+package com.cometchat.chatuikit.shared.events;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * CometChatEventBus holds the listeners of one kind of UI Kit event, each
+ * registered under a tag, and delivers events to them.
+ *
+ * <p>
+ * The listeners are kept in copy-on-write arrays: registering or removing a
+ * listener builds new arrays under a lock, while delivering an event only
+ * reads the current arrays. Events can therefore be raised from any thread,
+ * and a listener may register or remove listeners while an event is delivered;
+ * the change applies from the next event on.
+ *
+ * <p>
+ * A listener registered with a route, see {@link EventRoute}, only receives
+ * the events raised for that route and the events raised without one, so a
+ * message list is not called for the messages of every other conversation.
+ * A listener registered without a route receives every event.
+ *
+ * <p>
+ * The bus replaces the {@code HashMap} the listeners were kept in, and keeps
+ * its {@code put}, {@code get}, {@code remove} and {@code containsKey}
+ * methods, so code that registered listeners through the map still compiles.
+ *
+ * @param <L> the listener type.
+ */
+public final class CometChatEventBus<L> {
+    private static final Object[] EMPTY = new Object[0];
+
+    private final Object lock = new Object();
+    // guarded by lock; kept in registration order
+    private final LinkedHashMap<String, Registration<L>> registrations = new LinkedHashMap<>();
+    private volatile Snapshot snapshot = new Snapshot(EMPTY, EMPTY, Collections.emptyMap());
+
+    /**
+     * Registers a listener that receives every event, replacing the listener
+     * registered under the same tag.
+     *
+     * @param tag      the tag to identify the listener.
+     * @param listener the listener to be added.
+     */
+    public void add(@NonNull String tag, @NonNull L listener) {
+        add(tag, listener, null);
+    }
+
+    /**
+     * Registers a listener, replacing the listener registered under the same
+     * tag.
+     *
+     * @param tag      the tag to identify the listener.
+     * @param listener the listener to be added.
+     * @param route    the route the listener is interested in, or null for every
+     *                 event.
+     */
+    public void add(@NonNull String tag, @NonNull L listener, @Nullable String route) {
+        synchronized (lock) {
+            registrations.put(tag, new Registration<>(listener, route));
+            publish();
+        }
+    }
+
+    /**
+     * Registers a listener that receives every event, as {@link #add(String, Object)}
+     * does, and returns the listener it replaced.
+     *
+     * @param tag      the tag to identify the listener.
+     * @param listener the listener to be added.
+     * @return the listener registered under the tag before, or null.
+     */
+    @Nullable
+    public L put(@NonNull String tag, @NonNull L listener) {
+        synchronized (lock) {
+            Registration<L> previous = registrations.put(tag, new Registration<>(listener, null));
+            publish();
+            return previous == null ? null : previous.listener;
+        }
+    }
+
+    /**
+     * Returns the listener registered under the given tag, or null.
+     */
+    @Nullable
+    public L get(@Nullable String tag) {
+        synchronized (lock) {
+            Registration<L> registration = registrations.get(tag);
+            return registration == null ? null : registration.listener;
+        }
+    }
+
+    /**
+     * Returns whether a listener is registered under the given tag.
+     */
+    public boolean containsKey(@Nullable String tag) {
+        synchronized (lock) {
+            return registrations.containsKey(tag);
+        }
+    }
+
+    /**
+     * Removes the listener registered under the given tag.
+     *
+     * @return the removed listener, or null if none was registered.
+     */
+    @Nullable
+    public L remove(@Nullable String tag) {
+        synchronized (lock) {
+            Registration<L> removed = registrations.remove(tag);
+            if (removed == null) return null;
+            publish();
+            return removed.listener;
+        }
+    }
+
+    /**
+     * Removes every listener.
+     */
+    public void clear() {
+        synchronized (lock) {
+            registrations.clear();
+            publish();
+        }
+    }
+
+    /**
+     * Returns the number of registered listeners.
+     */
+    public int size() {
+        return snapshot.all.length;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns the tags registered at the time of the call, in registration
+     * order.
+     */
+    @NonNull
+    public Set<String> keySet() {
+        synchronized (lock) {
+            return Collections.unmodifiableSet(new LinkedHashSet<>(registrations.keySet()));
+        }
+    }
+
+    /**
+     * Returns the listeners registered at the time of the call, routed or not.
+     * The list does not change when listeners are added or removed later.
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    public List<L> values() {
+        return Collections.unmodifiableList(Arrays.asList((L[]) snapshot.all));
+    }
+
+    /**
+     * Delivers an event to every listener.
+     */
+    public void dispatch(@NonNull Event<L> event) {
+        deliver(snapshot.all, event);
+    }
+
+    /**
+     * Delivers an event raised for the given route to the listeners without a
+     * route and to the listeners registered for that route.
+     *
+     * @param route the route of the event, or null to deliver it to every
+     *              listener.
+     */
+    public void dispatch(@Nullable String route, @NonNull Event<L> event) {
+        Snapshot current = snapshot;
+        if (route == null) {
+            deliver(current.all, event);
+            return;
+        }
+        deliver(current.unrouted, event);
+        Object[] routed = current.routed.get(route);
+        if (routed != null) deliver(routed, event);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void deliver(Object[] listeners, Event<L> event) {
+        for (Object listener : listeners) {
+            event.deliverTo((L) listener);
+        }
+    }
+
+    // called with the lock held
+    private void publish() {
+        List<Object> all = new ArrayList<>(registrations.size());
+        List<Object> unrouted = new ArrayList<>();
+        HashMap<String, List<Object>> routed = new HashMap<>();
+        for (Registration<L> registration : registrations.values()) {
+            all.add(registration.listener);
+            if (registration.route == null) {
+                unrouted.add(registration.listener);
+            } else {
+                List<Object> listeners = routed.get(registration.route);
+                if (listeners == null) routed.put(registration.route, listeners = new ArrayList<>());
+                listeners.add(registration.listener);
+            }
+        }
+        HashMap<String, Object[]> routedArrays = new HashMap<>();
+        for (Map.Entry<String, List<Object>> entry : routed.entrySet()) {
+            routedArrays.put(entry.getKey(), entry.getValue().toArray());
+        }
+        snapshot = new Snapshot(all.toArray(), unrouted.toArray(), routedArrays);
+    }
+
+    /**
+     * An event, delivered to each listener in turn.
+     */
+    public interface Event<L> {
+        void deliverTo(@NonNull L listener);
+    }
+
+    private static final class Registration<L> {
+        private final L listener;
+        @Nullable
+        private final String route;
+
+        private Registration(L listener, @Nullable String route) {
+            this.listener = listener;
+            this.route = route;
+        }
+    }
+
+    // immutable once published
+    private static final class Snapshot {
+        private final Object[] all;
+        private final Object[] unrouted;
+        private final Map<String, Object[]> routed;
+
+        private Snapshot(Object[] all, Object[] unrouted, Map<String, Object[]> routed) {
+            this.all = all;
+            this.unrouted = unrouted;
+            this.routed = routed;
+        }
+    }
+}
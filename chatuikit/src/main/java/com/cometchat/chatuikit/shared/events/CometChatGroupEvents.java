@@ -1,11 +1,12 @@
 package com.cometchat.chatuikit.shared.events;
 
+import androidx.annotation.Nullable;
+
 import com.cometchat.chat.models.Action;
 import com.cometchat.chat.models.Group;
 import com.cometchat.chat.models.GroupMember;
 import com.cometchat.chat.models.User;
 
-import java.util.HashMap;
 import java.util.List;
 
 /**
@@ -14,9 +15,9 @@ import java.util.List;
 public abstract class CometChatGroupEvents {
     private static final String TAG = CometChatGroupEvents.class.getSimpleName();
     /**
-     * Map to store the registered group event listeners.
+     * Bus holding the registered group event listeners.
      */
-    public static final HashMap<String, CometChatGroupEvents> groupEvents = new HashMap<>();
+    public static final CometChatEventBus<CometChatGroupEvents> groupEvents = new CometChatEventBus<>();
 
     /**
      * Called when a group is created.
@@ -126,7 +127,18 @@ public abstract class CometChatGroupEvents {
      * @param chatGroupEvents The group event listener to be added.
      */
     public static void addGroupListener(String TAG, CometChatGroupEvents chatGroupEvents) {
-        groupEvents.put(TAG, chatGroupEvents);
+        groupEvents.add(TAG, chatGroupEvents);
+    }
+
+    /**
+     * Adds a group event listener that only receives the events of one group.
+     *
+     * @param TAG             The tag to identify the listener.
+     * @param chatGroupEvents The group event listener to be added.
+     * @param route           The route of the group, see {@link EventRoute}, or null for every group.
+     */
+    public static void addGroupListener(String TAG, CometChatGroupEvents chatGroupEvents, @Nullable String route) {
+        groupEvents.add(TAG, chatGroupEvents, route);
     }
 
     /**
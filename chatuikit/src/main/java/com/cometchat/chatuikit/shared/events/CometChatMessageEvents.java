@@ -1,6 +1,7 @@
 package com.cometchat.chatuikit.shared.events;
 
 import androidx.annotation.DrawableRes;
+import androidx.annotation.Nullable;
 
 import com.cometchat.chat.models.BaseMessage;
 import com.cometchat.chat.models.CustomMessage;
@@ -17,17 +18,15 @@ import com.cometchat.chatuikit.shared.models.interactivemessage.CustomInteractiv
 import com.cometchat.chatuikit.shared.models.interactivemessage.FormMessage;
 import com.cometchat.chatuikit.shared.models.interactivemessage.SchedulerMessage;
 
-import java.util.HashMap;
-
 /**
  * Abstract class for handling CometChat message events.
  */
 public abstract class CometChatMessageEvents {
     private static final String TAG = CometChatMessageEvents.class.getSimpleName();
     /**
-     * Map to store the registered message event listeners.
+     * Bus holding the registered message event listeners.
      */
-    public static final HashMap<String, CometChatMessageEvents> messageEvents = new HashMap<>();
+    public static final CometChatEventBus<CometChatMessageEvents> messageEvents = new CometChatEventBus<>();
 
     /**
      * Called when a message is sent.
@@ -135,7 +134,19 @@ public abstract class CometChatMessageEvents {
      * @param events The message event listener to be added.
      */
     public static void addListener(String TAG, CometChatMessageEvents events) {
-        messageEvents.put(TAG, events);
+        messageEvents.add(TAG, events);
+    }
+
+    /**
+     * Adds a message event listener that only receives the events of one
+     * conversation, and the events that belong to no conversation.
+     *
+     * @param TAG    The tag to identify the listener.
+     * @param events The message event listener to be added.
+     * @param route  The route of the conversation, see {@link EventRoute}, or null for every conversation.
+     */
+    public static void addListener(String TAG, CometChatMessageEvents events, @Nullable String route) {
+        messageEvents.add(TAG, events, route);
     }
 
     /**
@@ -17,9 +17,9 @@ import java.util.HashMap;
 public abstract class CometChatUIEvents {
     private static final String TAG = CometChatUIEvents.class.getSimpleName();
     /**
-     * Map to store the registered UI event listeners.
+     * Bus holding the registered UI event listeners.
      */
-    public static final HashMap<String, CometChatUIEvents> uiEvents = new HashMap<>();
+    public static final CometChatEventBus<CometChatUIEvents> uiEvents = new CometChatEventBus<>();
 
     /**
      * Shows a panel with the specified ID, alignment, and view.
@@ -76,7 +76,7 @@ public abstract class CometChatUIEvents {
      * @param events The UI event listener to be added.
      */
     public static void addListener(String tag, CometChatUIEvents events) {
-        uiEvents.put(tag, events);
+        uiEvents.add(tag, events);
     }
 
     /**
@@ -2,8 +2,6 @@ package com.cometchat.chatuikit.shared.events;
 
 import com.cometchat.chat.models.User;
 
-import java.util.HashMap;
-
 /**
  * Abstract class for handling CometChat user events.
  */
@@ -12,9 +10,9 @@ public abstract class CometChatUserEvents {
 
 
     /**
-     * Map to store the registered user event listeners.
+     * Bus holding the registered user event listeners.
      */
-    public static final HashMap<String, CometChatUserEvents> userEvents = new HashMap<>();
+    public static final CometChatEventBus<CometChatUserEvents> userEvents = new CometChatEventBus<>();
 
     /**
      * Called when a user is blocked.
@@ -39,7 +37,7 @@ public abstract class CometChatUserEvents {
      * @param chatUserEvents The user event listener to be added.
      */
     public static void addUserListener(String TAG, CometChatUserEvents chatUserEvents) {
-        userEvents.put(TAG, chatUserEvents);
+        userEvents.add(TAG, chatUserEvents);
     }
 
     /**
@@ -0,0 +1,104 @@
+package com.cometchat.chatuikit.shared.events;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.cometchat.chat.constants.CometChatConstants;
+import com.cometchat.chat.models.BaseMessage;
+import com.cometchat.chat.models.Group;
+import com.cometchat.chat.models.MessageReceipt;
+import com.cometchat.chat.models.TypingIndicator;
+import com.cometchat.chat.models.User;
+import com.cometchat.chatuikit.shared.cometchatuikit.CometChatUIKit;
+
+import java.util.Locale;
+
+/**
+ * EventRoute names the conversation an event belongs to, used to route events
+ * of a {@link CometChatEventBus} to the listeners of that conversation only.
+ *
+ * <p>
+ * The route of a one-to-one conversation is named after the other user, so a
+ * message sent to a user and a message received from that user share a route.
+ * Uids and guids are compared ignoring case, as the message list does.
+ */
+public final class EventRoute {
+    private static final String USER = "user_";
+    private static final String GROUP = "group_";
+
+    private EventRoute() {
+    }
+
+    /**
+     * Returns the route of the conversation with the given user.
+     */
+    @NonNull
+    public static String ofUser(@NonNull String uid) {
+        return USER + normalize(uid);
+    }
+
+    /**
+     * Returns the route of the conversation of the given group.
+     */
+    @NonNull
+    public static String ofGroup(@NonNull String guid) {
+        return GROUP + normalize(guid);
+    }
+
+    /**
+     * Returns the route of the conversation the given message belongs to, or
+     * null if it is unknown.
+     */
+    @Nullable
+    public static String ofMessage(@Nullable BaseMessage message) {
+        if (message == null) return null;
+        return of(message.getReceiverType(), message.getReceiverUid(), message.getSender());
+    }
+
+    /**
+     * Returns the route of the conversation the given typing indicator belongs
+     * to, or null if it is unknown.
+     */
+    @Nullable
+    public static String ofTypingIndicator(@Nullable TypingIndicator typingIndicator) {
+        if (typingIndicator == null) return null;
+        return of(typingIndicator.getReceiverType(), typingIndicator.getReceiverId(), typingIndicator.getSender());
+    }
+
+    /**
+     * Returns the route of the conversation the given receipt belongs to, or
+     * null if it is unknown.
+     */
+    @Nullable
+    public static String ofMessageReceipt(@Nullable MessageReceipt messageReceipt) {
+        if (messageReceipt == null) return null;
+        return of(messageReceipt.getReceivertype(), messageReceipt.getReceiverId(), messageReceipt.getSender());
+    }
+
+    /**
+     * Returns the route of the group of a group event, or null if it is
+     * unknown.
+     */
+    @Nullable
+    public static String ofGroupEvent(@Nullable Group group) {
+        return group == null || group.getGuid() == null ? null : ofGroup(group.getGuid());
+    }
+
+    @Nullable
+    private static String of(@Nullable String receiverType, @Nullable String receiverId, @Nullable User sender) {
+        if (receiverId == null) return null;
+        if (CometChatConstants.RECEIVER_TYPE_GROUP.equals(receiverType)) return ofGroup(receiverId);
+        if (!CometChatConstants.RECEIVER_TYPE_USER.equals(receiverType)) return null;
+        User loggedInUser = CometChatUIKit.getLoggedInUser();
+        if (loggedInUser == null || loggedInUser.getUid() == null) return null;
+        // a message received from a user belongs to the conversation with the sender
+        if (receiverId.equalsIgnoreCase(loggedInUser.getUid())) {
+            return sender == null || sender.getUid() == null ? null : ofUser(sender.getUid());
+        }
+        return ofUser(receiverId);
+    }
+
+    private static String normalize(String id) {
+        return id.toLowerCase(Locale.ROOT);
+    }
+}
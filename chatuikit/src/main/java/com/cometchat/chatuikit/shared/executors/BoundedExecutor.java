@@ -0,0 +1,60 @@
+package com.cometchat.chatuikit.shared.executors;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+
+/**
+ * BoundedExecutor runs its tasks on a shared executor, at most a given number at
+ * a time, in submission order. It keeps long running work such as downloads
+ * from taking every thread of {@link CometChatExecutors#io()}.
+ */
+public class BoundedExecutor implements Executor {
+    private final Executor executor;
+    private final int maxConcurrency;
+    private final ArrayDeque<Runnable> tasks;
+    private int running;
+
+    public BoundedExecutor(@NonNull Executor executor, int maxConcurrency) {
+        this.executor = executor;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.tasks = new ArrayDeque<>();
+    }
+
+    @Override
+    public void execute(@NonNull Runnable runnable) {
+        synchronized (this) {
+            tasks.offer(runnable);
+        }
+        scheduleNext();
+    }
+
+    /**
+     * Returns the number of tasks waiting to run.
+     */
+    public synchronized int getQueueDepth() {
+        return tasks.size();
+    }
+
+    private void scheduleNext() {
+        while (true) {
+            Runnable next;
+            synchronized (this) {
+                if (running >= maxConcurrency || tasks.isEmpty()) return;
+                next = tasks.poll();
+                running++;
+            }
+            executor.execute(() -> {
+                try {
+                    next.run();
+                } finally {
+                    synchronized (this) {
+                        running--;
+                    }
+                    scheduleNext();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.cometchat.chatuikit.shared.executors;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import com.cometchat.chatuikit.logger.CometChatLogger;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * CometChatExecutors holds the threads the UI Kit runs its background work on,
+ * so components never start threads or timers of their own.
+ *
+ * <p>
+ * It provides a bounded pool for blocking I/O (network, disk and database
+ * access), a pool sized to the CPU count for parsing and other computation, a
+ * poster for the main thread and a single scheduler thread for delayed and
+ * debounced tasks. {@link #getStats()} reports the thread counts and queue
+ * depths of all of them.
+ */
+public final class CometChatExecutors {
+    private static final String TAG = CometChatExecutors.class.getSimpleName();
+    public static final int IO_POOL_SIZE = 4;
+    public static final int COMPUTE_POOL_SIZE = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static final ThreadPoolExecutor ioExecutor = newPool("cometchat-io", IO_POOL_SIZE);
+    private static final ThreadPoolExecutor computeExecutor = newPool("cometchat-compute", COMPUTE_POOL_SIZE);
+    private static final ScheduledThreadPoolExecutor scheduler = newScheduler();
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private static final Executor mainExecutor = mainHandler::post;
+
+    private CometChatExecutors() {
+    }
+
+    /**
+     * Returns the pool for blocking I/O such as network, disk and database
+     * access.
+     */
+    @NonNull
+    public static ExecutorService io() {
+        return ioExecutor;
+    }
+
+    /**
+     * Returns the pool for CPU bound work such as parsing and layout
+     * computation.
+     */
+    @NonNull
+    public static ExecutorService compute() {
+        return computeExecutor;
+    }
+
+    /**
+     * Returns an executor that runs tasks on the main thread.
+     */
+    @NonNull
+    public static Executor main() {
+        return mainExecutor;
+    }
+
+    /**
+     * Runs the task on the main thread, immediately if called from it.
+     */
+    public static void runOnMain(@NonNull Runnable runnable) {
+        if (Looper.myLooper() == Looper.getMainLooper()) runnable.run();
+        else mainHandler.post(runnable);
+    }
+
+    public static void postToMain(@NonNull Runnable runnable) {
+        mainHandler.post(runnable);
+    }
+
+    public static void postToMain(@NonNull Runnable runnable, long delayMillis) {
+        mainHandler.postDelayed(runnable, delayMillis);
+    }
+
+    public static void removeFromMain(@NonNull Runnable runnable) {
+        mainHandler.removeCallbacks(runnable);
+    }
+
+    /**
+     * Runs the task on the scheduler thread after the given delay. The task must
+     * be short; hand longer work over to {@link #io()} or {@link #compute()}.
+     *
+     * @param runnable    the task to run.
+     * @param delayMillis the delay in milliseconds.
+     * @return the future of the task, which can be cancelled before it runs.
+     */
+    @NonNull
+    public static ScheduledFuture<?> schedule(@NonNull Runnable runnable, long delayMillis) {
+        return scheduler.schedule(guard(runnable), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs the task on the main thread after the given delay, timed by the
+     * scheduler thread.
+     *
+     * @param runnable    the task to run.
+     * @param delayMillis the delay in milliseconds.
+     * @return the future of the task, which can be cancelled until the task
+     * starts running on the main thread, including after the delay elapsed.
+     */
+    @NonNull
+    public static ScheduledFuture<?> scheduleOnMain(@NonNull Runnable runnable, long delayMillis) {
+        MainTask task = new MainTask(runnable);
+        task.timer = scheduler.schedule(() -> mainHandler.post(task), delayMillis, TimeUnit.MILLISECONDS);
+        return task;
+    }
+
+    /**
+     * Cancels a scheduled task if it has not run yet.
+     *
+     * @param future the future returned by {@link #schedule} or {@link #scheduleOnMain}, may be null.
+     */
+    public static void cancel(ScheduledFuture<?> future) {
+        if (future != null) future.cancel(false);
+    }
+
+    /**
+     * Returns a snapshot of the thread counts and queue depths of the UI Kit
+     * executors.
+     */
+    @NonNull
+    public static Stats getStats() {
+        return new Stats(ioExecutor.getPoolSize(),
+                         ioExecutor.getActiveCount(),
+                         ioExecutor.getQueue().size(),
+                         computeExecutor.getPoolSize(),
+                         computeExecutor.getActiveCount(),
+                         computeExecutor.getQueue().size(),
+                         scheduler.getPoolSize(),
+                         scheduler.getQueue().size());
+    }
+
+    private static ThreadPoolExecutor newPool(String name, int size) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(size,
+                                                             size,
+                                                             KEEP_ALIVE_SECONDS,
+                                                             TimeUnit.SECONDS,
+                                                             new LinkedBlockingQueue<>(),
+                                                             newThreadFactory(name));
+        // idle threads are released, so an idle UI Kit holds no threads
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static ScheduledThreadPoolExecutor newScheduler() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, newThreadFactory("cometchat-scheduler"));
+        // debounced tasks are cancelled constantly, keep them out of the queue
+        executor.setRemoveOnCancelPolicy(true);
+        executor.setKeepAliveTime(KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static ThreadFactory newThreadFactory(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(guard(runnable), name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static Runnable guard(Runnable runnable) {
+        return () -> {
+            try {
+                runnable.run();
+            } catch (Exception e) {
+                CometChatLogger.e(TAG, e.toString(), e);
+            }
+        };
+    }
+
+    /**
+     * A task timed by the scheduler thread and run on the main thread. Once the
+     * delay elapses the task is posted to the main thread, so cancelling it also
+     * removes it from there; a cancelled task never runs.
+     */
+    private static final class MainTask extends FutureTask<Object> implements ScheduledFuture<Object> {
+        private volatile ScheduledFuture<?> timer;
+
+        private MainTask(Runnable runnable) {
+            super(runnable, null);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(false);
+            if (cancelled) {
+                timer.cancel(false);
+                mainHandler.removeCallbacks(this);
+            }
+            return cancelled;
+        }
+
+        @Override
+        public long getDelay(@NonNull TimeUnit unit) {
+            return timer.getDelay(unit);
+        }
+
+        @Override
+        public int compareTo(@NonNull Delayed other) {
+            return timer.compareTo(other);
+        }
+
+        @Override
+        protected void setException(Throwable t) {
+            super.setException(t);
+            CometChatLogger.e(TAG, t.toString(), t);
+        }
+    }
+
+    /**
+     * A snapshot of the thread counts and queue depths of the UI Kit executors.
+     */
+    public static final class Stats {
+        private final int ioThreads;
+        private final int ioActiveThreads;
+        private final int ioQueueDepth;
+        private final int computeThreads;
+        private final int computeActiveThreads;
+        private final int computeQueueDepth;
+        private final int schedulerThreads;
+        private final int scheduledTasks;
+
+        Stats(int ioThreads,
+              int ioActiveThreads,
+              int ioQueueDepth,
+              int computeThreads,
+              int computeActiveThreads,
+              int computeQueueDepth,
+              int schedulerThreads,
+              int scheduledTasks) {
+            this.ioThreads = ioThreads;
+            this.ioActiveThreads = ioActiveThreads;
+            this.ioQueueDepth = ioQueueDepth;
+            this.computeThreads = computeThreads;
+            this.computeActiveThreads = computeActiveThreads;
+            this.computeQueueDepth = computeQueueDepth;
+            this.schedulerThreads = schedulerThreads;
+            this.scheduledTasks = scheduledTasks;
+        }
+
+        public int getIoThreads() {
+            return ioThreads;
+        }
+
+        public int getIoActiveThreads() {
+            return ioActiveThreads;
+        }
+
+        public int getIoQueueDepth() {
+            return ioQueueDepth;
+        }
+
+        public int getComputeThreads() {
+            return computeThreads;
+        }
+
+        public int getComputeActiveThreads() {
+            return computeActiveThreads;
+        }
+
+        public int getComputeQueueDepth() {
+            return computeQueueDepth;
+        }
+
+        public int getSchedulerThreads() {
+            return schedulerThreads;
+        }
+
+        public int getScheduledTasks() {
+            return scheduledTasks;
+        }
+
+        /**
+         * Returns the number of threads currently held by the UI Kit executors.
+         */
+        public int getTotalThreads() {
+            return ioThreads + computeThreads + schedulerThreads;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "Stats{io=" + ioThreads + "/" + ioActiveThreads + "/" + ioQueueDepth + ", compute=" + computeThreads + "/" + computeActiveThreads + "/" + computeQueueDepth + ", scheduler=" + schedulerThreads + "/" + scheduledTasks + "}";
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.cometchat.chatuikit.shared.executors;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+
+/**
+ * SerialExecutor runs its tasks one at a time, in submission order, on a shared
+ * executor. It lets a component that needs ordered background work, such as a
+ * storage writer, use {@link CometChatExecutors#io()} instead of a thread of its
+ * own.
+ */
+public class SerialExecutor implements Executor {
+    private final Executor executor;
+    private final ArrayDeque<Runnable> tasks;
+    private Runnable active;
+
+    public SerialExecutor(@NonNull Executor executor) {
+        this.executor = executor;
+        this.tasks = new ArrayDeque<>();
+    }
+
+    @Override
+    public synchronized void execute(@NonNull Runnable runnable) {
+        tasks.offer(() -> {
+            try {
+                runnable.run();
+            } finally {
+                scheduleNext();
+            }
+        });
+        if (active == null) scheduleNext();
+    }
+
+    /**
+     * Returns the number of tasks waiting to run.
+     */
+    public synchronized int getQueueDepth() {
+        return tasks.size();
+    }
+
+    private synchronized void scheduleNext() {
+        active = tasks.poll();
+        if (active != null) executor.execute(active);
+    }
+}
@@ -24,12 +24,16 @@ import com.cometchat.chatuikit.shared.constants.UIKitConstants;
 import com.cometchat.chatuikit.shared.formatters.style.PromptTextStyle;
 import com.cometchat.chatuikit.shared.interfaces.Function1;
 import com.cometchat.chatuikit.shared.resources.utils.Utils;
+import com.cometchat.chatuikit.shared.search.SearchPipeline;
+import com.cometchat.chatuikit.shared.search.UserPrefixIndex;
 import com.cometchat.chatuikit.shared.spans.NonEditableSpan;
 import com.cometchat.chatuikit.shared.spans.OnTagClick;
 import com.cometchat.chatuikit.shared.spans.TagSpan;
 import com.cometchat.chatuikit.shared.views.suggestionlist.SuggestionItem;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -57,6 +61,11 @@ public class CometChatMentionsFormatter extends CometChatTextFormatter {
     private @StyleRes int messageComposerMentionTextStyle, incomingBubbleMentionTextStyle, outgoingBubbleMentionTextStyle, conversationsMentionTextStyle;
     private OnTagClick<User> onTagClick;
     private Pattern pattern;
+    private boolean customUsersRequestBuilder;
+    // whether the suggestions are group members rather than users
+    private boolean searchingGroupMembers;
+    // mention suggestions never page, so the pipeline has no request to keep
+    private SearchPipeline<User, Void> searchPipeline;
     private final String defaultRegex = "<" + getTrackingCharacter() + "uid:(.*?)>";
 
     public CometChatMentionsFormatter(Context context) {
@@ -83,6 +92,28 @@ public class CometChatMentionsFormatter extends CometChatTextFormatter {
 
     private void init(Context context, @NonNull String regexPattern) {
         this.pattern = Pattern.compile(regexPattern);
+        searchPipeline = new SearchPipeline<>(this::fetchSuggestions,
+                                              (user, lowerCaseQuery) -> SearchPipeline.contains(user.getName(), lowerCaseQuery),
+                                              new SearchPipeline.Listener<User, Void>() {
+                                                  @Override
+                                                  public void onLocalResults(@NonNull String query, @NonNull List<User> users) {
+                                                      // keep the current suggestions until there is something to show
+                                                      if (!users.isEmpty()) showSuggestions(users);
+                                                  }
+
+                                                  @Override
+                                                  public void onResults(@NonNull String query, @NonNull List<User> users, @Nullable Void request, boolean cached) {
+                                                      if (!cached) getSuggestionIndex().addAll(users);
+                                                      showSuggestions(extendWithLocalResults(query, users));
+                                                  }
+
+                                                  @Override
+                                                  public void onError(@NonNull String query, @NonNull CometChatException e) {
+                                                      suggestionItemList.clear();
+                                                      setSuggestionItemList(suggestionItemList);
+                                                  }
+                                              });
+        searchPipeline.setLocalIndex(query -> isCustomRequestBuilder() ? Collections.emptyList() : getSuggestionIndex().search(query, limit));
         setOutgoingBubbleMentionTextStyle(context, R.style.CometChatOutgoingBubbleMentionsStyle);
         setIncomingBubbleMentionTextStyle(context, R.style.CometChatIncomingBubbleMentionsStyle);
         setMessageComposerMentionTextStyle(context, R.style.CometChatMessageComposerMentionsStyle);
@@ -101,6 +132,7 @@ public class CometChatMentionsFormatter extends CometChatTextFormatter {
             groupMembersRequestBuilder = null;
         }
         initializeGroupMemberRequestBuilder();
+        resetSearch();
     }
 
     public void setMentionsVisibility(@Nonnull UIKitConstants.MentionsVisibility mentionsVisibility) {
@@ -122,14 +154,18 @@ public class CometChatMentionsFormatter extends CometChatTextFormatter {
         if (getGroup() != null)
             this.groupMembersRequestBuilder = groupMembersRequestBuilderCallBack.apply(getGroup());
         initializeGroupMemberRequestBuilder();
+        resetSearch();
     }
 
     public void setUsersRequestBuilder(@Nonnull UsersRequest.UsersRequestBuilder usersRequestBuilder) {
         this.usersRequestBuilder = usersRequestBuilder;
+        customUsersRequestBuilder = true;
+        resetSearch();
     }
 
     public void setMentionsType(@Nonnull UIKitConstants.MentionsType mentionsType) {
         this.mentionType = mentionsType;
+        resetSearch();
     }
 
     public void searchMentions(String queryString) {
@@ -148,9 +184,10 @@ public class CometChatMentionsFormatter extends CometChatTextFormatter {
 
     public void searchUser(String queryString) {
         initializeUserRequestBuilder();
-        suggestionItemList.clear();
+        // the request also serves the next pages, see onScrollToBottom
         usersRequest = usersRequestBuilder.setSearchKeyword(queryString).build();
-        fetchUsers();
+        searchingGroupMembers = false;
+        searchPipeline.search(queryString, Collections.emptyList());
     }
 
     public void fetchUsers() {
@@ -158,12 +195,8 @@ public class CometChatMentionsFormatter extends CometChatTextFormatter {
         usersRequest.fetchNext(new CometChat.CallbackListener<List<User>>() {
             @Override
             public void onSuccess(List<User> users) {
-                List<SuggestionItem> suggestionItems = new ArrayList<>();
-                for (User user : users) {
-                    suggestionItems.add(new SuggestionItem(user.getUid(), user.getName(), user.getAvatar(), user.getStatus(), getTrackingCharacter() + user.getName(), "<" + getTrackingCharacter() + "uid:" + user.getUid() + ">", user.toJson(), tagStyle));
-                }
-                suggestionItemList.addAll(suggestionItems);
-                setSuggestionItemList(suggestionItemList);
+                UserPrefixIndex.ofUsers().addAll(users);
+                appendSuggestions(users);
             }
 
             @Override
@@ -180,9 +213,10 @@ public class CometChatMentionsFormatter extends CometChatTextFormatter {
 
     public void searchGroupMember(String queryString) {
         initializeGroupMemberRequestBuilder();
+        // the request also serves the next pages, see onScrollToBottom
         groupMembersRequest = groupMembersRequestBuilder.setSearchKeyword(queryString).build();
-        suggestionItemList.clear();
-        fetchGroupMembers();
+        searchingGroupMembers = true;
+        searchPipeline.search(queryString, Collections.emptyList());
     }
 
     public void fetchGroupMembers() {
@@ -190,14 +224,8 @@ public class CometChatMentionsFormatter extends CometChatTextFormatter {
         groupMembersRequest.fetchNext(new CometChat.CallbackListener<List<GroupMember>>() {
             @Override
             public void onSuccess(List<GroupMember> groupMembers) {
-
-                List<SuggestionItem> suggestionItems = new ArrayList<>();
-                for (GroupMember user : groupMembers) {
-                    suggestionItems.add(new SuggestionItem(user.getUid(), user.getName(), user.getAvatar(), user.getStatus(), getTrackingCharacter() + user.getName(), "<" + getTrackingCharacter() + "uid:" + user.getUid() + ">", user.toJson(), user.getUid().equals(CometChatUIKit.getLoggedInUser().getUid()) && selfTagStyle != null ? selfTagStyle : tagStyle));
-                }
-
-                suggestionItemList.addAll(suggestionItems);
-                setSuggestionItemList(suggestionItemList);
+                if (groupId != null) UserPrefixIndex.ofGroup(groupId).addAll(groupMembers);
+                appendSuggestions(groupMembers);
             }
 
             @Override
@@ -208,11 +236,115 @@ public class CometChatMentionsFormatter extends CometChatTextFormatter {
         });
     }
 
+    /**
+     * Fetches the first page of suggestions for the latest query, with the
+     * request built for it.
+     */
+    private void fetchSuggestions(@NonNull String query, @NonNull SearchPipeline.Callback<User, Void> callback) {
+        if (searchingGroupMembers ? groupMembersRequest == null : usersRequest == null) {
+            // nothing to search in, settle the query so it is not awaited forever
+            callback.onSuccess(new ArrayList<>(), null);
+        } else if (searchingGroupMembers) {
+            groupMembersRequest.fetchNext(new CometChat.CallbackListener<List<GroupMember>>() {
+                @Override
+                public void onSuccess(List<GroupMember> groupMembers) {
+                    callback.onSuccess(new ArrayList<>(groupMembers), null);
+                }
+
+                @Override
+                public void onError(CometChatException e) {
+                    callback.onError(e);
+                }
+            });
+        } else {
+            usersRequest.fetchNext(new CometChat.CallbackListener<List<User>>() {
+                @Override
+                public void onSuccess(List<User> users) {
+                    callback.onSuccess(users, null);
+                }
+
+                @Override
+                public void onError(CometChatException e) {
+                    callback.onError(e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the index the suggestions of the current conversation are
+     * answered from.
+     */
+    private UserPrefixIndex getSuggestionIndex() {
+        return searchingGroupMembers && groupId != null ? UserPrefixIndex.ofGroup(groupId) : UserPrefixIndex.ofUsers();
+    }
+
+    // the shared index may hold users a custom request would leave out
+    private boolean isCustomRequestBuilder() {
+        return searchingGroupMembers ? groupMembersRequestBuilderCallback != null : customUsersRequestBuilder;
+    }
+
+    /**
+     * Returns the fetched users followed by the other indexed users matching
+     * the query.
+     */
+    private List<User> extendWithLocalResults(String query, List<User> users) {
+        if (isCustomRequestBuilder() || users.size() >= limit) return users;
+        List<User> suggestions = new ArrayList<>(users);
+        for (User user : getSuggestionIndex().search(query, limit)) {
+            if (suggestions.size() >= limit) break;
+            if (!contains(suggestions, user.getUid())) suggestions.add(user);
+        }
+        return suggestions;
+    }
+
+    private void showSuggestions(List<? extends User> users) {
+        suggestionItemList.clear();
+        for (User user : users) {
+            suggestionItemList.add(getSuggestionItem(user));
+        }
+        setSuggestionItemList(suggestionItemList);
+    }
+
+    private void appendSuggestions(List<? extends User> users) {
+        for (User user : users) {
+            // the first page may have been answered locally, so it can repeat
+            if (!containsSuggestion(user.getUid())) suggestionItemList.add(getSuggestionItem(user));
+        }
+        setSuggestionItemList(suggestionItemList);
+    }
+
+    private SuggestionItem getSuggestionItem(User user) {
+        PromptTextStyle style = searchingGroupMembers && user.getUid().equals(CometChatUIKit.getLoggedInUser().getUid()) && selfTagStyle != null ? selfTagStyle : tagStyle;
+        return new SuggestionItem(user.getUid(), user.getName(), user.getAvatar(), user.getStatus(), getTrackingCharacter() + user.getName(), "<" + getTrackingCharacter() + "uid:" + user.getUid() + ">", user.toJson(), style);
+    }
+
+    private boolean containsSuggestion(String uid) {
+        for (SuggestionItem suggestionItem : suggestionItemList) {
+            if (suggestionItem.getId() != null && suggestionItem.getId().equals(uid)) return true;
+        }
+        return false;
+    }
+
+    private static boolean contains(List<User> users, String uid) {
+        for (User user : users) {
+            if (user.getUid().equals(uid)) return true;
+        }
+        return false;
+    }
+
+    private void resetSearch() {
+        if (searchPipeline == null) return;
+        searchPipeline.cancel();
+        searchPipeline.clearCache();
+    }
+
     public void setMessageComposerMentionTextStyle(Context context, @StyleRes int style) {
         if (style != 0) {
             this.messageComposerMentionTextStyle = style;
             setTagStyle(getPromptTextStyle(context, style));
             setSelfTagStyle(getSelfPromptTextStyle(context, style));
+            invalidateFormattedText();
         }
     }
 
@@ -220,6 +352,7 @@ public class CometChatMentionsFormatter extends CometChatTextFormatter {
         this.conversationsMentionTextStyle = style;
         setConversationTagStyle(getPromptTextStyle(context, style));
         setConversationSelfTagStyle(getSelfPromptTextStyle(context, style));
+        invalidateFormattedText();
     }
 
     public void setIncomingBubbleMentionTextStyle(Context context, @StyleRes int style) {
@@ -227,6 +360,7 @@ public class CometChatMentionsFormatter extends CometChatTextFormatter {
             this.incomingBubbleMentionTextStyle = style;
             setOutgoingBubbleTagStyle(getPromptTextStyle(context, style));
             setOutgoingBubbleSelfTagStyle(getSelfPromptTextStyle(context, style));
+            invalidateFormattedText();
         }
     }
 
@@ -235,6 +369,7 @@ public class CometChatMentionsFormatter extends CometChatTextFormatter {
             this.outgoingBubbleMentionTextStyle = style;
             setIncomingBubbleTagStyle(getPromptTextStyle(context, style));
             setIncomingBubbleSelfTagStyle(getSelfPromptTextStyle(context, style));
+            invalidateFormattedText();
         }
     }
 
@@ -293,10 +428,12 @@ public class CometChatMentionsFormatter extends CometChatTextFormatter {
             if (queryString != null) {
                 searchMentions(queryString);
             } else {
+                searchPipeline.cancel();
                 suggestionItemList.clear();
                 setSuggestionItemList(suggestionItemList);
             }
         } else {
+            searchPipeline.cancel();
             suggestionItemList.clear();
             setSuggestionItemList(suggestionItemList);
         }
@@ -426,9 +563,7 @@ public class CometChatMentionsFormatter extends CometChatTextFormatter {
 
                         spannableStringBuilder.replace(startIdx, startIdx + matcher.group().length(), mentionText);
 
-                        TagSpan userSpan = new TagSpan(getId(), mentionText, suggestionItem, (context1, user1) -> {
-                            if (onTagClick != null) onTagClick.onClick(context1, user1);
-                        });
+                        TagSpan userSpan = new TagSpan(getId(), mentionText, suggestionItem, new MentionClick(this));
 
                         userSpanMap.put(startIdx, userSpan);
 
@@ -467,9 +602,7 @@ public class CometChatMentionsFormatter extends CometChatTextFormatter {
 
                         spannableStringBuilder.replace(startIdx, startIdx + matcher.group().length(), mentionText);
 
-                        TagSpan userSpan = new TagSpan(getId(), mentionText, suggestionItem, (context1, user1) -> {
-                            if (onTagClick != null) onTagClick.onClick(context1, user1);
-                        });
+                        TagSpan userSpan = new TagSpan(getId(), mentionText, suggestionItem, new MentionClick(this));
                         userSpanMap.put(startIdx, userSpan);
                         break;
                     }
@@ -501,6 +634,15 @@ public class CometChatMentionsFormatter extends CometChatTextFormatter {
         super.setUser(user);
     }
 
+    /**
+     * Mentions are formatted from the message and the mention styles only,
+     * and every style setter invalidates the cached texts.
+     */
+    @Override
+    public boolean isCacheable() {
+        return true;
+    }
+
     @Override
     public boolean getDisableSuggestions() {
         boolean flag = getSelectedList().size() < mentionLimit;
@@ -545,4 +687,22 @@ public class CometChatMentionsFormatter extends CometChatTextFormatter {
         return promptTextStyle;
     }
 
+    /**
+     * Forwards the click on a mention to the listener of its formatter. It
+     * holds the formatter weakly, as the formatted text may be cached beyond
+     * the screen of the formatter.
+     */
+    private static final class MentionClick implements OnTagClick<User> {
+        private final WeakReference<CometChatMentionsFormatter> formatter;
+
+        private MentionClick(CometChatMentionsFormatter formatter) {
+            this.formatter = new WeakReference<>(formatter);
+        }
+
+        @Override
+        public void onClick(Context context, User user) {
+            CometChatMentionsFormatter mentionsFormatter = formatter.get();
+            if (mentionsFormatter != null && mentionsFormatter.onTagClick != null) mentionsFormatter.onTagClick.onClick(context, user);
+        }
+    }
 }
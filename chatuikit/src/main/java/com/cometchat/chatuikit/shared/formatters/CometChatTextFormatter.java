@@ -119,6 +119,35 @@ public abstract class CometChatTextFormatter implements Formatter {
      */
     public abstract void onScrollToBottom();
 
+    /**
+     * To be called whenever this formatter changes how it formats text, for
+     * example when its styles change, so that texts formatted earlier and
+     * cached by {@link FormatterUtils#getCachedFormattedText} are formatted
+     * again.
+     */
+    protected final void invalidateFormattedText() {
+        FormattedTextCache.invalidate();
+    }
+
+    /**
+     * Returns whether the texts this formatter formats may be cached by
+     * {@link FormatterUtils#getCachedFormattedText} and reused at later binds of
+     * the same message by the same formatter. False by default, so a text
+     * formatted by any formatter that does not opt in is formatted at every bind.
+     *
+     * <p>
+     * A formatter may return true when the text it formats depends only on the
+     * message, its text, the theme and the state of the formatter, and it calls
+     * {@link #invalidateFormattedText()} whenever that state changes how it
+     * formats. The spans it adds must not hold the formatter strongly, as a
+     * cached text may outlive the screen of the formatter.
+     *
+     * @return true if the formatted texts may be cached.
+     */
+    public boolean isCacheable() {
+        return false;
+    }
+
     /**
      * Method to prepare the text of the message.
      *
@@ -0,0 +1,165 @@
+package com.cometchat.chatuikit.shared.formatters;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.text.Spanned;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.cometchat.chat.models.BaseMessage;
+import com.cometchat.chatuikit.shared.constants.UIKitConstants;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * FormattedTextCache keeps the text of recently shown messages as formatted by
+ * the {@link CometChatTextFormatter} chain, shared by the message list and the
+ * conversation list, so binding a row again does not run the formatters again.
+ *
+ * <p>
+ * Text is kept per message id, edit time, formatting type and bubble
+ * alignment. A cached text is only used when it was formatted from the same
+ * text, by the same formatter instances, in the same formatter version and
+ * with the same theme. The version changes whenever a formatter changes how it
+ * formats, see {@link CometChatTextFormatter#invalidateFormattedText()}. The
+ * cache is bounded by the total length of the texts it holds.
+ *
+ * <p>
+ * The formatters and the theme are held weakly, so the cache does not keep
+ * the screen they belong to; an entry whose formatters or theme are gone is
+ * dropped at its next lookup, or evicted with the eldest entries.
+ */
+final class FormattedTextCache {
+    private static final int MAX_CACHED_CHARS = 256 * 1024;
+
+    private static final LinkedHashMap<String, Entry> cache = new LinkedHashMap<>(64, 0.75f, true);
+    // guarded by cache
+    private static int cachedChars;
+    private static volatile int version;
+
+    private FormattedTextCache() {
+    }
+
+    /**
+     * Returns the cached formatted text, or null if none matches.
+     */
+    @Nullable
+    static Spanned get(@NonNull Context context,
+                       @NonNull BaseMessage baseMessage,
+                       @NonNull UIKitConstants.FormattingType formattingType,
+                       @Nullable UIKitConstants.MessageBubbleAlignment alignment,
+                       @NonNull String text,
+                       @NonNull List<CometChatTextFormatter> formatters) {
+        String key = getKey(baseMessage, formattingType, alignment);
+        if (key == null) return null;
+        synchronized (cache) {
+            Entry entry = cache.get(key);
+            if (entry == null) return null;
+            if (entry.isStale()) {
+                cache.remove(key);
+                cachedChars -= entry.size();
+                return null;
+            }
+            return entry.matches(context.getTheme(), text, formatters) ? entry.formattedText : null;
+        }
+    }
+
+    /**
+     * Returns the current formatter version, to be read before formatting the
+     * text passed to {@link #put}.
+     */
+    static int getVersion() {
+        return version;
+    }
+
+    static void put(int version,
+                    @NonNull Context context,
+                    @NonNull BaseMessage baseMessage,
+                    @NonNull UIKitConstants.FormattingType formattingType,
+                    @Nullable UIKitConstants.MessageBubbleAlignment alignment,
+                    @NonNull String text,
+                    @NonNull List<CometChatTextFormatter> formatters,
+                    @NonNull Spanned formattedText) {
+        String key = getKey(baseMessage, formattingType, alignment);
+        if (key == null || formattedText.length() > MAX_CACHED_CHARS / 8) return;
+        Entry entry = new Entry(context.getTheme(), text, formatters, version, formattedText);
+        synchronized (cache) {
+            Entry previous = cache.put(key, entry);
+            if (previous != null) cachedChars -= previous.size();
+            cachedChars += entry.size();
+            Iterator<Entry> eldest = cache.values().iterator();
+            while (cachedChars > MAX_CACHED_CHARS && eldest.hasNext()) {
+                cachedChars -= eldest.next().size();
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * Makes every cached text stale, for example when a formatter changed its
+     * styles.
+     */
+    static void invalidate() {
+        synchronized (cache) {
+            version++;
+        }
+    }
+
+    static void clear() {
+        synchronized (cache) {
+            cache.clear();
+            cachedChars = 0;
+        }
+    }
+
+    @Nullable
+    private static String getKey(BaseMessage baseMessage, UIKitConstants.FormattingType formattingType, UIKitConstants.MessageBubbleAlignment alignment) {
+        // messages still being sent have no id yet
+        if (baseMessage.getId() <= 0) return null;
+        return baseMessage.getId() + "_" + baseMessage.getEditedAt() + "_" + formattingType.name() + "_" + (alignment != null ? alignment.name() : "");
+    }
+
+    private static final class Entry {
+        // weak, so the cache does not keep the theme and the formatters of a destroyed screen
+        private final WeakReference<Resources.Theme> theme;
+        private final String text;
+        private final List<WeakReference<CometChatTextFormatter>> formatters;
+        private final int version;
+        private final Spanned formattedText;
+
+        private Entry(Resources.Theme theme, String text, List<CometChatTextFormatter> formatters, int version, Spanned formattedText) {
+            this.theme = new WeakReference<>(theme);
+            this.text = text;
+            this.formatters = new ArrayList<>(formatters.size());
+            for (CometChatTextFormatter formatter : formatters) this.formatters.add(new WeakReference<>(formatter));
+            this.version = version;
+            this.formattedText = formattedText;
+        }
+
+        private boolean matches(Resources.Theme theme, String text, List<CometChatTextFormatter> formatters) {
+            if (version != FormattedTextCache.version || this.theme.get() != theme || !this.text.equals(text)) return false;
+            if (this.formatters.size() != formatters.size()) return false;
+            for (int i = 0; i < this.formatters.size(); i++) {
+                if (this.formatters.get(i).get() != formatters.get(i)) return false;
+            }
+            return true;
+        }
+
+        private boolean isStale() {
+            if (version != FormattedTextCache.version || theme.get() == null) return true;
+            for (WeakReference<CometChatTextFormatter> formatter : formatters) {
+                if (formatter.get() == null) return true;
+            }
+            return false;
+        }
+
+        private int size() {
+            return text.length() + formattedText.length();
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package com.cometchat.chatuikit.shared.formatters;
 
 import android.content.Context;
+import android.text.SpannableString;
 import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.SpannedString;
 
 import com.cometchat.chat.models.BaseMessage;
 import com.cometchat.chatuikit.shared.constants.UIKitConstants;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class FormatterUtils {
@@ -19,4 +23,50 @@ public class FormatterUtils {
         }
         return spannableString;
     }
+
+    /**
+     * Returns the text of a message formatted by the given formatters, like
+     * {@link #getFormattedText}, reusing the text formatted for an earlier bind
+     * of the same message, surface and alignment when the text, the formatters
+     * and the theme are unchanged. The text is only cached when every formatter
+     * is {@link CometChatTextFormatter#isCacheable() cacheable}. The returned
+     * text is shared and immutable;
+     * copy it, for example with {@link SpannableString#valueOf}, before changing
+     * its spans.
+     */
+    public static Spanned getCachedFormattedText(Context context, BaseMessage baseMessage, UIKitConstants.FormattingType formattingType, UIKitConstants.MessageBubbleAlignment alignment, String text, List<CometChatTextFormatter> formatters) {
+        if (baseMessage == null || text == null || formatters == null || !areCacheable(formatters)) {
+            return new SpannedString(getFormattedText(context, baseMessage, formattingType, alignment, text, formatters != null ? formatters : new ArrayList<>()));
+        }
+        Spanned formattedText = FormattedTextCache.get(context, baseMessage, formattingType, alignment, text, formatters);
+        if (formattedText == null) {
+            int version = FormattedTextCache.getVersion();
+            formattedText = new SpannedString(getFormattedText(context, baseMessage, formattingType, alignment, text, formatters));
+            FormattedTextCache.put(version, context, baseMessage, formattingType, alignment, text, formatters, formattedText);
+        }
+        return formattedText;
+    }
+
+    private static boolean areCacheable(List<CometChatTextFormatter> formatters) {
+        for (CometChatTextFormatter formatter : formatters) {
+            if (formatter == null || !formatter.isCacheable()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the version of the formatted texts, which changes whenever a
+     * formatter {@link CometChatTextFormatter#invalidateFormattedText()
+     * invalidates} them. A text formatted in an older version is stale.
+     */
+    public static int getFormattedTextVersion() {
+        return FormattedTextCache.getVersion();
+    }
+
+    /**
+     * Drops every cached formatted text, for example when the user logs out.
+     */
+    public static void clearFormattedTextCache() {
+        FormattedTextCache.clear();
+    }
 }
@@ -1,6 +1,11 @@
 package com.cometchat.chatuikit.shared.framework;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
 import com.cometchat.chatuikit.shared.interfaces.Function1;
+import com.cometchat.chatuikit.shared.models.AdditionParameter;
+import com.cometchat.chatuikit.shared.models.CometChatMessageTemplate;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -20,14 +25,22 @@ public class ChatConfigurator {
     // List to keep track of unique data source IDs
     private static final List<String> ids = new ArrayList<>();
 
+    // templates of the current data source chain
+    private static final MessageTemplateRegistry templateRegistry = new MessageTemplateRegistry();
+
+    // the current data source chain, with its memoized calls
+    private static DataSource compiledDataSource = new CompiledDataSource(defaultDataSource, templateRegistry);
+
     public static void init() {
         defaultDataSource = new MessagesDataSource();
         ids.clear();
+        compile();
     }
 
     public static void init(DataSource dataSource) {
         defaultDataSource = dataSource;
         ids.clear();
+        compile();
     }
 
     /**
@@ -43,16 +56,69 @@ public class ChatConfigurator {
             if (!ids.contains(newDataSource.getId())) {
                 ids.add(newDataSource.getId());
                 defaultDataSource = newDataSource;
+                compile();
             }
         }
     }
 
     /**
-     * Returns the current data source.
+     * Returns the current data source, the last decorator enabled.
      *
      * @return The current data source.
      */
     public static DataSource getDataSource() {
         return defaultDataSource;
     }
+
+    /**
+     * Returns the current data source with the calls that depend on nothing
+     * but the AdditionParameter, such as the message templates and the default
+     * message types, answered from memoized results of the chain. For use
+     * within the UI Kit only.
+     */
+    static DataSource getCompiledDataSource() {
+        return compiledDataSource;
+    }
+
+    // called whenever the chain changes
+    private static void compile() {
+        templateRegistry.invalidate();
+        compiledDataSource = new CompiledDataSource(defaultDataSource, templateRegistry);
+    }
+
+    /**
+     * Returns the message templates of the current data source for the given
+     * parameters. The templates are built once per data source chain and
+     * AdditionParameter instance; the returned list and the templates in it are
+     * copies that can be modified without affecting other lists.
+     *
+     * @param additionParameter The parameters the templates are bound to.
+     * @return The message templates.
+     */
+    public static List<CometChatMessageTemplate> getMessageTemplates(@NonNull AdditionParameter additionParameter) {
+        return templateRegistry.getTemplates(additionParameter);
+    }
+
+    /**
+     * Returns a copy of the template for the given category and type, or null
+     * if the current data source has none.
+     *
+     * @param category          The category of the message.
+     * @param type              The type of the message.
+     * @param additionParameter The parameters the templates are bound to.
+     * @return The message template.
+     */
+    @Nullable
+    public static CometChatMessageTemplate getMessageTemplate(String category, String type, @NonNull AdditionParameter additionParameter) {
+        return templateRegistry.getTemplate(category, type, additionParameter);
+    }
+
+    /**
+     * Drops the shared message templates so they are rebuilt on next use. Call it
+     * after changing an AdditionParameter in a way the templates read only when
+     * they are built.
+     */
+    public static void invalidateMessageTemplates() {
+        templateRegistry.invalidate();
+    }
 }
@@ -0,0 +1,142 @@
+package com.cometchat.chatuikit.shared.framework;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.cometchat.chatuikit.shared.constants.UIKitConstants;
+import com.cometchat.chatuikit.shared.models.AdditionParameter;
+import com.cometchat.chatuikit.shared.models.CometChatMessageTemplate;
+
+import java.util.List;
+
+/**
+ * CompiledDataSource sits on top of the data source chain built with
+ * {@link ChatConfigurator#enable}. The calls whose result depends on nothing
+ * but the AdditionParameter, the message templates, the template of each
+ * built-in type and the default message types and categories, and the template
+ * lookup per category and type, are answered from the
+ * {@link MessageTemplateRegistry} instead of walking the chain and rebuilding
+ * the results at every decorator. Every other call, and any call without an
+ * AdditionParameter, goes to the chain as before: the text formatters are
+ * built per screen and hold its context, and the remaining calls depend on a
+ * message, a conversation or a context, or create views.
+ *
+ * <p>
+ * A new instance is created whenever the chain changes, and the registry is
+ * invalidated at the same time, so the memoized results always belong to the
+ * current chain. It is used within the UI Kit only, through
+ * {@link ChatConfigurator#getCompiledDataSource()};
+ * {@link ChatConfigurator#getDataSource()} returns the chain itself.
+ */
+final class CompiledDataSource extends DataSourceDecorator {
+    private final DataSource dataSource;
+    private final MessageTemplateRegistry templateRegistry;
+
+    CompiledDataSource(@NonNull DataSource dataSource, @NonNull MessageTemplateRegistry templateRegistry) {
+        super(dataSource);
+        this.dataSource = dataSource;
+        this.templateRegistry = templateRegistry;
+    }
+
+    @Override
+    public List<CometChatMessageTemplate> getMessageTemplates(@NonNull AdditionParameter additionParameter) {
+        if (additionParameter == null) return super.getMessageTemplates(additionParameter);
+        return templateRegistry.getTemplates(additionParameter);
+    }
+
+    @Override
+    public CometChatMessageTemplate getMessageTemplate(String category, String type, @NonNull AdditionParameter additionParameter) {
+        if (additionParameter == null) return super.getMessageTemplate(category, type, additionParameter);
+        return templateRegistry.getChainTemplate(category, type, additionParameter);
+    }
+
+    @Override
+    public CometChatMessageTemplate getAudioTemplate(@NonNull AdditionParameter additionParameter) {
+        if (additionParameter == null) return super.getAudioTemplate(additionParameter);
+        return templateRegistry.getTypeTemplate(UIKitConstants.MessageTemplateId.AUDIO,
+                                                additionParameter,
+                                                chain -> chain.getAudioTemplate(additionParameter));
+    }
+
+    @Override
+    public CometChatMessageTemplate getVideoTemplate(@NonNull AdditionParameter additionParameter) {
+        if (additionParameter == null) return super.getVideoTemplate(additionParameter);
+        return templateRegistry.getTypeTemplate(UIKitConstants.MessageTemplateId.VIDEO,
+                                                additionParameter,
+                                                chain -> chain.getVideoTemplate(additionParameter));
+    }
+
+    @Override
+    public CometChatMessageTemplate getImageTemplate(@NonNull AdditionParameter additionParameter) {
+        if (additionParameter == null) return super.getImageTemplate(additionParameter);
+        return templateRegistry.getTypeTemplate(UIKitConstants.MessageTemplateId.IMAGE,
+                                                additionParameter,
+                                                chain -> chain.getImageTemplate(additionParameter));
+    }
+
+    @Override
+    public CometChatMessageTemplate getGroupActionsTemplate(@NonNull AdditionParameter additionParameter) {
+        if (additionParameter == null) return super.getGroupActionsTemplate(additionParameter);
+        return templateRegistry.getTypeTemplate(UIKitConstants.MessageTemplateId.GROUP_ACTION,
+                                                additionParameter,
+                                                chain -> chain.getGroupActionsTemplate(additionParameter));
+    }
+
+    @Override
+    public CometChatMessageTemplate getFileTemplate(@NonNull AdditionParameter additionParameter) {
+        if (additionParameter == null) return super.getFileTemplate(additionParameter);
+        return templateRegistry.getTypeTemplate(UIKitConstants.MessageTemplateId.FILE,
+                                                additionParameter,
+                                                chain -> chain.getFileTemplate(additionParameter));
+    }
+
+    @Override
+    public CometChatMessageTemplate getTextTemplate(@NonNull AdditionParameter additionParameter) {
+        if (additionParameter == null) return super.getTextTemplate(additionParameter);
+        return templateRegistry.getTypeTemplate(UIKitConstants.MessageTemplateId.TEXT,
+                                                additionParameter,
+                                                chain -> chain.getTextTemplate(additionParameter));
+    }
+
+    @Override
+    public CometChatMessageTemplate getFormTemplate(@NonNull AdditionParameter additionParameter) {
+        if (additionParameter == null) return super.getFormTemplate(additionParameter);
+        return templateRegistry.getTypeTemplate(UIKitConstants.MessageTemplateId.FORM,
+                                                additionParameter,
+                                                chain -> chain.getFormTemplate(additionParameter));
+    }
+
+    @Override
+    public CometChatMessageTemplate getSchedulerTemplate(@NonNull AdditionParameter additionParameter) {
+        if (additionParameter == null) return super.getSchedulerTemplate(additionParameter);
+        return templateRegistry.getTypeTemplate(UIKitConstants.MessageTemplateId.SCHEDULER,
+                                                additionParameter,
+                                                chain -> chain.getSchedulerTemplate(additionParameter));
+    }
+
+    @Override
+    public CometChatMessageTemplate getCardTemplate(@NonNull AdditionParameter additionParameter) {
+        if (additionParameter == null) return super.getCardTemplate(additionParameter);
+        return templateRegistry.getTypeTemplate(UIKitConstants.MessageTemplateId.CARD,
+                                                additionParameter,
+                                                chain -> chain.getCardTemplate(additionParameter));
+    }
+
+    @Override
+    public List<String> getDefaultMessageTypes(@NonNull AdditionParameter additionParameter) {
+        if (additionParameter == null) return super.getDefaultMessageTypes(additionParameter);
+        return templateRegistry.getDefaultMessageTypes(additionParameter);
+    }
+
+    @Override
+    public List<String> getDefaultMessageCategories(@NonNull AdditionParameter additionParameter) {
+        if (additionParameter == null) return super.getDefaultMessageCategories(additionParameter);
+        return templateRegistry.getDefaultMessageCategories(additionParameter);
+    }
+
+    @Nullable
+    @Override
+    public String getId() {
+        return dataSource.getId();
+    }
+}
@@ -0,0 +1,230 @@
+package com.cometchat.chatuikit.shared.framework;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.cometchat.chatuikit.shared.interfaces.Function1;
+import com.cometchat.chatuikit.shared.models.AdditionParameter;
+import com.cometchat.chatuikit.shared.models.CometChatMessageTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.WeakHashMap;
+
+/**
+ * MessageTemplateRegistry memoizes the message templates of the current data
+ * source chain. The memoized results belong to the chain they were computed
+ * from and are dropped as soon as {@link ChatConfigurator} holds another
+ * chain, or when the registry is invalidated.
+ *
+ * <p>
+ * Within a chain, templates are kept per {@link AdditionParameter} instance,
+ * as they capture the parameter they were built with, including its styles
+ * and its text formatters, which hold the context of their screen. A template
+ * built for one message list is therefore never handed to another one. They
+ * are rebuilt when the group action visibility of the parameter changes.
+ *
+ * <p>
+ * The shared templates are never handed out: callers get copies, so a caller
+ * customizing the templates it was given, as integrators do, does not change
+ * the templates of other lists.
+ *
+ * <p>
+ * The registry also memoizes the other results of the chain that depend on
+ * nothing but the AdditionParameter: the default message types and
+ * categories, the template of each built-in type, such as the text or the
+ * image template, and the template the chain returns for each category and
+ * type. Each is computed on first use, once the chain is settled.
+ *
+ * <p>
+ * The chain is never asked while the registry lock is held, as decorators may
+ * call back into {@link ChatConfigurator} or block: a result is computed
+ * outside the lock and published only if none was meanwhile, and only if its
+ * chain is still current. A thread losing the race gets the published result.
+ */
+class MessageTemplateRegistry {
+    private static final String DEFAULT_MESSAGE_TYPES = "types";
+    private static final String DEFAULT_MESSAGE_CATEGORIES = "categories";
+
+    private final WeakHashMap<AdditionParameter, Entry> entries = new WeakHashMap<>();
+    // the chain the entries were computed from
+    private DataSource dataSource;
+
+    /**
+     * Returns a new list holding copies of the shared templates for the given
+     * parameter.
+     */
+    @NonNull
+    List<CometChatMessageTemplate> getTemplates(@NonNull AdditionParameter additionParameter) {
+        List<CometChatMessageTemplate> templates = getTemplateSet(additionParameter).templates;
+        List<CometChatMessageTemplate> copies = new ArrayList<>(templates.size());
+        for (CometChatMessageTemplate template : templates) {
+            copies.add(copyOf(template));
+        }
+        return copies;
+    }
+
+    /**
+     * Returns a copy of the shared template for the given category and type.
+     */
+    @Nullable
+    CometChatMessageTemplate getTemplate(String category, String type, @NonNull AdditionParameter additionParameter) {
+        HashMap<String, CometChatMessageTemplate> byType = getTemplateSet(additionParameter).templatesByKey.get(category);
+        return byType == null ? null : copyOf(byType.get(type));
+    }
+
+    /**
+     * Returns a copy of the template the chain returns for the given category
+     * and type, asking the chain once per category and type.
+     */
+    @Nullable
+    CometChatMessageTemplate getChainTemplate(String category, String type, @NonNull AdditionParameter additionParameter) {
+        Entry entry = getEntry(additionParameter);
+        return copyOf(getMemoized(entry, entry.chainTemplates, category + "_" + type, additionParameter,
+                                  chain -> chain.getMessageTemplate(category, type, additionParameter)));
+    }
+
+    /**
+     * Returns a copy of the template the chain returns for one of the built-in
+     * types, asking the chain once per template id.
+     *
+     * @param templateId One of the {@code UIKitConstants.MessageTemplateId} values.
+     * @param chainCall  The call of the chain that builds the template.
+     */
+    @Nullable
+    CometChatMessageTemplate getTypeTemplate(@NonNull String templateId,
+                                             @NonNull AdditionParameter additionParameter,
+                                             @NonNull Function1<DataSource, CometChatMessageTemplate> chainCall) {
+        Entry entry = getEntry(additionParameter);
+        return copyOf(getMemoized(entry, entry.typeTemplates, templateId, additionParameter, chainCall));
+    }
+
+    /**
+     * Returns a new list holding the default message types of the chain.
+     */
+    @NonNull
+    List<String> getDefaultMessageTypes(@NonNull AdditionParameter additionParameter) {
+        Entry entry = getEntry(additionParameter);
+        return new ArrayList<>(getMemoized(entry, entry.defaultLists, DEFAULT_MESSAGE_TYPES, additionParameter,
+                                           chain -> copyOf(chain.getDefaultMessageTypes(additionParameter))));
+    }
+
+    /**
+     * Returns a new list holding the default message categories of the chain.
+     */
+    @NonNull
+    List<String> getDefaultMessageCategories(@NonNull AdditionParameter additionParameter) {
+        Entry entry = getEntry(additionParameter);
+        return new ArrayList<>(getMemoized(entry, entry.defaultLists, DEFAULT_MESSAGE_CATEGORIES, additionParameter,
+                                           chain -> copyOf(chain.getDefaultMessageCategories(additionParameter))));
+    }
+
+    /**
+     * Drops all memoized templates, for example when the data source chain changed.
+     */
+    synchronized void invalidate() {
+        dataSource = null;
+        entries.clear();
+    }
+
+    private <T> T getMemoized(Entry entry,
+                              HashMap<String, T> memo,
+                              String key,
+                              AdditionParameter additionParameter,
+                              Function1<DataSource, T> chainCall) {
+        synchronized (this) {
+            if (memo.containsKey(key)) return memo.get(key);
+        }
+        T result = chainCall.apply(entry.dataSource);
+        synchronized (this) {
+            if (memo.containsKey(key)) return memo.get(key);
+            // the chain may have been replaced while it was asked
+            if (isCurrent(entry, additionParameter)) memo.put(key, result);
+        }
+        return result;
+    }
+
+    private TemplateSet getTemplateSet(AdditionParameter additionParameter) {
+        Entry entry = getEntry(additionParameter);
+        synchronized (this) {
+            if (entry.templates != null) return entry.templates;
+        }
+        List<CometChatMessageTemplate> templates = entry.dataSource.getMessageTemplates(additionParameter);
+        TemplateSet templateSet = new TemplateSet(templates != null ? templates : Collections.emptyList());
+        synchronized (this) {
+            if (entry.templates != null) return entry.templates;
+            if (isCurrent(entry, additionParameter)) entry.templates = templateSet;
+        }
+        return templateSet;
+    }
+
+    private synchronized Entry getEntry(AdditionParameter additionParameter) {
+        DataSource current = ChatConfigurator.getDataSource();
+        if (current != dataSource) {
+            entries.clear();
+            dataSource = current;
+        }
+        Entry entry = entries.get(additionParameter);
+        if (entry == null || entry.groupActionMessageVisibility != additionParameter.getGroupActionMessageVisibility()) {
+            entry = new Entry(current, additionParameter.getGroupActionMessageVisibility());
+            entries.put(additionParameter, entry);
+        }
+        return entry;
+    }
+
+    // called with the lock held
+    private boolean isCurrent(Entry entry, AdditionParameter additionParameter) {
+        return entry.dataSource == dataSource && entries.get(additionParameter) == entry;
+    }
+
+    @Nullable
+    private static CometChatMessageTemplate copyOf(@Nullable CometChatMessageTemplate template) {
+        return template == null ? null : template.clone();
+    }
+
+    private static List<String> copyOf(@Nullable List<String> list) {
+        return list == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(list));
+    }
+
+    private static final class Entry {
+        // the chain the results were computed from
+        private final DataSource dataSource;
+        private final int groupActionMessageVisibility;
+        private TemplateSet templates;
+        // what the chain returned per category and type, null results included
+        private final HashMap<String, CometChatMessageTemplate> chainTemplates = new HashMap<>();
+        // the template of each built-in type, by template id
+        private final HashMap<String, CometChatMessageTemplate> typeTemplates = new HashMap<>();
+        // the default message types and categories
+        private final HashMap<String, List<String>> defaultLists = new HashMap<>();
+
+        private Entry(DataSource dataSource, int groupActionMessageVisibility) {
+            this.dataSource = dataSource;
+            this.groupActionMessageVisibility = groupActionMessageVisibility;
+        }
+    }
+
+    /**
+     * The templates of the chain for one parameter, as a list and by category
+     * and type. It is not modified once built.
+     */
+    private static final class TemplateSet {
+        private final List<CometChatMessageTemplate> templates;
+        private final HashMap<String, HashMap<String, CometChatMessageTemplate>> templatesByKey = new HashMap<>();
+
+        private TemplateSet(List<CometChatMessageTemplate> templates) {
+            this.templates = Collections.unmodifiableList(new ArrayList<>(templates));
+            for (CometChatMessageTemplate template : this.templates) {
+                if (template == null) continue;
+                HashMap<String, CometChatMessageTemplate> byType = templatesByKey.get(template.getCategory());
+                if (byType == null) {
+                    byType = new HashMap<>();
+                    templatesByKey.put(template.getCategory(), byType);
+                }
+                byType.put(template.getType(), template);
+            }
+        }
+    }
+}
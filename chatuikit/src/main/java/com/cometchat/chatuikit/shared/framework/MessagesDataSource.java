@@ -48,7 +48,8 @@ public class MessagesDataSource implements DataSource {
     private static final String TAG = MessagesDataSource.class.getSimpleName();
 
 
-    private final HashMap<String, CometChatMessageTemplate> cometchatMessageTemplateHashMap = new HashMap<>();
+    // used for lookups that are not bound to a component
+    private final AdditionParameter defaultAdditionParameter = new AdditionParameter();
     private CometChatAudioBubble currentlyPlayingBubble = null;
     private int currentlyPlayingPosition = -1;
 
@@ -1103,27 +1104,28 @@ public class MessagesDataSource implements DataSource {
     }
 
     public HashMap<String, CometChatMessageTemplate> getDefaultMessageTemplatesHashMap(AdditionParameter additionParameter) {
+        HashMap<String, CometChatMessageTemplate> cometchatMessageTemplateHashMap = new HashMap<>();
         cometchatMessageTemplateHashMap.put(UIKitConstants.MessageTemplateId.TEXT,
-                                            ChatConfigurator.getDataSource().getTextTemplate(additionParameter));
+                                            ChatConfigurator.getCompiledDataSource().getTextTemplate(additionParameter));
         cometchatMessageTemplateHashMap.put(UIKitConstants.MessageTemplateId.IMAGE,
-                                            ChatConfigurator.getDataSource().getImageTemplate(additionParameter));
+                                            ChatConfigurator.getCompiledDataSource().getImageTemplate(additionParameter));
         cometchatMessageTemplateHashMap.put(UIKitConstants.MessageTemplateId.VIDEO,
-                                            ChatConfigurator.getDataSource().getVideoTemplate(additionParameter));
+                                            ChatConfigurator.getCompiledDataSource().getVideoTemplate(additionParameter));
         cometchatMessageTemplateHashMap.put(UIKitConstants.MessageTemplateId.AUDIO,
-                                            ChatConfigurator.getDataSource().getAudioTemplate(additionParameter));
+                                            ChatConfigurator.getCompiledDataSource().getAudioTemplate(additionParameter));
         cometchatMessageTemplateHashMap.put(UIKitConstants.MessageTemplateId.FILE,
-                                            ChatConfigurator.getDataSource().getFileTemplate(additionParameter));
+                                            ChatConfigurator.getCompiledDataSource().getFileTemplate(additionParameter));
         if (additionParameter.getGroupActionMessageVisibility() == View.VISIBLE)
             cometchatMessageTemplateHashMap.put(UIKitConstants.MessageTemplateId.GROUP_ACTION,
                                                 ChatConfigurator
-                                                    .getDataSource()
+                                                    .getCompiledDataSource()
                                                     .getGroupActionsTemplate(additionParameter));
         cometchatMessageTemplateHashMap.put(UIKitConstants.MessageTemplateId.FORM,
-                                            ChatConfigurator.getDataSource().getFormTemplate(additionParameter));
+                                            ChatConfigurator.getCompiledDataSource().getFormTemplate(additionParameter));
         cometchatMessageTemplateHashMap.put(UIKitConstants.MessageTemplateId.SCHEDULER,
-                                            ChatConfigurator.getDataSource().getSchedulerTemplate(additionParameter));
+                                            ChatConfigurator.getCompiledDataSource().getSchedulerTemplate(additionParameter));
         cometchatMessageTemplateHashMap.put(UIKitConstants.MessageTemplateId.CARD,
-                                            ChatConfigurator.getDataSource().getCardTemplate(additionParameter));
+                                            ChatConfigurator.getCompiledDataSource().getCardTemplate(additionParameter));
         return cometchatMessageTemplateHashMap;
     }
 
@@ -1133,8 +1135,7 @@ public class MessagesDataSource implements DataSource {
     }
 
     private CometChatMessageTemplate _getMessageTemplate(String category, String type, AdditionParameter additionParameter) {
-        getDefaultMessageTemplatesHashMap(null);
-        return cometchatMessageTemplateHashMap.get(category + "_" + type);
+        return ChatConfigurator.getMessageTemplate(category, type, additionParameter != null ? additionParameter : defaultAdditionParameter);
     }
 
     @Override
@@ -1315,12 +1316,12 @@ public class MessagesDataSource implements DataSource {
         } else {
             lastMessageText = context.getResources().getString(R.string.cometchat_start_conv_hint);
         }
-        return SpannableString.valueOf(FormatterUtils.getFormattedText(context,
-                                                                       conversation.getLastMessage(),
-                                                                       UIKitConstants.FormattingType.CONVERSATIONS,
-                                                                       null,
-                                                                       lastMessageText,
-                                                                       additionParameter != null && additionParameter.getTextFormatters() != null ? additionParameter.getTextFormatters() : new ArrayList<>()));
+        return SpannableString.valueOf(FormatterUtils.getCachedFormattedText(context,
+                                                                             conversation.getLastMessage(),
+                                                                             UIKitConstants.FormattingType.CONVERSATIONS,
+                                                                             null,
+                                                                             lastMessageText,
+                                                                             additionParameter != null && additionParameter.getTextFormatters() != null ? additionParameter.getTextFormatters() : new ArrayList<>()));
     }
 
     private static String getLastMessage(Context context, BaseMessage lastMessage) {
@@ -0,0 +1,173 @@
+package com.cometchat.chatuikit.shared.media;
+
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+
+/**
+ * The settings of the pipeline that downscales and recompresses images before
+ * they are uploaded. Set them through
+ * {@link com.cometchat.chatuikit.shared.cometchatuikit.UIKitSettings.UIKitSettingsBuilder#setImageCompressionSettings(ImageCompressionSettings)}.
+ */
+public class ImageCompressionSettings {
+    public static final int DEFAULT_MAX_EDGE = 2048;
+    public static final int DEFAULT_QUALITY = 80;
+
+    /**
+     * The format images are re-encoded to.
+     */
+    public enum Format {
+        JPEG, WEBP
+    }
+
+    private final boolean enabled;
+    private final int maxEdge;
+    private final Format format;
+    private final int quality;
+    private final long maxBytes;
+    private final boolean stripMetadata;
+    private final boolean keepLocation;
+
+    private ImageCompressionSettings(Builder builder) {
+        this.enabled = builder.enabled;
+        this.maxEdge = builder.maxEdge;
+        this.format = builder.format;
+        this.quality = builder.quality;
+        this.maxBytes = builder.maxBytes;
+        this.stripMetadata = builder.stripMetadata;
+        this.keepLocation = builder.keepLocation;
+    }
+
+    /**
+     * Returns the default settings, which are disabled: images are uploaded as
+     * they were picked. Enabled through {@link Builder#setEnabled(boolean)},
+     * images are downscaled to {@link #DEFAULT_MAX_EDGE} and re-encoded as JPEG
+     * at {@link #DEFAULT_QUALITY}, keeping their metadata but not their
+     * location.
+     */
+    @NonNull
+    public static ImageCompressionSettings getDefault() {
+        return new Builder().build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getMaxEdge() {
+        return maxEdge;
+    }
+
+    @NonNull
+    public Format getFormat() {
+        return format;
+    }
+
+    public int getQuality() {
+        return quality;
+    }
+
+    /**
+     * Returns the largest size of an encoded image in bytes, or 0 if there is no
+     * byte budget.
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public boolean isStripMetadata() {
+        return stripMetadata;
+    }
+
+    public boolean isKeepLocation() {
+        return keepLocation;
+    }
+
+    /**
+     * Builder class for constructing `ImageCompressionSettings` instances.
+     */
+    public static class Builder {
+        private boolean enabled;
+        private int maxEdge = DEFAULT_MAX_EDGE;
+        private Format format = Format.JPEG;
+        private int quality = DEFAULT_QUALITY;
+        private long maxBytes;
+        private boolean stripMetadata;
+        private boolean keepLocation;
+
+        public Builder() {
+        }
+
+        @NonNull
+        public ImageCompressionSettings build() {
+            return new ImageCompressionSettings(this);
+        }
+
+        /**
+         * Sets whether images are processed at all. Disabled by default, so
+         * images are uploaded as they were picked.
+         */
+        @NonNull
+        public Builder setEnabled(boolean enabled) {
+            this.enabled = enabled;
+            return this;
+        }
+
+        /**
+         * Sets the longest edge, in pixels, of an uploaded image.
+         */
+        @NonNull
+        public Builder setMaxEdge(int maxEdge) {
+            this.maxEdge = Math.max(1, maxEdge);
+            return this;
+        }
+
+        @NonNull
+        public Builder setFormat(@NonNull Format format) {
+            this.format = format;
+            return this;
+        }
+
+        /**
+         * Sets the quality images are encoded at. With a byte budget, it is the
+         * highest quality tried.
+         */
+        @NonNull
+        public Builder setQuality(@IntRange(from = 1, to = 100) int quality) {
+            this.quality = Math.max(1, Math.min(100, quality));
+            return this;
+        }
+
+        /**
+         * Sets the largest size of an encoded image in bytes. Images are encoded at
+         * a lower quality, and then at smaller dimensions, until they fit.
+         *
+         * @param maxBytes the byte budget, or 0 for none.
+         */
+        @NonNull
+        public Builder setMaxBytes(long maxBytes) {
+            this.maxBytes = Math.max(0, maxBytes);
+            return this;
+        }
+
+        /**
+         * Sets whether the EXIF metadata of the picked image, such as the camera
+         * and the time it was taken, is left out of the uploaded image.
+         */
+        @NonNull
+        public Builder setStripMetadata(boolean stripMetadata) {
+            this.stripMetadata = stripMetadata;
+            return this;
+        }
+
+        /**
+         * Sets whether the GPS location of the picked image is kept in the
+         * uploaded image. Off by default, so the location is removed even when
+         * the rest of the metadata is kept.
+         */
+        @NonNull
+        public Builder setKeepLocation(boolean keepLocation) {
+            this.keepLocation = keepLocation;
+            return this;
+        }
+    }
+}
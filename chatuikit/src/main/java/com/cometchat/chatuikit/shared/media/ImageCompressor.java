@@ -0,0 +1,371 @@
+package com.cometchat.chatuikit.shared.media;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.media.ExifInterface;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.cometchat.chatuikit.logger.CometChatLogger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ImageCompressor prepares picked images for upload. It decodes the image
+ * subsampled, applies its EXIF orientation, downscales it to the configured
+ * longest edge and re-encodes it within the quality or byte budget of the
+ * {@link ImageCompressionSettings}.
+ *
+ * <p>
+ * The work decodes and encodes bitmaps, so it must run off the main thread.
+ * Images that cannot be decoded, and animated GIFs, are returned unchanged.
+ * Images with transparency keep their PNG or WebP format, since JPEG would
+ * turn their transparent pixels black. The GPS location is removed unless
+ * {@link ImageCompressionSettings#isKeepLocation()} is set.
+ */
+public final class ImageCompressor {
+    private static final String TAG = ImageCompressor.class.getSimpleName();
+    private static final String OUTPUT_DIRECTORY = "cometchat_uploads";
+    private static final int MIN_QUALITY = 30;
+    private static final int MIN_EDGE = 64;
+    private static final int MAX_DOWNSCALE_STEPS = 6;
+    // compressed copies are kept until their upload has surely finished
+    private static final long STALE_OUTPUT_MILLIS = 24L * 60 * 60 * 1000;
+    private static final String[] PRESERVED_EXIF_TAGS = {
+        ExifInterface.TAG_DATETIME,
+        ExifInterface.TAG_DATETIME_DIGITIZED,
+        ExifInterface.TAG_MAKE,
+        ExifInterface.TAG_MODEL,
+        ExifInterface.TAG_EXPOSURE_TIME,
+        ExifInterface.TAG_F_NUMBER,
+        ExifInterface.TAG_ISO_SPEED_RATINGS,
+        ExifInterface.TAG_FOCAL_LENGTH,
+        ExifInterface.TAG_FLASH,
+        ExifInterface.TAG_WHITE_BALANCE
+    };
+    private static final String[] LOCATION_EXIF_TAGS = {
+        ExifInterface.TAG_GPS_LATITUDE,
+        ExifInterface.TAG_GPS_LATITUDE_REF,
+        ExifInterface.TAG_GPS_LONGITUDE,
+        ExifInterface.TAG_GPS_LONGITUDE_REF,
+        ExifInterface.TAG_GPS_ALTITUDE,
+        ExifInterface.TAG_GPS_ALTITUDE_REF,
+        ExifInterface.TAG_GPS_TIMESTAMP,
+        ExifInterface.TAG_GPS_DATESTAMP
+    };
+    private static final AtomicInteger nextOutput = new AtomicInteger();
+
+    private ImageCompressor() {
+    }
+
+    /**
+     * The outcome of {@link #compress(File, File, ImageCompressionSettings)}.
+     */
+    public static final class Result {
+        private final File file;
+        private final long originalBytes;
+        private final long finalBytes;
+        private final int width;
+        private final int height;
+
+        private Result(File file, long originalBytes, long finalBytes, int width, int height) {
+            this.file = file;
+            this.originalBytes = originalBytes;
+            this.finalBytes = finalBytes;
+            this.width = width;
+            this.height = height;
+        }
+
+        /**
+         * Returns the file to upload, which is the source file if it was left
+         * unchanged.
+         */
+        @NonNull
+        public File getFile() {
+            return file;
+        }
+
+        public long getOriginalBytes() {
+            return originalBytes;
+        }
+
+        public long getFinalBytes() {
+            return finalBytes;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+    }
+
+    /**
+     * Downscales and re-encodes the given image.
+     *
+     * @param source          the picked image.
+     * @param cacheDirectory  the directory the compressed copy is written under.
+     * @param settings        the compression settings.
+     * @return the result, whose file is the source if it was left unchanged.
+     */
+    @NonNull
+    @WorkerThread
+    public static Result compress(@NonNull File source, @NonNull File cacheDirectory, @NonNull ImageCompressionSettings settings) {
+        long originalBytes = source.length();
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(source.getAbsolutePath(), bounds);
+        if (!settings.isEnabled() || bounds.outWidth <= 0 || bounds.outHeight <= 0 || "image/gif".equals(bounds.outMimeType)) {
+            return unchanged(source, originalBytes, bounds);
+        }
+
+        ExifInterface exif = readExif(source);
+        int orientation = exif == null ? ExifInterface.ORIENTATION_NORMAL : exif.getAttributeInt(ExifInterface.TAG_ORIENTATION,
+                                                                                                  ExifInterface.ORIENTATION_NORMAL);
+        boolean hasLocation = exif != null && exif.getAttribute(ExifInterface.TAG_GPS_LATITUDE) != null;
+        // the pixels or the metadata have to change even if the image fits
+        boolean rewrite = orientation != ExifInterface.ORIENTATION_NORMAL || settings.isStripMetadata() || (hasLocation && !settings.isKeepLocation());
+        int longEdge = Math.max(bounds.outWidth, bounds.outHeight);
+        boolean fitsEdge = longEdge <= settings.getMaxEdge();
+        boolean fitsBudget = settings.getMaxBytes() == 0 || originalBytes <= settings.getMaxBytes();
+        if (fitsEdge && fitsBudget && !rewrite && isTargetFormat(bounds.outMimeType, settings)) {
+            return unchanged(source, originalBytes, bounds);
+        }
+
+        Bitmap bitmap = null;
+        try {
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inSampleSize = getSampleSize(longEdge, settings.getMaxEdge());
+            bitmap = BitmapFactory.decodeFile(source.getAbsolutePath(), options);
+            if (bitmap == null) return unchanged(source, originalBytes, bounds);
+            Bitmap.CompressFormat format = getOutputFormat(bitmap, bounds.outMimeType, settings);
+            bitmap = transform(bitmap, orientation, settings.getMaxEdge());
+
+            byte[] encoded = encode(bitmap, format, settings);
+            for (int step = 0; step < MAX_DOWNSCALE_STEPS && !fits(encoded, settings); step++) {
+                // the lowest quality is still too large, so shrink the pixels with the bytes
+                double scale = Math.sqrt((double) settings.getMaxBytes() / encoded.length) * 0.9;
+                int width = (int) (bitmap.getWidth() * scale);
+                int height = (int) (bitmap.getHeight() * scale);
+                if (Math.max(width, height) < MIN_EDGE) break;
+                Bitmap scaled = Bitmap.createScaledBitmap(bitmap, width, height, true);
+                if (scaled != bitmap) bitmap.recycle();
+                bitmap = scaled;
+                encoded = encode(bitmap, format, settings);
+            }
+
+            if (encoded.length >= originalBytes && fitsEdge && fitsBudget && !rewrite) {
+                return unchanged(source, originalBytes, bounds);
+            }
+            File output = write(source, cacheDirectory, encoded, format);
+            if (!settings.isStripMetadata() && format == Bitmap.CompressFormat.JPEG && exif != null) {
+                copyMetadata(exif, output, settings.isKeepLocation());
+                // the byte budget wins over the metadata
+                if (settings.getMaxBytes() > 0 && output.length() > settings.getMaxBytes()) writeBytes(output, encoded);
+            }
+            return new Result(output, originalBytes, output.length(), bitmap.getWidth(), bitmap.getHeight());
+        } catch (IOException | RuntimeException | OutOfMemoryError e) {
+            CometChatLogger.e(TAG, "Could not compress " + source + ": " + e);
+            return unchanged(source, originalBytes, bounds);
+        } finally {
+            if (bitmap != null) bitmap.recycle();
+        }
+    }
+
+    /**
+     * Returns the largest power of two that keeps the decoded long edge at or
+     * above the target, so the final resize only ever scales down.
+     */
+    static int getSampleSize(int longEdge, int maxEdge) {
+        int sampleSize = 1;
+        while (longEdge / (sampleSize * 2) >= maxEdge) sampleSize *= 2;
+        return sampleSize;
+    }
+
+    private static Result unchanged(File source, long originalBytes, BitmapFactory.Options bounds) {
+        return new Result(source, originalBytes, originalBytes, Math.max(0, bounds.outWidth), Math.max(0, bounds.outHeight));
+    }
+
+    private static boolean fits(byte[] encoded, ImageCompressionSettings settings) {
+        return settings.getMaxBytes() == 0 || encoded.length <= settings.getMaxBytes();
+    }
+
+    private static boolean isTargetFormat(@Nullable String mimeType, ImageCompressionSettings settings) {
+        if (settings.getFormat() == ImageCompressionSettings.Format.WEBP) return "image/webp".equals(mimeType);
+        return "image/jpeg".equals(mimeType);
+    }
+
+    /**
+     * Returns the format to encode the image in. Images with transparency keep
+     * a format that has an alpha channel.
+     */
+    @SuppressWarnings("deprecation")
+    private static Bitmap.CompressFormat getOutputFormat(Bitmap bitmap, @Nullable String mimeType, ImageCompressionSettings settings) {
+        if (settings.getFormat() == ImageCompressionSettings.Format.WEBP) return Bitmap.CompressFormat.WEBP;
+        if (!bitmap.hasAlpha()) return Bitmap.CompressFormat.JPEG;
+        return "image/webp".equals(mimeType) ? Bitmap.CompressFormat.WEBP : Bitmap.CompressFormat.PNG;
+    }
+
+    @Nullable
+    private static ExifInterface readExif(File source) {
+        try {
+            return new ExifInterface(source.getAbsolutePath());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static Bitmap transform(Bitmap bitmap, int orientation, int maxEdge) {
+        Matrix matrix = new Matrix();
+        switch (orientation) {
+            case ExifInterface.ORIENTATION_FLIP_HORIZONTAL:
+                matrix.setScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_180:
+                matrix.setRotate(180);
+                break;
+            case ExifInterface.ORIENTATION_FLIP_VERTICAL:
+                matrix.setScale(1, -1);
+                break;
+            case ExifInterface.ORIENTATION_TRANSPOSE:
+                matrix.setRotate(90);
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_90:
+                matrix.setRotate(90);
+                break;
+            case ExifInterface.ORIENTATION_TRANSVERSE:
+                matrix.setRotate(-90);
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_270:
+                matrix.setRotate(-90);
+                break;
+            default:
+                break;
+        }
+        int longEdge = Math.max(bitmap.getWidth(), bitmap.getHeight());
+        if (longEdge > maxEdge) {
+            float scale = (float) maxEdge / longEdge;
+            matrix.postScale(scale, scale);
+        }
+        if (matrix.isIdentity()) return bitmap;
+        Bitmap transformed = Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), matrix, true);
+        if (transformed != bitmap) bitmap.recycle();
+        return transformed;
+    }
+
+    /**
+     * Encodes at the configured quality, or at the highest quality within the
+     * byte budget found by a binary search down to {@link #MIN_QUALITY}.
+     */
+    private static byte[] encode(Bitmap bitmap, Bitmap.CompressFormat format, ImageCompressionSettings settings) {
+        byte[] encoded = encode(bitmap, format, settings.getQuality());
+        // PNG ignores the quality, so only smaller dimensions make it fit
+        if (fits(encoded, settings) || settings.getQuality() <= MIN_QUALITY || format == Bitmap.CompressFormat.PNG) return encoded;
+        byte[] best = encode(bitmap, format, MIN_QUALITY);
+        if (!fits(best, settings)) return best;
+        int low = MIN_QUALITY + 1;
+        int high = settings.getQuality() - 1;
+        while (low <= high) {
+            int quality = (low + high) >>> 1;
+            byte[] candidate = encode(bitmap, format, quality);
+            if (fits(candidate, settings)) {
+                best = candidate;
+                low = quality + 1;
+            } else {
+                high = quality - 1;
+            }
+        }
+        return best;
+    }
+
+    private static byte[] encode(Bitmap bitmap, Bitmap.CompressFormat format, int quality) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        bitmap.compress(format, quality, output);
+        return output.toByteArray();
+    }
+
+    /**
+     * Writes the compressed copy under a directory of its own, so it keeps the
+     * name of the picked image. Only the extension changes with the format.
+     */
+    private static File write(File source, File cacheDirectory, byte[] encoded, Bitmap.CompressFormat format) throws IOException {
+        File root = new File(cacheDirectory, OUTPUT_DIRECTORY);
+        if (!root.exists() && !root.mkdirs()) throw new IOException("Could not create " + root);
+        deleteStaleOutputs(root);
+        File directory = new File(root, System.currentTimeMillis() + "_" + nextOutput.incrementAndGet());
+        if (!directory.mkdirs()) throw new IOException("Could not create " + directory);
+        File output = new File(directory, getOutputName(source.getName(), format));
+        writeBytes(output, encoded);
+        return output;
+    }
+
+    static String getOutputName(String name, Bitmap.CompressFormat format) {
+        int dot = name.lastIndexOf('.');
+        String baseName = dot > 0 ? name.substring(0, dot) : name;
+        String extension = dot > 0 ? name.substring(dot + 1).toLowerCase(Locale.US) : "";
+        switch (format) {
+            case JPEG:
+                return extension.equals("jpg") || extension.equals("jpeg") ? name : baseName + ".jpg";
+            case PNG:
+                return extension.equals("png") ? name : baseName + ".png";
+            default:
+                return extension.equals("webp") ? name : baseName + ".webp";
+        }
+    }
+
+    private static void writeBytes(File file, byte[] bytes) throws IOException {
+        try (OutputStream stream = new FileOutputStream(file)) {
+            stream.write(bytes);
+        }
+    }
+
+    private static void deleteStaleOutputs(File directory) {
+        File[] files = directory.listFiles();
+        if (files == null) return;
+        long now = System.currentTimeMillis();
+        for (File file : files) {
+            if (now - file.lastModified() <= STALE_OUTPUT_MILLIS) continue;
+            File[] children = file.listFiles();
+            if (children != null) {
+                for (File child : children) child.delete();
+            }
+            file.delete();
+        }
+    }
+
+    private static void copyMetadata(ExifInterface sourceExif, File output, boolean keepLocation) {
+        try {
+            ExifInterface outputExif = new ExifInterface(output.getAbsolutePath());
+            boolean changed = copyTags(sourceExif, outputExif, PRESERVED_EXIF_TAGS);
+            if (keepLocation) changed |= copyTags(sourceExif, outputExif, LOCATION_EXIF_TAGS);
+            if (changed) outputExif.saveAttributes();
+        } catch (IOException e) {
+            CometChatLogger.e(TAG, "Could not copy metadata: " + e);
+        }
+    }
+
+    private static boolean copyTags(ExifInterface source, ExifInterface output, String[] tags) {
+        boolean changed = false;
+        for (String tag : tags) {
+            String value = source.getAttribute(tag);
+            if (value != null) {
+                output.setAttribute(tag, value);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+}
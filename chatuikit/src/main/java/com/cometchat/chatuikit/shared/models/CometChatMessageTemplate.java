@@ -286,6 +286,7 @@ public class CometChatMessageTemplate {
 
         messageTemplate.setBubbleView(getBubbleView());
         messageTemplate.setContentView(getContentView());
+        messageTemplate.setHeaderView(getHeaderView());
         messageTemplate.setStatusInfoView(getStatusInfoView());
         messageTemplate.setFooterView(getFooterView());
         messageTemplate.setBottomView(getBottomView());
@@ -1,36 +1,81 @@
 package com.cometchat.chatuikit.shared.resources.apicontroller;
 
-import android.os.Handler;
-import android.os.Looper;
+import android.content.Context;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.cometchat.chatuikit.logger.CometChatLogger;
+import com.cometchat.chatuikit.shared.executors.CometChatExecutors;
 
 import org.json.JSONObject;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 
+import okhttp3.Cache;
 import okhttp3.Call;
 import okhttp3.Callback;
 import okhttp3.FormBody;
+import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 
+/**
+ * ApiController performs the HTTP calls of interactive message actions.
+ *
+ * <p>
+ * Response bodies are read and parsed on the OkHttp worker threads and only
+ * the parsed result is delivered on the main thread. Idempotent calls are
+ * retried with exponential backoff, or after the delay of a Retry-After
+ * header, identical GET calls in flight share one
+ * request, and once {@link #getInstance(Context)} has been called, responses
+ * are kept in an on-disk cache that honors Cache-Control and ETag headers.
+ */
 public class ApiController {
     private static final String TAG = ApiController.class.getSimpleName();
+    private static final String CACHE_DIRECTORY = "cometchat_http";
+    private static final long CACHE_SIZE_BYTES = 10L * 1024 * 1024;
+    private static final long CONNECT_TIMEOUT_SECONDS = 15;
+    private static final long READ_TIMEOUT_SECONDS = 30;
+    private static final long WRITE_TIMEOUT_SECONDS = 30;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long INITIAL_BACKOFF_MILLIS = 500;
+    // a server asking to wait longer than this gets the error instead
+    private static final long MAX_RETRY_AFTER_MILLIS = 60_000;
+    private static final MediaType JSON_MEDIA_TYPE = MediaType.parse("application/json; charset=utf-8");
+    private static final ResponseParser<String> STRING_PARSER = body -> body;
+
+    /**
+     * The encoding of the payload of a call.
+     */
+    public enum BodyType {
+        FORM, JSON
+    }
 
     private static ApiController instance;
-    private final OkHttpClient client;
-    private final Handler handler;
+    private volatile OkHttpClient client;
+    // deliveries waiting on a GET in flight, by request key
+    private final HashMap<String, List<Delivery<?>>> inFlightGets;
 
     private ApiController() {
-        this.client = new OkHttpClient();
-        handler = new Handler(Looper.getMainLooper());
+        this.client = new OkHttpClient.Builder()
+            .connectTimeout(CONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+            .readTimeout(READ_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+            .writeTimeout(WRITE_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+            .build();
+        this.inFlightGets = new HashMap<>();
     }
 
     public static synchronized ApiController getInstance() {
@@ -40,60 +85,187 @@ public class ApiController {
         return instance;
     }
 
+    /**
+     * Returns the controller, enabling its response cache in the cache directory
+     * of the given context.
+     */
+    public static synchronized ApiController getInstance(@NonNull Context context) {
+        ApiController apiController = getInstance();
+        if (apiController.client.cache() == null) {
+            Cache cache = new Cache(new File(context.getApplicationContext().getCacheDir(), CACHE_DIRECTORY), CACHE_SIZE_BYTES);
+            apiController.client = apiController.client.newBuilder().cache(cache).build();
+        }
+        return apiController;
+    }
+
+    /**
+     * Calls the given URL, sending the payload as a form. Use the
+     * {@link BodyType} overload to send it as JSON.
+     */
     public void call(String method, String url, JSONObject payload, JSONObject headers, final APICallback callback) {
+        call(method, url, payload, headers, BodyType.FORM, callback);
+    }
+
+    public void call(String method, String url, JSONObject payload, JSONObject headers, BodyType bodyType, final APICallback callback) {
         if (callback == null) return;
+        call(method, url, payload, headers, bodyType, STRING_PARSER, new ResultCallback<String>() {
+            @Override
+            public void onSuccess(String result) {
+                callback.onSuccess(result);
+            }
 
+            @Override
+            public void onError(Exception e) {
+                callback.onError(e);
+            }
+        });
+    }
+
+    /**
+     * Calls the given URL and parses the response body with the given parser on
+     * the worker thread.
+     *
+     * @param parser   turns the response body into the result, off the main thread.
+     * @param callback receives the parsed result or the error on the main thread.
+     */
+    public <T> void call(String method,
+                         String url,
+                         @Nullable JSONObject payload,
+                         @Nullable JSONObject headers,
+                         @NonNull BodyType bodyType,
+                         @NonNull ResponseParser<T> parser,
+                         final ResultCallback<T> callback) {
+        if (callback == null) return;
+
+        // errors are delivered on the main thread like the results, never from within this call
         if (url == null || url.isEmpty()) {
-            callback.onError(new IllegalArgumentException("URL is null or empty"));
+            CometChatExecutors.postToMain(() -> callback.onError(new IllegalArgumentException("URL is null or empty")));
             return;
         }
 
         if (method == null || method.isEmpty()) {
-            callback.onError(new IllegalArgumentException("method is null or empty"));
+            CometChatExecutors.postToMain(() -> callback.onError(new IllegalArgumentException("method is null or empty")));
             return;
         }
 
-        Request.Builder requestBuilder = new Request.Builder().url(url).method(method.toUpperCase(Locale.US), method.equalsIgnoreCase("GET") ? null : createRequestBody(payload));
-
-        if (headers != null) {
-            Iterator<String> keys = headers.keys();
-            while (keys.hasNext()) {
-                String key = keys.next();
-                try {
-                    String value = headers.getString(key);
-                    requestBuilder.addHeader(key, value);
-                } catch (Exception e) {
-                    CometChatLogger.e(TAG, e.toString());
+        String httpMethod = method.toUpperCase(Locale.US);
+        boolean isGet = httpMethod.equals("GET") || httpMethod.equals("HEAD");
+        Request request;
+        try {
+            Request.Builder requestBuilder = new Request.Builder().url(url).method(httpMethod, isGet ? null : createRequestBody(payload, bodyType));
+            if (headers != null) {
+                Iterator<String> keys = headers.keys();
+                while (keys.hasNext()) {
+                    String key = keys.next();
+                    try {
+                        String value = headers.getString(key);
+                        requestBuilder.addHeader(key, value);
+                    } catch (Exception e) {
+                        CometChatLogger.e(TAG, e.toString());
+                    }
                 }
             }
+            request = requestBuilder.build();
+        } catch (IllegalArgumentException e) {
+            CometChatExecutors.postToMain(() -> callback.onError(e));
+            return;
         }
 
-        Request request = requestBuilder.build();
+        Delivery<T> delivery = new Delivery<>(parser, callback);
+        String requestKey = null;
+        if (isGet) {
+            requestKey = httpMethod + " " + url + " " + (headers != null ? headers.toString() : "");
+            synchronized (inFlightGets) {
+                List<Delivery<?>> deliveries = inFlightGets.get(requestKey);
+                if (deliveries != null) {
+                    deliveries.add(delivery);
+                    return;
+                }
+                deliveries = new ArrayList<>();
+                deliveries.add(delivery);
+                inFlightGets.put(requestKey, deliveries);
+            }
+        }
+        enqueue(request, isIdempotent(httpMethod), 1, requestKey, delivery);
+    }
 
+    private void enqueue(Request request, boolean idempotent, int attempt, @Nullable String requestKey, Delivery<?> delivery) {
         client.newCall(request).enqueue(new Callback() {
             @Override
             public void onFailure(@NonNull Call call, @NonNull IOException e) {
-                handler.post(() -> callback.onError(e));
+                if (!retry(request, idempotent, attempt, requestKey, delivery, -1)) complete(requestKey, delivery, null, e);
             }
 
             @Override
             public void onResponse(@NonNull Call call, @NonNull Response response) {
-                handler.post(() -> {
-                    if (response.isSuccessful() && response.body() != null) {
-                        try {
-                            callback.onSuccess(response.body().string());
-                        } catch (Exception e) {
-                            CometChatLogger.e(TAG, e.toString());
-                        }
-                    } else {
-                        callback.onError(new IOException("Unexpected code " + response));
+                try (ResponseBody body = response.body()) {
+                    if (response.isSuccessful() && body != null) {
+                        complete(requestKey, delivery, body.string(), null);
+                    } else if (!isRetryableStatus(response.code()) || !retry(request,
+                                                                               idempotent,
+                                                                               attempt,
+                                                                               requestKey,
+                                                                               delivery,
+                                                                               getRetryAfterMillis(response))) {
+                        complete(requestKey, delivery, null, new IOException("Unexpected code " + response));
                     }
-                });
+                } catch (IOException e) {
+                    if (!retry(request, idempotent, attempt, requestKey, delivery, -1)) complete(requestKey, delivery, null, e);
+                }
             }
         });
     }
 
-    private RequestBody createRequestBody(JSONObject payload) {
+    /**
+     * Schedules the next attempt of an idempotent call, after the exponential
+     * backoff or the server's Retry-After delay, whichever is longer.
+     *
+     * @param retryAfterMillis the Retry-After delay, or -1 if there is none.
+     * @return false if the call must not be retried.
+     */
+    private boolean retry(Request request, boolean idempotent, int attempt, @Nullable String requestKey, Delivery<?> delivery, long retryAfterMillis) {
+        if (!idempotent || attempt >= MAX_ATTEMPTS || retryAfterMillis > MAX_RETRY_AFTER_MILLIS) return false;
+        long delay = Math.max(INITIAL_BACKOFF_MILLIS << (attempt - 1), retryAfterMillis);
+        CometChatExecutors.schedule(() -> enqueue(request, true, attempt + 1, requestKey, delivery), delay);
+        return true;
+    }
+
+    /**
+     * Returns the delay of the Retry-After header, given in seconds or as an
+     * HTTP date, or -1 if the response has none.
+     */
+    static long getRetryAfterMillis(Response response) {
+        String retryAfter = response.header("Retry-After");
+        if (retryAfter == null) return -1;
+        try {
+            return Math.max(0, Long.parseLong(retryAfter.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            Date date = response.headers().getDate("Retry-After");
+            return date == null ? -1 : Math.max(0, date.getTime() - System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Parses the body for every waiting delivery on the calling worker thread
+     * and posts the results to the main thread.
+     */
+    private void complete(@Nullable String requestKey, Delivery<?> delivery, @Nullable String body, @Nullable Exception error) {
+        List<Delivery<?>> deliveries;
+        if (requestKey == null) {
+            deliveries = Collections.singletonList(delivery);
+        } else {
+            synchronized (inFlightGets) {
+                deliveries = inFlightGets.remove(requestKey);
+            }
+            if (deliveries == null) deliveries = Collections.singletonList(delivery);
+        }
+        for (Delivery<?> waiting : deliveries) waiting.deliver(body, error);
+    }
+
+    private RequestBody createRequestBody(JSONObject payload, BodyType bodyType) {
+        if (bodyType == BodyType.JSON) {
+            return RequestBody.create(payload != null ? payload.toString() : "{}", JSON_MEDIA_TYPE);
+        }
         FormBody.Builder formBodyBuilder = new FormBody.Builder();
         if (payload != null) {
             Iterator<String> keys = payload.keys();
@@ -110,9 +282,63 @@ public class ApiController {
         return formBodyBuilder.build();
     }
 
+    private static boolean isIdempotent(String method) {
+        switch (method) {
+            case "GET":
+            case "HEAD":
+            case "PUT":
+            case "DELETE":
+            case "OPTIONS":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isRetryableStatus(int code) {
+        return code == 408 || code == 429 || code >= 500;
+    }
+
+    private static final class Delivery<T> {
+        private final ResponseParser<T> parser;
+        private final ResultCallback<T> callback;
+
+        private Delivery(ResponseParser<T> parser, ResultCallback<T> callback) {
+            this.parser = parser;
+            this.callback = callback;
+        }
+
+        private void deliver(@Nullable String body, @Nullable Exception error) {
+            if (error != null) {
+                CometChatExecutors.postToMain(() -> callback.onError(error));
+                return;
+            }
+            try {
+                T result = parser.parse(body);
+                CometChatExecutors.postToMain(() -> callback.onSuccess(result));
+            } catch (Exception e) {
+                CometChatLogger.e(TAG, e.toString());
+                CometChatExecutors.postToMain(() -> callback.onError(e));
+            }
+        }
+    }
+
     public interface APICallback {
         void onSuccess(String response);
 
         void onError(Exception e);
     }
+
+    /**
+     * Turns a response body into a result. It runs on an OkHttp worker thread.
+     */
+    public interface ResponseParser<T> {
+        T parse(String body) throws Exception;
+    }
+
+    public interface ResultCallback<T> {
+        void onSuccess(T result);
+
+        void onError(Exception e);
+    }
 }
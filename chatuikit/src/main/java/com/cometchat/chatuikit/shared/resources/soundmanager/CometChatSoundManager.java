@@ -2,14 +2,9 @@ package com.cometchat.chatuikit.shared.resources.soundmanager;
 
 import android.content.Context;
 import android.media.AudioManager;
-import android.media.MediaPlayer;
-import android.media.SoundPool;
 import android.net.Uri;
 import android.os.Build;
-import android.os.VibrationEffect;
-import android.os.Vibrator;
 
-import com.cometchat.chatuikit.R;
 import com.cometchat.chatuikit.shared.resources.utils.Utils;
 
 /**
@@ -28,25 +23,35 @@ public class CometChatSoundManager {
     private final IncomingAudioManager incomingAudioHelper;
 
     private final OutgoingAudioManager outgoingAudioHelper;
-    private final Vibrator vibrator;
-
-    private final SoundPool soundPool;
-    private static final long[] VIBRATE_PATTERN = {0, 1000, 1000};
-
-    private final int disconnectedSoundId;
+    private final SoundEngine soundEngine;
 
     /**
      * Constructs a new CometChatSoundManager instance.
      *
+     * <p>
+     * All the instances share one sound engine, so creating a sound manager does
+     * not load any sound.
+     *
      * @param context The context of the application.
      */
     public CometChatSoundManager(Context context) {
         this.context = context;
-        this.incomingAudioHelper = new IncomingAudioManager(context);
-        this.outgoingAudioHelper = new OutgoingAudioManager(context);
-        this.soundPool = new SoundPool(1, AudioManager.STREAM_VOICE_CALL, 0);
-        this.disconnectedSoundId = this.soundPool.load(context, R.raw.cometchat_beep2, 1);
-        this.vibrator = (Vibrator) context.getSystemService(Context.VIBRATOR_SERVICE);
+        this.soundEngine = SoundEngine.getInstance(context);
+        this.incomingAudioHelper = soundEngine.getIncomingAudioManager();
+        this.outgoingAudioHelper = soundEngine.getOutgoingAudioManager();
+    }
+
+    /**
+     * Sets the shortest interval between two plays of the same message sound.
+     * Message sounds requested within the interval are dropped, so a burst of
+     * messages plays a single sound. The default is
+     * {@link SoundRateLimiter#DEFAULT_WINDOW_MILLIS}.
+     *
+     * @param context        The context of the application.
+     * @param intervalMillis The interval in milliseconds, 0 to play every sound.
+     */
+    public static void setMessageSoundInterval(Context context, long intervalMillis) {
+        SoundEngine.getInstance(context).getRateLimiter().setWindowMillis(intervalMillis);
     }
 
     private void initAudio() {
@@ -71,11 +76,11 @@ public class CometChatSoundManager {
         } else if (sound.equals(Sound.outgoingCall)) {
             startOutgoingAudio(OutgoingAudioManager.Type.IN_COMMUNICATION, Sound.outgoingCall.getRawFile());
         } else if (sound.equals(Sound.incomingMessage)) {
-            playMessageSound(context, Sound.incomingMessage.getRawFile());
+            soundEngine.playMessageSound(Sound.incomingMessage.getRawFile());
         } else if (sound.equals(Sound.outgoingMessage)) {
-            playMessageSound(context, Sound.outgoingMessage.getRawFile());
+            soundEngine.playMessageSound(Sound.outgoingMessage.getRawFile());
         } else if (sound.equals(Sound.incomingMessageFromOther)) {
-            playMessageSound(context, Sound.incomingMessageFromOther.getRawFile());
+            soundEngine.playMessageSound(Sound.incomingMessageFromOther.getRawFile());
         }
     }
 
@@ -96,7 +101,7 @@ public class CometChatSoundManager {
         } else if (sound.equals(Sound.outgoingCall)) {
             startOutgoingAudio(OutgoingAudioManager.Type.IN_COMMUNICATION, rawFile);
         } else if (sound.equals(Sound.incomingMessage) || sound.equals(Sound.outgoingMessage) || sound.equals(Sound.incomingMessageFromOther)) {
-            playMessageSound(context, rawFile);
+            soundEngine.playMessageSound(rawFile);
         }
     }
 
@@ -143,7 +148,7 @@ public class CometChatSoundManager {
      */
     public void pause() {
         pauseSilently();
-        soundPool.play(disconnectedSoundId, 1.0f, 1.0f, 0, 0, 1.0f);
+        soundEngine.playDisconnected();
     }
 
     public void pauseSilently() {
@@ -159,27 +164,4 @@ public class CometChatSoundManager {
             audioManager.stopBluetoothSco();
         }
     }
-
-    private void playMessageSound(Context context, int ringId) {
-        AudioManager audioManager = (AudioManager) context.getSystemService(Context.AUDIO_SERVICE);
-        if ((audioManager.isMusicActive() && audioManager.getRingerMode() != AudioManager.RINGER_MODE_SILENT) || audioManager.getRingerMode() == AudioManager.RINGER_MODE_VIBRATE) {
-            if (Build.VERSION.SDK_INT >= 26) {
-                vibrator.vibrate(VibrationEffect.createOneShot(200, VibrationEffect.DEFAULT_AMPLITUDE));
-            } else {
-                vibrator.vibrate(200);
-            }
-        } else {
-            if (audioManager.getRingerMode() != AudioManager.RINGER_MODE_SILENT && audioManager.getRingerMode() != AudioManager.RINGER_MODE_VIBRATE) {
-                MediaPlayer mMediaPlayer = MediaPlayer.create(context, ringId);
-                mMediaPlayer.setAudioStreamType(AudioManager.STREAM_MUSIC);
-                mMediaPlayer.start();
-                mMediaPlayer.setOnCompletionListener(mediaPlayer -> {
-                    if (mediaPlayer != null) {
-                        mediaPlayer.stop();
-                        mediaPlayer.release();
-                    }
-                });
-            }
-        }
-    }
 }
@@ -0,0 +1,171 @@
+package com.cometchat.chatuikit.shared.resources.soundmanager;
+
+import android.content.Context;
+import android.media.AudioAttributes;
+import android.media.AudioManager;
+import android.media.SoundPool;
+import android.os.Build;
+import android.os.VibrationEffect;
+import android.os.Vibrator;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RawRes;
+
+import com.cometchat.chatuikit.R;
+import com.cometchat.chatuikit.shared.resources.utils.Utils;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+/**
+ * SoundEngine is the process-wide audio backend of {@link CometChatSoundManager}.
+ *
+ * <p>
+ * Message sounds are short, so they are loaded once into a {@link SoundPool}
+ * and played from memory. The default sounds are preloaded and custom raw files
+ * are loaded on their first play. Each sound reuses a single stream and plays
+ * at most once per {@link SoundRateLimiter} window. The looping call ringtones
+ * stay on one long-lived player each, shared by all the sound managers.
+ */
+class SoundEngine {
+    private static final int MAX_MESSAGE_STREAMS = 3;
+    private static final long VIBRATION_MILLIS = 200;
+    private static volatile SoundEngine instance;
+
+    private final Context context;
+    private final SoundPool messagePool;
+    private final SoundPool callPool;
+    private final int disconnectedSoundId;
+    private final Vibrator vibrator;
+    private final IncomingAudioManager incomingAudioManager;
+    private final OutgoingAudioManager outgoingAudioManager;
+    private final SoundRateLimiter rateLimiter;
+    // raw resource id -> SoundPool sample id
+    private final HashMap<Integer, Integer> sampleIds;
+    private final HashSet<Integer> loadedSamples;
+    private final HashSet<Integer> pendingSamples;
+    // raw resource id -> last stream id, stopped before the sound plays again
+    private final HashMap<Integer, Integer> streamIds;
+
+    private SoundEngine(Context context) {
+        this.context = context;
+        this.vibrator = (Vibrator) context.getSystemService(Context.VIBRATOR_SERVICE);
+        this.incomingAudioManager = new IncomingAudioManager(context);
+        this.outgoingAudioManager = new OutgoingAudioManager(context);
+        this.rateLimiter = new SoundRateLimiter();
+        this.sampleIds = new HashMap<>();
+        this.loadedSamples = new HashSet<>();
+        this.pendingSamples = new HashSet<>();
+        this.streamIds = new HashMap<>();
+        this.messagePool = new SoundPool.Builder()
+            .setMaxStreams(MAX_MESSAGE_STREAMS)
+            .setAudioAttributes(new AudioAttributes.Builder()
+                                    .setUsage(AudioAttributes.USAGE_MEDIA)
+                                    .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+                                    .build())
+            .build();
+        this.messagePool.setOnLoadCompleteListener(this::onLoadComplete);
+        this.callPool = new SoundPool.Builder()
+            .setMaxStreams(1)
+            .setAudioAttributes(new AudioAttributes.Builder()
+                                    .setUsage(AudioAttributes.USAGE_VOICE_COMMUNICATION)
+                                    .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+                                    .build())
+            .build();
+        this.disconnectedSoundId = callPool.load(context, R.raw.cometchat_beep2, 1);
+        load(Sound.incomingMessage.getRawFile());
+        load(Sound.outgoingMessage.getRawFile());
+        load(Sound.incomingMessageFromOther.getRawFile());
+    }
+
+    static SoundEngine getInstance(@NonNull Context context) {
+        if (instance == null) {
+            synchronized (SoundEngine.class) {
+                if (instance == null) instance = new SoundEngine(context.getApplicationContext());
+            }
+        }
+        return instance;
+    }
+
+    IncomingAudioManager getIncomingAudioManager() {
+        return incomingAudioManager;
+    }
+
+    OutgoingAudioManager getOutgoingAudioManager() {
+        return outgoingAudioManager;
+    }
+
+    SoundRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Plays a message sound, or vibrates when the ringer is in vibrate mode or
+     * music is playing. Calls within the rate limit window of the same sound are
+     * dropped.
+     */
+    void playMessageSound(@RawRes int rawId) {
+        AudioManager audioManager = Utils.getAudioManager(context);
+        int ringerMode = audioManager.getRingerMode();
+        if (ringerMode == AudioManager.RINGER_MODE_SILENT) return;
+        if (!rateLimiter.tryAcquire(rawId)) return;
+        if (audioManager.isMusicActive() || ringerMode == AudioManager.RINGER_MODE_VIBRATE) {
+            vibrate();
+        } else {
+            play(rawId);
+        }
+    }
+
+    void playDisconnected() {
+        callPool.play(disconnectedSoundId, 1.0f, 1.0f, 0, 0, 1.0f);
+    }
+
+    private void vibrate() {
+        if (vibrator == null) return;
+        if (Build.VERSION.SDK_INT >= 26) {
+            vibrator.vibrate(VibrationEffect.createOneShot(VIBRATION_MILLIS, VibrationEffect.DEFAULT_AMPLITUDE));
+        } else {
+            vibrator.vibrate(VIBRATION_MILLIS);
+        }
+    }
+
+    private synchronized void play(int rawId) {
+        int sampleId = load(rawId);
+        if (sampleId == 0) return;
+        if (!loadedSamples.contains(sampleId)) {
+            // played from onLoadComplete once the sample is decoded
+            pendingSamples.add(sampleId);
+            return;
+        }
+        playSample(rawId, sampleId);
+    }
+
+    private void playSample(int rawId, int sampleId) {
+        Integer streamId = streamIds.get(rawId);
+        if (streamId != null) messagePool.stop(streamId);
+        streamIds.put(rawId, messagePool.play(sampleId, 1.0f, 1.0f, 1, 0, 1.0f));
+    }
+
+    private synchronized int load(int rawId) {
+        Integer sampleId = sampleIds.get(rawId);
+        if (sampleId == null) {
+            sampleId = messagePool.load(context, rawId, 1);
+            sampleIds.put(rawId, sampleId);
+        }
+        return sampleId;
+    }
+
+    private synchronized void onLoadComplete(SoundPool soundPool, int sampleId, int status) {
+        boolean pending = pendingSamples.remove(sampleId);
+        if (status != 0) return;
+        loadedSamples.add(sampleId);
+        if (!pending) return;
+        for (Map.Entry<Integer, Integer> entry : sampleIds.entrySet()) {
+            if (entry.getValue() == sampleId) {
+                playSample(entry.getKey(), sampleId);
+                return;
+            }
+        }
+    }
+}
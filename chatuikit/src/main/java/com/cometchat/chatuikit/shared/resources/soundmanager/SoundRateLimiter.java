@@ -0,0 +1,60 @@
+package com.cometchat.chatuikit.shared.resources.soundmanager;
+
+import android.os.SystemClock;
+
+import java.util.HashMap;
+
+/**
+ * SoundRateLimiter coalesces bursts of the same sound, allowing at most one play
+ * of a sound per window. A busy group chat then plays one message sound per
+ * window instead of one per message.
+ */
+public class SoundRateLimiter {
+    public static final long DEFAULT_WINDOW_MILLIS = 1000;
+
+    /**
+     * The time source of the limiter, in milliseconds.
+     */
+    public interface Clock {
+        long now();
+    }
+
+    private final Clock clock;
+    private final HashMap<Integer, Long> lastPlayedAt;
+    private long windowMillis;
+
+    public SoundRateLimiter() {
+        this(SystemClock::elapsedRealtime, DEFAULT_WINDOW_MILLIS);
+    }
+
+    public SoundRateLimiter(Clock clock, long windowMillis) {
+        this.clock = clock;
+        this.lastPlayedAt = new HashMap<>();
+        this.windowMillis = Math.max(0, windowMillis);
+    }
+
+    /**
+     * Returns true if the given sound may play now, and records the play.
+     *
+     * @param soundKey the key of the sound, usually its raw resource id.
+     */
+    public synchronized boolean tryAcquire(int soundKey) {
+        long now = clock.now();
+        Long last = lastPlayedAt.get(soundKey);
+        if (last != null && now - last < windowMillis) return false;
+        lastPlayedAt.put(soundKey, now);
+        return true;
+    }
+
+    public synchronized void setWindowMillis(long windowMillis) {
+        this.windowMillis = Math.max(0, windowMillis);
+    }
+
+    public synchronized long getWindowMillis() {
+        return windowMillis;
+    }
+
+    public synchronized void reset() {
+        lastPlayedAt.clear();
+    }
+}
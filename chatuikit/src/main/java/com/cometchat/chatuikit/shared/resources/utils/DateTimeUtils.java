@@ -0,0 +1,257 @@
+package com.cometchat.chatuikit.shared.resources.utils;
+
+import androidx.annotation.NonNull;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DateTimeUtils formats the timestamps shown by the UI Kit and does the day
+ * arithmetic its date labels need, without allocating a {@code Calendar} or a
+ * {@code SimpleDateFormat} per call.
+ *
+ * <p>
+ * It is safe to call from any thread: every thread formats with its own
+ * formatters, one per pattern and locale. Formatted strings are memoized by
+ * minute, pattern and locale, so a screen of timestamps is formatted once per
+ * distinct minute. Patterns with seconds or milliseconds are not memoized.
+ *
+ * <p>
+ * The default time zone is cached, and compared by id with the current default
+ * on every use, so a change of the device time zone drops the formatters and
+ * the memoized strings even if {@link #invalidate()} is never called.
+ */
+public final class DateTimeUtils {
+    private static final long MILLIS_PER_MINUTE = TimeUnit.MINUTES.toMillis(1);
+    private static final long MILLIS_PER_DAY = TimeUnit.DAYS.toMillis(1);
+    private static final int MAX_MEMOIZED = 256;
+    private static final LinkedHashMap<MemoKey, String> memo = new LinkedHashMap<MemoKey, String>(MAX_MEMOIZED, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<MemoKey, String> eldest) {
+            return size() > MAX_MEMOIZED;
+        }
+    };
+    private static final ThreadLocal<Formatters> formatters = new ThreadLocal<Formatters>() {
+        @Override
+        protected Formatters initialValue() {
+            return new Formatters();
+        }
+    };
+    private static volatile TimeZone timeZone;
+    private static volatile int generation;
+
+    private DateTimeUtils() {
+    }
+
+    /**
+     * Formats the given time with the given pattern in the default locale.
+     *
+     * @param timeInMillis the time in milliseconds.
+     * @param pattern      a {@link SimpleDateFormat} pattern.
+     */
+    @NonNull
+    public static String format(long timeInMillis, @NonNull String pattern) {
+        return format(timeInMillis, pattern, Locale.getDefault());
+    }
+
+    /**
+     * Formats the given time with the given pattern and locale.
+     *
+     * @param timeInMillis the time in milliseconds.
+     * @param pattern      a {@link SimpleDateFormat} pattern.
+     * @param locale       the locale of the month and day names.
+     */
+    @NonNull
+    public static String format(long timeInMillis, @NonNull String pattern, @NonNull Locale locale) {
+        getTimeZone();
+        if (!isMinutePrecision(pattern)) {
+            return getFormatter(pattern, locale).format(new Date(timeInMillis));
+        }
+        MemoKey key = new MemoKey(Math.floorDiv(timeInMillis, MILLIS_PER_MINUTE), pattern, locale);
+        synchronized (memo) {
+            String formatted = memo.get(key);
+            if (formatted != null) return formatted;
+        }
+        int formattedGeneration = generation;
+        String formatted = getFormatter(pattern, locale).format(new Date(timeInMillis));
+        synchronized (memo) {
+            // a string formatted before an invalidation may use the old time zone
+            if (formattedGeneration == generation) memo.put(key, formatted);
+        }
+        return formatted;
+    }
+
+    /**
+     * Returns the local calendar day of the given time as a number of days since
+     * the epoch.
+     *
+     * @param timeInMillis the time in milliseconds.
+     * @return the local epoch day.
+     */
+    public static long getEpochDay(long timeInMillis) {
+        return Math.floorDiv(timeInMillis + getTimeZone().getOffset(timeInMillis), MILLIS_PER_DAY);
+    }
+
+    /**
+     * Returns how many local calendar days ago the given time was: 0 for today,
+     * 1 for yesterday, and a negative number for a day in the future.
+     *
+     * @param timeInMillis the time in milliseconds.
+     */
+    public static long getDaysAgo(long timeInMillis) {
+        return getEpochDay(System.currentTimeMillis()) - getEpochDay(timeInMillis);
+    }
+
+    /**
+     * Returns the local year of the given time.
+     *
+     * @param timeInMillis the time in milliseconds.
+     */
+    public static int getYear(long timeInMillis) {
+        return (int) (getCivilDate(getEpochDay(timeInMillis)) / 10000);
+    }
+
+    /**
+     * Returns the local date of the given time as {@code ddMMyyyy}, with ASCII
+     * digits whatever the locale, for use as an identifier.
+     *
+     * @param timeInMillis the time in milliseconds.
+     */
+    @NonNull
+    public static String getDateId(long timeInMillis) {
+        long civilDate = getCivilDate(getEpochDay(timeInMillis));
+        long year = civilDate / 10000;
+        int month = (int) (civilDate / 100 % 100);
+        int day = (int) (civilDate % 100);
+        StringBuilder dateId = new StringBuilder(8);
+        if (day < 10) dateId.append('0');
+        dateId.append(day);
+        if (month < 10) dateId.append('0');
+        dateId.append(month);
+        if (year >= 0 && year < 1000) dateId.append(year < 10 ? "000" : year < 100 ? "00" : "0");
+        return dateId.append(year).toString();
+    }
+
+    /**
+     * Drops the cached time zone, the formatters and the memoized strings, so
+     * they are created again with the current default time zone.
+     */
+    public static void invalidate() {
+        synchronized (memo) {
+            timeZone = null;
+            generation++;
+            memo.clear();
+        }
+    }
+
+    /**
+     * Returns the default time zone, first invalidating the cache if the
+     * default has changed since it was cached.
+     */
+    @NonNull
+    static TimeZone getTimeZone() {
+        TimeZone zone = timeZone;
+        TimeZone current = TimeZone.getDefault();
+        if (zone != null && zone.getID().equals(current.getID())) return zone;
+        synchronized (memo) {
+            zone = timeZone;
+            if (zone != null && zone.getID().equals(current.getID())) return zone;
+            if (zone != null) {
+                generation++;
+                memo.clear();
+            }
+            timeZone = current;
+        }
+        return current;
+    }
+
+    private static SimpleDateFormat getFormatter(String pattern, Locale locale) {
+        Formatters threadFormatters = formatters.get();
+        int currentGeneration = generation;
+        if (threadFormatters.generation != currentGeneration) {
+            threadFormatters.byLocale.clear();
+            threadFormatters.generation = currentGeneration;
+        }
+        HashMap<String, SimpleDateFormat> byPattern = threadFormatters.byLocale.get(locale);
+        if (byPattern == null) {
+            byPattern = new HashMap<>();
+            threadFormatters.byLocale.put(locale, byPattern);
+        }
+        SimpleDateFormat formatter = byPattern.get(pattern);
+        if (formatter == null) {
+            formatter = new SimpleDateFormat(pattern, locale);
+            formatter.setTimeZone(getTimeZone());
+            byPattern.put(pattern, formatter);
+        }
+        return formatter;
+    }
+
+    /**
+     * Returns whether the pattern prints nothing finer than minutes, that is,
+     * has no unquoted second or millisecond field.
+     */
+    private static boolean isMinutePrecision(String pattern) {
+        boolean quoted = false;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '\'') quoted = !quoted;
+            else if (!quoted && (c == 's' || c == 'S')) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Converts an epoch day to a proleptic Gregorian date encoded as
+     * {@code yyyyMMdd}.
+     */
+    private static long getCivilDate(long epochDay) {
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        long month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year * 10000 + month * 100 + day;
+    }
+
+    private static final class Formatters {
+        private final HashMap<Locale, HashMap<String, SimpleDateFormat>> byLocale = new HashMap<>();
+        private int generation;
+    }
+
+    private static final class MemoKey {
+        private final long minute;
+        private final String pattern;
+        private final Locale locale;
+
+        private MemoKey(long minute, String pattern, Locale locale) {
+            this.minute = minute;
+            this.pattern = pattern;
+            this.locale = locale;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MemoKey)) return false;
+            MemoKey other = (MemoKey) o;
+            return minute == other.minute && pattern.equals(other.pattern) && locale.equals(other.locale);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Long.hashCode(minute);
+            result = 31 * result + pattern.hashCode();
+            return 31 * result + locale.hashCode();
+        }
+    }
+}
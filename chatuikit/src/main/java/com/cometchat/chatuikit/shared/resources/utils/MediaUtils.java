@@ -41,6 +41,8 @@ import com.cometchat.chatuikit.BuildConfig;
 import com.cometchat.chatuikit.R;
 import com.cometchat.chatuikit.logger.CometChatLogger;
 import com.cometchat.chatuikit.shared.constants.UIKitConstants;
+import com.cometchat.chatuikit.shared.downloads.CometChatDownloadManager;
+import com.cometchat.chatuikit.shared.downloads.DownloadListener;
 
 import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
@@ -49,8 +51,6 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
@@ -613,83 +613,57 @@ public class MediaUtils {
         vibrator.vibrate(100);
     }
 
+    /**
+     * Downloads a message attachment through {@link CometChatDownloadManager} and
+     * then opens or shares it. A progress dialog is shown while the file is
+     * transferred; files that were already downloaded are opened right away.
+     */
     public static void downloadFileInNewThread(Context context, String fileUrl, String fileName, String mimeType, String action) {
-        File file = new File(Environment.getExternalStoragePublicDirectory(Environment.DIRECTORY_DOWNLOADS), fileName);
-        if (!file.exists()) {
-            mProgressDialog = new ProgressDialog(context);
-            mProgressDialog.setMessage(context.getString(R.string.cometchat_downloading) + "...");
-            mProgressDialog.setProgressStyle(ProgressDialog.STYLE_HORIZONTAL);
-            mProgressDialog.setCancelable(false);
-            mProgressDialog.show();
-        }
-        Thread downloadThread = new Thread(() -> {
-            try {
-                if (!file.exists()) {
-                    URL url = new URL(fileUrl);
-                    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-                    connection.connect();
-
-                    if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
-                        handleDownloadFailure(context);
-                        return;
-                    }
-
-                    int fileLength = connection.getContentLength();
-                    InputStream input = connection.getInputStream();
-
-                    FileOutputStream output = new FileOutputStream(file);
-
-                    byte[] buffer = new byte[4096];
-                    int bytesRead;
-                    int totalBytesRead = 0;
-
-                    while ((bytesRead = input.read(buffer)) != -1) {
-                        output.write(buffer, 0, bytesRead);
-                        totalBytesRead += bytesRead;
-                        int progress = (totalBytesRead * 100) / fileLength;
-                        updateProgress(context, progress);
-                    }
+        CometChatDownloadManager.getInstance(context).download(fileUrl, fileName, new DownloadListener() {
+            @Override
+            public void onProgress(int progress) {
+                if (mProgressDialog == null) {
+                    mProgressDialog = new ProgressDialog(context);
+                    mProgressDialog.setMessage(context.getString(R.string.cometchat_downloading) + "...");
+                    mProgressDialog.setProgressStyle(ProgressDialog.STYLE_HORIZONTAL);
+                    mProgressDialog.setCancelable(false);
+                    mProgressDialog.show();
+                }
+                if (progress >= 0) mProgressDialog.setProgress(progress);
+            }
 
-                    output.flush();
-                    output.close();
-                    input.close();
+            @Override
+            public void onSuccess(@NonNull File file) {
+                handleDownloadSuccess(context, fileUrl, mimeType, action, file);
+            }
 
-                    handleDownloadSuccess(context, fileUrl, mimeType, action, file);
-                } else {
-                    handleDownloadSuccess(context, fileUrl, mimeType, action, file);
-                }
-            } catch (Exception e) {
-                Log.e("DownloadThread", "Error downloading file: " + e.getMessage());
+            @Override
+            public void onError(@NonNull Exception e) {
+                CometChatLogger.e(TAG, "Error downloading file: " + e.getMessage());
                 handleDownloadFailure(context);
             }
         });
-        downloadThread.start();
     }
 
-    private static void updateProgress(Context context, final int progress) {
-        ((Activity) context).runOnUiThread(() -> {
-            if (mProgressDialog != null) mProgressDialog.setProgress(progress);
-        });
+    private static void dismissProgressDialog() {
+        if (mProgressDialog != null) {
+            mProgressDialog.dismiss();
+            mProgressDialog = null;
+        }
     }
 
     private static void handleDownloadSuccess(@NonNull Context context, String url, String mimeType, String Action, final File file) {
-        ((Activity) context).runOnUiThread(() -> {
-            if (mProgressDialog != null) mProgressDialog.dismiss();
-            if (UIKitConstants.files.OPEN.equals(Action)) {
-                openFile(url, context);
-            } else {
-                shareFile(mimeType, context, file);
-            }
-        });
+        dismissProgressDialog();
+        if (UIKitConstants.files.OPEN.equals(Action)) {
+            openFile(url, context);
+        } else {
+            shareFile(mimeType, context, file);
+        }
     }
 
     private static void handleDownloadFailure(Context context) {
-        ((Activity) context).runOnUiThread(() -> {
-            if (mProgressDialog != null) mProgressDialog.dismiss();
-            // File download failed
-            // Handle the failure scenario
-            Toast.makeText(context, R.string.cometchat_file_download_failed, Toast.LENGTH_SHORT).show();
-        });
+        dismissProgressDialog();
+        Toast.makeText(context, R.string.cometchat_file_download_failed, Toast.LENGTH_SHORT).show();
     }
 
     private static void shareFile(String mimeType, Context context, File file) {
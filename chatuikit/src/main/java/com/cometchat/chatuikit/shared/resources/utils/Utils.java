@@ -39,7 +39,6 @@ import android.renderscript.Allocation;
 import android.renderscript.Element;
 import android.renderscript.RenderScript;
 import android.renderscript.ScriptIntrinsicBlur;
-import android.text.format.DateFormat;
 import android.util.DisplayMetrics;
 import android.util.Log;
 import android.view.Display;
@@ -76,6 +75,7 @@ import com.cometchat.chatuikit.R;
 import com.cometchat.chatuikit.logger.CometChatLogger;
 import com.cometchat.chatuikit.shared.cometchatuikit.CometChatUIKit;
 import com.cometchat.chatuikit.shared.constants.UIKitConstants;
+import com.cometchat.chatuikit.shared.executors.CometChatExecutors;
 import com.cometchat.chatuikit.shared.models.CometChatMessageTemplate;
 import com.cometchat.chatuikit.shared.models.interactiveelements.DateTimeElement;
 import com.cometchat.chatuikit.shared.models.interactivemessage.CardMessage;
@@ -102,7 +102,6 @@ import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -207,22 +206,19 @@ public class Utils {
     }
 
     public static void performAdapterClick(View view) {
-        Handler mainThread = new Handler(Looper.getMainLooper());
-        new Thread(() -> {
-            ViewParent parent = view.getParent();
-            while (parent != null) {
-                if (parent instanceof View) {
-                    if (((View) parent).getId() == R.id.message_adapter_message_bubble_parent) {
-                        ViewParent finalParent = parent;
-                        mainThread.post(() -> ((View) finalParent).performLongClick());
-                        break;
-                    }
-                    parent = ((View) parent).getParent();
-                } else {
+        ViewParent parent = view.getParent();
+        while (parent != null) {
+            if (parent instanceof View) {
+                if (((View) parent).getId() == R.id.message_adapter_message_bubble_parent) {
+                    ViewParent finalParent = parent;
+                    CometChatExecutors.postToMain(() -> ((View) finalParent).performLongClick());
                     break;
                 }
+                parent = ((View) parent).getParent();
+            } else {
+                break;
             }
-        }).start();
+        }
     }
 
     @ColorInt
@@ -457,21 +453,39 @@ public class Utils {
 
     @NonNull
     public static String getDateId(long var0) {
-        Calendar var2 = Calendar.getInstance(Locale.ENGLISH);
-        var2.setTimeInMillis(var0);
-        return DateFormat.format("ddMMyyyy", var2).toString();
+        return DateTimeUtils.getDateId(var0);
+    }
+
+    /**
+     * Returns the local calendar day of the given time as a number of days since
+     * the epoch. Unlike {@link #getDateId(long)} it allocates nothing, so it can
+     * be used to bucket messages by day while scrolling.
+     *
+     * <p>
+     * The default time zone is cached and checked against the current default
+     * on every call, so a change of the device time zone is picked up.
+     *
+     * @param timeInMillis the time in milliseconds.
+     * @return the local epoch day.
+     * @see DateTimeUtils#getEpochDay(long)
+     */
+    public static long getEpochDay(long timeInMillis) {
+        return DateTimeUtils.getEpochDay(timeInMillis);
+    }
+
+    /**
+     * Drops the time zone, the date formatters and the formatted timestamps
+     * cached by {@link DateTimeUtils}.
+     */
+    public static void invalidateTimeZone() {
+        DateTimeUtils.invalidate();
     }
 
     public static String getCallDate(long var0) {
-        Calendar var2 = Calendar.getInstance(Locale.ENGLISH);
-        var2.setTimeInMillis(var0);
-        return DateFormat.format("dd MMM yy", var2).toString();
+        return DateTimeUtils.format(var0, "dd MMM yy");
     }
 
     public static String getDate(Context context, long var0) {
-        Calendar var2 = Calendar.getInstance(Locale.ENGLISH);
-        var2.setTimeInMillis(var0 * 1000L);
-
         long currentTimeStamp = System.currentTimeMillis();
 
         long diffTimeStamp = currentTimeStamp - (var0 * 1000);
@@ -481,7 +495,7 @@ public class Utils {
         } else if (diffTimeStamp < 48 * 60 * 60 * 1000) {
 
             return context.getString(R.string.cometchat_yesterday);
-        } else return DateFormat.format("dd MMMM yyyy", var2).toString();
+        } else return DateTimeUtils.format(var0 * 1000L, "dd MMMM yyyy");
     }
 
     public static List<User> userSort(List<User> userList) {
@@ -545,11 +559,8 @@ public class Utils {
     }
 
     public static String getHeaderDate(long timestamp) {
-        Calendar messageTimestamp = Calendar.getInstance();
-        messageTimestamp.setTimeInMillis(timestamp);
-        Calendar now = Calendar.getInstance();
         // if (now.get(5) == messageTimestamp.get(5)) {
-        return DateFormat.format("hh:mm a", messageTimestamp).toString();
+        return DateTimeUtils.format(timestamp, "hh:mm a");
         // } else {
         // return now.get(5) - messageTimestamp.get(5) == 1 ? "Yesterday " +
         // DateFormat.format("hh:mm a", messageTimestamp).toString() :
@@ -567,23 +578,20 @@ public class Utils {
     }
 
     public static String getLastMessageDate(Context context, long timestamp) {
-        String lastMessageTime = new SimpleDateFormat("h:mm a", Locale.US).format(new Date(timestamp * 1000));
-        String lastMessageDate = new SimpleDateFormat("dd MMM yyyy", Locale.US).format(new Date(timestamp * 1000));
-        String lastMessageWeek = new SimpleDateFormat("EEE", Locale.US).format(new Date(timestamp * 1000));
         long currentTimeStamp = System.currentTimeMillis();
 
         long diffTimeStamp = currentTimeStamp - timestamp * 1000;
 
         if (diffTimeStamp < 24 * 60 * 60 * 1000) {
-            return lastMessageTime;
+            return DateTimeUtils.format(timestamp * 1000, "h:mm a", Locale.US);
 
         } else if (diffTimeStamp < 48 * 60 * 60 * 1000) {
 
             return context.getString(R.string.cometchat_yesterday);
         } else if (diffTimeStamp < 7 * 24 * 60 * 60 * 1000) {
-            return lastMessageWeek;
+            return DateTimeUtils.format(timestamp * 1000, "EEE", Locale.US);
         } else {
-            return lastMessageDate;
+            return DateTimeUtils.format(timestamp * 1000, "dd MMM yyyy", Locale.US);
         }
     }
 
@@ -613,23 +621,20 @@ public class Utils {
     }
 
     public static String getReceiptDate(Context context, long timestamp) {
-        String lastMessageTime = new SimpleDateFormat("h:mm a", Locale.US).format(new Date(timestamp * 1000));
-        String lastMessageDate = new SimpleDateFormat("dd MMMM h:mm a", Locale.US).format(new Date(timestamp * 1000));
-        String lastMessageWeek = new SimpleDateFormat("EEE h:mm a", Locale.US).format(new Date(timestamp * 1000));
         long currentTimeStamp = System.currentTimeMillis();
 
         long diffTimeStamp = currentTimeStamp - timestamp * 1000;
 
         if (diffTimeStamp < 24 * 60 * 60 * 1000) {
-            return lastMessageTime;
+            return DateTimeUtils.format(timestamp * 1000, "h:mm a", Locale.US);
 
         } else if (diffTimeStamp < 48 * 60 * 60 * 1000) {
 
             return context.getString(R.string.cometchat_yesterday);
         } else if (diffTimeStamp < 7 * 24 * 60 * 60 * 1000) {
-            return lastMessageWeek;
+            return DateTimeUtils.format(timestamp * 1000, "EEE h:mm a", Locale.US);
         } else {
-            return lastMessageDate;
+            return DateTimeUtils.format(timestamp * 1000, "dd MMMM h:mm a", Locale.US);
         }
     }
 
@@ -1266,11 +1271,8 @@ public class Utils {
             timestamp *= 1000;
         }
 
-        Calendar now = Calendar.getInstance();
-        Calendar lastSeen = Calendar.getInstance();
-        lastSeen.setTimeInMillis(timestamp);
-
-        long diffInMillis = now.getTimeInMillis() - lastSeen.getTimeInMillis();
+        long now = System.currentTimeMillis();
+        long diffInMillis = now - timestamp;
         long diffInMinutes = TimeUnit.MILLISECONDS.toMinutes(diffInMillis);
         long diffInHours = TimeUnit.MILLISECONDS.toHours(diffInMillis);
 
@@ -1293,7 +1295,7 @@ public class Utils {
         }
 
         // Determine if the timestamp is within the current year
-        boolean isSameYear = lastSeen.get(Calendar.YEAR) == now.get(Calendar.YEAR);
+        boolean isSameYear = DateTimeUtils.getYear(timestamp) == DateTimeUtils.getYear(now);
         String datePattern;
 
         if (isSameYear) {
@@ -1307,14 +1309,11 @@ public class Utils {
         // Append time to the date pattern
         datePattern += " 'at' hh:mm a";
 
-        SimpleDateFormat dateFormat = new SimpleDateFormat(datePattern, Locale.getDefault());
-        return context.getResources().getString(R.string.cometchat_last_seen) + " " + dateFormat.format(new Date(timestamp));
+        return context.getResources().getString(R.string.cometchat_last_seen) + " " + DateTimeUtils.format(timestamp, datePattern);
     }
 
     public static String getDateTimeMessageInformation(long milliseconds) {
-        SimpleDateFormat sdf = new SimpleDateFormat("dd/M/yyyy, h:mm a", Locale.getDefault());
-        Date date = new Date(milliseconds);
-        return sdf.format(date);
+        return DateTimeUtils.format(milliseconds, "dd/M/yyyy, h:mm a");
     }
 
     /**
@@ -1335,14 +1334,8 @@ public class Utils {
             timestamp *= 1000;
         }
 
-        // Convert the timestamp to a Date object
-        Date date = new Date(timestamp);
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(date);
-
-        // Get the current year
-        int currentYear = Calendar.getInstance().get(Calendar.YEAR);
-        int inputYear = calendar.get(Calendar.YEAR);
+        int currentYear = DateTimeUtils.getYear(System.currentTimeMillis());
+        int inputYear = DateTimeUtils.getYear(timestamp);
 
         // Apply default formats if datePattern is null
         if (datePattern == null) {
@@ -1353,8 +1346,6 @@ public class Utils {
             }
         }
 
-        // Create a SimpleDateFormat with the provided pattern or the default one
-        SimpleDateFormat dateFormat = new SimpleDateFormat(datePattern, Locale.getDefault());
-        return dateFormat.format(date);
+        return DateTimeUtils.format(timestamp, datePattern);
     }
 }
@@ -10,13 +10,15 @@ import androidx.annotation.Nullable;
 import androidx.core.view.ViewCompat;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 public class StickyHeaderDecoration extends RecyclerView.ItemDecoration {
     private static final String TAG = StickyHeaderDecoration.class.getSimpleName();
     public static final long NO_HEADER_ID = -1L;
+    // headers are rebuilt on demand, only the recently drawn ones are kept
+    private static final int MAX_CACHED_HEADERS = 16;
     private final Map<Long, RecyclerView.ViewHolder> mHeaderCache;
     private final StickyHeaderAdapter mAdapter;
     private final boolean mRenderInline;
@@ -27,7 +29,12 @@ public class StickyHeaderDecoration extends RecyclerView.ItemDecoration {
 
     public StickyHeaderDecoration(StickyHeaderAdapter stickyHeaderAdapter, boolean flag) {
         this.mAdapter = stickyHeaderAdapter;
-        this.mHeaderCache = new HashMap<>();
+        this.mHeaderCache = new LinkedHashMap<Long, RecyclerView.ViewHolder>(MAX_CACHED_HEADERS, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, RecyclerView.ViewHolder> eldest) {
+                return size() > MAX_CACHED_HEADERS;
+            }
+        };
         this.mRenderInline = flag;
     }
 
@@ -60,8 +67,9 @@ public class StickyHeaderDecoration extends RecyclerView.ItemDecoration {
 
     private RecyclerView.ViewHolder getHeader(RecyclerView var1, int var2) {
         long var3 = this.mAdapter.getHeaderId(var2);
-        if (this.mHeaderCache.containsKey(var3)) {
-            return this.mHeaderCache.get(var3);
+        RecyclerView.ViewHolder cachedHeader = this.mHeaderCache.get(var3);
+        if (cachedHeader != null) {
+            return cachedHeader;
         } else {
             RecyclerView.ViewHolder var5 = this.mAdapter.onCreateHeaderViewHolder(var1);
             View var6 = var5.itemView;
@@ -0,0 +1,337 @@
+package com.cometchat.chatuikit.shared.search;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.cometchat.chat.exceptions.CometChatException;
+import com.cometchat.chatuikit.shared.constants.UIKitUtilityConstants;
+import com.cometchat.chatuikit.shared.executors.CometChatExecutors;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * SearchPipeline turns the keystrokes of a search box into as few remote
+ * searches as possible, used by the user, group and group member lists.
+ *
+ * <p>
+ * A query is sent after the debounce interval without a newer one, and only
+ * the response to the latest query is delivered: every query starts a new
+ * generation, and responses of older generations are dropped. The first page
+ * of each query is kept in a small LRU cache with the request that fetched it,
+ * so a query typed again is answered without a request and pages on from where
+ * that request left off. While a query waits for its response, the items
+ * loaded before the search, or the cached page of its longest cached prefix,
+ * are filtered locally and delivered as provisional results.
+ *
+ * <p>
+ * A pipeline given a {@link LocalIndex} asks the index for the provisional
+ * results instead. The query is still sent: the index only holds the users
+ * seen so far, and the server has the final say on who matches.
+ *
+ * <p>
+ * The pipeline is not thread-safe and is used from the main thread.
+ *
+ * @param <T> the type of the results.
+ * @param <R> the type of the request that fetches the results of a query.
+ */
+public class SearchPipeline<T, R> {
+    private static final int MAX_CACHED_QUERIES = 20;
+    private static final long CACHE_TTL_MILLIS = 60_000;
+
+    private final Source<T, R> source;
+    private final Matcher<T> matcher;
+    private final Listener<T, R> listener;
+    private final Scheduler scheduler;
+    private final LinkedHashMap<String, CachedPage<T, R>> cache = new LinkedHashMap<String, CachedPage<T, R>>(MAX_CACHED_QUERIES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedPage<T, R>> eldest) {
+            return size() > MAX_CACHED_QUERIES;
+        }
+    };
+    private long debounceMillis = UIKitUtilityConstants.SEARCH_DEBOUNCE_INTERVAL;
+    private int generation;
+    @Nullable
+    private Runnable pendingSearch;
+    private boolean awaitingResults;
+    // the items shown before the search started
+    @Nullable
+    private List<T> baseItems;
+    @Nullable
+    private LocalIndex<T> localIndex;
+
+    public SearchPipeline(@NonNull Source<T, R> source, @NonNull Matcher<T> matcher, @NonNull Listener<T, R> listener) {
+        this(source, matcher, listener, new MainThreadScheduler());
+    }
+
+    /**
+     * Creates a pipeline with the given scheduler, for example a fake clock in
+     * tests.
+     */
+    public SearchPipeline(@NonNull Source<T, R> source, @NonNull Matcher<T> matcher, @NonNull Listener<T, R> listener, @NonNull Scheduler scheduler) {
+        this.source = source;
+        this.matcher = matcher;
+        this.listener = listener;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Sets how long a query waits for a newer one before it is sent.
+     */
+    public void setDebounceMillis(long debounceMillis) {
+        this.debounceMillis = Math.max(0, debounceMillis);
+    }
+
+    /**
+     * Sets the index answering queries locally.
+     *
+     * @param localIndex the index, or null to filter the loaded items.
+     */
+    public void setLocalIndex(@Nullable LocalIndex<T> localIndex) {
+        this.localIndex = localIndex;
+    }
+
+    /**
+     * Searches for the given query.
+     *
+     * @param query        the search keyword.
+     * @param currentItems the items shown now; the first search after
+     *                     {@link #cancel()} filters them locally while waiting.
+     */
+    public void search(@NonNull String query, @NonNull List<T> currentItems) {
+        int searchGeneration = ++generation;
+        removePendingSearch();
+        if (baseItems == null) baseItems = new ArrayList<>(currentItems);
+        CachedPage<T, R> cachedPage = getCachedPage(query);
+        if (cachedPage != null) {
+            awaitingResults = false;
+            listener.onResults(query, new ArrayList<>(cachedPage.items), cachedPage.request, true);
+            return;
+        }
+        if (localIndex != null) {
+            listener.onLocalResults(query, localIndex.search(query));
+        } else {
+            listener.onLocalResults(query, filter(getLocalCandidates(query), query));
+        }
+        awaitingResults = true;
+        Runnable search = new Runnable() {
+            @Override
+            public void run() {
+                if (pendingSearch == this) pendingSearch = null;
+                fetch(query, searchGeneration);
+            }
+        };
+        pendingSearch = search;
+        scheduler.postDelayed(search, debounceMillis);
+    }
+
+    /**
+     * Drops the pending query and any response still to come, and ends the
+     * search.
+     */
+    public void cancel() {
+        generation++;
+        removePendingSearch();
+        awaitingResults = false;
+        baseItems = null;
+    }
+
+    /**
+     * Adds a next page loaded with the request of a cached query to its cached
+     * page, so the query typed again shows every loaded item.
+     *
+     * @param request the request handed to {@link Listener#onResults}.
+     * @param items   the items of its next page.
+     */
+    public void addPage(@NonNull R request, @NonNull List<T> items) {
+        for (CachedPage<T, R> cachedPage : cache.values()) {
+            if (cachedPage.request == request) {
+                cachedPage.items.addAll(items);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Drops the cached pages, for example when the request builder changed.
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+
+    /**
+     * Returns whether the results of the latest query are yet to be delivered.
+     */
+    public boolean isAwaitingResults() {
+        return awaitingResults;
+    }
+
+    /**
+     * Returns whether the given value contains the given lower case query,
+     * ignoring case. A helper for {@link Matcher} implementations.
+     */
+    public static boolean contains(@Nullable String value, @NonNull String lowerCaseQuery) {
+        return value != null && value.toLowerCase(Locale.getDefault()).contains(lowerCaseQuery);
+    }
+
+    private void fetch(String query, int searchGeneration) {
+        source.fetch(query, new Callback<T, R>() {
+            @Override
+            public void onSuccess(@NonNull List<T> items, @Nullable R request) {
+                // a late response is still worth caching
+                cache.put(query, new CachedPage<>(new ArrayList<>(items), request, scheduler.now()));
+                if (searchGeneration != generation) return;
+                awaitingResults = false;
+                listener.onResults(query, items, request, false);
+            }
+
+            @Override
+            public void onError(@NonNull CometChatException e) {
+                if (searchGeneration != generation) return;
+                awaitingResults = false;
+                listener.onError(query, e);
+            }
+        });
+    }
+
+    @Nullable
+    private CachedPage<T, R> getCachedPage(String query) {
+        CachedPage<T, R> cachedPage = cache.get(query);
+        if (cachedPage == null) return null;
+        if (scheduler.now() - cachedPage.cachedAt > CACHE_TTL_MILLIS) {
+            cache.remove(query);
+            return null;
+        }
+        return cachedPage;
+    }
+
+    private List<T> getLocalCandidates(String query) {
+        for (int length = query.length() - 1; length > 0; length--) {
+            CachedPage<T, R> cachedPage = getCachedPage(query.substring(0, length));
+            if (cachedPage != null) return cachedPage.items;
+        }
+        return baseItems == null ? Collections.emptyList() : baseItems;
+    }
+
+    private List<T> filter(List<T> items, String query) {
+        String lowerCaseQuery = query.toLowerCase(Locale.getDefault());
+        List<T> matches = new ArrayList<>();
+        for (T item : items) {
+            if (matcher.matches(item, lowerCaseQuery)) matches.add(item);
+        }
+        return matches;
+    }
+
+    private void removePendingSearch() {
+        if (pendingSearch != null) {
+            scheduler.cancel(pendingSearch);
+            pendingSearch = null;
+        }
+    }
+
+    /**
+     * Fetches the first page of results for a query.
+     */
+    public interface Source<T, R> {
+        void fetch(@NonNull String query, @NonNull Callback<T, R> callback);
+    }
+
+    /**
+     * Receives the first page of results for a query.
+     */
+    public interface Callback<T, R> {
+        /**
+         * @param request the request that fetched the page, to load its next
+         *                pages with, or null if there are none.
+         */
+        void onSuccess(@NonNull List<T> items, @Nullable R request);
+
+        void onError(@NonNull CometChatException e);
+    }
+
+    /**
+     * Answers queries from the items known locally.
+     */
+    public interface LocalIndex<T> {
+        @NonNull
+        List<T> search(@NonNull String query);
+    }
+
+    /**
+     * Decides whether a loaded item is shown for a query before the results
+     * arrive.
+     */
+    public interface Matcher<T> {
+        /**
+         * @param lowerCaseQuery the query in lower case.
+         */
+        boolean matches(@NonNull T item, @NonNull String lowerCaseQuery);
+    }
+
+    public interface Listener<T, R> {
+        /**
+         * Called with the loaded items matching the query while its results are
+         * fetched.
+         */
+        void onLocalResults(@NonNull String query, @NonNull List<T> items);
+
+        /**
+         * Called with the first page of results of the latest query.
+         *
+         * @param request the request that fetched the page, positioned after
+         *                the items delivered, or null if there is none.
+         * @param cached  whether the page comes from the cache rather than a
+         *                new request.
+         */
+        void onResults(@NonNull String query, @NonNull List<T> items, @Nullable R request, boolean cached);
+
+        void onError(@NonNull String query, @NonNull CometChatException e);
+    }
+
+    /**
+     * The clock and the main thread queue of the pipeline.
+     */
+    public interface Scheduler {
+        long now();
+
+        void postDelayed(@NonNull Runnable runnable, long delayMillis);
+
+        void cancel(@NonNull Runnable runnable);
+    }
+
+    private static final class CachedPage<T, R> {
+        private final List<T> items;
+        @Nullable
+        private final R request;
+        private final long cachedAt;
+
+        private CachedPage(List<T> items, @Nullable R request, long cachedAt) {
+            this.items = items;
+            this.request = request;
+            this.cachedAt = cachedAt;
+        }
+    }
+
+    private static final class MainThreadScheduler implements Scheduler {
+        @Override
+        public long now() {
+            return SystemClock.uptimeMillis();
+        }
+
+        @Override
+        public void postDelayed(@NonNull Runnable runnable, long delayMillis) {
+            CometChatExecutors.postToMain(runnable, delayMillis);
+        }
+
+        @Override
+        public void cancel(@NonNull Runnable runnable) {
+            CometChatExecutors.removeFromMain(runnable);
+        }
+    }
+}
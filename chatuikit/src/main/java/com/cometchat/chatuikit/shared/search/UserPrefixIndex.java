@@ -0,0 +1,301 @@
+package com.cometchat.chatuikit.shared.search;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.cometchat.chat.models.User;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * UserPrefixIndex answers @mention suggestions locally from the users seen so
+ * far: the pages of users and group members fetched for earlier suggestions,
+ * and the members who joined or were added to a group since. There is one
+ * index per group, for its members, and one for the users of one-to-one
+ * conversations.
+ *
+ * <p>
+ * Each user is indexed under the words of the name, the whole name and the
+ * uid, lower cased and without accents. The tokens are kept in a sorted array,
+ * so the users whose tokens start with a query are found with a binary search.
+ * Users added since the last search are sorted into a second, smaller array,
+ * which is merged into the first one only once it grows to a fraction of it,
+ * so indexing members page by page stays linear. The tokens of removed or
+ * renamed users are skipped until enough of them pile up to compact the
+ * arrays.
+ */
+public final class UserPrefixIndex {
+    private static final int MAX_INDEXED_GROUPS = 8;
+    private static final int MIN_MERGED_TOKENS = 1024;
+    private static final String USERS = "users";
+
+    private static final LinkedHashMap<String, UserPrefixIndex> indexes = new LinkedHashMap<String, UserPrefixIndex>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, UserPrefixIndex> eldest) {
+            // the users index is one of the entries, and is rebuilt cheaply if evicted
+            return size() > MAX_INDEXED_GROUPS + 1;
+        }
+    };
+
+    private final HashMap<String, Entry> entries = new HashMap<>();
+    private Token[] tokens = new Token[0];
+    // sorted, the tokens added since the last merge into tokens
+    private Token[] recentTokens = new Token[0];
+    private final ArrayList<Token> pendingTokens = new ArrayList<>();
+    private int staleTokens;
+
+    /**
+     * Returns the index of the users of one-to-one conversations.
+     */
+    @NonNull
+    public static UserPrefixIndex ofUsers() {
+        return of(USERS);
+    }
+
+    /**
+     * Returns the index of the members of the given group.
+     */
+    @NonNull
+    public static UserPrefixIndex ofGroup(@NonNull String guid) {
+        return of("group_" + guid.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Adds a user to the index of the given group, if the group is indexed, for
+     * example when the user joined the group.
+     */
+    public static void addGroupMember(@Nullable String guid, @Nullable User user) {
+        UserPrefixIndex index = getIndexedGroup(guid);
+        if (index != null) index.add(user);
+    }
+
+    /**
+     * Removes a user from the index of the given group, if the group is indexed,
+     * for example when the user left the group.
+     */
+    public static void removeGroupMember(@Nullable String guid, @Nullable User user) {
+        UserPrefixIndex index = getIndexedGroup(guid);
+        if (index != null && user != null && user.getUid() != null) index.remove(user.getUid());
+    }
+
+    /**
+     * Drops every index, for example when the user logs out.
+     */
+    public static void clearAll() {
+        synchronized (indexes) {
+            indexes.clear();
+        }
+    }
+
+    @Nullable
+    private static UserPrefixIndex getIndexedGroup(@Nullable String guid) {
+        if (guid == null) return null;
+        synchronized (indexes) {
+            return indexes.get("group_" + guid.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private static UserPrefixIndex of(String key) {
+        synchronized (indexes) {
+            UserPrefixIndex index = indexes.get(key);
+            if (index == null) {
+                index = new UserPrefixIndex();
+                indexes.put(key, index);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Adds a user, or updates it if it is indexed already.
+     */
+    public synchronized void add(@Nullable User user) {
+        if (user == null || user.getUid() == null) return;
+        Entry entry = entries.get(user.getUid());
+        if (entry != null) {
+            if (equals(entry.user.getName(), user.getName())) {
+                // same tokens, only the avatar or the status may have changed
+                entry.user = user;
+                return;
+            }
+            retire(entry);
+        }
+        entry = new Entry(user);
+        entries.put(user.getUid(), entry);
+        LinkedHashSet<String> userTokens = getTokens(user);
+        for (String token : userTokens) {
+            pendingTokens.add(new Token(token, entry));
+        }
+        entry.tokenCount = userTokens.size();
+    }
+
+    public synchronized void addAll(@NonNull List<? extends User> users) {
+        for (User user : users) add(user);
+    }
+
+    public synchronized void remove(@NonNull String uid) {
+        Entry entry = entries.remove(uid);
+        if (entry != null) retire(entry);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns up to the given number of users with a name, a word of the name or
+     * a uid starting with the given query, ignoring case and accents, in the
+     * order of the matching tokens.
+     */
+    @NonNull
+    public synchronized List<User> search(@NonNull String query, int limit) {
+        if (limit <= 0 || entries.isEmpty()) return Collections.emptyList();
+        update();
+        String prefix = normalize(query);
+        LinkedHashSet<Entry> matches = new LinkedHashSet<>();
+        int i = lowerBound(tokens, prefix), j = lowerBound(recentTokens, prefix);
+        while (matches.size() < limit) {
+            boolean inTokens = i < tokens.length && tokens[i].token.startsWith(prefix);
+            boolean inRecent = j < recentTokens.length && recentTokens[j].token.startsWith(prefix);
+            if (!inTokens && !inRecent) break;
+            Token token = inTokens && (!inRecent || tokens[i].compareTo(recentTokens[j]) <= 0) ? tokens[i++] : recentTokens[j++];
+            if (token.entry.live) matches.add(token.entry);
+        }
+        List<User> users = new ArrayList<>(matches.size());
+        for (Entry entry : matches) users.add(entry.user);
+        return users;
+    }
+
+    private void retire(Entry entry) {
+        entry.live = false;
+        staleTokens += entry.tokenCount;
+    }
+
+    // brings the sorted tokens up to date before a search
+    private void update() {
+        if (staleTokens > 0 && staleTokens * 2 > tokens.length + recentTokens.length + pendingTokens.size()) {
+            compact();
+        }
+        if (!pendingTokens.isEmpty()) {
+            Token[] added = pendingTokens.toArray(new Token[0]);
+            pendingTokens.clear();
+            Arrays.sort(added);
+            recentTokens = merge(recentTokens, added);
+        }
+        if (recentTokens.length > Math.max(MIN_MERGED_TOKENS, tokens.length / 8)) {
+            tokens = merge(tokens, recentTokens);
+            recentTokens = new Token[0];
+        }
+    }
+
+    private void compact() {
+        tokens = getLiveTokens(Arrays.asList(tokens));
+        recentTokens = getLiveTokens(Arrays.asList(recentTokens));
+        Token[] livePending = getLiveTokens(pendingTokens);
+        pendingTokens.clear();
+        pendingTokens.addAll(Arrays.asList(livePending));
+        staleTokens = 0;
+    }
+
+    private static Token[] getLiveTokens(List<Token> tokens) {
+        ArrayList<Token> live = new ArrayList<>(tokens.size());
+        for (Token token : tokens) {
+            if (token.entry.live) live.add(token);
+        }
+        return live.toArray(new Token[0]);
+    }
+
+    private static Token[] merge(Token[] first, Token[] second) {
+        Token[] merged = new Token[first.length + second.length];
+        int i = 0, j = 0, k = 0;
+        while (i < first.length && j < second.length) {
+            merged[k++] = first[i].compareTo(second[j]) <= 0 ? first[i++] : second[j++];
+        }
+        while (i < first.length) merged[k++] = first[i++];
+        while (j < second.length) merged[k++] = second[j++];
+        return merged;
+    }
+
+    private static int lowerBound(Token[] tokens, String prefix) {
+        int low = 0, high = tokens.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (tokens[mid].token.compareTo(prefix) < 0) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    private static LinkedHashSet<String> getTokens(User user) {
+        LinkedHashSet<String> tokens = new LinkedHashSet<>();
+        tokens.add(normalize(user.getUid()));
+        String name = normalize(user.getName());
+        if (!name.isEmpty()) {
+            tokens.add(name);
+            int start = -1;
+            for (int i = 0; i <= name.length(); i++) {
+                boolean wordChar = i < name.length() && Character.isLetterOrDigit(name.charAt(i));
+                if (wordChar && start < 0) start = i;
+                else if (!wordChar && start >= 0) {
+                    tokens.add(name.substring(start, i));
+                    start = -1;
+                }
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Returns the given text lower cased and without accents, the form tokens
+     * and queries are compared in.
+     */
+    @NonNull
+    static String normalize(@Nullable String text) {
+        if (text == null) return "";
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder builder = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) builder.append(c);
+        }
+        return builder.toString().toLowerCase(Locale.ROOT).trim();
+    }
+
+    private static boolean equals(@Nullable String first, @Nullable String second) {
+        return first == null ? second == null : first.equals(second);
+    }
+
+    private static final class Entry {
+        private User user;
+        private boolean live = true;
+        private int tokenCount;
+
+        private Entry(User user) {
+            this.user = user;
+        }
+    }
+
+    private static final class Token implements Comparable<Token> {
+        private final String token;
+        private final Entry entry;
+
+        private Token(String token, Entry entry) {
+            this.token = token;
+            this.entry = entry;
+        }
+
+        @Override
+        public int compareTo(Token other) {
+            return token.compareTo(other.token);
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package com.cometchat.chatuikit.shared.typing;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.Choreographer;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.cometchat.chat.models.TypingIndicator;
+import com.cometchat.chatuikit.shared.constants.UIKitUtilityConstants;
+import com.cometchat.chatuikit.shared.events.CometChatMessageEvents;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TypingTracker keeps the typing state of every sender, keyed by receiver id
+ * and sender uid, so a group with many members typing at once is tracked per
+ * member.
+ *
+ * <p>
+ * A typer stays visible for {@link UIKitUtilityConstants#TYPING_INDICATOR_DEBOUNCER}
+ * after the typing ended event, and is dropped after
+ * {@link UIKitUtilityConstants#TYPING_INDICATOR_TIMEOUT} without a new typing
+ * started event in case the ended event was lost. All the expiries share one
+ * timing wheel driven by a single tick, which only runs while someone is
+ * typing.
+ *
+ * <p>
+ * Listeners are notified once per frame with the typers that started and
+ * ended since the previous frame; a typer that started and ended within the
+ * same frame is not reported. The tracker is not thread-safe and is used from
+ * the main thread.
+ */
+public class TypingTracker {
+    private static final String TAG = TypingTracker.class.getSimpleName();
+    private static final long TICK_MILLIS = 100;
+    private static final int WHEEL_SIZE = 128;
+    private static TypingTracker instance;
+
+    private final Clock clock;
+    private final Scheduler scheduler;
+    private final HashMap<String, LinkedHashMap<String, Entry>> receivers = new HashMap<>();
+    private final LinkedHashMap<String, Listener> listeners = new LinkedHashMap<>();
+    // the head of the expiry list of each wheel bucket
+    private final Entry[] wheel = new Entry[WHEEL_SIZE];
+    // the typers changed since the last frame, and whether each was visible then
+    private final LinkedHashMap<Entry, Boolean> pendingChanges = new LinkedHashMap<>();
+    private final Runnable tickRunnable = this::tick;
+    private final Runnable flushRunnable = this::flush;
+    private long currentTick;
+    private int scheduledCount;
+    private boolean tickScheduled;
+    private boolean flushScheduled;
+
+    /**
+     * Creates a tracker with the given clock and scheduler, for example fakes
+     * in tests. The UI Kit uses {@link #getInstance()}.
+     */
+    public TypingTracker(@NonNull Clock clock, @NonNull Scheduler scheduler) {
+        this.clock = clock;
+        this.scheduler = scheduler;
+        this.currentTick = clock.now() / TICK_MILLIS;
+    }
+
+    /**
+     * Returns the tracker fed by the typing events of the UI Kit.
+     */
+    @MainThread
+    @NonNull
+    public static TypingTracker getInstance() {
+        if (instance == null) {
+            instance = new TypingTracker(SystemClock::uptimeMillis, new MainThreadScheduler());
+            CometChatMessageEvents.addListener(TAG, new CometChatMessageEvents() {
+                @Override
+                public void onTypingStarted(TypingIndicator typingIndicator) {
+                    instance.onTypingStarted(typingIndicator);
+                }
+
+                @Override
+                public void onTypingEnded(TypingIndicator typingIndicator) {
+                    instance.onTypingEnded(typingIndicator);
+                }
+            });
+        }
+        return instance;
+    }
+
+    public void addListener(@NonNull String tag, @NonNull Listener listener) {
+        listeners.put(tag, listener);
+    }
+
+    public void removeListener(@NonNull String tag) {
+        listeners.remove(tag);
+    }
+
+    /**
+     * Marks the sender of the given indicator as typing.
+     */
+    public void onTypingStarted(@NonNull TypingIndicator typingIndicator) {
+        String receiverId = typingIndicator.getReceiverId();
+        String senderUid = typingIndicator.getSender() == null ? null : typingIndicator.getSender().getUid();
+        if (receiverId == null || senderUid == null) return;
+        LinkedHashMap<String, Entry> typers = receivers.get(receiverId);
+        if (typers == null) {
+            typers = new LinkedHashMap<>();
+            receivers.put(receiverId, typers);
+        }
+        Entry entry = typers.remove(senderUid);
+        if (entry == null) {
+            entry = new Entry(receiverId, senderUid);
+            markChanged(entry, false);
+        }
+        // re-inserted, so the typers of a receiver stay ordered by their last start
+        typers.put(senderUid, entry);
+        entry.typingIndicator = typingIndicator;
+        schedule(entry, clock.now() + UIKitUtilityConstants.TYPING_INDICATOR_TIMEOUT);
+    }
+
+    /**
+     * Hides the sender of the given indicator after the typing debounce period.
+     */
+    public void onTypingEnded(@NonNull TypingIndicator typingIndicator) {
+        Entry entry = getEntry(typingIndicator.getReceiverId(), typingIndicator.getSender() == null ? null : typingIndicator.getSender().getUid());
+        if (entry == null) return;
+        entry.typingIndicator = typingIndicator;
+        schedule(entry, clock.now() + UIKitUtilityConstants.TYPING_INDICATOR_DEBOUNCER);
+    }
+
+    /**
+     * Returns the indicator of the given sender to the given receiver, or null if
+     * the sender is not typing.
+     */
+    @Nullable
+    public TypingIndicator getTypingIndicator(@Nullable String receiverId, @Nullable String senderUid) {
+        Entry entry = getEntry(receiverId, senderUid);
+        return entry == null ? null : entry.typingIndicator;
+    }
+
+    /**
+     * Returns the indicators of everyone typing to the given receiver, the one
+     * who started typing last at the end.
+     */
+    @NonNull
+    public List<TypingIndicator> getTypingIndicators(@Nullable String receiverId) {
+        LinkedHashMap<String, Entry> typers = receiverId == null ? null : receivers.get(receiverId);
+        if (typers == null) return Collections.emptyList();
+        List<TypingIndicator> typingIndicators = new ArrayList<>(typers.size());
+        for (Entry entry : typers.values()) typingIndicators.add(entry.typingIndicator);
+        return typingIndicators;
+    }
+
+    /**
+     * Returns the indicator of the last one to start typing to the given
+     * receiver, or null if no one is typing.
+     */
+    @Nullable
+    public TypingIndicator getLatestTypingIndicator(@Nullable String receiverId) {
+        LinkedHashMap<String, Entry> typers = receiverId == null ? null : receivers.get(receiverId);
+        if (typers == null) return null;
+        TypingIndicator latest = null;
+        for (Entry entry : typers.values()) latest = entry.typingIndicator;
+        return latest;
+    }
+
+    /**
+     * Expires the typers whose time is up and dispatches the pending changes
+     * immediately.
+     */
+    public void flush() {
+        advance(clock.now());
+        if (flushScheduled) {
+            scheduler.cancelFrame(flushRunnable);
+            flushScheduled = false;
+        }
+        if (pendingChanges.isEmpty()) return;
+        List<TypingIndicator> started = new ArrayList<>();
+        List<TypingIndicator> ended = new ArrayList<>();
+        for (Map.Entry<Entry, Boolean> change : pendingChanges.entrySet()) {
+            Entry entry = change.getKey();
+            boolean wasVisible = change.getValue();
+            if (entry.isTyping() && !wasVisible) started.add(entry.typingIndicator);
+            else if (!entry.isTyping() && wasVisible) ended.add(entry.typingIndicator);
+        }
+        pendingChanges.clear();
+        if (started.isEmpty() && ended.isEmpty()) return;
+        for (Listener listener : new ArrayList<>(listeners.values())) {
+            listener.onTypingChanged(started, ended);
+        }
+    }
+
+    @Nullable
+    private Entry getEntry(@Nullable String receiverId, @Nullable String senderUid) {
+        if (receiverId == null || senderUid == null) return null;
+        LinkedHashMap<String, Entry> typers = receivers.get(receiverId);
+        return typers == null ? null : typers.get(senderUid);
+    }
+
+    private void markChanged(Entry entry, boolean wasVisible) {
+        // keeps the state of the last dispatched frame
+        if (!pendingChanges.containsKey(entry)) pendingChanges.put(entry, wasVisible);
+        if (!flushScheduled) {
+            flushScheduled = true;
+            scheduler.scheduleFrame(flushRunnable);
+        }
+    }
+
+    private void tick() {
+        tickScheduled = false;
+        advance(clock.now());
+        scheduleTick();
+    }
+
+    /**
+     * Moves the wheel to the given time, expiring the typers whose time is up.
+     */
+    private void advance(long now) {
+        long targetTick = now / TICK_MILLIS;
+        if (targetTick - currentTick >= WHEEL_SIZE) {
+            // the wheel went around at least once, so every typer is looked at
+            currentTick = targetTick;
+            for (int bucket = 0; bucket < WHEEL_SIZE; bucket++) {
+                Entry entry = wheel[bucket];
+                while (entry != null) {
+                    Entry next = entry.next;
+                    if (entry.deadline <= now) expire(entry);
+                    else schedule(entry, entry.deadline);
+                    entry = next;
+                }
+            }
+            return;
+        }
+        while (currentTick < targetTick) {
+            currentTick++;
+            Entry entry = wheel[(int) (currentTick % WHEEL_SIZE)];
+            while (entry != null) {
+                Entry next = entry.next;
+                if (entry.rounds == 0) expire(entry);
+                else entry.rounds--;
+                entry = next;
+            }
+        }
+    }
+
+    private void schedule(Entry entry, long deadline) {
+        unlink(entry);
+        long deadlineTick = (deadline + TICK_MILLIS - 1) / TICK_MILLIS;
+        long ticksAhead = Math.max(1, deadlineTick - currentTick);
+        int bucket = (int) ((currentTick + ticksAhead) % WHEEL_SIZE);
+        entry.deadline = deadline;
+        entry.rounds = (ticksAhead - 1) / WHEEL_SIZE;
+        entry.bucket = bucket;
+        entry.next = wheel[bucket];
+        if (entry.next != null) entry.next.previous = entry;
+        wheel[bucket] = entry;
+        scheduledCount++;
+        scheduleTick();
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.bucket < 0) return;
+        if (entry.previous != null) entry.previous.next = entry.next;
+        else wheel[entry.bucket] = entry.next;
+        if (entry.next != null) entry.next.previous = entry.previous;
+        entry.previous = null;
+        entry.next = null;
+        entry.bucket = -1;
+        scheduledCount--;
+    }
+
+    private void expire(Entry entry) {
+        unlink(entry);
+        LinkedHashMap<String, Entry> typers = receivers.get(entry.receiverId);
+        if (typers != null && typers.get(entry.senderUid) == entry) {
+            typers.remove(entry.senderUid);
+            if (typers.isEmpty()) receivers.remove(entry.receiverId);
+        }
+        markChanged(entry, true);
+    }
+
+    private void scheduleTick() {
+        if (scheduledCount == 0) {
+            if (tickScheduled) {
+                scheduler.cancelTick(tickRunnable);
+                tickScheduled = false;
+            }
+        } else if (!tickScheduled) {
+            tickScheduled = true;
+            scheduler.scheduleTick(tickRunnable, TICK_MILLIS - clock.now() % TICK_MILLIS);
+        }
+    }
+
+    /**
+     * The time source of the tracker, in milliseconds.
+     */
+    public interface Clock {
+        long now();
+    }
+
+    /**
+     * Runs the tick of the timing wheel and the per-frame dispatch.
+     */
+    public interface Scheduler {
+        void scheduleTick(@NonNull Runnable runnable, long delayMillis);
+
+        void cancelTick(@NonNull Runnable runnable);
+
+        void scheduleFrame(@NonNull Runnable runnable);
+
+        void cancelFrame(@NonNull Runnable runnable);
+    }
+
+    public interface Listener {
+        /**
+         * Called at most once per frame with the typers that started and ended
+         * since the previous call.
+         */
+        void onTypingChanged(@NonNull List<TypingIndicator> started, @NonNull List<TypingIndicator> ended);
+    }
+
+    private static final class Entry {
+        private final String receiverId;
+        private final String senderUid;
+        private TypingIndicator typingIndicator;
+        private long deadline;
+        private long rounds;
+        private int bucket = -1;
+        private Entry previous;
+        private Entry next;
+
+        private Entry(String receiverId, String senderUid) {
+            this.receiverId = receiverId;
+            this.senderUid = senderUid;
+        }
+
+        private boolean isTyping() {
+            return bucket >= 0;
+        }
+    }
+
+    private static final class MainThreadScheduler implements Scheduler {
+        private final Handler handler = new Handler(Looper.getMainLooper());
+        private final HashMap<Runnable, Choreographer.FrameCallback> frameCallbacks = new HashMap<>();
+
+        @Override
+        public void scheduleTick(@NonNull Runnable runnable, long delayMillis) {
+            handler.postDelayed(runnable, delayMillis);
+        }
+
+        @Override
+        public void cancelTick(@NonNull Runnable runnable) {
+            handler.removeCallbacks(runnable);
+        }
+
+        @Override
+        public void scheduleFrame(@NonNull Runnable runnable) {
+            Choreographer.FrameCallback frameCallback = frameCallbacks.get(runnable);
+            if (frameCallback == null) {
+                frameCallback = frameTimeNanos -> runnable.run();
+                frameCallbacks.put(runnable, frameCallback);
+            }
+            Choreographer.getInstance().postFrameCallback(frameCallback);
+        }
+
+        @Override
+        public void cancelFrame(@NonNull Runnable runnable) {
+            Choreographer.FrameCallback frameCallback = frameCallbacks.get(runnable);
+            if (frameCallback != null) Choreographer.getInstance().removeFrameCallback(frameCallback);
+        }
+    }
+}
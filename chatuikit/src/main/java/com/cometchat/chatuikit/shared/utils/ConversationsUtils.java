@@ -194,12 +194,12 @@ public class ConversationsUtils {
         if (lastMessageData.messageType == MessageType.NOT_SUPPORTED || lastMessageData.messageType == MessageType.DELETED_MESSAGE) {
             subtitleView.setLastMessageText(lastMessageData.lastMessage);
         } else {
-            SpannableString spannableString = SpannableString.valueOf(FormatterUtils.getFormattedText(context,
-                                                                                                      conversation.getLastMessage(),
-                                                                                                      UIKitConstants.FormattingType.CONVERSATIONS,
-                                                                                                      null,
-                                                                                                      lastMessageData.getLastMessage(),
-                                                                                                      formatters != null && !formatters.isEmpty() ? formatters : new ArrayList<>()));
+            SpannableString spannableString = SpannableString.valueOf(FormatterUtils.getCachedFormattedText(context,
+                                                                                                            conversation.getLastMessage(),
+                                                                                                            UIKitConstants.FormattingType.CONVERSATIONS,
+                                                                                                            null,
+                                                                                                            lastMessageData.getLastMessage(),
+                                                                                                            formatters != null && !formatters.isEmpty() ? formatters : new ArrayList<>()));
             subtitleView.setLastMessageText(spannableString);
         }
     }
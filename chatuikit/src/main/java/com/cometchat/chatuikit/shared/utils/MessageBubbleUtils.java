@@ -225,12 +225,12 @@ public class MessageBubbleUtils {
                 if (file == null && (thumbnail != null && !thumbnail.isEmpty()))
                     cometchatImageBubble.setImageThumbnail(thumbnail);
                 if (mediaMessage.getCaption() != null) {
-                    cometchatImageBubble.setCaption(SpannableString.valueOf(FormatterUtils.getFormattedText(view.getContext(),
-                                                                                                            mediaMessage,
-                                                                                                            UIKitConstants.FormattingType.MESSAGE_BUBBLE,
-                                                                                                            alignment,
-                                                                                                            mediaMessage.getCaption(),
-                                                                                                            additionParameter != null && additionParameter.getTextFormatters() != null ? additionParameter.getTextFormatters() : new ArrayList<>())));
+                    cometchatImageBubble.setCaption(SpannableString.valueOf(FormatterUtils.getCachedFormattedText(view.getContext(),
+                                                                                                                  mediaMessage,
+                                                                                                                  UIKitConstants.FormattingType.MESSAGE_BUBBLE,
+                                                                                                                  alignment,
+                                                                                                                  mediaMessage.getCaption(),
+                                                                                                                  additionParameter != null && additionParameter.getTextFormatters() != null ? additionParameter.getTextFormatters() : new ArrayList<>())));
                 }
             } else {
                 cometchatImageBubble.setVisibility(View.GONE);
@@ -243,7 +243,7 @@ public class CometChatCardBubble extends MaterialCardView {
                     JSONObject jsonObject = Utils.getInteractiveRequestPayload(apiAction.getPayload(), buttonElement.getElementId(), cardMessage);
 
                     ApiController
-                        .getInstance()
+                        .getInstance(getContext())
                         .call(apiAction.getMethod(), apiAction.getUrl(), jsonObject, apiAction.getHeaders(), new ApiController.APICallback() {
                             @Override
                             public void onSuccess(String response) {
@@ -3,7 +3,6 @@ package com.cometchat.chatuikit.shared.views.date;
 import android.content.Context;
 import android.content.res.TypedArray;
 import android.graphics.Color;
-import android.text.format.DateFormat;
 import android.util.AttributeSet;
 import android.view.LayoutInflater;
 import android.view.ViewGroup;
@@ -18,9 +17,9 @@ import com.cometchat.chatuikit.CometChatTheme;
 import com.cometchat.chatuikit.R;
 import com.cometchat.chatuikit.databinding.CometchatDateBinding;
 import com.cometchat.chatuikit.shared.interfaces.Function1;
+import com.cometchat.chatuikit.shared.resources.utils.DateTimeUtils;
 
 import java.text.SimpleDateFormat;
-import java.util.Calendar;
 import java.util.Locale;
 
 /**
@@ -44,6 +43,7 @@ public class CometChatDate extends LinearLayout {
     private long timestamp;
     private Pattern pattern;
     private Function1<Long, String> customPattern;
+    // formats set through the setters; when null, the pattern is formatted by DateTimeUtils
     private SimpleDateFormat simpleDateFormat;
     private SimpleDateFormat simpleDayFormat;
     private SimpleDateFormat simpleTimeFormat;
@@ -109,9 +109,6 @@ public class CometChatDate extends LinearLayout {
      * Sets the default values for the CometChatDate.
      */
     private void setDefaultValues() {
-        simpleDateFormat = new SimpleDateFormat(datePattern, Locale.getDefault());
-        simpleDayFormat = new SimpleDateFormat(dayPattern, Locale.getDefault());
-        simpleTimeFormat = new SimpleDateFormat(timePattern, Locale.getDefault());
         dateTextColor = CometChatTheme.getTextColorSecondary(getContext());
         setTransparentBackground(true);
     }
@@ -345,10 +342,7 @@ public class CometChatDate extends LinearLayout {
      * @param format    the format of the date
      */
     public void setDate(long timestamp, String format) {
-        Calendar cal = Calendar.getInstance(Locale.ENGLISH);
-        cal.setTimeInMillis(timestamp * 1000L);
-        String date = DateFormat.format(format, cal).toString();
-        binding.tvDate.setText(date);
+        binding.tvDate.setText(DateTimeUtils.format(timestamp * 1000L, format));
     }
 
     /**
@@ -411,7 +405,7 @@ public class CometChatDate extends LinearLayout {
      * @return The formatted time string.
      */
     private String getTime(long timestamp) {
-        return simpleTimeFormat.format(new java.util.Date(timestamp * 1000));
+        return format(simpleTimeFormat, timePattern, timestamp);
     }
 
     /**
@@ -425,15 +419,13 @@ public class CometChatDate extends LinearLayout {
      * date.
      */
     private String getDayDate(long timestamp) {
-        Calendar now = Calendar.getInstance();
-        Calendar timeToCheck = Calendar.getInstance(Locale.ENGLISH);
-        timeToCheck.setTimeInMillis(timestamp * 1000L);
-        if (now.get(Calendar.DAY_OF_YEAR) == timeToCheck.get(Calendar.DAY_OF_YEAR)) {
+        long daysAgo = DateTimeUtils.getDaysAgo(timestamp * 1000L);
+        if (daysAgo == 0) {
             return getContext().getString(R.string.cometchat_today);
-        } else if ((now.get(Calendar.DAY_OF_YEAR) - 1) == timeToCheck.get(Calendar.DAY_OF_YEAR)) {
+        } else if (daysAgo == 1) {
             return getContext().getString(R.string.cometchat_yesterday);
         } else {
-            return simpleDateFormat.format(new java.util.Date(timestamp * 1000));
+            return format(simpleDateFormat, datePattern, timestamp);
         }
     }
 
@@ -447,22 +439,32 @@ public class CometChatDate extends LinearLayout {
      * @return A string representing the date and/or time.
      */
     private String getDayDateTime(long timestamp) {
-        String lastMessageDate = simpleDateFormat.format(new java.util.Date(timestamp * 1000));
-        String lastMessageWeek = simpleDayFormat.format(new java.util.Date(timestamp * 1000));
-        Calendar now = Calendar.getInstance();
-        Calendar timeToCheck = Calendar.getInstance(Locale.ENGLISH);
-        timeToCheck.setTimeInMillis(timestamp * 1000L);
-        if (now.get(Calendar.DAY_OF_YEAR) == timeToCheck.get(Calendar.DAY_OF_YEAR)) {
+        long daysAgo = DateTimeUtils.getDaysAgo(timestamp * 1000L);
+        if (daysAgo == 0) {
             return getTime(timestamp);
-        } else if ((now.get(Calendar.DAY_OF_YEAR) - 1) == timeToCheck.get(Calendar.DAY_OF_YEAR)) {
+        } else if (daysAgo == 1) {
             return getContext().getString(R.string.cometchat_yesterday);
-        } else if ((now.get(Calendar.DAY_OF_YEAR) - 7) <= timeToCheck.get(Calendar.DAY_OF_YEAR)) {
-            return lastMessageWeek;
+        } else if (daysAgo <= 7) {
+            return format(simpleDayFormat, dayPattern, timestamp);
         } else {
-            return lastMessageDate;
+            return format(simpleDateFormat, datePattern, timestamp);
         }
     }
 
+    /**
+     * Formats the given timestamp with the format set on this view, or with the
+     * shared formatter of the given pattern if none was set.
+     *
+     * @param customFormat The format set through a setter, or null.
+     * @param pattern      The pattern to format with otherwise.
+     * @param timestamp    The timestamp to format, in seconds.
+     * @return The formatted string.
+     */
+    private String format(@Nullable SimpleDateFormat customFormat, String pattern, long timestamp) {
+        if (customFormat != null) return customFormat.format(new java.util.Date(timestamp * 1000));
+        return DateTimeUtils.format(timestamp * 1000L, pattern);
+    }
+
     /**
      * Sets the pattern for displaying the date.
      *
@@ -498,7 +500,7 @@ public class CometChatDate extends LinearLayout {
     }
 
     public SimpleDateFormat getTimeFormat() {
-        return simpleTimeFormat;
+        return simpleTimeFormat != null ? simpleTimeFormat : new SimpleDateFormat(timePattern, Locale.getDefault());
     }
 
     public void setTimeFormat(SimpleDateFormat timeFormat) {
@@ -508,7 +510,7 @@ public class CometChatDate extends LinearLayout {
     }
 
     public SimpleDateFormat getDateFormat() {
-        return simpleDateFormat;
+        return simpleDateFormat != null ? simpleDateFormat : new SimpleDateFormat(datePattern, Locale.getDefault());
     }
 
     public void setDateFormat(SimpleDateFormat dateFormat) {
@@ -518,7 +520,7 @@ public class CometChatDate extends LinearLayout {
     }
 
     public SimpleDateFormat getDayFormat() {
-        return simpleDayFormat;
+        return simpleDayFormat != null ? simpleDayFormat : new SimpleDateFormat(dayPattern, Locale.getDefault());
     }
 
     public void setDayFormat(SimpleDateFormat dayFormat) {
@@ -534,7 +536,7 @@ public class CometChatDate extends LinearLayout {
     public void setDatePattern(String pattern) {
         if (pattern != null && !pattern.isEmpty()) {
             this.datePattern = pattern;
-            this.simpleDateFormat = new SimpleDateFormat(pattern, Locale.getDefault());
+            this.simpleDateFormat = null;
         }
     }
 
@@ -545,7 +547,7 @@ public class CometChatDate extends LinearLayout {
     public void setDayPattern(String pattern) {
         if (pattern != null && !pattern.isEmpty()) {
             this.dayPattern = pattern;
-            this.simpleDayFormat = new SimpleDateFormat(pattern, Locale.getDefault());
+            this.simpleDayFormat = null;
         }
     }
 
@@ -556,7 +558,7 @@ public class CometChatDate extends LinearLayout {
     public void setTimePattern(String pattern) {
         if (pattern != null && !pattern.isEmpty()) {
             this.timePattern = pattern;
-            this.simpleTimeFormat = new SimpleDateFormat(pattern, Locale.getDefault());
+            this.simpleTimeFormat = null;
         }
     }
 
@@ -861,7 +861,7 @@ public class CometChatFormBubble extends MaterialCardView {
                         CometChatLogger.e(TAG, e.toString());
                     }
                     ApiController
-                        .getInstance()
+                        .getInstance(getContext())
                         .call(apiAction.getMethod(), apiAction.getUrl(), jsonObject, apiAction.getHeaders(), new ApiController.APICallback() {
                             @Override
                             public void onSuccess(String response) {
@@ -3,6 +3,7 @@ package com.cometchat.chatuikit.shared.views.reaction.emojikeyboard;
 import android.content.Context;
 
 import com.cometchat.chatuikit.logger.CometChatLogger;
+import com.cometchat.chatuikit.shared.executors.CometChatExecutors;
 import com.cometchat.chatuikit.shared.views.reaction.emojikeyboard.model.EmojiCategory;
 import com.google.gson.Gson;
 
@@ -23,7 +24,7 @@ public class EmojiKeyboardUtils {
 
     public static void loadAndSaveEmojis(Context context) {
         if (emojiCategories == null || emojiCategories.isEmpty()) {
-            new Thread(() -> {
+            CometChatExecutors.io().execute(() -> {
                 emojiCategories = new ArrayList<>();
                 try {
                     JSONArray jsonArray = new JSONObject(loadJSONFromAsset(context)).getJSONArray("emojiCategory");
@@ -34,7 +35,7 @@ public class EmojiKeyboardUtils {
                 } catch (Exception e) {
                     CometChatLogger.e(TAG, e.toString());
                 }
-            }).start();
+            });
         }
     }
 
@@ -96,10 +96,10 @@ public class EmojiAdapter extends RecyclerView.Adapter<EmojiAdapter.EmojiViewHol
             }
 
             categoryName.setText(emojiCategory.getName());
-            new Thread(() -> handler.post(() -> {
+            handler.post(() -> {
                 emojiItemAdapter.setEmojiList(emojiCategory.getEmojis());
                 emojiItemAdapter.notifyDataSetChanged();
-            })).start();
+            });
 
             categoryName.setText(emojiCategory.getName());
         }
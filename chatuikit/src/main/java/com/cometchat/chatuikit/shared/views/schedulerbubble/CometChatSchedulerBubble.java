@@ -183,7 +183,7 @@ public class CometChatSchedulerBubble extends MaterialCardView {
                         CometChatLogger.e(TAG, e.toString());
                     }
                     ApiController
-                        .getInstance()
+                        .getInstance(getContext())
                         .call(apiAction.getMethod(), apiAction.getUrl(), jsonObject, apiAction.getHeaders(), new ApiController.APICallback() {
                             @Override
                             public void onSuccess(String response) {
@@ -1,8 +1,6 @@
 package com.cometchat.chatuikit.shared.views.schedulerbubble;
 
 import android.os.Build;
-import android.os.Handler;
-import android.os.Looper;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
@@ -10,6 +8,7 @@ import androidx.annotation.Nullable;
 
 import com.cometchat.chatuikit.logger.CometChatLogger;
 import com.cometchat.chatuikit.shared.constants.UIKitConstants;
+import com.cometchat.chatuikit.shared.executors.CometChatExecutors;
 import com.cometchat.chatuikit.shared.models.interactivemessage.SchedulerMessage;
 import com.cometchat.chatuikit.shared.models.interactivemessage.TimeRange;
 
@@ -32,8 +31,6 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.TimeZone;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -58,10 +55,7 @@ public class SchedulerUtils {
     }
 
     public static void readIcsFile(String fileUrl, Callback callback) {
-        ExecutorService executor = Executors.newSingleThreadExecutor();
-        Handler handler = new Handler(Looper.getMainLooper());
-
-        executor.execute(() -> {
+        CometChatExecutors.io().execute(() -> {
             HashMap<String, List<DateTimeRange>> meetings = new HashMap<>();
             SimpleDateFormat dateFormat = new SimpleDateFormat("yyyyMMdd'T'HHmmss'Z'", Locale.US);
             SimpleDateFormat dateKeyFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.US); // for HashMap key
@@ -123,7 +117,7 @@ public class SchedulerUtils {
                         }
                     }
                 }
-                handler.post(() -> callback.onResult(meetings));
+                CometChatExecutors.postToMain(() -> callback.onResult(meetings));
             } catch (Exception e) {
                 CometChatLogger.e(TAG, e.toString());
             }
@@ -258,13 +252,11 @@ public class SchedulerUtils {
     public static void processMeetingAsync(SchedulerMessage schedulerMessage,
                                            HashMap<String, List<DateTimeRange>> occupiedMeetings,
                                            Callback callback) {
-        ExecutorService executor = Executors.newSingleThreadExecutor();
-        Handler handler = new Handler(Looper.getMainLooper());
-        executor.execute(() -> {
+        CometChatExecutors.compute().execute(() -> {
             List<DateTimeRange> dateTimeRanges = processMeetingLogic(schedulerMessage, occupiedMeetings);
             HashMap<String, List<DateTimeRange>> hashMap = new HashMap<>();
             hashMap.put(UIKitConstants.SchedulerConstants.AVAILABLE, dateTimeRanges);
-            handler.post(() -> callback.onResult(hashMap));
+            CometChatExecutors.postToMain(() -> callback.onResult(hashMap));
         });
     }
 
@@ -16,6 +16,7 @@ import androidx.annotation.ColorInt;
 import androidx.annotation.Dimension;
 import androidx.annotation.DrawableRes;
 import androidx.annotation.StyleRes;
+import androidx.core.text.PrecomputedTextCompat;
 import androidx.core.widget.TextViewCompat;
 
 import com.bumptech.glide.Glide;
@@ -24,7 +25,7 @@ import com.cometchat.chatuikit.CometChatTheme;
 import com.cometchat.chatuikit.R;
 import com.cometchat.chatuikit.extensions.ExtensionConstants;
 import com.cometchat.chatuikit.extensions.Extensions;
-import com.cometchat.chatuikit.logger.CometChatLogger;
+import com.cometchat.chatuikit.extensions.ParsedExtensions;
 import com.cometchat.chatuikit.shared.constants.UIKitConstants;
 import com.cometchat.chatuikit.shared.formatters.CometChatTextFormatter;
 import com.cometchat.chatuikit.shared.formatters.FormatterUtils;
@@ -32,10 +33,7 @@ import com.cometchat.chatuikit.shared.resources.utils.Utils;
 import com.cometchat.chatuikit.shared.spans.MentionMovementMethod;
 import com.google.android.material.card.MaterialCardView;
 
-import org.json.JSONObject;
-
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 
 /**
@@ -203,35 +201,22 @@ public class CometChatTextBubble extends MaterialCardView {
 
     public void setMessage(TextMessage message, List<CometChatTextFormatter> textFormatters, UIKitConstants.MessageBubbleAlignment alignment) {
         if (message != null) {
-            setText(SpannableString.valueOf(FormatterUtils.getFormattedText(
-                    getContext(),
-                    message,
-                    UIKitConstants.FormattingType.MESSAGE_BUBBLE,
-                    alignment,
-                    message.getText(),
-                    textFormatters != null ? textFormatters : new ArrayList<>()
-            )));
+            setMessageText(message, textFormatters, alignment);
             editedTextView.setVisibility(message.getEditedAt() == 0 ? View.GONE : View.VISIBLE);
-            HashMap<String, JSONObject> extensionList = Extensions.extensionCheck(message);
-            if (extensionList != null) {
-                if (extensionList.containsKey(ExtensionConstants.ExtensionJSONField.LINK_PREVIEW)) {
-                    JSONObject linkPreviewJsonObject = extensionList.get(ExtensionConstants.ExtensionJSONField.LINK_PREVIEW);
-                    try {
-                        if (linkPreviewJsonObject != null) {
-                            linkPreviewContainer.setVisibility(View.VISIBLE);
-                            String strDescription = linkPreviewJsonObject.getString(ExtensionConstants.ExtensionJSONField.DESCRIPTION);
-                            String strImage = linkPreviewJsonObject.getString(ExtensionConstants.ExtensionJSONField.IMAGE);
-                            String strTitle = linkPreviewJsonObject.getString(ExtensionConstants.ExtensionJSONField.TITLE);
-                            String url = linkPreviewJsonObject.getString(ExtensionConstants.ExtensionJSONField.URL);
-                            String favIcon = linkPreviewJsonObject.getString(ExtensionConstants.ExtensionJSONField.FAV_ICON);
-                            setLinkPreview(strTitle, strDescription, url, strImage, favIcon);
-                            return;
-                        } else {
-                            linkPreviewContainer.setVisibility(View.GONE);
-                        }
-                    } catch (Exception e) {
+            ParsedExtensions parsedExtensions = Extensions.getParsedExtensions(message);
+            if (parsedExtensions.isValid()) {
+                ParsedExtensions.LinkPreview linkPreview = parsedExtensions.getLinkPreview();
+                if (linkPreview != null) {
+                    if (linkPreview.isComplete()) {
+                        linkPreviewContainer.setVisibility(View.VISIBLE);
+                        setLinkPreview(linkPreview.getTitle(),
+                                       linkPreview.getDescription(),
+                                       linkPreview.getUrl(),
+                                       linkPreview.getImage(),
+                                       linkPreview.getFavIcon());
+                        return;
+                    } else {
                         linkPreviewContainer.setVisibility(View.GONE);
-                        CometChatLogger.e(TAG, e.toString());
                     }
                 } else {
                     if (message.getMetadata() != null && message.getMetadata().has(ExtensionConstants.ExtensionJSONField.MESSAGE_TRANSLATED)) {
@@ -265,6 +250,28 @@ public class CometChatTextBubble extends MaterialCardView {
         resetWidth();
     }
 
+    /**
+     * Sets the formatted text of a message, using the text measured ahead of
+     * time by {@link PrecomputedTextCache} when it still matches the formatters,
+     * the theme and the text appearance of this bubble.
+     */
+    private void setMessageText(TextMessage message, List<CometChatTextFormatter> textFormatters, UIKitConstants.MessageBubbleAlignment alignment) {
+        PrecomputedTextCompat.Params params = TextViewCompat.getTextMetricsParams(messageTextView);
+        PrecomputedTextCompat precomputedText = alignment == null ? null : PrecomputedTextCache.get(getContext(), message, alignment, textFormatters, params);
+        if (precomputedText != null) {
+            try {
+                TextViewCompat.setPrecomputedText(messageTextView, precomputedText);
+                messageTextView.setMovementMethod(MentionMovementMethod.getInstance());
+                return;
+            } catch (IllegalArgumentException ignored) {
+                // the text appearance changed since the text was measured
+            }
+        }
+        SpannableString text = PrecomputedTextCache.getFormattedText(getContext(), message, alignment, textFormatters);
+        setText(text);
+        if (alignment != null) PrecomputedTextCache.put(getContext(), message, alignment, textFormatters, text, params);
+    }
+
     /**
      * Sets the text content of the text bubble using a {@link SpannableString}.
      *
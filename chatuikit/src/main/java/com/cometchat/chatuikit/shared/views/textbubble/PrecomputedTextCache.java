@@ -0,0 +1,290 @@
+package com.cometchat.chatuikit.shared.views.textbubble;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.text.SpannableString;
+import android.text.Spanned;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.text.PrecomputedTextCompat;
+
+import com.cometchat.chat.constants.CometChatConstants;
+import com.cometchat.chat.models.BaseMessage;
+import com.cometchat.chat.models.TextMessage;
+import com.cometchat.chatuikit.logger.CometChatLogger;
+import com.cometchat.chatuikit.shared.constants.UIKitConstants;
+import com.cometchat.chatuikit.shared.executors.CometChatExecutors;
+import com.cometchat.chatuikit.shared.formatters.CometChatTextFormatter;
+import com.cometchat.chatuikit.shared.formatters.FormatterUtils;
+import com.cometchat.chatuikit.shared.interfaces.Function1;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PrecomputedTextCache keeps the measured text of recently shown text bubbles,
+ * so a bubble bound again, or bound for the first time after its page was
+ * prefetched, sets text whose glyphs are already measured instead of measuring
+ * them on the main thread in onMeasure.
+ *
+ * <p>
+ * Text is kept per message id, edit time and bubble alignment, together with
+ * the formatters, the formatter version and the theme it was formatted with,
+ * and the text metrics it was measured for, which follow the text appearance
+ * of the bubble. A cached text is only used when all of them still match, so
+ * a formatter {@link CometChatTextFormatter#invalidateFormattedText()
+ * invalidating} its texts, for example after a style change, also makes the
+ * measured ones stale. Only texts of formatters that are all
+ * {@link CometChatTextFormatter#isCacheable() cacheable} are kept. The
+ * formatters and the theme are held weakly, so a cached text does not keep the
+ * screen they belong to. Precomputed text does not depend on the width of
+ * the bubble, only the line breaking does, so a width change needs no new
+ * measurement.
+ *
+ * <p>
+ * Formatting runs on the main thread, as formatters may touch views, and the
+ * measurement runs on the UI Kit compute pool. A prefetched page is formatted
+ * in small chunks posted to the main thread, so no single frame formats the
+ * whole page.
+ *
+ * <p>
+ * {@link #clear()} starts a new generation: measurements and prefetches still
+ * running for the previous one are dropped when they finish.
+ */
+public final class PrecomputedTextCache {
+    private static final String TAG = PrecomputedTextCache.class.getSimpleName();
+    private static final int MAX_CACHED_TEXTS = 200;
+    // shorter texts measure faster than a cache lookup is worth
+    private static final int MIN_TEXT_LENGTH = 80;
+    // messages a prefetch formats per main thread message
+    private static final int PREFETCH_CHUNK_SIZE = 5;
+
+    private static final LinkedHashMap<String, Entry> cache = new LinkedHashMap<String, Entry>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_CACHED_TEXTS;
+        }
+    };
+    // guarded by cache
+    private static final HashSet<String> pending = new HashSet<>();
+    // the text metrics each alignment was last bound with, guarded by cache
+    private static final EnumMap<UIKitConstants.MessageBubbleAlignment, PrecomputedTextCompat.Params> boundParams = new EnumMap<>(
+        UIKitConstants.MessageBubbleAlignment.class);
+    // bumped by clear, guarded by cache
+    private static int generation;
+
+    private PrecomputedTextCache() {
+    }
+
+    /**
+     * Returns the precomputed text of the given message, or null if none
+     * matches the formatters, the theme and the text metrics of the bubble.
+     * Called at bind.
+     */
+    @Nullable
+    public static PrecomputedTextCompat get(@NonNull Context context,
+                                            @NonNull TextMessage message,
+                                            @NonNull UIKitConstants.MessageBubbleAlignment alignment,
+                                            @Nullable List<CometChatTextFormatter> textFormatters,
+                                            @NonNull PrecomputedTextCompat.Params params) {
+        String key = getKey(message, alignment);
+        if (key == null || !areCacheable(textFormatters)) return null;
+        Resources.Theme theme = context.getTheme();
+        int version = FormatterUtils.getFormattedTextVersion();
+        synchronized (cache) {
+            boundParams.put(alignment, params);
+            Entry entry = cache.get(key);
+            if (entry == null || !entry.matches(textFormatters, theme, version, params)) return null;
+            return entry.text;
+        }
+    }
+
+    /**
+     * Measures the given formatted text of a message off the main thread, for
+     * the next time it is bound. Called on the main thread right after the
+     * text was formatted, so the formatter version is the one it was formatted
+     * in.
+     */
+    public static void put(@NonNull Context context,
+                           @NonNull TextMessage message,
+                           @NonNull UIKitConstants.MessageBubbleAlignment alignment,
+                           @Nullable List<CometChatTextFormatter> textFormatters,
+                           @NonNull Spanned formattedText,
+                           @NonNull PrecomputedTextCompat.Params params) {
+        String key = getKey(message, alignment);
+        if (key == null || formattedText.length() < MIN_TEXT_LENGTH || !areCacheable(textFormatters)) return;
+        Resources.Theme theme = context.getTheme();
+        int version = FormatterUtils.getFormattedTextVersion();
+        int putGeneration;
+        synchronized (cache) {
+            Entry entry = cache.get(key);
+            if (entry != null && entry.matches(textFormatters, theme, version, params)) return;
+            if (!pending.add(key)) return;
+            putGeneration = generation;
+        }
+        // the bubble keeps its own copy of the text, so measure a copy of ours
+        SpannableString text = new SpannableString(formattedText);
+        CometChatExecutors.compute().execute(() -> {
+            try {
+                PrecomputedTextCompat precomputedText = PrecomputedTextCompat.create(text, params);
+                synchronized (cache) {
+                    if (putGeneration == generation) cache.put(key, new Entry(textFormatters, theme, version, precomputedText));
+                }
+            } catch (Exception e) {
+                CometChatLogger.e(TAG, e.toString());
+            } finally {
+                synchronized (cache) {
+                    // after a clear the key may be pending again for the new generation
+                    if (putGeneration == generation) pending.remove(key);
+                }
+            }
+        });
+    }
+
+    /**
+     * Formats and measures the text messages of a page that was just inserted,
+     * with the text metrics the bubbles of each alignment were last bound with.
+     * Messages of an alignment not bound yet are left for their bind. The
+     * messages are formatted a few at a time in tasks posted to the main
+     * thread, the newest first, as they are the closest to the viewport; a
+     * clear in the meantime stops the prefetch. Called on the main thread.
+     *
+     * @param alignmentOf the alignment each message is shown with.
+     */
+    public static void prefetch(@NonNull Context context,
+                                @NonNull List<BaseMessage> messages,
+                                @Nullable List<CometChatTextFormatter> textFormatters,
+                                @NonNull Function1<BaseMessage, UIKitConstants.MessageBubbleAlignment> alignmentOf) {
+        List<TextMessage> textMessages = new ArrayList<>();
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            BaseMessage baseMessage = messages.get(i);
+            if (!(baseMessage instanceof TextMessage) || baseMessage.getDeletedAt() != 0) continue;
+            if (!CometChatConstants.CATEGORY_MESSAGE.equals(baseMessage.getCategory())) continue;
+            TextMessage message = (TextMessage) baseMessage;
+            if (message.getText() == null || message.getText().length() < MIN_TEXT_LENGTH) continue;
+            textMessages.add(message);
+        }
+        if (textMessages.isEmpty()) return;
+        int prefetchGeneration;
+        synchronized (cache) {
+            prefetchGeneration = generation;
+        }
+        CometChatExecutors.postToMain(new Prefetch(context, textMessages, textFormatters, alignmentOf, prefetchGeneration));
+    }
+
+    /**
+     * Formats the text of a message the way the text bubble shows it.
+     */
+    @NonNull
+    static SpannableString getFormattedText(@NonNull Context context,
+                                            @NonNull TextMessage message,
+                                            @Nullable UIKitConstants.MessageBubbleAlignment alignment,
+                                            @Nullable List<CometChatTextFormatter> textFormatters) {
+        return SpannableString.valueOf(FormatterUtils.getCachedFormattedText(context,
+                                                                             message,
+                                                                             UIKitConstants.FormattingType.MESSAGE_BUBBLE,
+                                                                             alignment,
+                                                                             message.getText(),
+                                                                             textFormatters != null ? textFormatters : new ArrayList<>()));
+    }
+
+    /**
+     * Drops every cached text, for example when the user logs out.
+     */
+    public static void clear() {
+        synchronized (cache) {
+            generation++;
+            cache.clear();
+            pending.clear();
+            boundParams.clear();
+        }
+    }
+
+    private static boolean areCacheable(@Nullable List<CometChatTextFormatter> textFormatters) {
+        if (textFormatters == null) return true;
+        for (CometChatTextFormatter textFormatter : textFormatters) {
+            if (textFormatter == null || !textFormatter.isCacheable()) return false;
+        }
+        return true;
+    }
+
+    @Nullable
+    private static String getKey(TextMessage message, UIKitConstants.MessageBubbleAlignment alignment) {
+        // messages still being sent have no id yet
+        if (message.getId() <= 0) return null;
+        return message.getId() + "_" + message.getEditedAt() + "_" + alignment.name();
+    }
+
+    /**
+     * Formats a chunk of the messages of a prefetched page, and posts itself
+     * again for the next chunk.
+     */
+    private static final class Prefetch implements Runnable {
+        private final Context context;
+        private final List<TextMessage> messages;
+        @Nullable
+        private final List<CometChatTextFormatter> textFormatters;
+        private final Function1<BaseMessage, UIKitConstants.MessageBubbleAlignment> alignmentOf;
+        private final int generation;
+        private int next;
+
+        private Prefetch(Context context,
+                         List<TextMessage> messages,
+                         @Nullable List<CometChatTextFormatter> textFormatters,
+                         Function1<BaseMessage, UIKitConstants.MessageBubbleAlignment> alignmentOf,
+                         int generation) {
+            this.context = context;
+            this.messages = messages;
+            this.textFormatters = textFormatters;
+            this.alignmentOf = alignmentOf;
+            this.generation = generation;
+        }
+
+        @Override
+        public void run() {
+            int end = Math.min(next + PREFETCH_CHUNK_SIZE, messages.size());
+            for (; next < end; next++) {
+                TextMessage message = messages.get(next);
+                UIKitConstants.MessageBubbleAlignment alignment = alignmentOf.apply(message);
+                PrecomputedTextCompat.Params params;
+                synchronized (cache) {
+                    if (generation != PrecomputedTextCache.generation) return;
+                    params = alignment == null ? null : boundParams.get(alignment);
+                }
+                if (params == null) continue;
+                put(context, message, alignment, textFormatters, getFormattedText(context, message, alignment, textFormatters), params);
+            }
+            if (next < messages.size()) CometChatExecutors.postToMain(this);
+        }
+    }
+
+    private static final class Entry {
+        // weak, so the cache does not keep the formatters or the theme of a destroyed screen
+        @Nullable
+        private final WeakReference<List<CometChatTextFormatter>> textFormatters;
+        private final WeakReference<Resources.Theme> theme;
+        private final int version;
+        private final PrecomputedTextCompat text;
+
+        private Entry(@Nullable List<CometChatTextFormatter> textFormatters, Resources.Theme theme, int version, PrecomputedTextCompat text) {
+            this.textFormatters = textFormatters == null ? null : new WeakReference<>(textFormatters);
+            this.theme = new WeakReference<>(theme);
+            this.version = version;
+            this.text = text;
+        }
+
+        private boolean matches(@Nullable List<CometChatTextFormatter> textFormatters,
+                                Resources.Theme theme,
+                                int version,
+                                PrecomputedTextCompat.Params params) {
+            if (this.version != version || this.theme.get() != theme || !text.getParams().equals(params)) return false;
+            return this.textFormatters == null ? textFormatters == null : this.textFormatters.get() == textFormatters;
+        }
+    }
+}
@@ -239,7 +239,7 @@ public class CometChatThreadHeader extends MaterialCardView {
         setTextFormatters(null);
 
         // Load message templates based on the additional parameters
-        messageTemplates = ChatConfigurator.getDataSource().getMessageTemplates(additionParameter);
+        messageTemplates = ChatConfigurator.getMessageTemplates(additionParameter);
 
         // Set up the message adapter for displaying messages in the thread
         adapter = new MessageAdapter(getContext(), new HashMap<>(), (list, message, cometchatMessageTemplate, cometchatMessageBubble) -> {
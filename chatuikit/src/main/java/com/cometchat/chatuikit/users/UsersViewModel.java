@@ -1,5 +1,6 @@
 package com.cometchat.chatuikit.users;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
@@ -11,6 +12,7 @@ import com.cometchat.chat.models.User;
 import com.cometchat.chatuikit.shared.constants.UIKitConstants;
 import com.cometchat.chatuikit.shared.events.CometChatUserEvents;
 import com.cometchat.chatuikit.shared.resources.utils.Utils;
+import com.cometchat.chatuikit.shared.search.SearchPipeline;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -37,6 +39,31 @@ public class UsersViewModel extends ViewModel {
     public boolean connectionListerAttached;
     public boolean hasMore = true;
     private UsersRequest usersRequest;
+    private final SearchPipeline.Listener<User, UsersRequest> searchListener = new SearchPipeline.Listener<User, UsersRequest>() {
+        @Override
+        public void onLocalResults(@NonNull String query, @NonNull List<User> users) {
+            userArrayList.clear();
+            addList(users);
+            states.setValue(users.isEmpty() ? UIKitConstants.States.LOADING : UIKitConstants.States.NON_EMPTY);
+        }
+
+        @Override
+        public void onResults(@NonNull String query, @NonNull List<User> users, @Nullable UsersRequest request, boolean cached) {
+            // the request that fetched the page, even a cached one, loads the next pages
+            usersRequest = request != null ? request : searchUsersRequestBuilder.setSearchKeyword(query).build();
+            hasMore = !users.isEmpty();
+            userArrayList.clear();
+            addList(users);
+            states.setValue(checkIsEmpty(userArrayList));
+        }
+
+        @Override
+        public void onError(@NonNull String query, @NonNull CometChatException e) {
+            cometchatException.setValue(e);
+            if (userArrayList.isEmpty()) states.setValue(UIKitConstants.States.ERROR);
+        }
+    };
+    private final SearchPipeline<User, UsersRequest> searchPipeline;
 
     /**
      * Initializes the ViewModel and sets up initial values for user requests and
@@ -54,6 +81,7 @@ public class UsersViewModel extends ViewModel {
         usersRequestBuilder = new UsersRequest.UsersRequestBuilder().setLimit(limit);
         searchUsersRequestBuilder = new UsersRequest.UsersRequestBuilder();
         usersRequest = usersRequestBuilder.build();
+        searchPipeline = new SearchPipeline<>(this::fetchSearchResults, this::matchesSearch, searchListener);
     }
 
     /**
@@ -268,7 +296,8 @@ public class UsersViewModel extends ViewModel {
         if (userArrayList.isEmpty()) {
             states.setValue(UIKitConstants.States.LOADING);
         }
-        if (hasMore) {
+        // the next page of the previous query would mix with the results of the new one
+        if (hasMore && !searchPipeline.isAwaitingResults()) {
             fetchUsersList(false);
         }
     }
@@ -279,15 +308,19 @@ public class UsersViewModel extends ViewModel {
      * @param cleanAndLoad whether to clear the current list before loading new data
      */
     private void fetchUsersList(boolean cleanAndLoad) {
-
-        usersRequest.fetchNext(new CometChat.CallbackListener<List<User>>() {
+        UsersRequest request = usersRequest;
+        request.fetchNext(new CometChat.CallbackListener<List<User>>() {
             @Override
             public void onSuccess(List<User> users) {
+                // drops the page of a request replaced by a search or a refresh
+                if (request != usersRequest) return;
+                searchPipeline.addPage(request, users);
                 setupFetchedData(cleanAndLoad, users);
             }
 
             @Override
             public void onError(CometChatException e) {
+                if (request != usersRequest) return;
                 cometchatException.setValue(e);
                 if (userArrayList.isEmpty()) {
                     states.setValue(UIKitConstants.States.ERROR);
@@ -320,6 +353,8 @@ public class UsersViewModel extends ViewModel {
      */
     public void refreshList() {
         if (usersRequestBuilder != null) {
+            searchPipeline.cancel();
+            searchPipeline.clearCache();
             clear();
             usersRequest = usersRequestBuilder.build();
             hasMore = true;
@@ -328,18 +363,51 @@ public class UsersViewModel extends ViewModel {
     }
 
     /**
-     * Searches for users based on the specified keyword.
+     * Searches for users based on the specified keyword. The search is debounced
+     * and only the results of the latest keyword are shown.
      *
-     * @param search the search keyword
+     * @param search the search keyword, or null to show all users again
      */
     public void searchUsers(String search) {
+        if (search != null) {
+            searchPipeline.search(search, userArrayList);
+            return;
+        }
+        searchPipeline.cancel();
         clear();
         hasMore = true;
-        if (search != null) usersRequest = searchUsersRequestBuilder.setSearchKeyword(search).build();
-        else usersRequest = usersRequestBuilder.build();
+        usersRequest = usersRequestBuilder.build();
         fetchUsers();
     }
 
+    /**
+     * Sets how long the search waits for the next keystroke before it is sent.
+     *
+     * @param debounceMillis the debounce interval in milliseconds
+     */
+    public void setSearchDebounceInterval(long debounceMillis) {
+        searchPipeline.setDebounceMillis(debounceMillis);
+    }
+
+    private boolean matchesSearch(User user, String query) {
+        return SearchPipeline.contains(user.getName(), query) || SearchPipeline.contains(user.getUid(), query);
+    }
+
+    private void fetchSearchResults(String search, SearchPipeline.Callback<User, UsersRequest> callback) {
+        UsersRequest request = searchUsersRequestBuilder.setSearchKeyword(search).build();
+        request.fetchNext(new CometChat.CallbackListener<List<User>>() {
+            @Override
+            public void onSuccess(List<User> users) {
+                callback.onSuccess(users, request);
+            }
+
+            @Override
+            public void onError(CometChatException e) {
+                callback.onError(e);
+            }
+        });
+    }
+
     /**
      * Adds a list of users to the user list.
      *
@@ -367,6 +435,7 @@ public class UsersViewModel extends ViewModel {
         if (usersRequest != null) {
             this.usersRequestBuilder = usersRequest;
             this.usersRequest = usersRequestBuilder.build();
+            searchPipeline.clearCache();
         }
     }
 
@@ -376,7 +445,10 @@ public class UsersViewModel extends ViewModel {
      * @param usersRequestBuilder the UsersRequestBuilder to set
      */
     public void setSearchRequestBuilder(@Nullable UsersRequest.UsersRequestBuilder usersRequestBuilder) {
-        if (usersRequestBuilder != null) this.searchUsersRequestBuilder = usersRequestBuilder;
+        if (usersRequestBuilder != null) {
+            this.searchUsersRequestBuilder = usersRequestBuilder;
+            searchPipeline.clearCache();
+        }
     }
 
     /**
@@ -0,0 +1,115 @@
+package com.cometchat.chatuikit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import android.content.Context;
+import android.view.ContextThemeWrapper;
+import android.widget.FrameLayout;
+
+import com.cometchat.chatuikit.messagelist.MessageAdapter;
+import com.cometchat.chatuikit.messagelist.MessageViewTypeRegistry;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.HashMap;
+
+@RunWith(RobolectricTestRunner.class)
+public class ThemeAttributeCacheTest {
+    private static final int HOLDERS = 200;
+
+    @After
+    public void tearDown() {
+        CometChatTheme.clearCache();
+    }
+
+    @Test
+    public void aThemeKeepsItsTable() {
+        Context context = themedContext();
+        ThemeAttributeCache.Table table = ThemeAttributeCache.get(context);
+        assertNotNull(table);
+        assertSame(table, ThemeAttributeCache.get(context));
+    }
+
+    @Test
+    public void eachThemeHasItsOwnTable() {
+        Context first = themedContext();
+        Context second = themedContext();
+        ThemeAttributeCache.Table firstTable = ThemeAttributeCache.get(first);
+        ThemeAttributeCache.Table secondTable = ThemeAttributeCache.get(second);
+        assertNotSame(firstTable, secondTable);
+        // switching back finds the first table again
+        assertSame(firstTable, ThemeAttributeCache.get(first));
+    }
+
+    @Test
+    public void aNightModeChangeRebuildsTheTable() {
+        Context context = themedContext();
+        ThemeAttributeCache.Table day = ThemeAttributeCache.get(context);
+        RuntimeEnvironment.setQualifiers("+night");
+        assertNotSame(day, ThemeAttributeCache.get(context));
+    }
+
+    @Test
+    public void clearingDropsTheTables() {
+        Context context = themedContext();
+        ThemeAttributeCache.Table table = ThemeAttributeCache.get(context);
+        CometChatTheme.clearCache();
+        assertNotSame(table, ThemeAttributeCache.get(context));
+    }
+
+    @Test
+    public void cachedAttributesMatchFreshlyResolvedOnes() {
+        Context context = themedContext();
+        int primary = CometChatTheme.getPrimaryColor(context);
+        int extended = CometChatTheme.getExtendedPrimaryColor500(context);
+        int extended900 = CometChatTheme.getExtendedPrimaryColor900(context);
+        int textAppearance = CometChatTheme.getTextAppearanceBodyRegular(context);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(primary, CometChatTheme.getPrimaryColor(context));
+            assertEquals(extended, CometChatTheme.getExtendedPrimaryColor500(context));
+            assertEquals(extended900, CometChatTheme.getExtendedPrimaryColor900(context));
+            assertEquals(textAppearance, CometChatTheme.getTextAppearanceBodyRegular(context));
+            CometChatTheme.clearCache();
+        }
+    }
+
+    /**
+     * Creates message list holders with the attribute tables kept, and with
+     * them dropped before every holder as without the cache, and prints both
+     * times. It asserts nothing about the times, which depend on the machine.
+     */
+    @Test
+    public void holderCreationBenchmark() {
+        Context context = themedContext();
+        FrameLayout parent = new FrameLayout(context);
+        MessageAdapter adapter = new MessageAdapter(context, new HashMap<>(), null);
+        int viewType = new MessageViewTypeRegistry().getViewType(null, null, MessageViewTypeRegistry.ALIGNMENT_LEFT);
+        // warm up the inflater and the class loading of both paths
+        createHolders(adapter, parent, viewType, 20, true);
+        createHolders(adapter, parent, viewType, 20, false);
+
+        long uncachedNanos = createHolders(adapter, parent, viewType, HOLDERS, true);
+        long cachedNanos = createHolders(adapter, parent, viewType, HOLDERS, false);
+        System.out.println("ThemeAttributeCache: " + HOLDERS + " holders in " + uncachedNanos / 1_000_000 + " ms uncached, " + cachedNanos / 1_000_000 + " ms cached");
+    }
+
+    private static long createHolders(MessageAdapter adapter, FrameLayout parent, int viewType, int count, boolean clearEachTime) {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            if (clearEachTime) CometChatTheme.clearCache();
+            assertNotNull(adapter.onCreateViewHolder(parent, viewType));
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static Context themedContext() {
+        return new ContextThemeWrapper(RuntimeEnvironment.getApplication(), R.style.CometChatTheme_DayNight);
+    }
+}
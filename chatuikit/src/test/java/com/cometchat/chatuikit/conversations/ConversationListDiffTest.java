@@ -0,0 +1,214 @@
+package com.cometchat.chatuikit.conversations;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.cometchat.chat.models.Conversation;
+import com.cometchat.chat.models.TextMessage;
+import com.cometchat.chat.models.User;
+import com.cometchat.chatuikit.shared.cache.CachedConversation;
+import com.cometchat.chatuikit.shared.cache.InMemoryConversationSnapshotStorage;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ConversationListDiffTest {
+    private static final String OWNER = "owner";
+
+    @Test
+    public void theSnapshotKeepsTheOrderAndUpdatedAtOfItsOwner() {
+        InMemoryConversationSnapshotStorage storage = new InMemoryConversationSnapshotStorage();
+        storage.write(OWNER, Arrays.asList(cached("a", 300, 2), cached("b", 200, 0), cached("c", 100, 1)));
+        List<CachedConversation> snapshot = storage.read(OWNER);
+        assertEquals(3, snapshot.size());
+        assertEquals("a", snapshot.get(0).getConversationId());
+        assertEquals(300, snapshot.get(0).getUpdatedAt());
+        assertEquals(2, snapshot.get(0).getUnreadMessageCount());
+        assertEquals(100, snapshot.get(2).getUpdatedAt());
+        assertTrue(storage.read("someone else").isEmpty());
+
+        // the returned list is a copy
+        snapshot.clear();
+        assertEquals(3, storage.read(OWNER).size());
+        storage.clear();
+        assertTrue(storage.read(OWNER).isEmpty());
+    }
+
+    @Test
+    public void reconcilingTheSnapshotRebindsOnlyChangedRowsAndDropsDeletedOnes() {
+        InMemoryConversationSnapshotStorage storage = new InMemoryConversationSnapshotStorage();
+        List<CachedConversation> saved = new ArrayList<>();
+        for (int i = 0; i < 10; i++) saved.add(cached("c" + i, 1000 - i, i % 3));
+        storage.write(OWNER, saved);
+        List<Conversation> shown = restore(storage.read(OWNER));
+
+        // the server page: c4 was deleted, c7 got a message, d1 is new, the rest is unchanged
+        List<Conversation> page = new ArrayList<>();
+        page.add(conversation("c7", 2000, 1));
+        page.add(conversation("d1", 1500, 1));
+        for (int i = 0; i < 10; i++) {
+            if (i != 4 && i != 7) page.add(conversation("c" + i, 1000 - i, i % 3));
+        }
+
+        Recorder recorder = dispatch(shown, page);
+        assertFalse(recorder.dataSetChanged);
+        assertEquals(ids(page), recorder.rows);
+        assertEquals(1, recorder.removed);
+        assertEquals(1, recorder.inserted);
+        assertEquals(1, recorder.moved);
+        // only the row with the new message is rebound
+        assertEquals(Arrays.asList("c7"), recorder.changed);
+    }
+
+    @Test
+    public void aRowOlderThanThePageIsDroppedWhenTheServerDoesNotConfirmIt() {
+        List<Conversation> shown = new ArrayList<>();
+        for (int i = 0; i < 5; i++) shown.add(conversation("c" + i, 100 - i, 0));
+        // the page ends before c4, which was deleted on the server meanwhile
+        List<Conversation> page = new ArrayList<>(shown.subList(0, 4));
+        Recorder recorder = dispatch(shown, page);
+        assertEquals(ids(page), recorder.rows);
+        assertEquals(1, recorder.removed);
+        assertTrue(recorder.changed.isEmpty());
+    }
+
+    @Test
+    public void anIdenticalPageChangesNothing() {
+        List<Conversation> shown = new ArrayList<>();
+        List<Conversation> page = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            shown.add(conversation("c" + i, 100 - i, i));
+            page.add(conversation("c" + i, 100 - i, i));
+        }
+        assertTrue(ConversationListDiff.calculate(shown, page).isEmpty());
+    }
+
+    @Test
+    public void aMostlyDifferentPageIsOneDataSetChange() {
+        List<Conversation> shown = new ArrayList<>();
+        List<Conversation> page = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            shown.add(conversation("old" + i, 100 - i, 0));
+            page.add(conversation("new" + i, 100 - i, 0));
+        }
+        assertTrue(dispatch(shown, page).dataSetChanged);
+    }
+
+    private static Recorder dispatch(List<Conversation> oldList, List<Conversation> newList) {
+        Recorder recorder = new Recorder(ids(oldList), newList);
+        RecyclerView.Adapter<RecyclerView.ViewHolder> adapter = new RecyclerView.Adapter<RecyclerView.ViewHolder>() {
+            @Override
+            public int getItemCount() {
+                return newList.size();
+            }
+
+            @NonNull
+            @Override
+            public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+            }
+        };
+        adapter.registerAdapterDataObserver(recorder);
+        ConversationListDiff.calculate(oldList, newList).dispatchTo(adapter);
+        return recorder;
+    }
+
+    private static List<Conversation> restore(List<CachedConversation> snapshot) {
+        List<Conversation> conversations = new ArrayList<>();
+        for (CachedConversation cachedConversation : snapshot) {
+            conversations.add(conversation(cachedConversation.getConversationId(),
+                                           cachedConversation.getUpdatedAt(),
+                                           cachedConversation.getUnreadMessageCount()));
+        }
+        return conversations;
+    }
+
+    private static CachedConversation cached(String id, long updatedAt, int unreadCount) {
+        return new CachedConversation(id, updatedAt, unreadCount, "{}");
+    }
+
+    private static Conversation conversation(String id, long updatedAt, int unreadCount) {
+        Conversation conversation = new Conversation(id, "user");
+        User user = new User("uid_" + id, "User " + id);
+        conversation.setConversationWith(user);
+        TextMessage lastMessage = new TextMessage(user.getUid(), "hi", "user");
+        lastMessage.setId((int) updatedAt);
+        lastMessage.setUpdatedAt(updatedAt);
+        conversation.setLastMessage(lastMessage);
+        conversation.setUpdatedAt(updatedAt);
+        conversation.setUnreadMessageCount(unreadCount);
+        return conversation;
+    }
+
+    private static List<String> ids(List<Conversation> conversations) {
+        List<String> ids = new ArrayList<>();
+        for (Conversation conversation : conversations) ids.add(conversation.getConversationId());
+        return ids;
+    }
+
+    /**
+     * Applies the notifications to the ids of the old list, as the recycler view
+     * would to its rows.
+     */
+    private static final class Recorder extends RecyclerView.AdapterDataObserver {
+        private final List<String> rows;
+        private final List<Conversation> newList;
+        private final List<String> changed = new ArrayList<>();
+        private int removed;
+        private int inserted;
+        private int moved;
+        private boolean dataSetChanged;
+
+        private Recorder(List<String> rows, List<Conversation> newList) {
+            this.rows = rows;
+            this.newList = newList;
+        }
+
+        @Override
+        public void onChanged() {
+            dataSetChanged = true;
+            rows.clear();
+            rows.addAll(ids(newList));
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            for (int i = 0; i < itemCount; i++) changed.add(rows.get(positionStart + i));
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            for (int i = 0; i < itemCount; i++) {
+                rows.add(positionStart + i, newList.get(positionStart + i).getConversationId());
+                inserted++;
+            }
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            for (int i = 0; i < itemCount; i++) {
+                rows.remove(positionStart);
+                removed++;
+            }
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            rows.add(toPosition, rows.remove(fromPosition));
+            moved++;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.cometchat.chatuikit.conversations;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.cometchat.chat.models.Conversation;
+import com.cometchat.chat.models.Group;
+import com.cometchat.chat.models.User;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+public class ConversationStoreTest {
+    private static final int CONVERSATIONS = 10_000;
+    private static final int EVENTS = 5_000;
+
+    private int created;
+
+    @Test
+    public void aStormOfEventsKeepsTheOrderAndTheIndexes() {
+        ConversationStore store = new ConversationStore();
+        // the plain list the view model used before, as the reference
+        List<Conversation> expected = new ArrayList<>();
+        for (int i = 0; i < CONVERSATIONS; i++) expected.add(newConversation());
+        store.addAll(expected);
+        assertMatches(expected, store);
+
+        Random random = new Random(17);
+        long storeNanos = 0;
+        for (int event = 0; event < EVENTS; event++) {
+            int kind = random.nextInt(10);
+            long start;
+            if (kind < 6) {
+                // a message arrives in a loaded conversation
+                Conversation target = expected.get(random.nextInt(expected.size()));
+                Conversation updated = copyOf(target);
+                start = System.nanoTime();
+                int index = store.indexOfId(target.getConversationId());
+                store.moveToTop(index, updated);
+                storeNanos += System.nanoTime() - start;
+                expected.remove(target);
+                expected.add(0, updated);
+            } else if (kind < 7) {
+                // a receipt or a presence change updates a conversation in place
+                Conversation target = expected.get(random.nextInt(expected.size()));
+                Conversation updated = copyOf(target);
+                String uid = uidOf(target);
+                start = System.nanoTime();
+                int index = uid != null ? store.indexOfUser(uid) : store.indexOfGroup(guidOf(target));
+                store.set(index, updated);
+                storeNanos += System.nanoTime() - start;
+                expected.set(expected.indexOf(target), updated);
+            } else if (kind < 8) {
+                // the user leaves a group or deletes a conversation
+                Conversation target = expected.get(random.nextInt(expected.size()));
+                start = System.nanoTime();
+                store.remove(store.indexOfId(target.getConversationId()));
+                storeNanos += System.nanoTime() - start;
+                expected.remove(target);
+            } else if (kind < 9) {
+                // a message starts a new conversation
+                Conversation conversation = newConversation();
+                start = System.nanoTime();
+                store.add(0, conversation);
+                storeNanos += System.nanoTime() - start;
+                expected.add(0, conversation);
+            } else {
+                // an older page is appended
+                List<Conversation> page = new ArrayList<>();
+                for (int i = 0; i < 30; i++) page.add(newConversation());
+                start = System.nanoTime();
+                store.addAll(page);
+                storeNanos += System.nanoTime() - start;
+                expected.addAll(page);
+            }
+            if (event % 500 == 0) assertMatches(expected, store);
+        }
+        assertMatches(expected, store);
+        long storeMillis = TimeUnit.NANOSECONDS.toMillis(storeNanos);
+        // well above the few milliseconds the store needs, well below the linear scans it replaced
+        assertTrue(EVENTS + " events took " + storeMillis + "ms", storeMillis < 2000);
+    }
+
+    @Test
+    public void movingToTheTopKeepsTheOthersInPlace() {
+        ConversationStore store = new ConversationStore();
+        List<Conversation> conversations = new ArrayList<>();
+        for (int i = 0; i < 5; i++) conversations.add(newConversation());
+        store.addAll(conversations);
+        Conversation updated = copyOf(conversations.get(3));
+        store.moveToTop(3, updated);
+        assertSame(updated, store.get(0));
+        assertSame(conversations.get(0), store.get(1));
+        assertSame(conversations.get(2), store.get(3));
+        assertSame(conversations.get(4), store.get(4));
+        assertEquals(0, store.indexOfId(updated.getConversationId()));
+        assertEquals(4, store.indexOfId(conversations.get(4).getConversationId()));
+    }
+
+    @Test
+    public void anInsertInTheMiddleAndAClearAreIndexed() {
+        ConversationStore store = new ConversationStore();
+        List<Conversation> conversations = new ArrayList<>();
+        for (int i = 0; i < 100; i++) conversations.add(newConversation());
+        store.addAll(conversations);
+        Conversation inserted = newConversation();
+        store.add(50, inserted);
+        conversations.add(50, inserted);
+        assertMatches(conversations, store);
+
+        store.clear();
+        assertEquals(0, store.size());
+        assertEquals(-1, store.indexOfId(inserted.getConversationId()));
+        Conversation first = newConversation();
+        store.add(0, first);
+        assertEquals(0, store.indexOf(first));
+    }
+
+    @Test
+    public void unknownKeysAreNotFound() {
+        ConversationStore store = new ConversationStore();
+        store.add(newConversation());
+        assertEquals(-1, store.indexOfId("missing"));
+        assertEquals(-1, store.indexOfUser(null));
+        assertEquals(-1, store.indexOfGroup("missing"));
+        assertEquals(-1, store.indexOf("not a conversation"));
+    }
+
+    private static void assertMatches(List<Conversation> expected, ConversationStore store) {
+        assertEquals(expected.size(), store.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Conversation conversation = expected.get(i);
+            assertSame(conversation, store.get(i));
+            assertEquals(i, store.indexOfId(conversation.getConversationId()));
+            String uid = uidOf(conversation);
+            if (uid != null) assertEquals(i, store.indexOfUser(uid));
+            else assertEquals(i, store.indexOfGroup(guidOf(conversation)));
+        }
+    }
+
+    private Conversation newConversation() {
+        int n = created++;
+        Conversation conversation;
+        if (n % 2 == 0) {
+            conversation = new Conversation("user_" + n, "user");
+            conversation.setConversationWith(new User("uid" + n, "User " + n));
+        } else {
+            conversation = new Conversation("group_" + n, "group");
+            conversation.setConversationWith(new Group("guid" + n, "Group " + n, "public", ""));
+        }
+        return conversation;
+    }
+
+    private static Conversation copyOf(Conversation conversation) {
+        Conversation copy = new Conversation(conversation.getConversationId(), conversation.getConversationType());
+        copy.setConversationWith(conversation.getConversationWith());
+        copy.setUnreadMessageCount(conversation.getUnreadMessageCount() + 1);
+        return copy;
+    }
+
+    private static String uidOf(Conversation conversation) {
+        return conversation.getConversationWith() instanceof User ? ((User) conversation.getConversationWith()).getUid() : null;
+    }
+
+    private static String guidOf(Conversation conversation) {
+        return ((Group) conversation.getConversationWith()).getGuid();
+    }
+}
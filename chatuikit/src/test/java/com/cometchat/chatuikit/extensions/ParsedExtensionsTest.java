@@ -0,0 +1,153 @@
+package com.cometchat.chatuikit.extensions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.cometchat.chat.constants.CometChatConstants;
+import com.cometchat.chat.models.BaseMessage;
+import com.cometchat.chat.models.TextMessage;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class ParsedExtensionsTest {
+    @Before
+    public void setUp() {
+        Extensions.clearParsedExtensions();
+    }
+
+    @Test
+    public void aMessageIsParsedOnceAcrossAHundredRebinds() throws Exception {
+        List<BaseMessage> messages = new ArrayList<>();
+        List<ParsedExtensions> firstBind = new ArrayList<>();
+        for (int id = 1; id <= 30; id++) {
+            BaseMessage message = message(id, allExtensions());
+            messages.add(message);
+            firstBind.add(Extensions.getParsedExtensions(message));
+        }
+        for (int bind = 0; bind < 100; bind++) {
+            for (int i = 0; i < messages.size(); i++) {
+                BaseMessage message = messages.get(i);
+                assertSame(firstBind.get(i), Extensions.getParsedExtensions(message));
+                // the accessors a bubble calls while binding read the same model
+                assertEquals("medium.png", Extensions.getThumbnailUrl(message));
+                assertEquals(3, Extensions.getSmartReplyList(message).size());
+            }
+        }
+    }
+
+    @Test
+    public void anEditedMessageIsParsedAgain() throws Exception {
+        BaseMessage message = message(1, allExtensions());
+        ParsedExtensions before = Extensions.getParsedExtensions(message);
+        message.setUpdatedAt(message.getUpdatedAt() + 1);
+        message.setMetadata(metadata(new JSONObject().put(Extensions.sentimentalAnalysis,
+                                                          new JSONObject().put("sentiment", "positive"))));
+        ParsedExtensions after = Extensions.getParsedExtensions(message);
+        assertNotSame(before, after);
+        assertFalse(after.isNegativeSentiment());
+        assertNull(after.getThumbnailUrl());
+        assertSame(after, Extensions.getParsedExtensions(message));
+    }
+
+    @Test
+    public void pendingMessagesAreNotCached() throws Exception {
+        BaseMessage pending = message(0, allExtensions());
+        assertNotSame(Extensions.getParsedExtensions(pending), Extensions.getParsedExtensions(pending));
+    }
+
+    @Test
+    public void clearingDropsTheParsedMessages() throws Exception {
+        BaseMessage message = message(1, allExtensions());
+        ParsedExtensions before = Extensions.getParsedExtensions(message);
+        Extensions.clearParsedExtensions();
+        assertNotSame(before, Extensions.getParsedExtensions(message));
+    }
+
+    @Test
+    public void theAccessorsReturnTheValuesOfTheMetadata() throws Exception {
+        BaseMessage message = message(1, allExtensions());
+        ParsedExtensions parsedExtensions = Extensions.getParsedExtensions(message);
+        assertTrue(parsedExtensions.isValid());
+        assertEquals(Arrays.asList("yes", "maybe", "no"), Extensions.getSmartReplyList(message));
+        assertTrue(Extensions.checkSentiment(message));
+        assertTrue(Extensions.isImageModerated(null, message));
+        assertEquals("clean text", Extensions.checkProfanityMessage(null, message));
+        assertEquals("masked text", Extensions.checkDataMasking(null, message));
+        assertEquals("2", Extensions.getReactionsOnMessage(message).get("👍"));
+        assertEquals("https://example.com/document", Extensions.getWriteBoardUrl(message));
+
+        ParsedExtensions.LinkPreview linkPreview = parsedExtensions.getLinkPreview();
+        assertEquals("Example", linkPreview.getTitle());
+        assertTrue(linkPreview.isComplete());
+
+        // callers own the map they get back
+        Extensions.extensionCheck(message).clear();
+        assertTrue(Extensions.extensionCheck(message).containsKey("polls"));
+    }
+
+    @Test
+    public void missingOrUnreadableMetadataHasNoExtensions() throws Exception {
+        BaseMessage withoutMetadata = message(1, null);
+        assertNull(Extensions.extensionCheck(withoutMetadata));
+        assertEquals(" text ", Extensions.checkProfanityMessage(null, withoutMetadata));
+
+        BaseMessage unreadable = new TextMessage("uid", "text", CometChatConstants.RECEIVER_TYPE_USER);
+        unreadable.setId(2);
+        unreadable.setMetadata(new JSONObject().put("@injected", "not an object"));
+        assertFalse(Extensions.getParsedExtensions(unreadable).isValid());
+        assertNull(Extensions.extensionCheck(unreadable));
+        assertTrue(Extensions.getSmartReplyList(unreadable).isEmpty());
+        assertEquals(0, Extensions.getPollsResult(unreadable).length());
+    }
+
+    private static BaseMessage message(int id, JSONObject extensions) throws Exception {
+        TextMessage message = new TextMessage("uid", " text ", CometChatConstants.RECEIVER_TYPE_USER);
+        message.setId(id);
+        message.setUpdatedAt(100);
+        if (extensions != null) message.setMetadata(metadata(extensions));
+        return message;
+    }
+
+    private static JSONObject metadata(JSONObject extensions) throws Exception {
+        return new JSONObject().put("@injected", new JSONObject().put("extensions", extensions));
+    }
+
+    private static JSONObject allExtensions() throws Exception {
+        JSONObject link = new JSONObject()
+            .put("title", "Example")
+            .put("description", "An example page")
+            .put("url", "https://example.com")
+            .put("image", "https://example.com/image.png")
+            .put("favicon", "https://example.com/favicon.ico");
+        return new JSONObject()
+            .put(Extensions.linkPreview, new JSONObject().put("links", new JSONArray().put(link)))
+            .put(Extensions.smartReply, new JSONObject()
+                .put("reply_positive", "yes")
+                .put("reply_neutral", "maybe")
+                .put("reply_negative", "no"))
+            .put(Extensions.thumbnailGeneration, new JSONObject().put("url_medium", "medium.png"))
+            .put(Extensions.imageModeration, new JSONObject().put("unsafe", "yes"))
+            .put(Extensions.sentimentalAnalysis, new JSONObject().put("sentiment", "negative"))
+            .put(Extensions.profanityFilter, new JSONObject().put("profanity", "yes").put("message_clean", "clean text"))
+            .put(Extensions.dataMasking, new JSONObject().put("data", new JSONObject()
+                .put("sensitive_data", "yes")
+                .put("message_masked", "masked text")))
+            .put(Extensions.polls, new JSONObject().put("results", new JSONObject().put("total", 0)))
+            .put(Extensions.reactions, new JSONObject().put("👍", new JSONObject().put("a", 1).put("b", 2)))
+            .put(Extensions.document, new JSONObject().put("document_url", "https://example.com/document"));
+    }
+}
@@ -0,0 +1,94 @@
+package com.cometchat.chatuikit.messagelist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import com.cometchat.chat.constants.CometChatConstants;
+import com.cometchat.chat.models.BaseMessage;
+import com.cometchat.chat.models.TextMessage;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class CachedMessagesPageTest {
+
+    @Test
+    public void theServerPageReplacesTheCachedOneAndLiveMessagesStay() {
+        MessageStore messages = new MessageStore();
+        CachedMessagesPage cachedPage = show(messages, page(1, 5, 0));
+        messages.add(newMessage(6, 0));
+        cachedPage.replace(messages, page(1, 5, 0));
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6), idsOf(messages));
+    }
+
+    @Test
+    public void aDeleteWhileTheCachedPageIsShownKeepsTheLiveMessages() {
+        MessageStore messages = new MessageStore();
+        CachedMessagesPage cachedPage = show(messages, page(1, 5, 0));
+        messages.add(newMessage(6, 0));
+        // a message being sent, which has no id yet
+        messages.add(newMessage(0, 0));
+        // the deleted message is removed from the list, shifting the live ones up
+        messages.remove(messages.indexOfId(3));
+        cachedPage.replace(messages, page(1, 5, 0));
+        assertEquals(Arrays.asList(1, 2, 4, 5, 6, 0), idsOf(messages));
+    }
+
+    @Test
+    public void anEditWhileTheCachedPageIsShownIsKeptOverAnOlderServerCopy() {
+        MessageStore messages = new MessageStore();
+        CachedMessagesPage cachedPage = show(messages, page(1, 5, 100));
+        BaseMessage edited = newMessage(4, 300);
+        messages.set(messages.indexOfId(4), edited);
+        BaseMessage editedAgain = newMessage(2, 300);
+        messages.set(messages.indexOfId(2), editedAgain);
+
+        List<BaseMessage> serverPage = page(1, 5, 200);
+        cachedPage.replace(messages, serverPage);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), idsOf(messages));
+        assertSame(edited, messages.get(3));
+        assertSame(editedAgain, messages.get(1));
+        // the cached copies of the other messages are older than the server ones
+        assertSame(serverPage.get(0), messages.get(0));
+        assertSame(serverPage.get(4), messages.get(4));
+    }
+
+    @Test
+    public void aLiveMessageAlsoOnTheServerPageIsShownOnce() {
+        MessageStore messages = new MessageStore();
+        CachedMessagesPage cachedPage = show(messages, page(1, 3, 0));
+        messages.add(newMessage(7, 0));
+        messages.add(newMessage(8, 0));
+        cachedPage.replace(messages, page(4, 7, 0));
+        assertEquals(Arrays.asList(4, 5, 6, 7, 8), idsOf(messages));
+    }
+
+    private static CachedMessagesPage show(MessageStore messages, List<BaseMessage> cachedMessages) {
+        messages.prepend(cachedMessages);
+        return new CachedMessagesPage(cachedMessages);
+    }
+
+    private static List<BaseMessage> page(int firstId, int lastId, long updatedAt) {
+        List<BaseMessage> page = new ArrayList<>();
+        for (int id = firstId; id <= lastId; id++) page.add(newMessage(id, updatedAt));
+        return page;
+    }
+
+    private static List<Integer> idsOf(List<BaseMessage> messages) {
+        List<Integer> ids = new ArrayList<>();
+        for (BaseMessage message : messages) ids.add(message.getId());
+        return ids;
+    }
+
+    private static BaseMessage newMessage(int id, long updatedAt) {
+        TextMessage message = new TextMessage("uid", "text", CometChatConstants.RECEIVER_TYPE_USER);
+        message.setId(id);
+        message.setMuid("muid_" + id);
+        message.setSentAt(id == 0 ? 1000 : id);
+        message.setUpdatedAt(updatedAt);
+        return message;
+    }
+}
@@ -0,0 +1,199 @@
+package com.cometchat.chatuikit.messagelist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.cometchat.chat.constants.CometChatConstants;
+import com.cometchat.chat.models.BaseMessage;
+import com.cometchat.chat.models.TextMessage;
+import com.cometchat.chatuikit.shared.resources.utils.Utils;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+
+public class MessageStoreTest {
+    private final TimeZone defaultTimeZone = TimeZone.getDefault();
+    private int nextId = 1;
+
+    @After
+    public void restoreTimeZone() {
+        TimeZone.setDefault(defaultTimeZone);
+        Utils.invalidateTimeZone();
+    }
+
+    @Test
+    public void randomOperationsKeepTheIndexesInSyncWithTheList() {
+        for (long seed = 0; seed < 20; seed++) {
+            Random random = new Random(seed);
+            MessageStore store = new MessageStore();
+            List<BaseMessage> expected = new ArrayList<>();
+            for (int step = 0; step < 2000; step++) {
+                int size = expected.size();
+                switch (random.nextInt(7)) {
+                    case 0: {
+                        BaseMessage message = newMessage(random);
+                        int index = random.nextInt(size + 1);
+                        store.add(index, message);
+                        expected.add(index, message);
+                        break;
+                    }
+                    case 1: {
+                        if (size == 0) break;
+                        int index = random.nextInt(size);
+                        assertSame(expected.remove(index), store.remove(index));
+                        break;
+                    }
+                    case 2: {
+                        if (size == 0) break;
+                        int index = random.nextInt(size);
+                        BaseMessage message = newMessage(random);
+                        assertSame(expected.set(index, message), store.set(index, message));
+                        break;
+                    }
+                    case 3: {
+                        List<BaseMessage> page = newPage(random);
+                        store.prepend(page);
+                        expected.addAll(0, page);
+                        break;
+                    }
+                    case 4: {
+                        List<BaseMessage> page = newPage(random);
+                        store.addAll(page);
+                        expected.addAll(page);
+                        break;
+                    }
+                    case 5: {
+                        if (size == 0) break;
+                        BaseMessage message = expected.get(random.nextInt(size));
+                        store.remove(message);
+                        expected.remove(message);
+                        break;
+                    }
+                    default: {
+                        BaseMessage message = newMessage(random);
+                        int index = store.insertSorted(message);
+                        expected.add(index, message);
+                        break;
+                    }
+                }
+                if (step % 50 == 0) assertConsistent(expected, store);
+            }
+            assertConsistent(expected, store);
+            store.clear();
+            assertConsistent(new ArrayList<>(), store);
+        }
+    }
+
+    @Test
+    public void insertSortedOrdersBySentAtThenIdWithPendingMessagesLast() {
+        MessageStore store = new MessageStore();
+        BaseMessage pending = newMessage(0, "pending", 100);
+        BaseMessage second = newMessage(2, "second", 100);
+        BaseMessage first = newMessage(1, "first", 100);
+        BaseMessage older = newMessage(3, "older", 50);
+        store.insertSorted(pending);
+        store.insertSorted(second);
+        store.insertSorted(first);
+        store.insertSorted(older);
+        assertEquals(Arrays.asList(older, first, second, pending), new ArrayList<>(store));
+        assertEquals(3, store.indexOfMuid("pending"));
+        assertEquals(-1, store.indexOfId(0));
+        assertEquals(3, store.upperBoundById(2));
+    }
+
+    @Test
+    public void getByIdAndMuidReturnNullForUnknownMessages() {
+        MessageStore store = new MessageStore();
+        store.add(newMessage(7, "seven", 1));
+        assertNull(store.getById(8));
+        assertNull(store.getByMuid("eight"));
+        assertNull(store.getByMuid(null));
+        assertEquals(7, store.getByMuid("seven").getId());
+    }
+
+    @Test
+    public void dayIdsFollowLocalMidnightAcrossDaylightSavingChanges() {
+        useTimeZone("America/New_York");
+        MessageStore store = new MessageStore();
+        // clocks move forward at 2:00 on 10 March 2024 and back at 2:00 on 3 November 2024
+        store.add(newMessage(1, "1", localSeconds(2024, Calendar.MARCH, 10, 0, 30)));
+        store.add(newMessage(2, "2", localSeconds(2024, Calendar.MARCH, 10, 23, 30)));
+        store.add(newMessage(3, "3", localSeconds(2024, Calendar.MARCH, 11, 0, 10)));
+        store.add(newMessage(4, "4", localSeconds(2024, Calendar.NOVEMBER, 3, 0, 30)));
+        store.add(newMessage(5, "5", localSeconds(2024, Calendar.NOVEMBER, 3, 23, 30)));
+        store.add(newMessage(6, "6", localSeconds(2024, Calendar.NOVEMBER, 4, 0, 10)));
+        assertEquals(store.getDayId(0), store.getDayId(1));
+        assertEquals(store.getDayId(1) + 1, store.getDayId(2));
+        assertEquals(store.getDayId(3), store.getDayId(4));
+        assertEquals(store.getDayId(4) + 1, store.getDayId(5));
+    }
+
+    @Test
+    public void refreshDayIdsMovesMessagesToTheDaysOfTheNewTimeZone() {
+        useTimeZone("UTC");
+        MessageStore store = new MessageStore();
+        // 23:00 UTC is already the next day in Tokyo
+        store.add(newMessage(1, "1", localSeconds(2024, Calendar.JUNE, 1, 12, 0)));
+        store.add(newMessage(2, "2", localSeconds(2024, Calendar.JUNE, 1, 23, 0)));
+        assertEquals(store.getDayId(0), store.getDayId(1));
+
+        useTimeZone("Asia/Tokyo");
+        store.refreshDayIds();
+        assertNotEquals(store.getDayId(0), store.getDayId(1));
+        assertEquals(store.getDayId(0) + 1, store.getDayId(1));
+    }
+
+    private static void useTimeZone(String id) {
+        TimeZone.setDefault(TimeZone.getTimeZone(id));
+        Utils.invalidateTimeZone();
+    }
+
+    private static long localSeconds(int year, int month, int day, int hour, int minute) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(year, month, day, hour, minute);
+        return calendar.getTimeInMillis() / 1000;
+    }
+
+    private void assertConsistent(List<BaseMessage> expected, MessageStore store) {
+        assertEquals(expected.size(), store.size());
+        for (int i = 0; i < expected.size(); i++) {
+            BaseMessage message = expected.get(i);
+            assertSame(message, store.get(i));
+            assertEquals(i, store.indexOfId(message.getId()));
+            assertEquals(i, store.indexOfMuid(message.getMuid()));
+            assertEquals(i, store.indexOf(message));
+            assertEquals(Utils.getEpochDay(message.getSentAt() * 1000), store.getDayId(i));
+        }
+    }
+
+    private List<BaseMessage> newPage(Random random) {
+        List<BaseMessage> page = new ArrayList<>();
+        int count = random.nextInt(30);
+        for (int i = 0; i < count; i++) page.add(newMessage(random));
+        return page;
+    }
+
+    private BaseMessage newMessage(Random random) {
+        int id = nextId++;
+        // spread over a few days so the day ids differ
+        return newMessage(id, "muid_" + id, random.nextInt(5 * 86400));
+    }
+
+    private static BaseMessage newMessage(int id, String muid, long sentAt) {
+        TextMessage message = new TextMessage("uid", "text", CometChatConstants.RECEIVER_TYPE_USER);
+        message.setId(id);
+        message.setMuid(muid);
+        message.setSentAt(sentAt);
+        return message;
+    }
+}
@@ -0,0 +1,137 @@
+package com.cometchat.chatuikit.messagelist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.cometchat.chatuikit.shared.constants.UIKitConstants;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+@RunWith(RobolectricTestRunner.class)
+public class MessageUpdateBatcherTest {
+    private static final Object FULL = "full";
+
+    private FakeAdapter adapter;
+    private MessageUpdateBatcher batcher;
+    private List<Object[]> notifications;
+
+    @Before
+    public void setUp() {
+        adapter = new FakeAdapter(500);
+        batcher = new MessageUpdateBatcher(adapter);
+        notifications = new ArrayList<>();
+        adapter.registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+            @Override
+            public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+                notifications.add(new Object[]{positionStart, itemCount, payload});
+            }
+        });
+    }
+
+    @Test
+    public void anEventStormIsDispatchedAsOneNotificationPerRun() {
+        Random random = new Random(42);
+        UIKitConstants.MessageListPayload[] payloads = UIKitConstants.MessageListPayload.values();
+        Map<Integer, Object> expected = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            int position = random.nextInt(adapter.getItemCount());
+            UIKitConstants.MessageListPayload payload = random.nextInt(10) == 0 ? null : payloads[random.nextInt(payloads.length)];
+            Object value = payload == null ? FULL : payload;
+            Object existing = expected.get(position);
+            expected.put(position, existing == null || existing == value ? value : FULL);
+            batcher.change(position, payload);
+        }
+        assertTrue(notifications.isEmpty());
+        batcher.flush();
+
+        Map<Integer, Object> dispatched = new HashMap<>();
+        int lastEnd = -1;
+        Object lastPayload = null;
+        for (Object[] notification : notifications) {
+            int start = (int) notification[0];
+            int count = (int) notification[1];
+            Object payload = notification[2] == null ? FULL : notification[2];
+            assertTrue("runs are sorted and disjoint", start > lastEnd);
+            assertTrue("adjacent runs with the same payload are merged", start != lastEnd + 1 || payload != lastPayload);
+            for (int position = start; position < start + count; position++) dispatched.put(position, payload);
+            lastEnd = start + count - 1;
+            lastPayload = payload;
+        }
+        assertEquals(expected, dispatched);
+    }
+
+    @Test
+    public void consecutiveChangesWithTheSamePayloadAreOneRange() {
+        batcher.changeRange(10, 5, UIKitConstants.MessageListPayload.RECEIPT);
+        batcher.change(15, UIKitConstants.MessageListPayload.RECEIPT);
+        batcher.flush();
+        assertEquals(1, notifications.size());
+        assertEquals(10, notifications.get(0)[0]);
+        assertEquals(6, notifications.get(0)[1]);
+        assertEquals(UIKitConstants.MessageListPayload.RECEIPT, notifications.get(0)[2]);
+    }
+
+    @Test
+    public void differentPartialChangesOfABubbleBecomeAFullRebind() {
+        batcher.change(3, UIKitConstants.MessageListPayload.RECEIPT);
+        batcher.change(3, UIKitConstants.MessageListPayload.REACTION);
+        batcher.flush();
+        assertEquals(1, notifications.size());
+        assertEquals(null, notifications.get(0)[2]);
+    }
+
+    @Test
+    public void positionsPastTheEndOfTheListAreDropped() {
+        batcher.change(499, null);
+        batcher.change(500, null);
+        batcher.change(-1, null);
+        batcher.flush();
+        assertEquals(1, notifications.size());
+        assertEquals(499, notifications.get(0)[0]);
+    }
+
+    @Test
+    public void cancelDropsQueuedChanges() {
+        batcher.change(1, UIKitConstants.MessageListPayload.EDIT);
+        batcher.cancel();
+        batcher.flush();
+        assertTrue(notifications.isEmpty());
+    }
+
+    private static final class FakeAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+        private final int itemCount;
+
+        private FakeAdapter(int itemCount) {
+            this.itemCount = itemCount;
+        }
+
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        }
+
+        @Override
+        public int getItemCount() {
+            return itemCount;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.cometchat.chatuikit.messagelist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import com.cometchat.chatuikit.shared.models.CometChatMessageTemplate;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+public class MessageViewTypeRegistryTest {
+    @Test
+    public void everyPairAndAlignmentGetsItsOwnViewType() {
+        MessageViewTypeRegistry registry = new MessageViewTypeRegistry();
+        CometChatMessageTemplate text = template("message", "text");
+        CometChatMessageTemplate image = template("message", "image");
+        registry.setTemplates(templates(text, image));
+
+        int textLeft = registry.getViewType("message", "text", MessageViewTypeRegistry.ALIGNMENT_LEFT);
+        int textRight = registry.getViewType("message", "text", MessageViewTypeRegistry.ALIGNMENT_RIGHT);
+        int imageLeft = registry.getViewType("message", "image", MessageViewTypeRegistry.ALIGNMENT_LEFT);
+        assertNotEquals(textLeft, textRight);
+        assertNotEquals(textLeft, imageLeft);
+        assertSame(text, registry.getTemplate(textRight));
+        assertSame(image, registry.getTemplate(imageLeft));
+        assertEquals(MessageViewTypeRegistry.ALIGNMENT_RIGHT, MessageViewTypeRegistry.getAlignment(textRight));
+    }
+
+    @Test
+    public void messagesWithoutATemplateShareTheEmptySlot() {
+        MessageViewTypeRegistry registry = new MessageViewTypeRegistry();
+        registry.setTemplates(templates(template("message", "text")));
+        int unknown = registry.getViewType("custom", "poll", MessageViewTypeRegistry.ALIGNMENT_CENTER);
+        assertEquals(registry.getViewType(null, null, MessageViewTypeRegistry.ALIGNMENT_CENTER), unknown);
+        assertNull(registry.getTemplate(unknown).getType());
+    }
+
+    @Test
+    public void aPairKeepsItsViewTypeWhenTheTemplatesAreSetAgain() {
+        MessageViewTypeRegistry registry = new MessageViewTypeRegistry();
+        registry.setTemplates(templates(template("message", "text"), template("message", "image")));
+        int image = registry.getViewType("message", "image", MessageViewTypeRegistry.ALIGNMENT_LEFT);
+        CometChatMessageTemplate newImage = template("message", "image");
+        registry.setTemplates(templates(newImage));
+        assertEquals(image, registry.getViewType("message", "image", MessageViewTypeRegistry.ALIGNMENT_LEFT));
+        assertSame(newImage, registry.getTemplate(image));
+        // a pair that is no longer registered falls back to the empty template
+        int text = registry.getViewType("message", "text", MessageViewTypeRegistry.ALIGNMENT_LEFT);
+        assertNull(registry.getTemplate(text).getType());
+    }
+
+    @Test
+    public void resolvingAViewTypeDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads = getThreadMXBean();
+        assumeTrue(threads != null && threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        MessageViewTypeRegistry registry = new MessageViewTypeRegistry();
+        Map<String, CometChatMessageTemplate> templates = new HashMap<>();
+        String[] types = {"text", "image", "video", "audio", "file", "extension_poll", "meeting"};
+        for (String type : types) templates.put("message_" + type, template("message", type));
+        registry.setTemplates(templates);
+
+        int sum = 0;
+        // warm up, so the measured loop runs compiled code
+        for (int i = 0; i < 200_000; i++) sum += registry.getViewType("message", types[i % types.length], i & 3);
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < 100_000; i++) sum += registry.getViewType("message", types[i % types.length], i & 3);
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+        assertTrue(sum > 0);
+        // a single boxed value per call would be well over a megabyte
+        assertTrue("allocated " + allocated + " bytes", allocated < 64 * 1024);
+    }
+
+    private static com.sun.management.ThreadMXBean getThreadMXBean() {
+        try {
+            return (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        } catch (ClassCastException | NoClassDefFoundError e) {
+            return null;
+        }
+    }
+
+    private static CometChatMessageTemplate template(String category, String type) {
+        return new CometChatMessageTemplate().setCategory(category).setType(type);
+    }
+
+    private static Map<String, CometChatMessageTemplate> templates(CometChatMessageTemplate... templates) {
+        Map<String, CometChatMessageTemplate> map = new HashMap<>();
+        for (CometChatMessageTemplate template : templates) map.put(template.getCategory() + "_" + template.getType(), template);
+        return map;
+    }
+}
@@ -0,0 +1,148 @@
+package com.cometchat.chatuikit.messagelist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.cometchat.chat.constants.CometChatConstants;
+import com.cometchat.chat.core.CometChat;
+import com.cometchat.chat.exceptions.CometChatException;
+import com.cometchat.chat.models.BaseMessage;
+import com.cometchat.chat.models.TextMessage;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class MissedMessagesSyncTest {
+    private static final int PAGE_SIZE = 30;
+
+    @Test
+    public void aLongGapIsCaughtUpCompletely() {
+        FakeSource missed = new FakeSource(messages(1, 2000));
+        Result result = new Result();
+        new MissedMessagesSync().sync(missed, null, result);
+        assertNotNull(result.missed);
+        assertEquals(2000, result.missed.size());
+        for (int i = 0; i < 2000; i++) assertEquals(i + 1, result.missed.get(i).getId());
+        assertTrue(result.updated.isEmpty());
+        // 67 full pages, then the empty page that ends the sync
+        assertEquals(68, missed.requests);
+    }
+
+    @Test
+    public void onlyTheLatestVersionOfAnUpdatedMessageIsKept() {
+        List<BaseMessage> updates = new ArrayList<>();
+        updates.add(message(5, 100));
+        updates.add(message(6, 100));
+        updates.add(message(5, 200));
+        Result result = new Result();
+        new MissedMessagesSync().sync(new FakeSource(messages(1, 3)), new FakeSource(updates), result);
+        assertEquals(3, result.missed.size());
+        assertEquals(2, result.updated.size());
+        assertEquals(5, result.updated.get(0).getId());
+        assertEquals(200, result.updated.get(0).getUpdatedAt());
+        assertEquals(6, result.updated.get(1).getId());
+    }
+
+    @Test
+    public void anErrorMergesWhatWasFetchedSoFar() {
+        FakeSource missed = new FakeSource(messages(1, 100));
+        missed.failAtRequest = 2;
+        Result result = new Result();
+        new MissedMessagesSync().sync(missed, null, result);
+        assertEquals(2 * PAGE_SIZE, result.missed.size());
+    }
+
+    @Test
+    public void aCancelledSyncDeliversNothing() {
+        FakeSource missed = new FakeSource(messages(1, 100));
+        missed.deferred = true;
+        MissedMessagesSync sync = new MissedMessagesSync();
+        Result result = new Result();
+        sync.sync(missed, null, result);
+        sync.cancel();
+        missed.deliverPending();
+        assertNull(result.missed);
+        assertEquals(1, missed.requests);
+    }
+
+    @Test
+    public void aNewSyncSupersedesThePreviousOne() {
+        FakeSource first = new FakeSource(messages(1, 10));
+        first.deferred = true;
+        MissedMessagesSync sync = new MissedMessagesSync();
+        Result firstResult = new Result();
+        sync.sync(first, null, firstResult);
+        Result secondResult = new Result();
+        sync.sync(new FakeSource(messages(1, 10)), null, secondResult);
+        first.deliverPending();
+        assertNull(firstResult.missed);
+        assertEquals(10, secondResult.missed.size());
+    }
+
+    private static List<BaseMessage> messages(int fromId, int toId) {
+        List<BaseMessage> messages = new ArrayList<>();
+        for (int id = fromId; id <= toId; id++) messages.add(message(id, 0));
+        return messages;
+    }
+
+    private static BaseMessage message(int id, long updatedAt) {
+        TextMessage message = new TextMessage("uid", "text " + id, CometChatConstants.RECEIVER_TYPE_USER);
+        message.setId(id);
+        message.setUpdatedAt(updatedAt);
+        return message;
+    }
+
+    private static final class FakeSource implements MissedMessagesSync.PageSource {
+        private final List<BaseMessage> messages;
+        private int position;
+        private int requests;
+        private int failAtRequest = -1;
+        private boolean deferred;
+        private CometChat.CallbackListener<List<BaseMessage>> pending;
+
+        private FakeSource(List<BaseMessage> messages) {
+            this.messages = messages;
+        }
+
+        @Override
+        public void fetchNext(CometChat.CallbackListener<List<BaseMessage>> listener) {
+            requests++;
+            if (deferred) pending = listener;
+            else deliver(listener);
+        }
+
+        private void deliverPending() {
+            CometChat.CallbackListener<List<BaseMessage>> listener = pending;
+            pending = null;
+            deferred = false;
+            if (listener != null) deliver(listener);
+        }
+
+        private void deliver(CometChat.CallbackListener<List<BaseMessage>> listener) {
+            if (requests - 1 == failAtRequest) {
+                listener.onError(new CometChatException("ERR", "offline"));
+                return;
+            }
+            int end = Math.min(position + PAGE_SIZE, messages.size());
+            List<BaseMessage> page = position < end ? new ArrayList<>(messages.subList(position, end)) : Collections.emptyList();
+            position = end;
+            listener.onSuccess(page);
+        }
+    }
+
+    private static final class Result implements MissedMessagesSync.OnSynced {
+        private List<BaseMessage> missed;
+        private List<BaseMessage> updated;
+
+        @Override
+        public void onSynced(List<BaseMessage> missedMessages, List<BaseMessage> updatedMessages) {
+            missed = missedMessages;
+            updated = updatedMessages;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.cometchat.chatuikit.messagelist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.cometchat.chat.constants.CometChatConstants;
+import com.cometchat.chat.models.TextMessage;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class ReceiptWatermarkTest {
+    private static final int[] LOADED_MESSAGES = {1_000, 10_000, 100_000};
+    private static final int RECEIPTS = 1_000;
+    @Test
+    public void watermarksOnlyMoveUp() {
+        ReceiptWatermark watermark = new ReceiptWatermark();
+        assertTrue(watermark.markDelivered(10, 100));
+        assertFalse(watermark.markDelivered(9, 200));
+        assertFalse(watermark.markDelivered(10, 200));
+        assertEquals(10, watermark.getDeliveredId());
+        assertTrue(watermark.markRead(5, 300));
+        assertFalse(watermark.markRead(4, 400));
+        assertEquals(5, watermark.getReadId());
+        // reading an older message does not move the delivered watermark back
+        assertEquals(10, watermark.getDeliveredId());
+    }
+
+    @Test
+    public void readingAMessageAlsoDeliversIt() {
+        ReceiptWatermark watermark = new ReceiptWatermark();
+        assertTrue(watermark.markRead(20, 100));
+        assertEquals(20, watermark.getDeliveredId());
+        assertEquals(20, watermark.getReadId());
+    }
+
+    @Test
+    public void receiptsOfAnotherConversationDoNotApplyAfterReset() {
+        ReceiptWatermark watermark = new ReceiptWatermark();
+        watermark.markRead(1000, 100);
+        watermark.reset();
+        assertEquals(0, watermark.getDeliveredId());
+        assertEquals(0, watermark.getReadId());
+        // the next conversation starts with lower ids
+        assertTrue(watermark.markDelivered(50, 200));
+        assertEquals(50, watermark.getDeliveredId());
+        assertEquals(0, watermark.getReadId());
+    }
+
+    @Test
+    public void aReceiptIsOneUpdateWhateverTheNumberOfMessages() {
+        ReceiptWatermark watermark = new ReceiptWatermark();
+        int moved = 0;
+        // a burst of receipts, as when a long conversation is read at once
+        for (int id = 1; id <= 10_000; id++) {
+            if (watermark.markDelivered(id, id)) moved++;
+            if (watermark.markRead(id, id)) moved++;
+        }
+        assertEquals(20_000, moved);
+        assertEquals(10_000, watermark.getReadId());
+    }
+
+    /**
+     * Applies the same receipts to lists of 1k, 10k and 100k loaded messages
+     * the way the message list does: the watermark moves, and the positions it
+     * moved over are found by binary search and rebound. The rows rebound are
+     * the same whatever the size of the list, and the times are printed. It
+     * asserts nothing about the times, which depend on the machine.
+     */
+    @Test
+    public void receiptCostDoesNotGrowWithTheLoadedMessages() {
+        MessageStore smallest = newStore(LOADED_MESSAGES[0]);
+        // warm up the code paths
+        for (int i = 0; i < 20; i++) applyReceipts(smallest, new long[1]);
+        long[] rebound = new long[LOADED_MESSAGES.length];
+        List<String> times = new ArrayList<>();
+        for (int i = 0; i < LOADED_MESSAGES.length; i++) {
+            MessageStore store = newStore(LOADED_MESSAGES[i]);
+            long[] nanos = new long[1];
+            rebound[i] = applyReceipts(store, nanos);
+            times.add(LOADED_MESSAGES[i] + " messages in " + TimeUnit.NANOSECONDS.toMicros(nanos[0]) + " us");
+        }
+        System.out.println("ReceiptWatermark: " + RECEIPTS + " delivered and read receipts applied to " + String.join(", ", times));
+        for (long rows : rebound) assertEquals(2L * RECEIPTS, rows);
+    }
+
+    /**
+     * Delivers and reads the newest messages of the store one by one.
+     *
+     * @return the number of rows rebound.
+     */
+    private static long applyReceipts(MessageStore store, long[] nanos) {
+        ReceiptWatermark watermark = new ReceiptWatermark();
+        int firstId = store.size() - RECEIPTS + 1;
+        // everything older was read before the receipts
+        watermark.markRead(firstId - 1, 1);
+        long rebound = 0;
+        long start = System.nanoTime();
+        for (int id = firstId; id <= store.size(); id++) {
+            int previousId = watermark.getDeliveredId();
+            if (watermark.markDelivered(id, id)) rebound += store.upperBoundById(id) - store.upperBoundById(previousId);
+            previousId = watermark.getReadId();
+            if (watermark.markRead(id, id)) rebound += store.upperBoundById(id) - store.upperBoundById(previousId);
+        }
+        nanos[0] = System.nanoTime() - start;
+        return rebound;
+    }
+
+    private static MessageStore newStore(int size) {
+        List<TextMessage> page = new ArrayList<>(size);
+        for (int id = 1; id <= size; id++) {
+            TextMessage message = new TextMessage("uid", "text", CometChatConstants.RECEIVER_TYPE_USER);
+            message.setId(id);
+            message.setMuid("muid_" + id);
+            message.setSentAt(id);
+            page.add(message);
+        }
+        MessageStore store = new MessageStore();
+        store.prepend(page);
+        return store;
+    }
+}
@@ -0,0 +1,92 @@
+package com.cometchat.chatuikit.shared.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class InMemoryMessageCacheStorageTest {
+    private static final String CONVERSATION = "user_alice";
+
+    private final InMemoryMessageCacheStorage storage = new InMemoryMessageCacheStorage();
+
+    @Test
+    public void readLatestReturnsTheNewestMessagesInAscendingOrder() {
+        storage.write(CONVERSATION, messages(5, 1, 3, 2, 4));
+        assertEquals(Arrays.asList(3, 4, 5), ids(storage.readLatest(CONVERSATION, 3)));
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), ids(storage.readLatest(CONVERSATION, 10)));
+        assertTrue(storage.readLatest("user_bob", 10).isEmpty());
+    }
+
+    @Test
+    public void writeReplacesMessagesWithTheSameId() {
+        storage.write(CONVERSATION, messages(1));
+        storage.write(CONVERSATION, Collections.singletonList(new CachedMessage(1, 1, 20, 0, "{\"edited\":true}")));
+        assertEquals("{\"edited\":true}", storage.read(CONVERSATION, 1).getJson());
+        assertEquals(1, storage.readLatest(CONVERSATION, 10).size());
+    }
+
+    @Test
+    public void deleteRangeDropsMessagesTheServerDidNotReturn() {
+        storage.write(CONVERSATION, messages(1, 2, 3, 4, 5, 6));
+        // the server page covered ids 2 to 5 and returned 2 and 5 only
+        storage.deleteRange(CONVERSATION, 2, 5, Arrays.asList(2, 5));
+        assertEquals(Arrays.asList(1, 2, 5, 6), ids(storage.readLatest(CONVERSATION, 10)));
+    }
+
+    @Test
+    public void deleteRangeOfAnEmptyLatestPageClearsTheConversation() {
+        storage.write(CONVERSATION, messages(1, 2, 3));
+        storage.deleteRange(CONVERSATION, 0, Integer.MAX_VALUE, Collections.emptyList());
+        assertTrue(storage.readLatest(CONVERSATION, 10).isEmpty());
+    }
+
+    @Test
+    public void trimKeepsTheNewestMessages() {
+        storage.write(CONVERSATION, messages(1, 2, 3, 4, 5));
+        storage.trim(CONVERSATION, 2);
+        assertEquals(Arrays.asList(4, 5), ids(storage.readLatest(CONVERSATION, 10)));
+    }
+
+    @Test
+    public void conversationsAreKeptApart() {
+        storage.write(CONVERSATION, messages(1, 2));
+        storage.write("group_team", messages(2, 3));
+        storage.delete(CONVERSATION, 2);
+        assertNull(storage.read(CONVERSATION, 2));
+        assertEquals(Arrays.asList(2, 3), ids(storage.readLatest("group_team", 10)));
+        storage.clear();
+        assertTrue(storage.readLatest("group_team", 10).isEmpty());
+    }
+
+    @Test
+    public void aMessageIsNewerWhenNeitherItsEditNorItsDeleteIsOlder() {
+        CachedMessage sent = new CachedMessage(1, 10, 10, 0, "{}");
+        CachedMessage edited = new CachedMessage(1, 10, 20, 0, "{}");
+        CachedMessage deleted = new CachedMessage(1, 10, 20, 30, "{}");
+        assertTrue(edited.isNewerThanOrSameAs(sent));
+        assertTrue(deleted.isNewerThanOrSameAs(edited));
+        assertTrue(sent.isNewerThanOrSameAs(sent));
+        assertFalse(sent.isNewerThanOrSameAs(edited));
+        assertFalse(edited.isNewerThanOrSameAs(deleted));
+    }
+
+    private static List<CachedMessage> messages(int... ids) {
+        List<CachedMessage> messages = new ArrayList<>();
+        for (int id : ids) messages.add(new CachedMessage(id, id, id, 0, "{\"id\":" + id + "}"));
+        return messages;
+    }
+
+    private static List<Integer> ids(List<CachedMessage> messages) {
+        List<Integer> ids = new ArrayList<>();
+        for (CachedMessage message : messages) ids.add(message.getId());
+        return ids;
+    }
+}
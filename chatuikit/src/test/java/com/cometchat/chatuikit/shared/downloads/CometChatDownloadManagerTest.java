@@ -0,0 +1,237 @@
+package com.cometchat.chatuikit.shared.downloads;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(RobolectricTestRunner.class)
+public class CometChatDownloadManagerTest {
+    private static final int FILE_SIZE = 256 * 1024;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final byte[] content = new byte[FILE_SIZE];
+    private final List<String> ranges = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger connectionsToDrop = new AtomicInteger();
+    private final CountDownLatch firstRequestReleased = new CountDownLatch(1);
+    private final AtomicInteger completedTasks = new AtomicInteger();
+    private volatile int status = 200;
+    private volatile boolean holdFirstRequest;
+    private ExecutorService pool;
+    private ServerSocket server;
+    private File cacheDirectory;
+    private File downloadsDirectory;
+    private CometChatDownloadManager manager;
+
+    @Before
+    public void setUp() throws Exception {
+        new Random(7).nextBytes(content);
+        pool = Executors.newCachedThreadPool();
+        server = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+        pool.execute(this::accept);
+        cacheDirectory = new File(folder.getRoot(), "cache");
+        downloadsDirectory = folder.newFolder("Download");
+        manager = new CometChatDownloadManager(cacheDirectory, downloadsDirectory, runnable -> pool.execute(() -> {
+            try {
+                runnable.run();
+            } finally {
+                completedTasks.incrementAndGet();
+            }
+        }));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.close();
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void droppedConnectionsAreResumedAndConcurrentRequestsShareOneDownload() throws Exception {
+        connectionsToDrop.set(2);
+        holdFirstRequest = true;
+        Result[] results = {new Result(), new Result(), new Result()};
+        for (Result result : results) manager.download(url(), "report.pdf", result);
+        // the three lookups ran, and the last two joined the held download
+        awaitCondition(() -> completedTasks.get() >= 3);
+        firstRequestReleased.countDown();
+        for (Result result : results) result.await();
+
+        File file = results[0].file;
+        assertEquals(new File(downloadsDirectory, "report.pdf"), file);
+        for (Result result : results) assertSame(file, result.file);
+        assertArrayEquals(content, Files.readAllBytes(file.toPath()));
+        assertEquals(3, ranges.size());
+        assertNull(ranges.get(0));
+        assertTrue(ranges.get(1).startsWith("bytes="));
+        assertTrue(ranges.get(2).startsWith("bytes="));
+        assertFalse(new File(downloadsDirectory, "report.pdf.part").exists());
+        assertFalse(cacheDirectory.exists() && cacheDirectory.list().length > 0);
+    }
+
+    @Test
+    public void aFileAlreadyInDownloadsIsNotDownloadedAgain() throws Exception {
+        Result first = new Result();
+        manager.download(url(), "report.pdf", first);
+        first.await();
+        Result second = new Result();
+        manager.download(url(), "report.pdf", second);
+        second.await();
+        assertEquals(first.file, second.file);
+        assertEquals(1, ranges.size());
+    }
+
+    @Test
+    public void theCacheIsUsedOnlyWhenEnabled() throws Exception {
+        manager.setCacheEnabled(true);
+        Result first = new Result();
+        manager.download(url(), "report.pdf", first);
+        first.await();
+        assertEquals(cacheDirectory, first.file.getParentFile());
+        assertFalse(new File(downloadsDirectory, "report.pdf").exists());
+        assertEquals(first.file, manager.getCachedFile(url()));
+
+        Result second = new Result();
+        manager.download(url(), "report.pdf", second);
+        second.await();
+        assertEquals(first.file, second.file);
+        assertEquals(1, ranges.size());
+    }
+
+    @Test
+    public void aClientErrorIsNotRetried() throws Exception {
+        status = 404;
+        Result result = new Result();
+        manager.download(url(), "report.pdf", result);
+        result.await();
+        assertNull(result.file);
+        assertEquals(404, ((CometChatDownloadManager.HttpStatusException) result.error).getStatusCode());
+        assertEquals(1, ranges.size());
+    }
+
+    private String url() {
+        return "http://127.0.0.1:" + server.getLocalPort() + "/files/report.pdf";
+    }
+
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                pool.execute(() -> serve(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (Socket connection = socket) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.ISO_8859_1));
+            String range = null;
+            String line;
+            while ((line = reader.readLine()) != null && !line.isEmpty()) {
+                if (line.toLowerCase(Locale.US).startsWith("range:")) range = line.substring("range:".length()).trim();
+            }
+            ranges.add(range);
+            if (holdFirstRequest && ranges.size() == 1) firstRequestReleased.await(5, TimeUnit.SECONDS);
+            OutputStream output = connection.getOutputStream();
+            if (status != 200) {
+                output.write(("HTTP/1.1 " + status + " Error\r\nContent-Length: 0\r\nConnection: close\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+                return;
+            }
+            int from = range == null ? 0 : Integer.parseInt(range.substring("bytes=".length(), range.length() - 1));
+            int length = FILE_SIZE - from;
+            StringBuilder headers = new StringBuilder(range == null ? "HTTP/1.1 200 OK\r\n" : "HTTP/1.1 206 Partial Content\r\n");
+            if (range != null) headers.append("Content-Range: bytes ").append(from).append('-').append(FILE_SIZE - 1).append('/').append(FILE_SIZE).append("\r\n");
+            headers.append("Content-Length: ").append(length).append("\r\nConnection: close\r\n\r\n");
+            output.write(headers.toString().getBytes(StandardCharsets.ISO_8859_1));
+            // drop the connection after a third of what is left
+            boolean drop = connectionsToDrop.getAndDecrement() > 0;
+            output.write(content, from, drop ? length / 3 : length);
+            output.flush();
+        } catch (IOException | InterruptedException e) {
+            // the client went away
+        }
+    }
+
+    private static void awaitCondition(Condition condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.isMet()) {
+            if (System.currentTimeMillis() > deadline) throw new AssertionError("timed out");
+            Thread.sleep(5);
+        }
+    }
+
+    private interface Condition {
+        boolean isMet();
+    }
+
+    private static final class Result implements DownloadListener {
+        private File file;
+        private Exception error;
+        private boolean done;
+
+        @Override
+        public void onProgress(int progress) {
+        }
+
+        @Override
+        public void onSuccess(@NonNull File file) {
+            this.file = file;
+            done = true;
+        }
+
+        @Override
+        public void onError(@NonNull Exception e) {
+            error = e;
+            done = true;
+        }
+
+        private void await() throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 10000;
+            while (!done) {
+                if (System.currentTimeMillis() > deadline) throw new AssertionError("download did not finish");
+                shadowOf(Looper.getMainLooper()).idle();
+                Thread.sleep(5);
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.cometchat.chatuikit.shared.events;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class CometChatEventBusTest {
+    private static final int LISTS = 50;
+    private static final int EVENTS = 10_000;
+
+    @Test
+    public void routedEventsReachOnlyTheListsOfTheirChat() {
+        CometChatEventBus<Counter> bus = new CometChatEventBus<>();
+        Counter[] lists = new Counter[LISTS];
+        for (int i = 0; i < LISTS; i++) {
+            lists[i] = new Counter();
+            bus.add("list" + i, lists[i], route(i));
+        }
+        Counter global = new Counter();
+        bus.add("global", global);
+
+        int broadcasts = 0;
+        int[] expected = new int[LISTS];
+        for (int event = 0; event < EVENTS; event++) {
+            if (event % 100 == 0) {
+                // a reaction or an interaction, raised without a route
+                bus.dispatch(null, Counter::count);
+                broadcasts++;
+            } else {
+                int chat = event % LISTS;
+                bus.dispatch(route(chat), Counter::count);
+                expected[chat]++;
+            }
+        }
+        for (int i = 0; i < LISTS; i++) assertEquals(expected[i] + broadcasts, lists[i].count);
+        assertEquals(EVENTS, global.count);
+    }
+
+    @Test
+    public void aRouteWithoutListenersOnlyReachesTheUnroutedOnes() {
+        CometChatEventBus<Counter> bus = new CometChatEventBus<>();
+        Counter routed = new Counter();
+        Counter global = new Counter();
+        bus.add("routed", routed, route(1));
+        bus.add("global", global);
+        bus.dispatch(route(2), Counter::count);
+        assertEquals(0, routed.count);
+        assertEquals(1, global.count);
+        bus.dispatch(Counter::count);
+        assertEquals(1, routed.count);
+    }
+
+    @Test
+    public void aListenerMayChangeTheListenersWhileAnEventIsDelivered() {
+        CometChatEventBus<Counter> bus = new CometChatEventBus<>();
+        Counter late = new Counter();
+        Counter first = new Counter() {
+            @Override
+            void count() {
+                super.count();
+                bus.remove("first");
+                bus.add("late", late);
+            }
+        };
+        Counter second = new Counter();
+        bus.add("first", first);
+        bus.add("second", second);
+        bus.dispatch(Counter::count);
+        // the change applies from the next event on
+        assertEquals(1, first.count);
+        assertEquals(1, second.count);
+        assertEquals(0, late.count);
+        bus.dispatch(Counter::count);
+        assertEquals(1, first.count);
+        assertEquals(2, second.count);
+        assertEquals(1, late.count);
+    }
+
+    @Test
+    public void registeringWhileEventsAreRaisedFromOtherThreadsIsSafe() throws Exception {
+        CometChatEventBus<Counter> bus = new CometChatEventBus<>();
+        for (int i = 0; i < LISTS; i++) bus.add("list" + i, new Counter(), route(i));
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(2);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 2; t++) {
+            threads.add(new Thread(() -> {
+                try {
+                    for (int event = 0; event < EVENTS; event++) bus.dispatch(route(event % LISTS), Counter::count);
+                } catch (Throwable e) {
+                    failure.set(e);
+                } finally {
+                    done.countDown();
+                }
+            }));
+        }
+        for (Thread thread : threads) thread.start();
+        int registrations = 0;
+        while (done.getCount() > 0) {
+            String tag = "screen" + registrations % 10;
+            bus.add(tag, new Counter(), route(registrations % LISTS));
+            bus.remove(tag);
+            registrations++;
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        if (failure.get() != null) throw new AssertionError(failure.get());
+        assertEquals(LISTS, bus.size());
+    }
+
+    @Test
+    public void theMapMethodsStillWork() {
+        CometChatEventBus<Counter> bus = new CometChatEventBus<>();
+        Counter first = new Counter();
+        Counter second = new Counter();
+        assertNull(bus.put("tag", first));
+        assertSame(first, bus.put("tag", second));
+        assertSame(second, bus.get("tag"));
+        assertTrue(bus.containsKey("tag"));
+        bus.add("other", first, route(1));
+        assertEquals(Arrays.asList("tag", "other"), new ArrayList<>(bus.keySet()));
+        assertEquals(Arrays.asList(second, first), bus.values());
+        assertEquals(2, bus.size());
+
+        // put registers for every event, like add without a route
+        bus.dispatch(route(2), Counter::count);
+        assertEquals(1, second.count);
+
+        assertSame(second, bus.remove("tag"));
+        assertNull(bus.remove("tag"));
+        assertFalse(bus.containsKey("tag"));
+        bus.clear();
+        assertTrue(bus.isEmpty());
+        assertNull(bus.get("other"));
+    }
+
+    private static String route(int chat) {
+        return "group_" + chat;
+    }
+
+    private static class Counter {
+        private int count;
+
+        void count() {
+            count++;
+        }
+    }
+}
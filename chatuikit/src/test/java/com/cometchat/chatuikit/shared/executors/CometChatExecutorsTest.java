@@ -0,0 +1,87 @@
+package com.cometchat.chatuikit.shared.executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(RobolectricTestRunner.class)
+public class CometChatExecutorsTest {
+    @Test
+    public void scheduleOnMainRunsTheTaskOnTheMainLooper() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        ScheduledFuture<?> future = CometChatExecutors.scheduleOnMain(runs::incrementAndGet, 0);
+        awaitPostedToMain();
+        shadowOf(Looper.getMainLooper()).idle();
+        assertEquals(1, runs.get());
+        assertTrue(future.isDone());
+        assertFalse(future.cancel(false));
+    }
+
+    @Test
+    public void cancellingBeforeTheDelayElapsesStopsTheTask() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        ScheduledFuture<?> future = CometChatExecutors.scheduleOnMain(runs::incrementAndGet, 60_000);
+        assertTrue(future.cancel(false));
+        assertTrue(future.isCancelled());
+        shadowOf(Looper.getMainLooper()).idle();
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    public void cancellingAfterTheTaskWasPostedToMainStillStopsIt() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        ScheduledFuture<?> future = CometChatExecutors.scheduleOnMain(runs::incrementAndGet, 0);
+        awaitPostedToMain();
+        CometChatExecutors.cancel(future);
+        shadowOf(Looper.getMainLooper()).idle();
+        assertEquals(0, runs.get());
+        assertTrue(future.isCancelled());
+    }
+
+    @Test
+    public void aFailingTaskDoesNotStopTheScheduler() throws Exception {
+        CountDownLatch ran = new CountDownLatch(1);
+        CometChatExecutors.schedule(() -> {
+            throw new IllegalStateException("expected");
+        }, 0);
+        CometChatExecutors.schedule(ran::countDown, 0);
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void serialExecutorRunsTasksInSubmissionOrder() throws Exception {
+        SerialExecutor executor = new SerialExecutor(CometChatExecutors.io());
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(1);
+        for (int i = 0; i < 500; i++) {
+            int task = i;
+            executor.execute(() -> order.add(task));
+        }
+        executor.execute(done::countDown);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 500; i++) assertEquals(i, (int) order.get(i));
+    }
+
+    private static void awaitPostedToMain() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (shadowOf(Looper.getMainLooper()).isIdle()) {
+            if (System.currentTimeMillis() > deadline) throw new AssertionError("task was not posted to the main looper");
+            Thread.sleep(5);
+        }
+    }
+}
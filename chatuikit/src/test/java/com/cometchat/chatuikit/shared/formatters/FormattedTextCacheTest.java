@@ -0,0 +1,186 @@
+package com.cometchat.chatuikit.shared.formatters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import android.content.Context;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.view.ContextThemeWrapper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.cometchat.chat.models.BaseMessage;
+import com.cometchat.chat.models.TextMessage;
+import com.cometchat.chatuikit.R;
+import com.cometchat.chatuikit.shared.constants.UIKitConstants;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class FormattedTextCacheTest {
+    private static final UIKitConstants.FormattingType BUBBLE = UIKitConstants.FormattingType.MESSAGE_BUBBLE;
+    private static final UIKitConstants.MessageBubbleAlignment LEFT = UIKitConstants.MessageBubbleAlignment.LEFT;
+
+    private final Context context = new ContextThemeWrapper(RuntimeEnvironment.getApplication(), R.style.CometChatTheme_DayNight);
+
+    @After
+    public void tearDown() {
+        FormatterUtils.clearFormattedTextCache();
+    }
+
+    @Test
+    public void repeatedBindsFormatOnce() {
+        CountingFormatter formatter = new CountingFormatter(true);
+        List<CometChatTextFormatter> formatters = Collections.singletonList(formatter);
+        TextMessage message = message(1, "hello there");
+        Spanned first = bind(message, formatters);
+        for (int i = 0; i < 100; i++) assertSame(first, bind(message, formatters));
+        assertEquals(1, formatter.calls);
+
+        // another surface or alignment of the same message is formatted on its own
+        FormatterUtils.getCachedFormattedText(context, message, BUBBLE, UIKitConstants.MessageBubbleAlignment.RIGHT, message.getText(), formatters);
+        FormatterUtils.getCachedFormattedText(context, message, UIKitConstants.FormattingType.CONVERSATIONS, null, message.getText(), formatters);
+        assertEquals(3, formatter.calls);
+    }
+
+    @Test
+    public void anEditIsFormattedAgain() {
+        CountingFormatter formatter = new CountingFormatter(true);
+        List<CometChatTextFormatter> formatters = Collections.singletonList(formatter);
+        TextMessage message = message(1, "hello there");
+        bind(message, formatters);
+        message.setText("hello everyone");
+        message.setEditedAt(1000);
+        assertEquals("[hello everyone]", bind(message, formatters).toString());
+        assertEquals(2, formatter.calls);
+        bind(message, formatters);
+        assertEquals(2, formatter.calls);
+    }
+
+    @Test
+    public void aFormatterInvalidatingItsTextsIsAskedAgain() {
+        CountingFormatter formatter = new CountingFormatter(true);
+        List<CometChatTextFormatter> formatters = Collections.singletonList(formatter);
+        TextMessage message = message(1, "hello there");
+        bind(message, formatters);
+        formatter.changeStyle();
+        bind(message, formatters);
+        assertEquals(2, formatter.calls);
+    }
+
+    @Test
+    public void anotherFormatterInstanceDoesNotReuseTheText() {
+        TextMessage message = message(1, "hello there");
+        CountingFormatter first = new CountingFormatter(true);
+        Spanned text = bind(message, Collections.singletonList(first));
+        CountingFormatter second = new CountingFormatter(true);
+        assertNotSame(text, bind(message, Collections.singletonList(second)));
+        assertEquals(1, second.calls);
+    }
+
+    @Test
+    public void formattersAreCachedOnlyWhenAllOptIn() {
+        CountingFormatter cacheable = new CountingFormatter(true);
+        CountingFormatter notCacheable = new CountingFormatter(false);
+        List<CometChatTextFormatter> formatters = new ArrayList<>();
+        formatters.add(cacheable);
+        formatters.add(notCacheable);
+        TextMessage message = message(1, "hello there");
+        bind(message, formatters);
+        bind(message, formatters);
+        assertEquals(2, cacheable.calls);
+        assertEquals(2, notCacheable.calls);
+    }
+
+    @Test
+    public void theCacheDoesNotKeepTheFormattersOfAClosedScreen() throws InterruptedException {
+        TextMessage message = message(1, "hello there");
+        CountingFormatter formatter = new CountingFormatter(true);
+        WeakReference<CountingFormatter> closedScreen = new WeakReference<>(formatter);
+        bind(message, Collections.singletonList(formatter));
+        formatter = null;
+        for (int i = 0; i < 50 && closedScreen.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(closedScreen.get());
+        // the entry of the collected formatter is dropped at its next lookup
+        assertNull(FormattedTextCache.get(context, message, BUBBLE, LEFT, message.getText(), Collections.singletonList(new CountingFormatter(true))));
+    }
+
+    private Spanned bind(BaseMessage message, List<CometChatTextFormatter> formatters) {
+        return FormatterUtils.getCachedFormattedText(context, message, BUBBLE, LEFT, ((TextMessage) message).getText(), formatters);
+    }
+
+    private static TextMessage message(int id, String text) {
+        TextMessage message = new TextMessage("uid", text, "user");
+        message.setId(id);
+        return message;
+    }
+
+    /**
+     * Wraps the text in brackets and counts how often it is asked to.
+     */
+    private static final class CountingFormatter extends CometChatTextFormatter {
+        private final boolean cacheable;
+        private int calls;
+
+        private CountingFormatter(boolean cacheable) {
+            super('#');
+            this.cacheable = cacheable;
+        }
+
+        @Nullable
+        @Override
+        public SpannableStringBuilder prepareLeftMessageBubbleSpan(@NonNull Context context, @NonNull BaseMessage baseMessage, SpannableStringBuilder spannable) {
+            return format(spannable);
+        }
+
+        @Nullable
+        @Override
+        public SpannableStringBuilder prepareRightMessageBubbleSpan(@NonNull Context context, @NonNull BaseMessage baseMessage, SpannableStringBuilder spannable) {
+            return format(spannable);
+        }
+
+        @Nullable
+        @Override
+        public SpannableStringBuilder prepareConversationSpan(@NonNull Context context, @NonNull BaseMessage baseMessage, SpannableStringBuilder spannable) {
+            return format(spannable);
+        }
+
+        @Override
+        public boolean isCacheable() {
+            return cacheable;
+        }
+
+        @Override
+        public void search(@NonNull Context context, @Nullable String queryString) {
+        }
+
+        @Override
+        public void onScrollToBottom() {
+        }
+
+        private void changeStyle() {
+            invalidateFormattedText();
+        }
+
+        private SpannableStringBuilder format(SpannableStringBuilder spannable) {
+            calls++;
+            return spannable.insert(0, "[").append("]");
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.cometchat.chatuikit.shared.framework;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import android.view.View;
+
+import com.cometchat.chatuikit.shared.models.AdditionParameter;
+import com.cometchat.chatuikit.shared.models.CometChatMessageTemplate;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(RobolectricTestRunner.class)
+public class CompiledDataSourceTest {
+    private static final int DECORATORS = 10;
+    private static final int BINDS = 10_000;
+
+    private final CallCounts base = new CallCounts();
+
+    @Before
+    public void setUp() {
+        ChatConfigurator.init(new BaseDataSource(base));
+        for (int i = 0; i < DECORATORS; i++) {
+            int index = i;
+            ChatConfigurator.enable(dataSource -> new ExtensionDecorator(dataSource, index));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        ChatConfigurator.init();
+    }
+
+    @Test
+    public void tenStackedDecoratorsAreWalkedOncePerParameter() {
+        AdditionParameter additionParameter = new AdditionParameter();
+        DataSource dataSource = ChatConfigurator.getCompiledDataSource();
+        long start = System.nanoTime();
+        for (int bind = 0; bind < BINDS; bind++) bindOnce(dataSource, additionParameter);
+        long compiledNanos = System.nanoTime() - start;
+
+        assertEquals(1, base.templates);
+        assertEquals(1, base.textTemplates);
+        assertEquals(1, base.types);
+        assertEquals(1, base.categories);
+
+        // the same calls with the memoized results dropped every time, as before the registry
+        start = System.nanoTime();
+        for (int bind = 0; bind < BINDS; bind++) {
+            ChatConfigurator.invalidateMessageTemplates();
+            bindOnce(dataSource, additionParameter);
+        }
+        long chainNanos = System.nanoTime() - start;
+        System.out.println(DECORATORS + " decorators, " + BINDS + " binds: compiled "
+                               + TimeUnit.NANOSECONDS.toMillis(compiledNanos) + "ms, chain "
+                               + TimeUnit.NANOSECONDS.toMillis(chainNanos) + "ms");
+        assertEquals(BINDS + 1, base.templates);
+        assertTrue(compiledNanos + "ns", TimeUnit.NANOSECONDS.toMillis(compiledNanos) < 2000);
+    }
+
+    @Test
+    public void theMemoizedResultsAreThoseOfTheChain() {
+        AdditionParameter additionParameter = new AdditionParameter();
+        DataSource compiled = ChatConfigurator.getCompiledDataSource();
+        DataSource chain = ChatConfigurator.getDataSource();
+        for (int call = 0; call < 3; call++) {
+            assertEquals(keysOf(chain.getMessageTemplates(additionParameter)), keysOf(compiled.getMessageTemplates(additionParameter)));
+            assertEquals(chain.getDefaultMessageTypes(additionParameter), compiled.getDefaultMessageTypes(additionParameter));
+            assertEquals(chain.getDefaultMessageCategories(additionParameter), compiled.getDefaultMessageCategories(additionParameter));
+            assertEquals(keyOf(chain.getTextTemplate(additionParameter)), keyOf(compiled.getTextTemplate(additionParameter)));
+            assertEquals(keyOf(chain.getMessageTemplate("extension", "extension9", additionParameter)),
+                         keyOf(compiled.getMessageTemplate("extension", "extension9", additionParameter)));
+        }
+        assertEquals(1 + DECORATORS, compiled.getMessageTemplates(additionParameter).size());
+        assertEquals(1 + DECORATORS, compiled.getDefaultMessageTypes(additionParameter).size());
+    }
+
+    @Test
+    public void enablingADecoratorDropsTheMemoizedResults() {
+        AdditionParameter additionParameter = new AdditionParameter();
+        assertEquals("message_text", keyOf(ChatConfigurator.getCompiledDataSource().getTextTemplate(additionParameter)));
+        assertEquals(1 + DECORATORS, ChatConfigurator.getCompiledDataSource().getMessageTemplates(additionParameter).size());
+
+        ChatConfigurator.enable(dataSource -> new ExtensionDecorator(dataSource, DECORATORS) {
+            @Override
+            public CometChatMessageTemplate getTextTemplate(AdditionParameter additionParameter) {
+                return super.getTextTemplate(additionParameter).setType("moderated");
+            }
+        });
+        assertEquals("message_moderated", keyOf(ChatConfigurator.getCompiledDataSource().getTextTemplate(additionParameter)));
+        assertEquals(2 + DECORATORS, ChatConfigurator.getCompiledDataSource().getMessageTemplates(additionParameter).size());
+        assertEquals(2, base.templates);
+    }
+
+    @Test
+    public void aChangedGroupActionVisibilityIsRecomputed() {
+        AdditionParameter additionParameter = new AdditionParameter();
+        additionParameter.setGroupActionMessageVisibility(View.VISIBLE);
+        List<String> categories = ChatConfigurator.getCompiledDataSource().getDefaultMessageCategories(additionParameter);
+        assertTrue(categories.contains("action"));
+        additionParameter.setGroupActionMessageVisibility(View.GONE);
+        categories = ChatConfigurator.getCompiledDataSource().getDefaultMessageCategories(additionParameter);
+        assertEquals(2, base.categories);
+        assertFalse(categories.contains("action"));
+    }
+
+    @Test
+    public void callersGetCopies() {
+        AdditionParameter additionParameter = new AdditionParameter();
+        DataSource dataSource = ChatConfigurator.getCompiledDataSource();
+        CometChatMessageTemplate template = dataSource.getTextTemplate(additionParameter);
+        template.setType("changed");
+        assertNotSame(template, dataSource.getTextTemplate(additionParameter));
+        assertEquals("message_text", keyOf(dataSource.getTextTemplate(additionParameter)));
+        dataSource.getDefaultMessageTypes(additionParameter).clear();
+        assertEquals(1 + DECORATORS, dataSource.getDefaultMessageTypes(additionParameter).size());
+    }
+
+    private static void bindOnce(DataSource dataSource, AdditionParameter additionParameter) {
+        // what a message list asks the data source for when it binds its templates
+        dataSource.getMessageTemplates(additionParameter);
+        dataSource.getDefaultMessageTypes(additionParameter);
+        dataSource.getDefaultMessageCategories(additionParameter);
+        dataSource.getMessageTemplate("message", "text", additionParameter);
+    }
+
+    private static List<String> keysOf(List<CometChatMessageTemplate> templates) {
+        List<String> keys = new ArrayList<>();
+        for (CometChatMessageTemplate template : templates) keys.add(keyOf(template));
+        return keys;
+    }
+
+    private static String keyOf(CometChatMessageTemplate template) {
+        return template == null ? null : template.getCategory() + "_" + template.getType();
+    }
+
+    private static final class CallCounts {
+        private int templates;
+        private int textTemplates;
+        private int types;
+        private int categories;
+    }
+
+    /**
+     * Builds its templates through the current data source, as
+     * MessagesDataSource does, and counts how often it is asked.
+     */
+    private static final class BaseDataSource extends DataSourceDecorator {
+        private final CallCounts calls;
+
+        private BaseDataSource(CallCounts calls) {
+            super(null);
+            this.calls = calls;
+        }
+
+        @Override
+        public CometChatMessageTemplate getTextTemplate(AdditionParameter additionParameter) {
+            calls.textTemplates++;
+            return new CometChatMessageTemplate().setCategory("message").setType("text");
+        }
+
+        @Override
+        public List<CometChatMessageTemplate> getMessageTemplates(AdditionParameter additionParameter) {
+            calls.templates++;
+            List<CometChatMessageTemplate> templates = new ArrayList<>();
+            templates.add(ChatConfigurator.getCompiledDataSource().getTextTemplate(additionParameter));
+            return templates;
+        }
+
+        @Override
+        public CometChatMessageTemplate getMessageTemplate(String category, String type, AdditionParameter additionParameter) {
+            return ChatConfigurator.getMessageTemplate(category, type, additionParameter);
+        }
+
+        @Override
+        public List<String> getDefaultMessageTypes(AdditionParameter additionParameter) {
+            calls.types++;
+            List<String> types = new ArrayList<>();
+            types.add("text");
+            return types;
+        }
+
+        @Override
+        public List<String> getDefaultMessageCategories(AdditionParameter additionParameter) {
+            calls.categories++;
+            List<String> categories = new ArrayList<>();
+            categories.add("message");
+            if (additionParameter.getGroupActionMessageVisibility() == View.VISIBLE) categories.add("action");
+            return categories;
+        }
+
+        @Override
+        public String getId() {
+            return "base";
+        }
+    }
+
+    /**
+     * Adds a template and a message type of its own, as the extensions do.
+     */
+    private static class ExtensionDecorator extends DataSourceDecorator {
+        private final int index;
+
+        private ExtensionDecorator(DataSource dataSource, int index) {
+            super(dataSource);
+            this.index = index;
+        }
+
+        @Override
+        public List<CometChatMessageTemplate> getMessageTemplates(AdditionParameter additionParameter) {
+            List<CometChatMessageTemplate> templates = super.getMessageTemplates(additionParameter);
+            templates.add(new CometChatMessageTemplate().setCategory("extension").setType("extension" + index));
+            return templates;
+        }
+
+        @Override
+        public List<String> getDefaultMessageTypes(AdditionParameter additionParameter) {
+            List<String> types = super.getDefaultMessageTypes(additionParameter);
+            types.add("extension" + index);
+            return types;
+        }
+
+        @Override
+        public String getId() {
+            return "extension" + index;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.cometchat.chatuikit.shared.framework;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import android.view.View;
+
+import com.cometchat.chatuikit.shared.models.AdditionParameter;
+import com.cometchat.chatuikit.shared.models.CometChatMessageTemplate;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(RobolectricTestRunner.class)
+public class MessageTemplateRegistryTest {
+    private static int nextId;
+
+    private CountingDecorator counter;
+
+    @Before
+    public void setUp() {
+        ChatConfigurator.init(new FakeDataSource());
+        counter = enableCounter();
+    }
+
+    @Test
+    public void templatesAreBuiltOncePerParameterAcrossAThousandLookups() {
+        AdditionParameter additionParameter = new AdditionParameter();
+        for (int i = 0; i < 1000; i++) {
+            ChatConfigurator.getCompiledDataSource().getMessageTemplates(additionParameter);
+            ChatConfigurator.getMessageTemplates(additionParameter);
+            ChatConfigurator.getMessageTemplate("message", "text", additionParameter);
+        }
+        assertEquals(1, counter.templateListCalls);
+        assertEquals(1, counter.textTemplateCalls);
+    }
+
+    @Test
+    public void callersGetCopiesOfTheSharedTemplates() {
+        AdditionParameter additionParameter = new AdditionParameter();
+        List<CometChatMessageTemplate> first = ChatConfigurator.getMessageTemplates(additionParameter);
+        CometChatMessageTemplate text = find(first, "text");
+        text.setType("customised");
+        first.clear();
+
+        List<CometChatMessageTemplate> second = ChatConfigurator.getMessageTemplates(additionParameter);
+        assertEquals(1, second.size());
+        assertNotSame(text, find(second, "text"));
+        assertEquals("text", ChatConfigurator.getMessageTemplate("message", "text", additionParameter).getType());
+    }
+
+    @Test
+    public void templatesAreRebuiltWhenTheChainChanges() {
+        AdditionParameter additionParameter = new AdditionParameter();
+        ChatConfigurator.getMessageTemplates(additionParameter);
+        CountingDecorator outer = enableCounter();
+        ChatConfigurator.getMessageTemplates(additionParameter);
+        ChatConfigurator.getMessageTemplates(additionParameter);
+        assertEquals(1, outer.templateListCalls);
+        assertEquals(2, counter.templateListCalls);
+    }
+
+    @Test
+    public void templatesAreRebuiltWhenGroupActionVisibilityChanges() {
+        AdditionParameter additionParameter = new AdditionParameter();
+        ChatConfigurator.getMessageTemplates(additionParameter);
+        additionParameter.setGroupActionMessageVisibility(View.GONE);
+        ChatConfigurator.getMessageTemplates(additionParameter);
+        assertEquals(2, counter.templateListCalls);
+    }
+
+    @Test
+    public void eachParameterGetsItsOwnTemplates() {
+        ChatConfigurator.getMessageTemplates(new AdditionParameter());
+        ChatConfigurator.getMessageTemplates(new AdditionParameter());
+        assertEquals(2, counter.templateListCalls);
+    }
+
+    @Test
+    public void theChainIsAskedOnceForATemplateItHasNot() {
+        AdditionParameter additionParameter = new AdditionParameter();
+        for (int i = 0; i < 100; i++) {
+            assertNull(ChatConfigurator.getCompiledDataSource().getMessageTemplate("custom", "poll", additionParameter));
+        }
+        assertEquals(1, counter.templateCalls);
+    }
+
+    @Test
+    public void theDataSourceIsTheLastDecoratorEnabled() {
+        assertSame(counter, ChatConfigurator.getDataSource());
+        CountingDecorator outer = enableCounter();
+        assertSame(outer, ChatConfigurator.getDataSource());
+    }
+
+    @Test
+    public void aDecoratorCallingBackIntoTheConfiguratorGetsItsResults() {
+        AdditionParameter additionParameter = new AdditionParameter();
+        List<List<String>> typesSeen = new ArrayList<>();
+        ChatConfigurator.enable(dataSource -> new DataSourceDecorator(dataSource) {
+            @Override
+            public CometChatMessageTemplate getTextTemplate(AdditionParameter additionParameter) {
+                typesSeen.add(ChatConfigurator.getCompiledDataSource().getDefaultMessageTypes(additionParameter));
+                return super.getTextTemplate(additionParameter);
+            }
+
+            @Override
+            public String getId() {
+                return "reentrant";
+            }
+        });
+        assertEquals(1, ChatConfigurator.getMessageTemplates(additionParameter).size());
+        assertEquals(Collections.singletonList(Collections.singletonList("text")), typesSeen);
+        ChatConfigurator.getMessageTemplates(additionParameter);
+        assertEquals(1, typesSeen.size());
+    }
+
+    @Test
+    public void aDecoratorBuildingItsTemplatesDoesNotBlockOtherLookups() throws Exception {
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ChatConfigurator.enable(dataSource -> new DataSourceDecorator(dataSource) {
+            @Override
+            public List<CometChatMessageTemplate> getMessageTemplates(AdditionParameter additionParameter) {
+                building.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.getMessageTemplates(additionParameter);
+            }
+
+            @Override
+            public String getId() {
+                return "blocking";
+            }
+        });
+        AdditionParameter additionParameter = new AdditionParameter();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<CometChatMessageTemplate>> first = executor.submit(() -> ChatConfigurator.getMessageTemplates(additionParameter));
+            assertTrue(building.await(5, TimeUnit.SECONDS));
+            // the registry is free while the chain builds the templates
+            Future<List<String>> types = executor.submit(() -> ChatConfigurator
+                .getCompiledDataSource()
+                .getDefaultMessageCategories(additionParameter));
+            assertEquals(Collections.singletonList("message"), types.get(5, TimeUnit.SECONDS));
+            assertEquals(Collections.singletonList("message"),
+                         ChatConfigurator.getCompiledDataSource().getDefaultMessageCategories(new AdditionParameter()));
+
+            Future<List<CometChatMessageTemplate>> second = executor.submit(() -> ChatConfigurator.getMessageTemplates(additionParameter));
+            release.countDown();
+            assertEquals(1, first.get(5, TimeUnit.SECONDS).size());
+            assertEquals(1, second.get(5, TimeUnit.SECONDS).size());
+        } finally {
+            executor.shutdownNow();
+        }
+        ChatConfigurator.getMessageTemplates(additionParameter);
+        // both threads built the templates, the first one published is kept
+        assertTrue(counter.templateListCalls <= 2);
+    }
+
+    private CountingDecorator enableCounter() {
+        CountingDecorator[] enabled = new CountingDecorator[1];
+        ChatConfigurator.enable(dataSource -> enabled[0] = new CountingDecorator(dataSource));
+        return enabled[0];
+    }
+
+    private static CometChatMessageTemplate find(List<CometChatMessageTemplate> templates, String type) {
+        for (CometChatMessageTemplate template : templates) {
+            if (type.equals(template.getType())) return template;
+        }
+        throw new AssertionError("no " + type + " template");
+    }
+
+    private static final class CountingDecorator extends DataSourceDecorator {
+        private final String id = "counting_" + nextId++;
+        private int templateListCalls;
+        private int textTemplateCalls;
+        private int templateCalls;
+
+        private CountingDecorator(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        public List<CometChatMessageTemplate> getMessageTemplates(AdditionParameter additionParameter) {
+            templateListCalls++;
+            return super.getMessageTemplates(additionParameter);
+        }
+
+        @Override
+        public CometChatMessageTemplate getTextTemplate(AdditionParameter additionParameter) {
+            textTemplateCalls++;
+            return super.getTextTemplate(additionParameter);
+        }
+
+        @Override
+        public CometChatMessageTemplate getMessageTemplate(String category, String type, AdditionParameter additionParameter) {
+            templateCalls++;
+            return super.getMessageTemplate(category, type, additionParameter);
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+    }
+
+    /**
+     * A chain base with a single text template, built through the chain like
+     * the templates of {@link MessagesDataSource}.
+     */
+    private static final class FakeDataSource extends DataSourceDecorator {
+        private FakeDataSource() {
+            super(new MessagesDataSource());
+        }
+
+        @Override
+        public List<CometChatMessageTemplate> getMessageTemplates(AdditionParameter additionParameter) {
+            List<CometChatMessageTemplate> templates = new ArrayList<>();
+            templates.add(ChatConfigurator.getCompiledDataSource().getTextTemplate(additionParameter));
+            return templates;
+        }
+
+        @Override
+        public CometChatMessageTemplate getTextTemplate(AdditionParameter additionParameter) {
+            return new CometChatMessageTemplate().setCategory("message").setType("text");
+        }
+
+        @Override
+        public CometChatMessageTemplate getMessageTemplate(String category, String type, AdditionParameter additionParameter) {
+            return ChatConfigurator.getMessageTemplate(category, type, additionParameter);
+        }
+
+        @Override
+        public List<String> getDefaultMessageTypes(AdditionParameter additionParameter) {
+            return Collections.singletonList("text");
+        }
+
+        @Override
+        public List<String> getDefaultMessageCategories(AdditionParameter additionParameter) {
+            return Collections.singletonList("message");
+        }
+
+        @Override
+        public String getId() {
+            return "fake";
+        }
+    }
+}
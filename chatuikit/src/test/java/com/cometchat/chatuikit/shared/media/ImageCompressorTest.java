@@ -0,0 +1,150 @@
+package com.cometchat.chatuikit.shared.media;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.media.ExifInterface;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.GraphicsMode;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+
+@RunWith(RobolectricTestRunner.class)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class ImageCompressorTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void compressionIsOffByDefault() throws Exception {
+        assertFalse(ImageCompressionSettings.getDefault().isEnabled());
+        File source = writeImage("IMG_0001.jpg", opaqueBitmap(3000, 2000), Bitmap.CompressFormat.JPEG);
+        ImageCompressor.Result result = ImageCompressor.compress(source, folder.getRoot(), ImageCompressionSettings.getDefault());
+        assertSame(source, result.getFile());
+    }
+
+    @Test
+    public void aLargePhotoIsDownscaledAndKeepsItsName() throws Exception {
+        File source = writeImage("IMG_0001.jpg", opaqueBitmap(3000, 2000), Bitmap.CompressFormat.JPEG);
+        ImageCompressor.Result result = ImageCompressor.compress(source, cacheDirectory(), enabled().setMaxEdge(1024).build());
+        assertNotEquals(source, result.getFile());
+        assertEquals("IMG_0001.jpg", result.getFile().getName());
+        BitmapFactory.Options bounds = decodeBounds(result.getFile());
+        assertEquals(1024, bounds.outWidth);
+        assertEquals(683, bounds.outHeight);
+        assertEquals("image/jpeg", bounds.outMimeType);
+    }
+
+    @Test
+    public void aTransparentImageKeepsItsAlpha() throws Exception {
+        Bitmap bitmap = opaqueBitmap(3000, 3000);
+        for (int x = 0; x < 300; x++) {
+            for (int y = 0; y < 300; y++) bitmap.setPixel(x, y, 0x00000000);
+        }
+        File source = writeImage("logo.png", bitmap, Bitmap.CompressFormat.PNG);
+        ImageCompressor.Result result = ImageCompressor.compress(source, cacheDirectory(), enabled().setMaxEdge(1000).build());
+        assertEquals("logo.png", result.getFile().getName());
+        assertEquals("image/png", decodeBounds(result.getFile()).outMimeType);
+        Bitmap output = BitmapFactory.decodeFile(result.getFile().getAbsolutePath(), new BitmapFactory.Options());
+        assertEquals(1000, output.getWidth());
+        assertTrue(output.hasAlpha());
+        assertEquals(0, output.getPixel(10, 10) >>> 24);
+        assertEquals(0xFF, output.getPixel(999, 999) >>> 24);
+    }
+
+    @Test
+    public void theLocationIsRemovedUnlessTheAppKeepsIt() throws Exception {
+        File source = writeImage("IMG_0002.jpg", opaqueBitmap(800, 600), Bitmap.CompressFormat.JPEG);
+        ExifInterface exif = new ExifInterface(source.getAbsolutePath());
+        exif.setAttribute(ExifInterface.TAG_MAKE, "Camera");
+        exif.setAttribute(ExifInterface.TAG_GPS_LATITUDE, "48/1,51/1,0/1");
+        exif.setAttribute(ExifInterface.TAG_GPS_LATITUDE_REF, "N");
+        exif.setAttribute(ExifInterface.TAG_GPS_LONGITUDE, "2/1,21/1,0/1");
+        exif.setAttribute(ExifInterface.TAG_GPS_LONGITUDE_REF, "E");
+        exif.saveAttributes();
+
+        // the image fits, but is rewritten to drop the location
+        ImageCompressor.Result stripped = ImageCompressor.compress(source, cacheDirectory(), enabled().build());
+        assertNotEquals(source, stripped.getFile());
+        ExifInterface strippedExif = new ExifInterface(stripped.getFile().getAbsolutePath());
+        assertNull(strippedExif.getAttribute(ExifInterface.TAG_GPS_LATITUDE));
+        assertNull(strippedExif.getAttribute(ExifInterface.TAG_GPS_LONGITUDE));
+        assertEquals("Camera", strippedExif.getAttribute(ExifInterface.TAG_MAKE));
+
+        ImageCompressor.Result kept = ImageCompressor.compress(source, cacheDirectory(), enabled().setKeepLocation(true).build());
+        assertSame(source, kept.getFile());
+    }
+
+    @Test
+    public void theByteBudgetIsRespected() throws Exception {
+        File source = writeImage("noise.jpg", noiseBitmap(1500, 1500), Bitmap.CompressFormat.JPEG);
+        long maxBytes = 100 * 1024;
+        assertTrue(source.length() > maxBytes);
+        ImageCompressor.Result result = ImageCompressor.compress(source, cacheDirectory(), enabled().setMaxBytes(maxBytes).build());
+        assertTrue(result.getFinalBytes() + " bytes", result.getFinalBytes() <= maxBytes);
+        assertEquals(result.getFinalBytes(), result.getFile().length());
+    }
+
+    @Test
+    public void theOutputNameOnlyChangesItsExtension() {
+        assertEquals("photo.jpeg", ImageCompressor.getOutputName("photo.jpeg", Bitmap.CompressFormat.JPEG));
+        assertEquals("photo.jpg", ImageCompressor.getOutputName("photo.heic", Bitmap.CompressFormat.JPEG));
+        assertEquals("screen shot.png", ImageCompressor.getOutputName("screen shot.png", Bitmap.CompressFormat.PNG));
+        assertEquals("image.jpg", ImageCompressor.getOutputName("image", Bitmap.CompressFormat.JPEG));
+    }
+
+    private static ImageCompressionSettings.Builder enabled() {
+        return new ImageCompressionSettings.Builder().setEnabled(true);
+    }
+
+    private File cacheDirectory() throws IOException {
+        File directory = new File(folder.getRoot(), "cache");
+        if (!directory.exists() && !directory.mkdirs()) throw new IOException("Could not create " + directory);
+        return directory;
+    }
+
+    private File writeImage(String name, Bitmap bitmap, Bitmap.CompressFormat format) throws IOException {
+        File file = new File(folder.getRoot(), name);
+        try (OutputStream output = new FileOutputStream(file)) {
+            bitmap.compress(format, 95, output);
+        }
+        return file;
+    }
+
+    private static BitmapFactory.Options decodeBounds(File file) {
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(file.getAbsolutePath(), bounds);
+        return bounds;
+    }
+
+    private static Bitmap opaqueBitmap(int width, int height) {
+        Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        bitmap.eraseColor(0xFF3366CC);
+        return bitmap;
+    }
+
+    private static Bitmap noiseBitmap(int width, int height) {
+        Random random = new Random(3);
+        int[] pixels = new int[width * height];
+        for (int i = 0; i < pixels.length; i++) pixels[i] = 0xFF000000 | random.nextInt(0x1000000);
+        Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        bitmap.setPixels(pixels, 0, width, 0, 0, width, height);
+        return bitmap;
+    }
+}
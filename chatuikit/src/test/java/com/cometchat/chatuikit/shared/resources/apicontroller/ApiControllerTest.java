@@ -0,0 +1,194 @@
+package com.cometchat.chatuikit.shared.resources.apicontroller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+@RunWith(RobolectricTestRunner.class)
+public class ApiControllerTest {
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void theDefaultCallSendsAFormEvenWithAJsonContentType() throws Exception {
+        server.enqueue(new MockResponse().setBody("ok"));
+        JSONObject headers = new JSONObject().put("Content-Type", "application/json");
+        Result result = new Result();
+        ApiController.getInstance().call("POST", url("/form"), new JSONObject().put("name", "value"), headers, result);
+        result.await();
+        RecordedRequest request = server.takeRequest();
+        assertEquals("name=value", request.getBody().readUtf8());
+        assertTrue(request.getHeader("Content-Type").startsWith("application/x-www-form-urlencoded"));
+        assertEquals("ok", result.body);
+    }
+
+    @Test
+    public void theJsonBodyTypeSendsJson() throws Exception {
+        server.enqueue(new MockResponse().setBody("ok"));
+        Result result = new Result();
+        ApiController.getInstance()
+                     .call("POST", url("/json"), new JSONObject().put("name", "value"), null, ApiController.BodyType.JSON, result);
+        result.await();
+        RecordedRequest request = server.takeRequest();
+        assertEquals("{\"name\":\"value\"}", request.getBody().readUtf8());
+        assertTrue(request.getHeader("Content-Type").startsWith("application/json"));
+    }
+
+    @Test
+    public void aRetryWaitsForRetryAfter() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "2"));
+        server.enqueue(new MockResponse().setBody("ok"));
+        Result result = new Result();
+        ApiController.getInstance().call("GET", url("/limited"), null, null, result);
+        server.takeRequest(5, TimeUnit.SECONDS);
+        long firstAt = System.nanoTime();
+        assertNotNull(server.takeRequest(5, TimeUnit.SECONDS));
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - firstAt);
+        // the backoff alone would retry after 500ms
+        assertTrue("retried after " + waitedMillis + "ms", waitedMillis >= 1900);
+        result.await();
+        assertEquals("ok", result.body);
+    }
+
+    @Test
+    public void aRetryAfterBeyondAMinuteIsReportedInsteadOfRetried() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503).setHeader("Retry-After", "3600"));
+        Result result = new Result();
+        ApiController.getInstance().call("GET", url("/unavailable"), null, null, result);
+        result.await();
+        assertNotNull(result.error);
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void idempotentCallsAreRetriedOnServerErrors() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(500));
+        server.enqueue(new MockResponse().setResponseCode(502));
+        server.enqueue(new MockResponse().setBody("ok"));
+        Result result = new Result();
+        ApiController.getInstance().call("GET", url("/flaky"), null, null, result);
+        result.await();
+        assertEquals("ok", result.body);
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void aPostIsNotRetried() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(500));
+        Result result = new Result();
+        ApiController.getInstance().call("POST", url("/submit"), new JSONObject(), null, result);
+        result.await();
+        assertNull(result.body);
+        assertNotNull(result.error);
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void identicalGetsInFlightShareOneRequest() throws Exception {
+        server.enqueue(new MockResponse().setBody("shared").setHeadersDelay(300, TimeUnit.MILLISECONDS));
+        Result first = new Result();
+        Result second = new Result();
+        ApiController.getInstance().call("GET", url("/shared"), null, null, first);
+        ApiController.getInstance().call("GET", url("/shared"), null, null, second);
+        first.await();
+        second.await();
+        assertEquals("shared", first.body);
+        assertEquals("shared", second.body);
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void aCachedResponseIsRevalidatedWithItsETag() throws Exception {
+        server.enqueue(new MockResponse().setBody("cached").setHeader("ETag", "\"v1\"").setHeader("Cache-Control", "no-cache"));
+        server.enqueue(new MockResponse().setResponseCode(304));
+        ApiController apiController = ApiController.getInstance(RuntimeEnvironment.getApplication());
+        Result first = new Result();
+        apiController.call("GET", url("/etag"), null, null, first);
+        first.await();
+        assertNull(server.takeRequest().getHeader("If-None-Match"));
+
+        Result second = new Result();
+        apiController.call("GET", url("/etag"), null, null, second);
+        second.await();
+        // the server answered the revalidation without a body, the cached one is delivered
+        assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"));
+        assertEquals("cached", second.body);
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void anInvalidRequestIsReportedOnTheMainThreadLater() throws Exception {
+        Result result = new Result();
+        ApiController.getInstance().call("GET", "not a url", null, null, result);
+        assertFalse(result.done);
+        result.await();
+        assertTrue(result.error instanceof IllegalArgumentException);
+
+        Result withoutMethod = new Result();
+        ApiController.getInstance().call(null, url("/none"), null, null, withoutMethod);
+        assertFalse(withoutMethod.done);
+        withoutMethod.await();
+        assertTrue(withoutMethod.error instanceof IllegalArgumentException);
+        assertEquals(0, server.getRequestCount());
+    }
+
+    private String url(String path) {
+        return server.url(path).toString();
+    }
+
+    private static final class Result implements ApiController.APICallback {
+        private String body;
+        private Exception error;
+        private boolean done;
+
+        @Override
+        public void onSuccess(String response) {
+            body = response;
+            done = true;
+        }
+
+        @Override
+        public void onError(Exception e) {
+            error = e;
+            done = true;
+        }
+
+        private void await() throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 10000;
+            while (!done) {
+                if (System.currentTimeMillis() > deadline) throw new AssertionError("call did not complete");
+                shadowOf(Looper.getMainLooper()).idle();
+                Thread.sleep(5);
+            }
+        }
+    }
+}
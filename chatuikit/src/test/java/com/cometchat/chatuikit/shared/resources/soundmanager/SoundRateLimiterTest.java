@@ -0,0 +1,61 @@
+package com.cometchat.chatuikit.shared.resources.soundmanager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class SoundRateLimiterTest {
+    private static final int INCOMING = 1;
+    private static final int OUTGOING = 2;
+
+    private long now = 10_000;
+
+    @Test
+    public void aBurstOfAThousandMessagesPlaysOncePerWindow() {
+        SoundRateLimiter limiter = new SoundRateLimiter(() -> now, 1000);
+        int played = 0;
+        // 1,000 messages, 10ms apart, over 10 seconds
+        for (int i = 0; i < 1000; i++) {
+            if (limiter.tryAcquire(INCOMING)) played++;
+            now += 10;
+        }
+        assertEquals(10, played);
+    }
+
+    @Test
+    public void eachSoundHasItsOwnWindow() {
+        SoundRateLimiter limiter = new SoundRateLimiter(() -> now, 1000);
+        assertTrue(limiter.tryAcquire(INCOMING));
+        assertTrue(limiter.tryAcquire(OUTGOING));
+        assertFalse(limiter.tryAcquire(INCOMING));
+        assertFalse(limiter.tryAcquire(OUTGOING));
+    }
+
+    @Test
+    public void aSoundPlaysAgainOnceTheWindowHasPassed() {
+        SoundRateLimiter limiter = new SoundRateLimiter(() -> now, 1000);
+        assertTrue(limiter.tryAcquire(INCOMING));
+        now += 999;
+        assertFalse(limiter.tryAcquire(INCOMING));
+        now += 1;
+        assertTrue(limiter.tryAcquire(INCOMING));
+    }
+
+    @Test
+    public void aZeroWindowPlaysEverySound() {
+        SoundRateLimiter limiter = new SoundRateLimiter(() -> now, 1000);
+        limiter.setWindowMillis(-5);
+        assertEquals(0, limiter.getWindowMillis());
+        for (int i = 0; i < 1000; i++) assertTrue(limiter.tryAcquire(INCOMING));
+    }
+
+    @Test
+    public void resetForgetsThePreviousPlays() {
+        SoundRateLimiter limiter = new SoundRateLimiter(() -> now, 1000);
+        assertTrue(limiter.tryAcquire(INCOMING));
+        limiter.reset();
+        assertTrue(limiter.tryAcquire(INCOMING));
+    }
+}
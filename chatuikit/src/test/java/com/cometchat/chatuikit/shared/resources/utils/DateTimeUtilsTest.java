@@ -0,0 +1,91 @@
+package com.cometchat.chatuikit.shared.resources.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.TimeZone;
+
+public class DateTimeUtilsTest {
+    // 2024-03-10 06:30 UTC, half an hour before New York moves its clocks forward
+    private static final long BEFORE_SPRING_FORWARD = 1710052200000L;
+    // 2024-11-03 05:30 UTC, half an hour before New York moves its clocks back
+    private static final long BEFORE_FALL_BACK = 1730611800000L;
+    private static final long HOUR = 3_600_000L;
+
+    private final TimeZone defaultTimeZone = TimeZone.getDefault();
+
+    @Before
+    public void setUp() {
+        DateTimeUtils.invalidate();
+    }
+
+    @After
+    public void restoreTimeZone() {
+        TimeZone.setDefault(defaultTimeZone);
+        DateTimeUtils.invalidate();
+    }
+
+    @Test
+    public void aTimeZoneChangeIsPickedUpWithoutAnInvalidation() {
+        long time = 1718409600000L; // 2024-06-15 00:00 UTC
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+        assertEquals("00:00", DateTimeUtils.format(time, "HH:mm", Locale.US));
+        assertEquals("15062024", DateTimeUtils.getDateId(time));
+
+        TimeZone.setDefault(TimeZone.getTimeZone("America/Los_Angeles"));
+        assertEquals("17:00", DateTimeUtils.format(time, "HH:mm", Locale.US));
+        assertEquals("14062024", DateTimeUtils.getDateId(time));
+        assertEquals(DateTimeUtils.getEpochDay(time - 24 * HOUR) + 1, DateTimeUtils.getEpochDay(time));
+    }
+
+    @Test
+    public void theMemoizedMinuteFollowsTheNewTimeZone() {
+        long time = 1718409600000L;
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Kolkata"));
+        String kolkata = DateTimeUtils.format(time, "h:mm a", Locale.US);
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Tokyo"));
+        String tokyo = DateTimeUtils.format(time, "h:mm a", Locale.US);
+        assertEquals("5:30 AM", kolkata);
+        assertEquals("9:00 AM", tokyo);
+        assertNotEquals(kolkata, tokyo);
+    }
+
+    @Test
+    public void theSpringForwardGapIsSkipped() {
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+        assertEquals("01:30 EST", DateTimeUtils.format(BEFORE_SPRING_FORWARD, "HH:mm z", Locale.US));
+        assertEquals("03:30 EDT", DateTimeUtils.format(BEFORE_SPRING_FORWARD + HOUR, "HH:mm z", Locale.US));
+        assertEquals(DateTimeUtils.getEpochDay(BEFORE_SPRING_FORWARD), DateTimeUtils.getEpochDay(BEFORE_SPRING_FORWARD + HOUR));
+        // the 23 hour day ends at the next local midnight
+        long nextMidnight = BEFORE_SPRING_FORWARD + (22 * 60 + 30) * 60_000L - HOUR;
+        assertEquals("00:00", DateTimeUtils.format(nextMidnight, "HH:mm", Locale.US));
+        assertEquals(DateTimeUtils.getEpochDay(BEFORE_SPRING_FORWARD) + 1, DateTimeUtils.getEpochDay(nextMidnight));
+        assertEquals(DateTimeUtils.getEpochDay(BEFORE_SPRING_FORWARD), DateTimeUtils.getEpochDay(nextMidnight - 1));
+    }
+
+    @Test
+    public void theRepeatedFallBackHourStaysOnTheSameDay() {
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+        assertEquals("01:30 EDT", DateTimeUtils.format(BEFORE_FALL_BACK, "HH:mm z", Locale.US));
+        assertEquals("01:30 EST", DateTimeUtils.format(BEFORE_FALL_BACK + HOUR, "HH:mm z", Locale.US));
+        assertEquals("03112024", DateTimeUtils.getDateId(BEFORE_FALL_BACK));
+        assertEquals("03112024", DateTimeUtils.getDateId(BEFORE_FALL_BACK + HOUR));
+        // the 25 hour day ends at the next local midnight
+        long nextMidnight = BEFORE_FALL_BACK + (22 * 60 + 30) * 60_000L + HOUR;
+        assertEquals("04112024", DateTimeUtils.getDateId(nextMidnight));
+        assertEquals("03112024", DateTimeUtils.getDateId(nextMidnight - 1));
+    }
+
+    @Test
+    public void daysAgoCountsCalendarDaysAcrossATransition() {
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+        long today = DateTimeUtils.getEpochDay(System.currentTimeMillis());
+        assertEquals(today - DateTimeUtils.getEpochDay(BEFORE_FALL_BACK), DateTimeUtils.getDaysAgo(BEFORE_FALL_BACK));
+        assertEquals(0, DateTimeUtils.getDaysAgo(System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,255 @@
+package com.cometchat.chatuikit.shared.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.cometchat.chat.exceptions.CometChatException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class SearchPipelineTest {
+    private static final long DEBOUNCE = 300;
+
+    private final List<Fetch> fetches = new ArrayList<>();
+    private final List<Result> results = new ArrayList<>();
+    private final List<List<String>> localResults = new ArrayList<>();
+    private final List<String> errors = new ArrayList<>();
+    private final FakeScheduler scheduler = new FakeScheduler();
+    private SearchPipeline<String, Request> pipeline;
+
+    @Before
+    public void setUp() {
+        pipeline = new SearchPipeline<>((query, callback) -> fetches.add(new Fetch(query, callback)),
+                                        (item, lowerCaseQuery) -> SearchPipeline.contains(item, lowerCaseQuery),
+                                        new SearchPipeline.Listener<String, Request>() {
+                                            @Override
+                                            public void onLocalResults(@NonNull String query, @NonNull List<String> items) {
+                                                localResults.add(new ArrayList<>(items));
+                                            }
+
+                                            @Override
+                                            public void onResults(@NonNull String query, @NonNull List<String> items, @Nullable Request request, boolean cached) {
+                                                results.add(new Result(query, items, request, cached));
+                                            }
+
+                                            @Override
+                                            public void onError(@NonNull String query, @NonNull CometChatException e) {
+                                                errors.add(query);
+                                            }
+                                        },
+                                        scheduler);
+        pipeline.setDebounceMillis(DEBOUNCE);
+    }
+
+    @Test
+    public void keystrokesWithinTheDebounceSendOneQuery() {
+        type("a", "al", "ali");
+        assertTrue(fetches.isEmpty());
+        scheduler.advance(DEBOUNCE);
+        assertEquals(1, fetches.size());
+        assertEquals("ali", fetches.get(0).query);
+        assertTrue(pipeline.isAwaitingResults());
+        fetches.get(0).succeed("alice");
+        assertFalse(pipeline.isAwaitingResults());
+        assertEquals(Collections.singletonList("alice"), last().items);
+        assertFalse(last().cached);
+    }
+
+    @Test
+    public void aResponseToAnOlderQueryIsDropped() {
+        search("al");
+        scheduler.advance(DEBOUNCE);
+        search("bo");
+        scheduler.advance(DEBOUNCE);
+        fetches.get(1).succeed("bob");
+        fetches.get(0).succeed("alice");
+        assertEquals(1, results.size());
+        assertEquals("bo", last().query);
+        fetches.get(0).callback.onError(new CometChatException("stale", "stale"));
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    public void aCachedPageComesBackWithTheRequestThatFetchedIt() {
+        search("al");
+        scheduler.advance(DEBOUNCE);
+        Request request = fetches.get(0).succeed("alice", "alan");
+        search("ali");
+        scheduler.advance(DEBOUNCE);
+        fetches.get(1).succeed("alice");
+
+        search("al");
+        assertEquals(2, fetches.size());
+        assertTrue(last().cached);
+        assertSame(request, last().request);
+        assertEquals(Arrays.asList("alice", "alan"), last().items);
+    }
+
+    @Test
+    public void nextPagesOfACachedQueryAreKeptWithIt() {
+        search("al");
+        scheduler.advance(DEBOUNCE);
+        Request request = fetches.get(0).succeed("alice", "alan");
+        // the list pages on with the request of the results
+        pipeline.addPage(request, Arrays.asList("albert", "alfred"));
+        search("bo");
+        scheduler.advance(DEBOUNCE);
+        fetches.get(1).succeed("bob");
+
+        search("al");
+        assertSame(request, last().request);
+        assertEquals(Arrays.asList("alice", "alan", "albert", "alfred"), last().items);
+        // pages of other requests are not mixed in
+        pipeline.addPage(new Request(), Collections.singletonList("zed"));
+        search("al");
+        assertEquals(4, last().items.size());
+    }
+
+    @Test
+    public void aCachedPageExpires() {
+        search("al");
+        scheduler.advance(DEBOUNCE);
+        fetches.get(0).succeed("alice");
+        scheduler.advance(61_000);
+        search("al");
+        scheduler.advance(DEBOUNCE);
+        assertEquals(2, fetches.size());
+    }
+
+    @Test
+    public void theLoadedItemsAreFilteredWhileWaiting() {
+        pipeline.search("al", Arrays.asList("alice", "bob", "Alan"));
+        assertEquals(Arrays.asList("alice", "Alan"), localResults.get(0));
+        scheduler.advance(DEBOUNCE);
+        fetches.get(0).succeed("alice", "alan", "albert");
+        // a longer query filters the cached page of its prefix
+        search("alb");
+        assertEquals(Collections.singletonList("albert"), localResults.get(1));
+    }
+
+    @Test
+    public void theLocalIndexAnswersFirstAndTheQueryIsStillSent() {
+        pipeline.setLocalIndex(query -> Arrays.asList("alice", "alan"));
+        pipeline.search("al", Arrays.asList("bob", "Albert"));
+        // the index replaces the filtered loaded items, however many it has
+        assertEquals(Arrays.asList("alice", "alan"), localResults.get(0));
+        assertTrue(results.isEmpty());
+        assertTrue(pipeline.isAwaitingResults());
+        scheduler.advance(DEBOUNCE);
+        assertEquals(1, fetches.size());
+        fetches.get(0).succeed("alice", "alan", "albert");
+        assertEquals(Arrays.asList("alice", "alan", "albert"), last().items);
+        assertFalse(last().cached);
+    }
+
+    @Test
+    public void cancelDropsThePendingQueryAndItsResponse() {
+        search("al");
+        pipeline.cancel();
+        scheduler.advance(DEBOUNCE);
+        assertTrue(fetches.isEmpty());
+        search("bo");
+        scheduler.advance(DEBOUNCE);
+        pipeline.cancel();
+        fetches.get(0).succeed("bob");
+        assertTrue(results.isEmpty());
+        assertFalse(pipeline.isAwaitingResults());
+    }
+
+    @Test
+    public void clearCacheForgetsThePages() {
+        search("al");
+        scheduler.advance(DEBOUNCE);
+        fetches.get(0).succeed("alice");
+        pipeline.clearCache();
+        search("al");
+        scheduler.advance(DEBOUNCE);
+        assertEquals(2, fetches.size());
+    }
+
+    private void type(String... queries) {
+        for (String query : queries) {
+            search(query);
+            scheduler.advance(DEBOUNCE / 3);
+        }
+    }
+
+    private void search(String query) {
+        pipeline.search(query, Collections.emptyList());
+    }
+
+    private Result last() {
+        return results.get(results.size() - 1);
+    }
+
+    private static final class Request {
+    }
+
+    private static final class Fetch {
+        private final String query;
+        private final SearchPipeline.Callback<String, Request> callback;
+
+        private Fetch(String query, SearchPipeline.Callback<String, Request> callback) {
+            this.query = query;
+            this.callback = callback;
+        }
+
+        private Request succeed(String... items) {
+            Request request = new Request();
+            callback.onSuccess(new ArrayList<>(Arrays.asList(items)), request);
+            return request;
+        }
+    }
+
+    private static final class Result {
+        private final String query;
+        private final List<String> items;
+        private final Request request;
+        private final boolean cached;
+
+        private Result(String query, List<String> items, Request request, boolean cached) {
+            this.query = query;
+            this.items = new ArrayList<>(items);
+            this.request = request;
+            this.cached = cached;
+        }
+    }
+
+    private static final class FakeScheduler implements SearchPipeline.Scheduler {
+        private final List<Object[]> queue = new ArrayList<>();
+        private long now = 50_000;
+
+        @Override
+        public long now() {
+            return now;
+        }
+
+        @Override
+        public void postDelayed(@NonNull Runnable runnable, long delayMillis) {
+            queue.add(new Object[]{runnable, now + delayMillis});
+        }
+
+        @Override
+        public void cancel(@NonNull Runnable runnable) {
+            queue.removeIf(entry -> entry[0] == runnable);
+        }
+
+        private void advance(long millis) {
+            now += millis;
+            for (Object[] entry : new ArrayList<>(queue)) {
+                if ((long) entry[1] <= now && queue.remove(entry)) ((Runnable) entry[0]).run();
+            }
+        }
+    }
+}
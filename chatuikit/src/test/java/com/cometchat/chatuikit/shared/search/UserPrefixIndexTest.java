@@ -0,0 +1,171 @@
+package com.cometchat.chatuikit.shared.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.cometchat.chat.models.User;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class UserPrefixIndexTest {
+    private static final int MEMBERS = 50_000;
+    private static final int PAGE_SIZE = 100;
+    private static final int LIMIT = 10;
+    private static final String[] FIRST_NAMES = {"Alice", "Álvaro", "Bob", "Chloé", "Dmitri", "Eve", "Frank", "Grace", "Hiro", "Zoë"};
+    private static final String[] LAST_NAMES = {"Martin", "García", "Nakamura", "O'Brien", "Smith", "Müller", "Kowalski", "Dupont"};
+
+    @After
+    public void tearDown() {
+        UserPrefixIndex.clearAll();
+    }
+
+    @Test
+    public void usersAreFoundByTheirNameTheWordsOfItAndTheirUid() {
+        UserPrefixIndex index = UserPrefixIndex.ofUsers();
+        index.add(new User("u-alice", "Alice Martin"));
+        index.add(new User("u-bob", "Bob Smith"));
+        assertEquals(uids("u-alice"), uidsOf(index.search("ali", LIMIT)));
+        assertEquals(uids("u-alice"), uidsOf(index.search("mar", LIMIT)));
+        assertEquals(uids("u-alice"), uidsOf(index.search("alice m", LIMIT)));
+        assertEquals(uids("u-bob"), uidsOf(index.search("u-b", LIMIT)));
+        // only prefixes match, not the middle of a word
+        assertTrue(index.search("lic", LIMIT).isEmpty());
+    }
+
+    @Test
+    public void casesAndAccentsAreIgnored() {
+        UserPrefixIndex index = UserPrefixIndex.ofUsers();
+        index.add(new User("u-zoe", "Zoë Müller"));
+        assertEquals(uids("u-zoe"), uidsOf(index.search("ZOE", LIMIT)));
+        assertEquals(uids("u-zoe"), uidsOf(index.search("mul", LIMIT)));
+        assertEquals(uids("u-zoe"), uidsOf(index.search("Mü", LIMIT)));
+    }
+
+    @Test
+    public void aUserMatchingSeveralTokensIsReturnedOnceAndTheLimitHolds() {
+        UserPrefixIndex index = UserPrefixIndex.ofUsers();
+        index.add(new User("al", "Al Albert"));
+        for (int i = 0; i < 20; i++) index.add(new User("u" + i, "Alan " + i));
+        List<User> users = index.search("al", 5);
+        assertEquals(5, users.size());
+        assertEquals(5, new HashSet<>(uidsOf(users)).size());
+        assertEquals(21, index.search("al", 100).size());
+    }
+
+    @Test
+    public void aRenamedUserIsFoundByItsNewNameOnly() {
+        UserPrefixIndex index = UserPrefixIndex.ofUsers();
+        index.add(new User("u-alice", "Alice Martin"));
+        index.search("ali", LIMIT);
+        index.add(new User("u-alice", "Alice Dupont"));
+        assertTrue(index.search("mar", LIMIT).isEmpty());
+        assertEquals(uids("u-alice"), uidsOf(index.search("dup", LIMIT)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void removedUsersAreNotFound() {
+        UserPrefixIndex index = UserPrefixIndex.ofUsers();
+        for (int i = 0; i < 100; i++) index.add(new User("u" + i, "Member " + i));
+        index.search("member", LIMIT);
+        // enough removals to compact the tokens
+        for (int i = 0; i < 90; i++) index.remove("u" + i);
+        assertEquals(10, index.size());
+        List<User> users = index.search("member", 100);
+        assertEquals(10, users.size());
+        for (User user : users) assertTrue(user.getUid(), Integer.parseInt(user.getUid().substring(1)) >= 90);
+    }
+
+    @Test
+    public void membersJoiningAndLeavingUpdateAnIndexedGroupOnly() {
+        UserPrefixIndex.addGroupMember("design", new User("u-eve", "Eve"));
+        // the group was not indexed, so its members are fetched first
+        assertEquals(0, UserPrefixIndex.ofGroup("design").size());
+
+        UserPrefixIndex.ofGroup("design").add(new User("u-bob", "Bob"));
+        UserPrefixIndex.addGroupMember("DESIGN", new User("u-eve", "Eve"));
+        assertEquals(uids("u-eve"), uidsOf(UserPrefixIndex.ofGroup("design").search("ev", LIMIT)));
+        UserPrefixIndex.removeGroupMember("design", new User("u-bob", "Bob"));
+        assertTrue(UserPrefixIndex.ofGroup("design").search("bo", LIMIT).isEmpty());
+
+        // the members of a group are not suggested in other conversations
+        assertTrue(UserPrefixIndex.ofGroup("sales").search("ev", LIMIT).isEmpty());
+        assertTrue(UserPrefixIndex.ofUsers().search("ev", LIMIT).isEmpty());
+    }
+
+    /**
+     * Indexes the members of a 50k member group page by page, searching as
+     * the pages come in as the suggestions do, then times searches against a
+     * scan of the members, and prints the times. It asserts nothing about the
+     * times, which depend on the machine.
+     */
+    @Test
+    public void fiftyThousandMembersBenchmark() {
+        List<User> members = new ArrayList<>(MEMBERS);
+        for (int i = 0; i < MEMBERS; i++) {
+            String name = FIRST_NAMES[i % FIRST_NAMES.length] + " " + LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length] + " " + i;
+            members.add(new User("member" + i, name));
+        }
+        UserPrefixIndex index = UserPrefixIndex.ofGroup("large");
+        long start = System.nanoTime();
+        for (int page = 0; page < MEMBERS; page += PAGE_SIZE) {
+            index.addAll(members.subList(page, page + PAGE_SIZE));
+            index.search("al", LIMIT);
+        }
+        long indexNanos = System.nanoTime() - start;
+        assertEquals(MEMBERS, index.size());
+
+        String[] queries = {"a", "al", "alv", "zoe", "garc", "brien", "muller", "member4999", "bob smith 1", "x"};
+        int searches = 1000;
+        start = System.nanoTime();
+        for (int i = 0; i < searches; i++) index.search(queries[i % queries.length], LIMIT);
+        long searchNanos = (System.nanoTime() - start) / searches;
+
+        start = System.nanoTime();
+        for (String query : queries) {
+            List<User> users = index.search(query, LIMIT);
+            assertEquals(query, Math.min(LIMIT, scan(members, query).size()), users.size());
+        }
+        long scanNanos = (System.nanoTime() - start) / queries.length;
+        System.out.println("UserPrefixIndex: " + MEMBERS + " members indexed in " + TimeUnit.NANOSECONDS.toMillis(indexNanos) + " ms, "
+                               + TimeUnit.NANOSECONDS.toMicros(searchNanos) + " us per search, "
+                               + TimeUnit.NANOSECONDS.toMicros(scanNanos) + " us per scan of the members");
+    }
+
+    // the members with a token starting with the query, as the index matches them
+    private static List<User> scan(List<User> members, String query) {
+        String prefix = UserPrefixIndex.normalize(query);
+        List<User> matches = new ArrayList<>();
+        for (User member : members) {
+            String name = UserPrefixIndex.normalize(member.getName());
+            if (name.startsWith(prefix) || member.getUid().startsWith(prefix)) {
+                matches.add(member);
+                continue;
+            }
+            for (String word : name.split("[^\\p{L}\\p{N}]+")) {
+                if (word.startsWith(prefix)) {
+                    matches.add(member);
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static List<String> uids(String... uids) {
+        return Arrays.asList(uids);
+    }
+
+    private static List<String> uidsOf(List<User> users) {
+        List<String> uids = new ArrayList<>();
+        for (User user : users) uids.add(user.getUid());
+        return uids;
+    }
+}
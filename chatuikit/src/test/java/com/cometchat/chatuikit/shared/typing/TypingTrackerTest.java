@@ -0,0 +1,231 @@
+package com.cometchat.chatuikit.shared.typing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.NonNull;
+
+import com.cometchat.chat.models.TypingIndicator;
+import com.cometchat.chat.models.User;
+import com.cometchat.chatuikit.shared.constants.UIKitUtilityConstants;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class TypingTrackerTest {
+    private static final long FRAME_MILLIS = 16;
+    // the wheel ticks every 100ms, so an expiry may be seen up to two ticks late
+    private static final long EXPIRY_SLACK = 200;
+    private static final String GROUP = "group";
+
+    private final FakeScheduler scheduler = new FakeScheduler();
+    private final List<List<TypingIndicator>[]> dispatches = new ArrayList<>();
+    private long now = 1_000_000;
+    private TypingTracker tracker;
+
+    @Before
+    public void setUp() {
+        tracker = new TypingTracker(() -> now, scheduler);
+        tracker.addListener("test", new TypingTracker.Listener() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public void onTypingChanged(@NonNull List<TypingIndicator> started, @NonNull List<TypingIndicator> ended) {
+                dispatches.add(new List[]{new ArrayList<>(started), new ArrayList<>(ended)});
+            }
+        });
+    }
+
+    @Test
+    public void aGroupOfTwoHundredTypistsIsTrackedPerMember() {
+        int members = 200;
+        Random random = new Random(19);
+        long start = now;
+        long[] startAt = new long[members];
+        long[] endAt = new long[members];
+        long[] nextRefresh = new long[members];
+        long[] visibleUntil = new long[members];
+        boolean[] ended = new boolean[members];
+        for (int i = 0; i < members; i++) {
+            startAt[i] = start + random.nextInt(2000);
+            endAt[i] = startAt[i] + 1000 + random.nextInt(7000);
+            nextRefresh[i] = startAt[i];
+            visibleUntil[i] = Long.MIN_VALUE;
+        }
+        Set<String> dispatched = new HashSet<>();
+        int frames = 0;
+        long simulationEnd = start + 12_000;
+        while (now < simulationEnd) {
+            for (int i = 0; i < members; i++) {
+                if (ended[i] || now < nextRefresh[i]) continue;
+                if (now >= endAt[i]) {
+                    tracker.onTypingEnded(indicator("member" + i));
+                    visibleUntil[i] = now + UIKitUtilityConstants.TYPING_INDICATOR_DEBOUNCER;
+                    ended[i] = true;
+                } else {
+                    // clients repeat the started event while their user keeps typing
+                    tracker.onTypingStarted(indicator("member" + i));
+                    visibleUntil[i] = Long.MAX_VALUE;
+                    nextRefresh[i] = now + 3000;
+                }
+            }
+            int before = dispatches.size();
+            advanceFrame();
+            frames++;
+            assertTrue("one dispatch per frame at most", dispatches.size() - before <= 1);
+            if (dispatches.size() > before) apply(dispatches.get(before), dispatched);
+
+            Set<String> typing = typers();
+            assertEquals(typing, dispatched);
+            for (int i = 0; i < members; i++) {
+                String uid = "member" + i;
+                if (visibleUntil[i] == Long.MAX_VALUE || now < visibleUntil[i]) {
+                    assertTrue(uid + " should be typing", typing.contains(uid));
+                } else if (now >= visibleUntil[i] + EXPIRY_SLACK) {
+                    assertFalse(uid + " should have stopped", typing.contains(uid));
+                }
+            }
+        }
+        assertTrue(typers().isEmpty());
+        // the changes of 200 typers were coalesced into far fewer dispatches than events
+        assertTrue(dispatches.size() + " dispatches in " + frames + " frames", dispatches.size() <= frames);
+        assertTrue("at most one tick is pending", scheduler.maxPendingTicks <= 1);
+        assertNull("the tick stops once no one is typing", scheduler.tick);
+    }
+
+    @Test
+    public void aTyperWithoutAnEndedEventIsDroppedAfterTheTimeout() {
+        tracker.onTypingStarted(indicator("alice"));
+        runFor(UIKitUtilityConstants.TYPING_INDICATOR_TIMEOUT - 100);
+        assertTrue(typers().contains("alice"));
+        runFor(100 + EXPIRY_SLACK);
+        assertTrue(typers().isEmpty());
+        assertNull(scheduler.tick);
+    }
+
+    @Test
+    public void anEndedTyperStaysVisibleForTheDebouncePeriod() {
+        tracker.onTypingStarted(indicator("alice"));
+        runFor(500);
+        tracker.onTypingEnded(indicator("alice"));
+        runFor(UIKitUtilityConstants.TYPING_INDICATOR_DEBOUNCER - 100);
+        assertTrue(typers().contains("alice"));
+        runFor(100 + EXPIRY_SLACK);
+        assertFalse(typers().contains("alice"));
+        assertEquals(2, dispatches.size());
+        assertEquals("alice", dispatches.get(1)[1].get(0).getSender().getUid());
+    }
+
+    @Test
+    public void typingAgainWithinTheDebounceIsNotReportedAsAChange() {
+        tracker.onTypingStarted(indicator("alice"));
+        runFor(100);
+        tracker.onTypingEnded(indicator("alice"));
+        runFor(500);
+        tracker.onTypingStarted(indicator("alice"));
+        runFor(2000);
+        assertEquals(1, dispatches.size());
+        assertTrue(typers().contains("alice"));
+    }
+
+    @Test
+    public void changesWithinAFrameAreDispatchedOnce() {
+        for (int i = 0; i < 50; i++) tracker.onTypingStarted(indicator("member" + i));
+        assertTrue(dispatches.isEmpty());
+        advanceFrame();
+        assertEquals(1, dispatches.size());
+        assertEquals(50, dispatches.get(0)[0].size());
+    }
+
+    @Test
+    public void theLatestTyperIsTheLastToStart() {
+        TypingIndicator alice = indicator("alice");
+        TypingIndicator bob = indicator("bob");
+        tracker.onTypingStarted(alice);
+        tracker.onTypingStarted(bob);
+        assertSame(bob, tracker.getLatestTypingIndicator(GROUP));
+        TypingIndicator aliceAgain = indicator("alice");
+        tracker.onTypingStarted(aliceAgain);
+        assertSame(aliceAgain, tracker.getLatestTypingIndicator(GROUP));
+        assertEquals(2, tracker.getTypingIndicators(GROUP).size());
+        assertSame(bob, tracker.getTypingIndicator(GROUP, "bob"));
+        assertNull(tracker.getTypingIndicator("other", "bob"));
+    }
+
+    private void apply(List<TypingIndicator>[] dispatch, Set<String> dispatched) {
+        for (TypingIndicator started : dispatch[0]) assertTrue(dispatched.add(started.getSender().getUid()));
+        for (TypingIndicator ended : dispatch[1]) assertTrue(dispatched.remove(ended.getSender().getUid()));
+    }
+
+    private Set<String> typers() {
+        Set<String> typers = new HashSet<>();
+        for (TypingIndicator typingIndicator : tracker.getTypingIndicators(GROUP)) typers.add(typingIndicator.getSender().getUid());
+        return typers;
+    }
+
+    private void runFor(long millis) {
+        long end = now + millis;
+        while (now < end) advanceFrame();
+    }
+
+    /**
+     * Moves the clock by one frame, running the tick if it is due and then the
+     * frame callback, as the main thread would.
+     */
+    private void advanceFrame() {
+        now += FRAME_MILLIS;
+        if (scheduler.tick != null && now >= scheduler.tickAt) {
+            Runnable tick = scheduler.tick;
+            scheduler.tick = null;
+            tick.run();
+        }
+        if (scheduler.frame != null) {
+            Runnable frame = scheduler.frame;
+            scheduler.frame = null;
+            frame.run();
+        }
+    }
+
+    private static TypingIndicator indicator(String uid) {
+        TypingIndicator typingIndicator = new TypingIndicator(GROUP, "group");
+        typingIndicator.setSender(new User(uid, uid));
+        return typingIndicator;
+    }
+
+    private final class FakeScheduler implements TypingTracker.Scheduler {
+        private Runnable tick;
+        private long tickAt;
+        private Runnable frame;
+        private int maxPendingTicks;
+
+        @Override
+        public void scheduleTick(@NonNull Runnable runnable, long delayMillis) {
+            maxPendingTicks = Math.max(maxPendingTicks, tick == null ? 1 : 2);
+            tick = runnable;
+            tickAt = now + delayMillis;
+        }
+
+        @Override
+        public void cancelTick(@NonNull Runnable runnable) {
+            if (tick == runnable) tick = null;
+        }
+
+        @Override
+        public void scheduleFrame(@NonNull Runnable runnable) {
+            frame = runnable;
+        }
+
+        @Override
+        public void cancelFrame(@NonNull Runnable runnable) {
+            if (frame == runnable) frame = null;
+        }
+    }
+}
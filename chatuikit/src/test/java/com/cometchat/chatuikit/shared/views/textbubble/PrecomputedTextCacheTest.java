@@ -0,0 +1,243 @@
+package com.cometchat.chatuikit.shared.views.textbubble;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+import android.os.Looper;
+import android.text.SpannableString;
+import android.view.ContextThemeWrapper;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+
+import com.cometchat.chat.models.BaseMessage;
+import com.cometchat.chat.models.TextMessage;
+import com.cometchat.chatuikit.R;
+import com.cometchat.chatuikit.shared.constants.UIKitConstants;
+import com.cometchat.chatuikit.shared.executors.CometChatExecutors;
+import com.cometchat.chatuikit.shared.formatters.CometChatTextFormatter;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(RobolectricTestRunner.class)
+public class PrecomputedTextCacheTest {
+    private static final int MESSAGES = 100;
+    private static final UIKitConstants.MessageBubbleAlignment ALIGNMENT = UIKitConstants.MessageBubbleAlignment.LEFT;
+
+    private int nextId = 1;
+
+    @After
+    public void tearDown() {
+        PrecomputedTextCache.clear();
+    }
+
+    @Test
+    public void aPrefetchFormatsNothingBeforeTheInsertIsDrawn() {
+        Context context = themedContext();
+        PrecomputedTextCompat.Params params = paramsOf(context);
+        List<BaseMessage> page = page(MESSAGES);
+        // the bubbles of the alignment were bound once, which records their text metrics
+        assertNull(PrecomputedTextCache.get(context, (TextMessage) page.get(0), ALIGNMENT, null, params));
+
+        AtomicInteger formatted = new AtomicInteger();
+        PrecomputedTextCache.prefetch(context, page, null, message -> {
+            formatted.incrementAndGet();
+            return ALIGNMENT;
+        });
+        assertEquals(0, formatted.get());
+
+        // each main thread task formats a small chunk only
+        shadowOf(Looper.getMainLooper()).runOneTask();
+        assertTrue(formatted.get() + " formatted in one task", formatted.get() > 0 && formatted.get() < MESSAGES);
+        shadowOf(Looper.getMainLooper()).idle();
+        assertEquals(MESSAGES, formatted.get());
+
+        awaitMeasurements();
+        for (BaseMessage message : page) assertNotNull(PrecomputedTextCache.get(context, (TextMessage) message, ALIGNMENT, null, params));
+    }
+
+    @Test
+    public void aClearStopsAPrefetchInProgress() {
+        Context context = themedContext();
+        PrecomputedTextCompat.Params params = paramsOf(context);
+        List<BaseMessage> page = page(MESSAGES);
+        PrecomputedTextCache.get(context, (TextMessage) page.get(0), ALIGNMENT, null, params);
+
+        AtomicInteger formatted = new AtomicInteger();
+        PrecomputedTextCache.prefetch(context, page, null, message -> {
+            formatted.incrementAndGet();
+            return ALIGNMENT;
+        });
+        shadowOf(Looper.getMainLooper()).runOneTask();
+        int beforeClear = formatted.get();
+        PrecomputedTextCache.clear();
+        shadowOf(Looper.getMainLooper()).idle();
+        assertEquals(beforeClear, formatted.get());
+    }
+
+    @Test
+    public void aMeasurementOfTheGenerationBeforeAClearIsDropped() {
+        Context context = themedContext();
+        PrecomputedTextCompat.Params params = paramsOf(context);
+        List<BaseMessage> page = page(2);
+        TextMessage first = (TextMessage) page.get(0);
+        TextMessage second = (TextMessage) page.get(1);
+        PrecomputedTextCache.put(context, first, ALIGNMENT, null, new SpannableString(first.getText()), params);
+        PrecomputedTextCache.clear();
+        awaitMeasurements();
+        assertNull(PrecomputedTextCache.get(context, first, ALIGNMENT, null, params));
+
+        PrecomputedTextCache.put(context, second, ALIGNMENT, null, new SpannableString(second.getText()), params);
+        PrecomputedTextCache.clear();
+        // the key is free again at once, without waiting for the old measurement
+        PrecomputedTextCache.put(context, second, ALIGNMENT, null, new SpannableString(second.getText()), params);
+        awaitMeasurements();
+        assertNotNull(PrecomputedTextCache.get(context, second, ALIGNMENT, null, params));
+    }
+
+    @Test
+    public void aFormatterInvalidatingItsTextsMakesTheMeasuredOnesStale() {
+        Context context = themedContext();
+        PrecomputedTextCompat.Params params = paramsOf(context);
+        StyledFormatter formatter = new StyledFormatter();
+        List<CometChatTextFormatter> formatters = Collections.singletonList(formatter);
+        TextMessage message = (TextMessage) page(1).get(0);
+        PrecomputedTextCache.put(context, message, ALIGNMENT, formatters, new SpannableString(message.getText()), params);
+        awaitMeasurements();
+        assertNotNull(PrecomputedTextCache.get(context, message, ALIGNMENT, formatters, params));
+
+        // for example a new mention text style
+        formatter.changeStyle();
+        assertNull(PrecomputedTextCache.get(context, message, ALIGNMENT, formatters, params));
+        // the text formatted in the new version is measured again
+        PrecomputedTextCache.put(context, message, ALIGNMENT, formatters, new SpannableString(message.getText()), params);
+        awaitMeasurements();
+        assertNotNull(PrecomputedTextCache.get(context, message, ALIGNMENT, formatters, params));
+    }
+
+    @Test
+    public void aTextMeasuredForAnotherThemeIsNotReused() {
+        Context context = themedContext();
+        PrecomputedTextCompat.Params params = paramsOf(context);
+        TextMessage message = (TextMessage) page(1).get(0);
+        PrecomputedTextCache.put(context, message, ALIGNMENT, null, new SpannableString(message.getText()), params);
+        awaitMeasurements();
+        assertNotNull(PrecomputedTextCache.get(context, message, ALIGNMENT, null, params));
+        assertNull(PrecomputedTextCache.get(themedContext(), message, ALIGNMENT, null, params));
+    }
+
+    /**
+     * Binds text bubbles without a measured text, and again once their texts
+     * were measured, and prints both times. It asserts nothing about the
+     * times, which depend on the machine.
+     */
+    @Test
+    public void bindBenchmark() {
+        Context context = themedContext();
+        List<CometChatTextBubble> bubbles = new ArrayList<>();
+        for (int i = 0; i < 20; i++) bubbles.add(new CometChatTextBubble(context));
+        List<BaseMessage> page = page(MESSAGES);
+        // warm up the class loading of both paths
+        bind(bubbles, page(20));
+        awaitMeasurements();
+
+        long uncachedNanos = bind(bubbles, page);
+        awaitMeasurements();
+        long cachedNanos = bind(bubbles, page);
+        PrecomputedTextCompat.Params params = TextViewCompat.getTextMetricsParams(bubbles.get(0).getTextView());
+        for (BaseMessage message : page) assertNotNull(PrecomputedTextCache.get(context, (TextMessage) message, ALIGNMENT, null, params));
+        System.out.println("PrecomputedTextCache: " + MESSAGES + " binds in " + uncachedNanos / 1_000_000 + " ms uncached, " + cachedNanos / 1_000_000 + " ms cached");
+    }
+
+    private static long bind(List<CometChatTextBubble> bubbles, List<BaseMessage> messages) {
+        long start = System.nanoTime();
+        for (int i = 0; i < messages.size(); i++) {
+            bubbles.get(i % bubbles.size()).setMessage((TextMessage) messages.get(i), null, ALIGNMENT);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private List<BaseMessage> page(int size) {
+        List<BaseMessage> page = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            int id = nextId++;
+            TextMessage message = new TextMessage("uid", "Message " + id + " is long enough for its text to be formatted and measured ahead of the bind of its bubble.", "user");
+            message.setId(id);
+            page.add(message);
+        }
+        return page;
+    }
+
+    private static PrecomputedTextCompat.Params paramsOf(Context context) {
+        return TextViewCompat.getTextMetricsParams(new TextView(context));
+    }
+
+    /**
+     * Waits until the compute pool ran every measurement posted so far: once
+     * every thread of the pool reached the barrier, none is still measuring.
+     */
+    private static void awaitMeasurements() {
+        CyclicBarrier barrier = new CyclicBarrier(CometChatExecutors.COMPUTE_POOL_SIZE + 1);
+        for (int i = 0; i < CometChatExecutors.COMPUTE_POOL_SIZE; i++) {
+            CometChatExecutors.compute().execute(() -> {
+                try {
+                    barrier.await(10, TimeUnit.SECONDS);
+                } catch (Exception ignored) {
+                }
+            });
+        }
+        try {
+            barrier.await(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new AssertionError("measurements did not finish", e);
+        }
+    }
+
+    private static Context themedContext() {
+        return new ContextThemeWrapper(RuntimeEnvironment.getApplication(), R.style.CometChatTheme_DayNight);
+    }
+
+    /**
+     * A cacheable formatter leaving the text as it is, whose style can change.
+     */
+    private static final class StyledFormatter extends CometChatTextFormatter {
+        private StyledFormatter() {
+            super('#');
+        }
+
+        @Override
+        public boolean isCacheable() {
+            return true;
+        }
+
+        @Override
+        public void search(@NonNull Context context, @Nullable String queryString) {
+        }
+
+        @Override
+        public void onScrollToBottom() {
+        }
+
+        private void changeStyle() {
+            invalidateFormattedText();
+        }
+    }
+}